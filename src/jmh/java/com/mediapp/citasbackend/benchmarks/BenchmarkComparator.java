@@ -0,0 +1,73 @@
+package com.mediapp.citasbackend.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compara un resultado JSON de JMH contra la línea base guardada en el repositorio y
+ * termina con código 1 si algún benchmark empeoró más que el umbral indicado.
+ *
+ * Uso: BenchmarkComparator &lt;baseline.json&gt; &lt;resultado.json&gt; [umbral, por defecto 0.15]
+ */
+public final class BenchmarkComparator {
+
+    private BenchmarkComparator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Uso: BenchmarkComparator <baseline.json> <resultado.json> [umbral]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 0.15;
+        Map<String, JsonNode> baseline = load(new File(args[0]));
+        Map<String, JsonNode> current = load(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-75s %12s %12s %9s%n", "Benchmark", "Base", "Actual", "Cambio");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode base = baseline.get(entry.getKey());
+            double score = entry.getValue().at("/primaryMetric/score").asDouble();
+            String unit = entry.getValue().at("/primaryMetric/scoreUnit").asText();
+            if (base == null) {
+                System.out.printf("%-75s %12s %12.3f %9s  (nuevo, %s)%n", entry.getKey(), "-", score, "-", unit);
+                continue;
+            }
+            double baseScore = base.at("/primaryMetric/score").asDouble();
+            // En modo throughput un valor menor es peor; en los modos de tiempo, uno mayor
+            boolean throughput = "thrpt".equals(entry.getValue().path("mode").asText());
+            double change = (score - baseScore) / baseScore;
+            double worsening = throughput ? -change : change;
+            boolean regression = worsening > threshold;
+            if (regression) {
+                regressions++;
+            }
+            System.out.printf("%-75s %12.3f %12.3f %+8.1f%%%s  (%s)%n",
+                    entry.getKey(), baseScore, score, change * 100, regression ? "  REGRESIÓN" : "", unit);
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%n%d benchmark(s) empeoraron más de %.0f%% respecto a la línea base%n",
+                    regressions, threshold * 100);
+            System.exit(1);
+        }
+        System.out.printf("%nSin regresiones mayores a %.0f%%%n", threshold * 100);
+    }
+
+    // Clave: nombre del benchmark y sus @Param, para comparar cada combinación por separado
+    private static Map<String, JsonNode> load(File file) throws Exception {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode node : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(node.path("benchmark").asText()
+                    .replace("com.mediapp.citasbackend.benchmarks.", ""));
+            node.path("params").properties().forEach(param ->
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            results.put(key.toString(), node);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,82 @@
+package com.mediapp.citasbackend.benchmarks;
+
+import com.mediapp.citasbackend.entities.Cita;
+import com.mediapp.citasbackend.entities.Especialidad;
+import com.mediapp.citasbackend.entities.Medico;
+import com.mediapp.citasbackend.entities.Paciente;
+import com.mediapp.citasbackend.entities.Usuario;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Datos de prueba compartidos por los benchmarks
+ */
+final class BenchmarkFixtures {
+
+    static final String JWT_SECRET = "dGVzdFNlY3JldEtleUZvckpXVFRlc3RpbmdNZWRpQXBwMTIzNDU2Nzg5MA==";
+
+    private BenchmarkFixtures() {
+    }
+
+    static Usuario usuario(int id, Usuario.TipoUsuario tipo) {
+        return Usuario.builder()
+                .idUsuario(id)
+                .nombre("Nombre" + id)
+                .apellido("Apellido" + id)
+                .email("usuario" + id + "@gmail.com")
+                .contraseña("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z5Rzv0Y8yKqXhVh1pTnZbH4e")
+                .fechaNacimiento(LocalDate.of(1990, 5, 15))
+                .genero(Usuario.Genero.FEMENINO)
+                .telefono("3001234567")
+                .direccion("Calle 123 #45-67")
+                .ciudad("Armenia")
+                .pais("Colombia")
+                .tipoUsuario(tipo)
+                .fechaRegistro(LocalDateTime.of(2025, 1, 10, 8, 30))
+                .estado(Usuario.Estado.ACTIVO)
+                .build();
+    }
+
+    static Medico medico(int id) {
+        Medico medico = new Medico();
+        medico.setIdMedico(id);
+        medico.setUsuario(usuario(1000 + id, Usuario.TipoUsuario.MEDICO));
+        medico.setNumeroLicencia("LIC-" + id);
+        Especialidad especialidad = new Especialidad();
+        especialidad.setIdEspecialidad(1);
+        especialidad.setNombreEspecialidad("Cardiología");
+        especialidad.setDescripcion("Enfermedades del corazón y del sistema circulatorio");
+        especialidad.setEstado(Especialidad.Estado.ACTIVA);
+        medico.setEspecialidad(especialidad);
+        medico.setHospitalAfiliado("Hospital San Juan de Dios");
+        medico.setExperienciaAnos(12);
+        medico.setResumenBio("Cardiólogo con experiencia en ecocardiografía");
+        medico.setCalificacionPromedio(new BigDecimal("4.75"));
+        medico.setEstadoVerificacion(Medico.EstadoVerificacion.VERIFICADO);
+        medico.setFechaVerificacion(LocalDate.of(2024, 6, 1));
+        return medico;
+    }
+
+    static Cita cita(int id, Medico medico) {
+        Paciente paciente = new Paciente();
+        paciente.setIdPaciente(id);
+        paciente.setUsuario(usuario(id, Usuario.TipoUsuario.PACIENTE));
+        paciente.setNumeroIdentificacion("10940" + id);
+        paciente.setTipoSangre("O+");
+
+        Cita cita = new Cita();
+        cita.setIdCita(id);
+        cita.setPaciente(paciente);
+        cita.setMedico(medico);
+        cita.setFechaCita(LocalDate.now().plusDays(7));
+        cita.setHoraCita(LocalTime.of(9, 0).plusMinutes(30L * (id % 16)));
+        cita.setTipoCita(Cita.TipoCita.PRESENCIAL);
+        cita.setMotivoConsulta("Control de presión arterial");
+        cita.setEstado(Cita.Estado.PROGRAMADA);
+        cita.setFechaCreacion(LocalDateTime.now());
+        return cita;
+    }
+}
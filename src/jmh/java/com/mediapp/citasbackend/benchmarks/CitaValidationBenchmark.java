@@ -0,0 +1,54 @@
+package com.mediapp.citasbackend.benchmarks;
+
+import com.mediapp.citasbackend.entities.Cita;
+import com.mediapp.citasbackend.exceptions.InvalidDataException;
+import com.mediapp.citasbackend.services.implementation.CitaServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validaciones de CitaServiceImpl que se ejecutan al crear y actualizar citas.
+ * No tocan el repositorio, por lo que el servicio se construye sin dependencias.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CitaValidationBenchmark {
+
+    private CitaServiceImpl citaService;
+    private Cita cita;
+
+    @Setup
+    public void setUp() {
+        citaService = new CitaServiceImpl(null, null, null, null, null, null);
+        cita = BenchmarkFixtures.cita(1, BenchmarkFixtures.medico(1));
+    }
+
+    // El resultado depende de la validación, así el JIT no puede descartarla
+    @Benchmark
+    public boolean validarCita() {
+        try {
+            citaService.validarCita(cita);
+            return true;
+        } catch (InvalidDataException e) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public boolean validarFechaCita() {
+        try {
+            citaService.validarFechaCita(cita.getFechaCita(), cita.getHoraCita());
+            return true;
+        } catch (InvalidDataException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.mediapp.citasbackend.benchmarks;
+
+import com.mediapp.citasbackend.utils.DateUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Helpers de rangos de DateUtils usados en la validación de agendas
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DateUtilsBenchmark {
+
+    private final LocalDateTime inicio1 = LocalDateTime.of(2025, 11, 3, 9, 0);
+    private final LocalDateTime fin1 = LocalDateTime.of(2025, 11, 3, 9, 30);
+    private final LocalDateTime inicio2 = LocalDateTime.of(2025, 11, 3, 9, 15);
+    private final LocalDateTime fin2 = LocalDateTime.of(2025, 11, 3, 9, 45);
+    private final LocalDate fecha = LocalDate.of(2025, 11, 3);
+    private final LocalDate desde = LocalDate.of(2025, 11, 1);
+    private final LocalDate hasta = LocalDate.of(2025, 11, 30);
+
+    @Benchmark
+    public boolean timeRangesOverlap() {
+        return DateUtils.timeRangesOverlap(inicio1, fin1, inicio2, fin2);
+    }
+
+    @Benchmark
+    public boolean isDateInRange() {
+        return DateUtils.isDateInRange(fecha, desde, hasta);
+    }
+
+    @Benchmark
+    public LocalDate addBusinessDays() {
+        return DateUtils.addBusinessDays(fecha, 10);
+    }
+
+    @Benchmark
+    public long daysBetween() {
+        return DateUtils.daysBetween(desde, hasta);
+    }
+}
@@ -0,0 +1,68 @@
+package com.mediapp.citasbackend.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mediapp.citasbackend.entities.Cita;
+import com.mediapp.citasbackend.entities.Medico;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización JSON de grafos Cita → Paciente/Medico → Usuario/Especialidad, como en
+ * las respuestas de los listados de citas. El ObjectMapper replica la configuración de
+ * Spring Boot (módulos de java.time, fechas como texto).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Medico medico;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        medico = BenchmarkFixtures.medico(1);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Citas {
+
+        @Param({"1", "50"})
+        private int size;
+
+        private List<Cita> citas;
+
+        @Setup
+        public void setUp() {
+            Medico medico = BenchmarkFixtures.medico(1);
+            citas = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                citas.add(BenchmarkFixtures.cita(i, medico));
+            }
+        }
+    }
+
+    @Benchmark
+    public byte[] citas(Citas state) throws Exception {
+        return objectMapper.writeValueAsBytes(state.citas);
+    }
+
+    @Benchmark
+    public byte[] medico() throws Exception {
+        return objectMapper.writeValueAsBytes(medico);
+    }
+}
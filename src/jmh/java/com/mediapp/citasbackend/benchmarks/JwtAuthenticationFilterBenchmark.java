@@ -0,0 +1,59 @@
+package com.mediapp.citasbackend.benchmarks;
+
+import com.mediapp.citasbackend.config.JwtConfigProperties;
+import com.mediapp.citasbackend.security.JwtAuthenticationFilter;
+import com.mediapp.citasbackend.security.JwtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recorrido completo de JwtAuthenticationFilter con un token válido: parseo de la cabecera,
+ * extracción del usuario, carga de UserDetails (en memoria) y validación de la firma
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtAuthenticationFilterBenchmark {
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        JwtConfigProperties properties = new JwtConfigProperties();
+        properties.setSecret(BenchmarkFixtures.JWT_SECRET);
+        properties.setExpiration(86_400_000L);
+        properties.setRefreshExpiration(604_800_000L);
+        JwtService jwtService = new JwtService(properties);
+
+        UserDetails userDetails = new User("usuario1@gmail.com", "hash",
+                List.of(new SimpleGrantedAuthority("ROLE_PACIENTE")));
+        filter = new JwtAuthenticationFilter(jwtService, username -> userDetails);
+        authorization = "Bearer " + jwtService.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public Object authenticate() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/citas/paciente/1");
+        request.addHeader("Authorization", authorization);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
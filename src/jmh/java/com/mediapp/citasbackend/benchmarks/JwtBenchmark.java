@@ -0,0 +1,57 @@
+package com.mediapp.citasbackend.benchmarks;
+
+import com.mediapp.citasbackend.config.JwtConfigProperties;
+import com.mediapp.citasbackend.security.JwtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generación y validación de tokens JWT (se ejecutan en cada login y en cada petición autenticada)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+
+    private JwtService jwtService;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtConfigProperties properties = new JwtConfigProperties();
+        properties.setSecret(BenchmarkFixtures.JWT_SECRET);
+        properties.setExpiration(86_400_000L);
+        properties.setRefreshExpiration(604_800_000L);
+        jwtService = new JwtService(properties);
+        userDetails = new User("usuario1@gmail.com", "hash",
+                List.of(new SimpleGrantedAuthority("ROLE_PACIENTE")));
+        token = jwtService.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(token, userDetails);
+    }
+}
@@ -0,0 +1,86 @@
+package com.mediapp.citasbackend.benchmarks;
+
+import com.mediapp.citasbackend.dtos.UsuarioDTO;
+import com.mediapp.citasbackend.entities.Usuario;
+import com.mediapp.citasbackend.mappers.UsuarioMapper;
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el mapeo de Usuario a UsuarioDTO con el ModelMapper por reflexión que se usaba
+ * antes (misma configuración STRICT) y con el mapper generado por MapStruct, en un
+ * listado del tamaño de una página de /api/usuarios.
+ *
+ * Ejecutar con: ./mvnw -Pbenchmarks test-compile exec:exec -Djmh.args="UsuarioMapping -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UsuarioMappingBenchmark {
+
+    @Param({"1", "100"})
+    private int size;
+
+    private List<Usuario> usuarios;
+    private ModelMapper modelMapper;
+    private UsuarioMapper usuarioMapper;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration()
+                .setMatchingStrategy(MatchingStrategies.STRICT)
+                .setSkipNullEnabled(true)
+                .setAmbiguityIgnored(false);
+        usuarioMapper = Mappers.getMapper(UsuarioMapper.class);
+
+        usuarios = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            usuarios.add(Usuario.builder()
+                    .idUsuario(i)
+                    .nombre("Nombre" + i)
+                    .apellido("Apellido" + i)
+                    .email("usuario" + i + "@gmail.com")
+                    .contraseña("$2a$10$hash")
+                    .fechaNacimiento(LocalDate.of(1990, 1, 1).plusDays(i))
+                    .genero(i % 2 == 0 ? Usuario.Genero.FEMENINO : Usuario.Genero.MASCULINO)
+                    .telefono("300" + i)
+                    .direccion("Calle " + i)
+                    .ciudad("Armenia")
+                    .pais("Colombia")
+                    .tipoUsuario(Usuario.TipoUsuario.PACIENTE)
+                    .fechaRegistro(LocalDateTime.of(2025, 1, 1, 8, 0))
+                    .estado(Usuario.Estado.ACTIVO)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public List<UsuarioDTO> modelMapper() {
+        List<UsuarioDTO> result = new ArrayList<>(usuarios.size());
+        for (Usuario usuario : usuarios) {
+            result.add(modelMapper.map(usuario, UsuarioDTO.class));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<UsuarioDTO> mapStruct() {
+        return usuarioMapper.toDtoList(usuarios);
+    }
+}
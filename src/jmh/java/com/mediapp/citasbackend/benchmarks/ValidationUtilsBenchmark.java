@@ -0,0 +1,59 @@
+package com.mediapp.citasbackend.benchmarks;
+
+import com.mediapp.citasbackend.utils.ValidationUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validaciones por expresión regular de ValidationUtils con entradas válidas e inválidas
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValidationUtilsBenchmark {
+
+    @Param({"valido", "invalido"})
+    private String caso;
+
+    private String email;
+    private String phone;
+    private String cedula;
+    private String password;
+
+    @Setup
+    public void setUp() {
+        boolean valido = "valido".equals(caso);
+        email = valido ? "laura.gomez@gmail.com" : "laura.gomez@@gmail";
+        phone = valido ? "3151234567" : "31512-34567";
+        cedula = valido ? "1094912345" : "10949A2345";
+        password = valido ? "Segura#2025" : "segura2025";
+    }
+
+    @Benchmark
+    public boolean isValidEmail() {
+        return ValidationUtils.isValidEmail(email);
+    }
+
+    @Benchmark
+    public boolean isValidPhone() {
+        return ValidationUtils.isValidPhone(phone);
+    }
+
+    @Benchmark
+    public boolean isValidCedula() {
+        return ValidationUtils.isValidCedula(cedula);
+    }
+
+    @Benchmark
+    public boolean isStrongPassword() {
+        return ValidationUtils.isStrongPassword(password);
+    }
+}
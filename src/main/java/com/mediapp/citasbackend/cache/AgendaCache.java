@@ -0,0 +1,288 @@
+package com.mediapp.citasbackend.cache;
+
+import com.mediapp.citasbackend.config.AgendaCacheProperties;
+import com.mediapp.citasbackend.dtos.AgendaCitaDTO;
+import com.mediapp.citasbackend.dtos.AgendaDiaDTO;
+import com.mediapp.citasbackend.entities.Cita;
+import com.mediapp.citasbackend.utils.IntervalTree;
+import com.mediapp.citasbackend.utils.TransactionUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Agendas diarias ya convertidas a entradas compactas, por (médico, fecha). Se cargan en la
+ * primera lectura y CitaServiceImpl les aplica cada cambio de cita cuando su transacción
+ * confirma (write-through), así que una agenda en caché no se vuelve a consultar mientras
+ * no expire o se descarte por LRU. Cada cambio le asigna una versión nueva que el
+ * controlador expone como ETag para las peticiones condicionales. Cada agenda lleva además un
+ * árbol de intervalos con la ocupación del médico (citas no canceladas) para detectar cruces
+ * de horario sin consultar la tabla.
+ */
+@Component
+public class AgendaCache {
+
+    private static final Comparator<AgendaCitaDTO> POR_HORA =
+            Comparator.comparing(AgendaCitaDTO::getHoraCita).thenComparing(AgendaCitaDTO::getIdCita);
+
+    public record Clave(Integer idMedico, LocalDate fecha) {
+
+        static Clave de(Cita cita) {
+            return new Clave(cita.getMedico().getIdMedico(), cita.getFechaCita());
+        }
+    }
+
+    // La ocupación se modifica en sitio y solo se consulta o modifica con el monitor de la caché
+    private record Agenda(long version, long cargadaEn, List<AgendaCitaDTO> citas, IntervalTree<AgendaCitaDTO> ocupacion) {
+    }
+
+    private final AgendaCacheProperties properties;
+    private final Map<Clave, Agenda> agendas;
+    // Clave de la agenda en caché que contiene cada cita, para moverla o quitarla sin consultar
+    private final Map<Integer, Clave> ubicaciones = new HashMap<>();
+    private final AtomicLong versiones = new AtomicLong();
+    // Cuenta los cambios aplicados; una carga que se cruzó con alguno no se guarda
+    private final AtomicLong cambios = new AtomicLong();
+    // Distingue las versiones de este arranque de las de uno anterior
+    private final String epoca = Long.toString(System.currentTimeMillis(), 36);
+    private final Counter aciertos;
+    private final Counter fallos;
+
+    public AgendaCache(AgendaCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.agendas = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Clave, Agenda> eldest) {
+                if (size() <= properties.getMaxEntries()) {
+                    return false;
+                }
+                eldest.getValue().citas().forEach(c -> ubicaciones.remove(c.getIdCita(), eldest.getKey()));
+                return true;
+            }
+        };
+        this.aciertos = Counter.builder("mediapp.agenda-cache.requests").tag("result", "hit")
+                .description("Lecturas de agendas diarias servidas desde la caché").register(meterRegistry);
+        this.fallos = Counter.builder("mediapp.agenda-cache.requests").tag("result", "miss")
+                .description("Lecturas de agendas diarias que consultaron la base de datos").register(meterRegistry);
+        Gauge.builder("mediapp.agenda-cache.size", this, AgendaCache::size)
+                .description("Agendas diarias en caché").register(meterRegistry);
+    }
+
+    /**
+     * Retorna la agenda del médico en la fecha; si no está en caché (o expiró) la carga con el
+     * cargador, que debe devolver todas las citas de ese día
+     */
+    public AgendaDiaDTO obtener(Integer idMedico, LocalDate fecha, Supplier<List<Cita>> cargador) {
+        Clave clave = new Clave(idMedico, fecha);
+        return dto(clave, agenda(clave, cargador));
+    }
+
+    /**
+     * Citas no canceladas del médico en la fecha que se cruzan con [hora, hora + duración),
+     * sin contar la cita excluida (la que se está modificando). El cargador es el de obtener.
+     * Solo sirve como verificación previa: no ve lo agendado en otra instancia ni lo que aún no
+     * se confirmó, así que al agendar manda la ocupación leída con el día bloqueado.
+     */
+    public List<AgendaCitaDTO> solapamientos(Integer idMedico, LocalDate fecha, LocalTime hora, int duracionMinutos,
+                                             Integer idExcluida, Supplier<List<Cita>> cargador) {
+        Agenda agenda = agenda(new Clave(idMedico, fecha), cargador);
+        int inicio = hora.toSecondOfDay() / 60;
+        List<AgendaCitaDTO> cruces;
+        synchronized (this) {
+            cruces = agenda.ocupacion().solapamientos(inicio, fin(inicio, duracionMinutos));
+        }
+        return cruces.stream().filter(c -> !c.getIdCita().equals(idExcluida)).toList();
+    }
+
+    private Agenda agenda(Clave clave, Supplier<List<Cita>> cargador) {
+        if (properties.isEnabled()) {
+            synchronized (this) {
+                Agenda agenda = agendas.get(clave);
+                if (agenda != null && !expirada(agenda)) {
+                    aciertos.increment();
+                    return agenda;
+                }
+            }
+        }
+        fallos.increment();
+
+        long cambiosAntes = cambios.get();
+        List<AgendaCitaDTO> citas = cargador.get().stream().map(AgendaCache::entrada).sorted(POR_HORA).toList();
+        IntervalTree<AgendaCitaDTO> ocupacion = new IntervalTree<>();
+        citas.forEach(c -> ocupar(ocupacion, c));
+        Agenda agenda = new Agenda(versiones.incrementAndGet(), System.nanoTime(), citas, ocupacion);
+        if (properties.isEnabled()) {
+            synchronized (this) {
+                if (cambios.get() == cambiosAntes) {
+                    Agenda anterior = agendas.put(clave, agenda);
+                    if (anterior != null) {
+                        anterior.citas().forEach(c -> ubicaciones.remove(c.getIdCita(), clave));
+                    }
+                    citas.forEach(c -> ubicaciones.put(c.getIdCita(), clave));
+                }
+            }
+        }
+        return agenda;
+    }
+
+    /**
+     * Aplica a las agendas en caché el estado actual de una cita creada o modificada. Si la
+     * cita cambió de médico o de fecha, sale de su agenda anterior. Con una transacción en
+     * curso se aplica al confirmarla; la entrada se toma ahora para no depender de la entidad.
+     */
+    public void registrarCambio(Cita cita) {
+        if (!properties.isEnabled() || cita == null || cita.getIdCita() == null) {
+            return;
+        }
+        AgendaCitaDTO entrada = entrada(cita);
+        Clave clave = Clave.de(cita);
+        TransactionUtils.alConfirmar(() -> aplicar(entrada.getIdCita(), clave, entrada));
+    }
+
+    /**
+     * Quita una cita eliminada de la agenda en caché que la contenga
+     */
+    public void registrarEliminacion(Integer idCita) {
+        if (!properties.isEnabled() || idCita == null) {
+            return;
+        }
+        TransactionUtils.alConfirmar(() -> aplicar(idCita, null, null));
+    }
+
+    /**
+     * Aplica un cambio de estado en lote: cada agenda afectada se reescribe una sola vez
+     */
+    public void registrarEstados(Collection<Integer> idsCita, Cita.Estado estado) {
+        if (!properties.isEnabled() || idsCita.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = List.copyOf(idsCita);
+        TransactionUtils.alConfirmar(() -> aplicarEstado(ids, estado.name()));
+    }
+
+    public synchronized int size() {
+        return agendas.size();
+    }
+
+    public synchronized void limpiar() {
+        agendas.clear();
+        ubicaciones.clear();
+        cambios.incrementAndGet();
+    }
+
+    private synchronized void aplicar(Integer idCita, Clave destino, AgendaCitaDTO entrada) {
+        cambios.incrementAndGet();
+        Clave origen = ubicaciones.remove(idCita);
+        if (origen != null && !origen.equals(destino)) {
+            reemplazar(origen, idCita, null);
+        }
+        if (destino != null && agendas.containsKey(destino)) {
+            reemplazar(destino, idCita, entrada);
+            ubicaciones.put(idCita, destino);
+        }
+    }
+
+    private synchronized void aplicarEstado(List<Integer> idsCita, String estado) {
+        cambios.incrementAndGet();
+        Map<Clave, Set<Integer>> porAgenda = new HashMap<>();
+        for (Integer idCita : idsCita) {
+            Clave clave = ubicaciones.get(idCita);
+            if (clave != null) {
+                porAgenda.computeIfAbsent(clave, k -> new HashSet<>()).add(idCita);
+            }
+        }
+        porAgenda.forEach((clave, ids) -> {
+            Agenda agenda = agendas.get(clave);
+            if (agenda != null) {
+                List<AgendaCitaDTO> citas = new ArrayList<>(agenda.citas().size());
+                for (AgendaCitaDTO c : agenda.citas()) {
+                    if (ids.contains(c.getIdCita())) {
+                        desocupar(agenda.ocupacion(), c);
+                        c = c.toBuilder().estado(estado).build();
+                        ocupar(agenda.ocupacion(), c);
+                    }
+                    citas.add(c);
+                }
+                agendas.put(clave, new Agenda(versiones.incrementAndGet(), agenda.cargadaEn(), List.copyOf(citas), agenda.ocupacion()));
+            }
+        });
+    }
+
+    private void reemplazar(Clave clave, Integer idCita, AgendaCitaDTO entrada) {
+        Agenda agenda = agendas.get(clave);
+        if (agenda == null) {
+            return;
+        }
+        List<AgendaCitaDTO> citas = new ArrayList<>(agenda.citas().size() + 1);
+        for (AgendaCitaDTO c : agenda.citas()) {
+            if (!c.getIdCita().equals(idCita)) {
+                citas.add(c);
+            } else {
+                desocupar(agenda.ocupacion(), c);
+            }
+        }
+        if (entrada != null) {
+            citas.add(entrada);
+            citas.sort(POR_HORA);
+            ocupar(agenda.ocupacion(), entrada);
+        }
+        agendas.put(clave, new Agenda(versiones.incrementAndGet(), agenda.cargadaEn(), List.copyOf(citas), agenda.ocupacion()));
+    }
+
+    private static void ocupar(IntervalTree<AgendaCitaDTO> ocupacion, AgendaCitaDTO cita) {
+        if (!Cita.Estado.CANCELADA.name().equals(cita.getEstado())) {
+            int inicio = cita.getHoraCita().toSecondOfDay() / 60;
+            ocupacion.insertar(inicio, fin(inicio, cita.getDuracionMinutos()), cita);
+        }
+    }
+
+    private static void desocupar(IntervalTree<AgendaCitaDTO> ocupacion, AgendaCitaDTO cita) {
+        ocupacion.eliminar(cita.getHoraCita().toSecondOfDay() / 60, cita);
+    }
+
+    // Las citas que pasarían de medianoche ocupan hasta el final del día
+    private static int fin(int inicio, int duracionMinutos) {
+        return Math.min(inicio + Math.max(duracionMinutos, 1), 24 * 60);
+    }
+
+    private boolean expirada(Agenda agenda) {
+        return System.nanoTime() - agenda.cargadaEn() > properties.getTtlSeconds() * 1_000_000_000L;
+    }
+
+    private AgendaDiaDTO dto(Clave clave, Agenda agenda) {
+        return AgendaDiaDTO.builder()
+                .idMedico(clave.idMedico())
+                .fecha(clave.fecha())
+                .version(epoca + "-" + agenda.version())
+                .citas(agenda.citas())
+                .build();
+    }
+
+    private static AgendaCitaDTO entrada(Cita cita) {
+        return AgendaCitaDTO.builder()
+                .idCita(cita.getIdCita())
+                .idPaciente(cita.getPaciente() != null ? cita.getPaciente().getIdPaciente() : null)
+                .horaCita(cita.getHoraCita())
+                .duracionMinutos(cita.getDuracionMinutos() != null ? cita.getDuracionMinutos() : Cita.DURACION_PREDETERMINADA_MINUTOS)
+                .tipoCita(cita.getTipoCita() != null ? cita.getTipoCita().name() : null)
+                .estado(cita.getEstado() != null ? cita.getEstado().name() : null)
+                .motivoConsulta(cita.getMotivoConsulta())
+                .enlaceVideollamada(cita.getEnlaceVideollamada())
+                .build();
+    }
+}
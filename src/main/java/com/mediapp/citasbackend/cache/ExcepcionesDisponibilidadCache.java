@@ -0,0 +1,79 @@
+package com.mediapp.citasbackend.cache;
+
+import com.mediapp.citasbackend.config.ExcepcionesDisponibilidadProperties;
+import com.mediapp.citasbackend.entities.ExcepcionDisponibilidad;
+import com.mediapp.citasbackend.utils.ExcepcionesPorFecha;
+import com.mediapp.citasbackend.utils.TransactionUtils;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Excepciones vigentes compiladas de cada médico, aparte de su plantilla semanal: un cambio en
+ * las excepciones solo descarta esta entrada, y la plantilla y los bloques de la semana siguen
+ * en caché. Los cambios hechos en otra instancia se ven al expirar.
+ */
+@Component
+public class ExcepcionesDisponibilidadCache {
+
+    private record Entrada(long cargadaEn, ExcepcionesPorFecha excepciones) {
+    }
+
+    private final ExcepcionesDisponibilidadProperties properties;
+    private final Map<Integer, Entrada> excepciones = new ConcurrentHashMap<>();
+    // Cuenta los cambios aplicados; una compilación que se cruzó con alguno no se guarda
+    private final AtomicLong cambios = new AtomicLong();
+
+    public ExcepcionesDisponibilidadCache(ExcepcionesDisponibilidadProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        Gauge.builder("mediapp.excepciones-disponibilidad.medicos", excepciones, Map::size)
+                .description("Excepciones de disponibilidad compiladas en memoria").register(meterRegistry);
+    }
+
+    /**
+     * Excepciones del médico; si no están o expiraron las compila con el cargador, que debe
+     * devolver las excepciones vigentes del médico
+     */
+    public ExcepcionesPorFecha obtener(Integer idMedico, Supplier<List<ExcepcionDisponibilidad>> cargador) {
+        Entrada entrada = excepciones.get(idMedico);
+        long ahora = System.nanoTime();
+        if (entrada != null && ahora - entrada.cargadaEn() < TimeUnit.SECONDS.toNanos(properties.getTtlSegundos())) {
+            return entrada.excepciones();
+        }
+        long version = cambios.get();
+        ExcepcionesPorFecha compiladas = ExcepcionesPorFecha.de(cargador.get());
+        if (cambios.get() == version) {
+            excepciones.put(idMedico, new Entrada(ahora, compiladas));
+        }
+        return compiladas;
+    }
+
+    /**
+     * Descarta las excepciones del médico cuando confirme la transacción en curso
+     */
+    public void registrarCambio(Integer idMedico) {
+        if (idMedico == null) {
+            return;
+        }
+        TransactionUtils.alConfirmar(() -> {
+            cambios.incrementAndGet();
+            excepciones.remove(idMedico);
+        });
+    }
+
+    public int size() {
+        return excepciones.size();
+    }
+
+    public void limpiar() {
+        cambios.incrementAndGet();
+        excepciones.clear();
+    }
+}
@@ -0,0 +1,410 @@
+package com.mediapp.citasbackend.cache;
+
+import com.mediapp.citasbackend.config.IndiceDisponibilidadProperties;
+import com.mediapp.citasbackend.entities.CalendarioDisponibilidad;
+import com.mediapp.citasbackend.entities.Medico;
+import com.mediapp.citasbackend.entities.Usuario;
+import com.mediapp.citasbackend.utils.TransactionUtils;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Índice en memoria de los médicos disponibles por (día de la semana, franja de 15 minutos):
+ * cada franja es un BitSet cuyos bits son IDs de médico, y hay otros tantos por especialidad,
+ * ciudad, verificación y usuario activo, así que una consulta es una intersección de bitmaps.
+ *
+ * Una franja distingue los médicos con un bloque que la cubre entera de los que solo la tocan
+ * en parte; a estos últimos (bordes de bloque que no caen en un cuarto de hora) se les revisan
+ * sus bloques, de modo que el resultado es el mismo que el de la consulta
+ * horaInicio <= hora <= horaFin.
+ *
+ * Se carga completo en la primera consulta y recibe al confirmar cada transacción los cambios
+ * de bloques y de médicos hechos en esta instancia; los de otras se ven al expirar.
+ */
+@Component
+public class IndiceDisponibilidadMedicos {
+
+    static final int SEGUNDOS_FRANJA = 15 * 60;
+    static final int FRANJAS = 24 * 60 * 60 / SEGUNDOS_FRANJA;
+
+    public record Bloque(Integer idMedico, CalendarioDisponibilidad.DiaSemana dia, LocalTime horaInicio, LocalTime horaFin) {
+    }
+
+    public record Atributos(Integer idMedico, Integer idUsuario, Integer idEspecialidad, String ciudad,
+                            boolean verificado, boolean activo) {
+
+        // Fila (idMedico, idUsuario, idEspecialidad, ciudad, estadoVerificacion, estado) de MedicoRepository
+        public static Atributos de(Object[] fila) {
+            return new Atributos((Integer) fila[0], (Integer) fila[1], (Integer) fila[2], (String) fila[3],
+                    fila[4] == Medico.EstadoVerificacion.VERIFICADO, fila[5] == Usuario.Estado.ACTIVO);
+        }
+    }
+
+    // Bloques activos y atributos de todos los médicos, para la carga completa
+    public record Carga(List<Bloque> bloques, List<Atributos> medicos) {
+    }
+
+    // Condiciones que se intersecan con la disponibilidad; null o false no filtran
+    public record Filtro(Integer idEspecialidad, String ciudad, boolean soloVerificados, boolean soloActivos) {
+
+        public static final Filtro NINGUNO = new Filtro(null, null, false, false);
+    }
+
+    private final IndiceDisponibilidadProperties properties;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Cuenta los cambios aplicados; una carga que se cruzó con alguno queda expirada
+    private final AtomicLong cambios = new AtomicLong();
+    private final Object cargaEnCurso = new Object();
+
+    private final BitSet[][] completos = new BitSet[7][FRANJAS];
+    private final BitSet[][] parciales = new BitSet[7][FRANJAS];
+    private final BitSet[] porDia = new BitSet[7];
+    // Bloques de cada médico como tripletas (día, segundo de inicio, segundo de fin)
+    private final Map<Integer, int[]> bloques = new HashMap<>();
+    private final Map<Integer, Atributos> atributos = new HashMap<>();
+    private final Map<Integer, Integer> medicoPorUsuario = new HashMap<>();
+    private final Map<Integer, BitSet> porEspecialidad = new HashMap<>();
+    private final Map<String, BitSet> porCiudad = new HashMap<>();
+    private final BitSet verificados = new BitSet();
+    private final BitSet activos = new BitSet();
+    private boolean cargado;
+    private long cargadoEn;
+
+    public IndiceDisponibilidadMedicos(IndiceDisponibilidadProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        for (int dia = 0; dia < 7; dia++) {
+            porDia[dia] = new BitSet();
+            for (int franja = 0; franja < FRANJAS; franja++) {
+                completos[dia][franja] = new BitSet();
+                parciales[dia][franja] = new BitSet();
+            }
+        }
+        Gauge.builder("mediapp.indice-disponibilidad.medicos", this, IndiceDisponibilidadMedicos::size)
+                .description("Médicos en el índice de disponibilidad").register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * IDs de los médicos con un bloque activo ese día que cumplen el filtro, en orden ascendente
+     */
+    public List<Integer> disponiblesEnDia(CalendarioDisponibilidad.DiaSemana dia, Filtro filtro, Supplier<Carga> cargador) {
+        asegurarCarga(cargador);
+        lock.readLock().lock();
+        try {
+            BitSet resultado = (BitSet) porDia[dia.ordinal()].clone();
+            filtrar(resultado, filtro);
+            return ids(resultado);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * IDs de los médicos con un bloque activo ese día que contiene la hora (extremos incluidos)
+     * y cumplen el filtro, en orden ascendente
+     */
+    public List<Integer> disponiblesEnDiaYHora(CalendarioDisponibilidad.DiaSemana dia, LocalTime hora, Filtro filtro,
+                                               Supplier<Carga> cargador) {
+        asegurarCarga(cargador);
+        int segundo = hora.toSecondOfDay();
+        int franja = segundo / SEGUNDOS_FRANJA;
+        lock.readLock().lock();
+        try {
+            BitSet resultado = (BitSet) completos[dia.ordinal()][franja].clone();
+            BitSet bordes = (BitSet) parciales[dia.ordinal()][franja].clone();
+            bordes.andNot(resultado);
+            filtrar(bordes, filtro);
+            for (int id = bordes.nextSetBit(0); id >= 0; id = bordes.nextSetBit(id + 1)) {
+                if (contiene(bloques.get(id), dia.ordinal(), segundo)) {
+                    resultado.set(id);
+                }
+            }
+            filtrar(resultado, filtro);
+            return ids(resultado);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reemplaza los bloques activos del médico cuando confirme la transacción en curso
+     */
+    public void registrarBloques(Integer idMedico, List<Bloque> delMedico) {
+        if (!isEnabled() || idMedico == null) {
+            return;
+        }
+        int[] compactos = compactar(delMedico);
+        TransactionUtils.alConfirmar(() -> escribir(() -> ponerBloques(idMedico, compactos)));
+    }
+
+    /**
+     * Reemplaza la especialidad, ciudad, verificación y estado del médico al confirmar
+     */
+    public void registrarMedico(Atributos nuevos) {
+        if (!isEnabled() || nuevos == null || nuevos.idMedico() == null) {
+            return;
+        }
+        TransactionUtils.alConfirmar(() -> escribir(() -> ponerAtributos(nuevos)));
+    }
+
+    /**
+     * Aplica la ciudad y el estado de un usuario a su médico, si lo tiene en el índice
+     */
+    public void registrarUsuario(Usuario usuario) {
+        if (!isEnabled() || usuario == null || usuario.getIdUsuario() == null) {
+            return;
+        }
+        Integer idUsuario = usuario.getIdUsuario();
+        String ciudad = usuario.getCiudad();
+        boolean activo = usuario.getEstado() == Usuario.Estado.ACTIVO;
+        TransactionUtils.alConfirmar(() -> escribir(() -> {
+            Integer idMedico = medicoPorUsuario.get(idUsuario);
+            Atributos anteriores = idMedico == null ? null : atributos.get(idMedico);
+            if (anteriores != null) {
+                ponerAtributos(new Atributos(idMedico, idUsuario, anteriores.idEspecialidad(), ciudad,
+                        anteriores.verificado(), activo));
+            }
+        }));
+    }
+
+    /**
+     * Quita al médico del índice al confirmar
+     */
+    public void quitarMedico(Integer idMedico) {
+        if (!isEnabled() || idMedico == null) {
+            return;
+        }
+        TransactionUtils.alConfirmar(() -> escribir(() -> {
+            ponerBloques(idMedico, new int[0]);
+            quitarAtributos(idMedico);
+        }));
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return atributos.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void limpiar() {
+        escribir(() -> {
+            vaciar();
+            cargado = false;
+        });
+    }
+
+    private void asegurarCarga(Supplier<Carga> cargador) {
+        if (vigente()) {
+            return;
+        }
+        // Una sola carga a la vez; las consultas que esperaban usan la que acaba de terminar
+        synchronized (cargaEnCurso) {
+            if (!vigente()) {
+                cargar(cargador);
+            }
+        }
+    }
+
+    private boolean vigente() {
+        lock.readLock().lock();
+        try {
+            return cargado && System.nanoTime() - cargadoEn < TimeUnit.SECONDS.toNanos(properties.getTtlSegundos());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void cargar(Supplier<Carga> cargador) {
+        long ttl = TimeUnit.SECONDS.toNanos(properties.getTtlSegundos());
+        long version = cambios.get();
+        long inicio = System.nanoTime();
+        Carga carga = cargador.get();
+        lock.writeLock().lock();
+        try {
+            vaciar();
+            for (Atributos medico : carga.medicos()) {
+                ponerAtributos(medico);
+            }
+            Map<Integer, List<Bloque>> porMedico = new HashMap<>();
+            for (Bloque bloque : carga.bloques()) {
+                porMedico.computeIfAbsent(bloque.idMedico(), id -> new ArrayList<>()).add(bloque);
+            }
+            porMedico.forEach((idMedico, delMedico) -> ponerBloques(idMedico, compactar(delMedico)));
+            cargado = true;
+            // Si un cambio confirmó durante la carga, la carga pudo no verlo: la siguiente consulta recarga
+            cargadoEn = cambios.get() == version ? inicio : inicio - ttl;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void escribir(Runnable cambio) {
+        lock.writeLock().lock();
+        try {
+            cambios.incrementAndGet();
+            if (cargado) {
+                cambio.run();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void filtrar(BitSet resultado, Filtro filtro) {
+        if (filtro.idEspecialidad() != null) {
+            resultado.and(porEspecialidad.getOrDefault(filtro.idEspecialidad(), new BitSet()));
+        }
+        if (filtro.ciudad() != null) {
+            resultado.and(porCiudad.getOrDefault(normalizar(filtro.ciudad()), new BitSet()));
+        }
+        if (filtro.soloVerificados()) {
+            resultado.and(verificados);
+        }
+        if (filtro.soloActivos()) {
+            resultado.and(activos);
+        }
+    }
+
+    private void ponerBloques(Integer idMedico, int[] nuevos) {
+        int[] anteriores = bloques.remove(idMedico);
+        if (anteriores != null) {
+            for (int i = 0; i < anteriores.length; i += 3) {
+                marcar(idMedico, anteriores[i], anteriores[i + 1], anteriores[i + 2], false);
+            }
+            for (int dia = 0; dia < 7; dia++) {
+                porDia[dia].clear(idMedico);
+            }
+        }
+        if (nuevos.length > 0) {
+            bloques.put(idMedico, nuevos);
+            for (int i = 0; i < nuevos.length; i += 3) {
+                marcar(idMedico, nuevos[i], nuevos[i + 1], nuevos[i + 2], true);
+                porDia[nuevos[i]].set(idMedico);
+            }
+        }
+    }
+
+    // Franjas que el bloque [inicio, fin] cubre entera o en parte
+    private void marcar(int idMedico, int dia, int inicio, int fin, boolean valor) {
+        for (int franja = inicio / SEGUNDOS_FRANJA; franja <= Math.min(fin / SEGUNDOS_FRANJA, FRANJAS - 1); franja++) {
+            int desde = franja * SEGUNDOS_FRANJA;
+            int hasta = desde + SEGUNDOS_FRANJA - 1;
+            BitSet destino = inicio <= desde && fin >= hasta ? completos[dia][franja] : parciales[dia][franja];
+            destino.set(idMedico, valor);
+        }
+    }
+
+    private void ponerAtributos(Atributos nuevos) {
+        quitarAtributos(nuevos.idMedico());
+        int id = nuevos.idMedico();
+        atributos.put(id, nuevos);
+        if (nuevos.idUsuario() != null) {
+            medicoPorUsuario.put(nuevos.idUsuario(), id);
+        }
+        if (nuevos.idEspecialidad() != null) {
+            porEspecialidad.computeIfAbsent(nuevos.idEspecialidad(), e -> new BitSet()).set(id);
+        }
+        if (nuevos.ciudad() != null) {
+            porCiudad.computeIfAbsent(normalizar(nuevos.ciudad()), c -> new BitSet()).set(id);
+        }
+        verificados.set(id, nuevos.verificado());
+        activos.set(id, nuevos.activo());
+    }
+
+    private void quitarAtributos(Integer idMedico) {
+        Atributos anteriores = atributos.remove(idMedico);
+        if (anteriores == null) {
+            return;
+        }
+        if (anteriores.idUsuario() != null) {
+            medicoPorUsuario.remove(anteriores.idUsuario());
+        }
+        if (anteriores.idEspecialidad() != null) {
+            BitSet especialidad = porEspecialidad.get(anteriores.idEspecialidad());
+            especialidad.clear(idMedico);
+            if (especialidad.isEmpty()) {
+                porEspecialidad.remove(anteriores.idEspecialidad());
+            }
+        }
+        if (anteriores.ciudad() != null) {
+            String ciudad = normalizar(anteriores.ciudad());
+            BitSet enCiudad = porCiudad.get(ciudad);
+            enCiudad.clear(idMedico);
+            if (enCiudad.isEmpty()) {
+                porCiudad.remove(ciudad);
+            }
+        }
+        verificados.clear(idMedico);
+        activos.clear(idMedico);
+    }
+
+    private void vaciar() {
+        for (int dia = 0; dia < 7; dia++) {
+            porDia[dia].clear();
+            for (int franja = 0; franja < FRANJAS; franja++) {
+                completos[dia][franja].clear();
+                parciales[dia][franja].clear();
+            }
+        }
+        bloques.clear();
+        atributos.clear();
+        medicoPorUsuario.clear();
+        porEspecialidad.clear();
+        porCiudad.clear();
+        verificados.clear();
+        activos.clear();
+    }
+
+    private static int[] compactar(List<Bloque> delMedico) {
+        List<Bloque> validos = delMedico.stream()
+                .filter(b -> b.horaInicio() != null && b.horaFin() != null && !b.horaInicio().isAfter(b.horaFin()))
+                .toList();
+        int[] compactos = new int[validos.size() * 3];
+        int i = 0;
+        for (Bloque bloque : validos) {
+            compactos[i++] = bloque.dia().ordinal();
+            compactos[i++] = bloque.horaInicio().toSecondOfDay();
+            compactos[i++] = bloque.horaFin().toSecondOfDay();
+        }
+        return compactos;
+    }
+
+    private static boolean contiene(int[] delMedico, int dia, int segundo) {
+        if (delMedico == null) {
+            return false;
+        }
+        for (int i = 0; i < delMedico.length; i += 3) {
+            if (delMedico[i] == dia && delMedico[i + 1] <= segundo && segundo <= delMedico[i + 2]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Integer> ids(BitSet resultado) {
+        return resultado.stream().boxed().toList();
+    }
+
+    private static String normalizar(String ciudad) {
+        return ciudad.strip().toLowerCase(Locale.ROOT);
+    }
+}
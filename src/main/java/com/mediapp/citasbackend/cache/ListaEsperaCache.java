@@ -0,0 +1,160 @@
+package com.mediapp.citasbackend.cache;
+
+import com.mediapp.citasbackend.config.ListaEsperaProperties;
+import com.mediapp.citasbackend.entities.EntradaListaEspera;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Colas de prioridad de la lista de espera por (médico o especialidad, fecha). Cada cola es
+ * un conjunto ordenado por prioridad y antigüedad con un índice por ID de entrada: la primera
+ * candidata se obtiene en O(log n) y una entrada se quita en O(log n) sin recorrer la cola.
+ * Se cargan desde la tabla la primera vez que se necesitan y reciben los registros y bajas
+ * hechos en esta instancia; las de otras instancias se ven al expirar la cola.
+ */
+@Component
+public class ListaEsperaCache {
+
+    public enum Ambito {
+        MEDICO,
+        ESPECIALIDAD
+    }
+
+    public record Clave(Ambito ambito, Integer id, LocalDate fecha) {
+    }
+
+    public record Candidata(Long idEntrada, Integer idPaciente, int prioridad, LocalDateTime fechaRegistro) {
+
+        static Candidata de(EntradaListaEspera entrada) {
+            return new Candidata(entrada.getIdEntrada(), entrada.getIdPaciente(),
+                    entrada.getPrioridad() == null ? 0 : entrada.getPrioridad(), entrada.getFechaRegistro());
+        }
+    }
+
+    // Mayor prioridad primero; a igual prioridad, la registrada antes
+    public static final Comparator<Candidata> ORDEN = Comparator.comparingInt(Candidata::prioridad).reversed()
+            .thenComparing(Candidata::fechaRegistro)
+            .thenComparing(Candidata::idEntrada);
+
+    private record Cola(long cargadaEn, TreeSet<Candidata> candidatas, Map<Long, Candidata> porId) {
+    }
+
+    private final ListaEsperaProperties properties;
+    private final Map<Clave, Cola> colas;
+    // Cuenta los cambios aplicados; una carga que se cruzó con alguno no se guarda
+    private final AtomicLong cambios = new AtomicLong();
+
+    public ListaEsperaCache(ListaEsperaProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.colas = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Clave, Cola> eldest) {
+                return size() > properties.getMaxColas();
+            }
+        };
+        Gauge.builder("mediapp.lista-espera.colas", this, ListaEsperaCache::size)
+                .description("Colas de lista de espera en memoria").register(meterRegistry);
+    }
+
+    /**
+     * Primera candidata de la cola que cumple la condición. El cargador debe devolver las
+     * entradas activas de la clave.
+     */
+    public Optional<Candidata> primera(Clave clave, Predicate<Candidata> elegible,
+                                       Supplier<List<EntradaListaEspera>> cargador) {
+        Cola cola = cola(clave, cargador);
+        synchronized (this) {
+            for (Candidata candidata : cola.candidatas()) {
+                if (elegible.test(candidata)) {
+                    return Optional.of(candidata);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Agrega una entrada activa a las colas cargadas de su rango de fechas
+     */
+    public synchronized void agregar(EntradaListaEspera entrada) {
+        cambios.incrementAndGet();
+        Candidata candidata = Candidata.de(entrada);
+        for (Clave clave : claves(entrada)) {
+            Cola cola = colas.get(clave);
+            if (cola != null && cola.porId().putIfAbsent(candidata.idEntrada(), candidata) == null) {
+                cola.candidatas().add(candidata);
+            }
+        }
+    }
+
+    /**
+     * Quita la entrada de las colas cargadas de su rango de fechas
+     */
+    public synchronized void quitar(EntradaListaEspera entrada) {
+        cambios.incrementAndGet();
+        for (Clave clave : claves(entrada)) {
+            Cola cola = colas.get(clave);
+            if (cola != null) {
+                Candidata candidata = cola.porId().remove(entrada.getIdEntrada());
+                if (candidata != null) {
+                    cola.candidatas().remove(candidata);
+                }
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return colas.size();
+    }
+
+    private Cola cola(Clave clave, Supplier<List<EntradaListaEspera>> cargador) {
+        synchronized (this) {
+            Cola cola = colas.get(clave);
+            if (cola != null && System.nanoTime() - cola.cargadaEn() < TimeUnit.SECONDS.toNanos(properties.getTtlSegundos())) {
+                return cola;
+            }
+        }
+
+        long cambiosAntes = cambios.get();
+        TreeSet<Candidata> candidatas = new TreeSet<>(ORDEN);
+        Map<Long, Candidata> porId = new HashMap<>();
+        for (EntradaListaEspera entrada : cargador.get()) {
+            Candidata candidata = Candidata.de(entrada);
+            candidatas.add(candidata);
+            porId.put(candidata.idEntrada(), candidata);
+        }
+        Cola cola = new Cola(System.nanoTime(), candidatas, porId);
+        synchronized (this) {
+            if (cambios.get() == cambiosAntes) {
+                colas.put(clave, cola);
+            }
+        }
+        return cola;
+    }
+
+    private static List<Clave> claves(EntradaListaEspera entrada) {
+        Ambito ambito = entrada.getIdMedico() != null ? Ambito.MEDICO : Ambito.ESPECIALIDAD;
+        Integer id = entrada.getIdMedico() != null ? entrada.getIdMedico() : entrada.getIdEspecialidad();
+        List<Clave> claves = new ArrayList<>();
+        for (LocalDate fecha = entrada.getFechaDesde(); !fecha.isAfter(entrada.getFechaHasta()); fecha = fecha.plusDays(1)) {
+            claves.add(new Clave(ambito, id, fecha));
+        }
+        return claves;
+    }
+}
@@ -0,0 +1,80 @@
+package com.mediapp.citasbackend.cache;
+
+import com.mediapp.citasbackend.config.PlantillasHorarioProperties;
+import com.mediapp.citasbackend.entities.CalendarioDisponibilidad;
+import com.mediapp.citasbackend.utils.PlantillaSemanal;
+import com.mediapp.citasbackend.utils.TransactionUtils;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Plantilla semanal compilada de cada médico. Se compila en la primera lectura y
+ * CalendarioDisponibilidadServiceImpl la descarta cuando confirma un cambio en los bloques del
+ * médico, así que la siguiente lectura la vuelve a compilar. Los cambios hechos en otra
+ * instancia se ven al expirar la plantilla.
+ */
+@Component
+public class PlantillasHorarioCache {
+
+    private record Entrada(long cargadaEn, PlantillaSemanal plantilla) {
+    }
+
+    private final PlantillasHorarioProperties properties;
+    private final Map<Integer, Entrada> plantillas = new ConcurrentHashMap<>();
+    // Cuenta los cambios aplicados; una compilación que se cruzó con alguno no se guarda
+    private final AtomicLong cambios = new AtomicLong();
+
+    public PlantillasHorarioCache(PlantillasHorarioProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        Gauge.builder("mediapp.plantillas-horario.medicos", plantillas, Map::size)
+                .description("Plantillas semanales de horarios en memoria").register(meterRegistry);
+    }
+
+    /**
+     * Plantilla del médico; si no está o expiró la compila con el cargador, que debe devolver
+     * los bloques activos del médico
+     */
+    public PlantillaSemanal obtener(Integer idMedico, Supplier<List<CalendarioDisponibilidad>> cargador) {
+        Entrada entrada = plantillas.get(idMedico);
+        long ahora = System.nanoTime();
+        if (entrada != null && ahora - entrada.cargadaEn() < TimeUnit.SECONDS.toNanos(properties.getTtlSegundos())) {
+            return entrada.plantilla();
+        }
+        long version = cambios.get();
+        PlantillaSemanal plantilla = PlantillaSemanal.de(cargador.get());
+        if (cambios.get() == version) {
+            plantillas.put(idMedico, new Entrada(ahora, plantilla));
+        }
+        return plantilla;
+    }
+
+    /**
+     * Descarta la plantilla del médico cuando confirme la transacción en curso
+     */
+    public void registrarCambio(Integer idMedico) {
+        if (idMedico == null) {
+            return;
+        }
+        TransactionUtils.alConfirmar(() -> {
+            cambios.incrementAndGet();
+            plantillas.remove(idMedico);
+        });
+    }
+
+    public int size() {
+        return plantillas.size();
+    }
+
+    public void limpiar() {
+        cambios.incrementAndGet();
+        plantillas.clear();
+    }
+}
@@ -0,0 +1,142 @@
+package com.mediapp.citasbackend.cache;
+
+import com.mediapp.citasbackend.config.ReservaTemporalProperties;
+import com.mediapp.citasbackend.entities.ReservaTemporal;
+import com.mediapp.citasbackend.utils.IntervalTree;
+import com.mediapp.citasbackend.utils.TimingWheel;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Copia en memoria de las reservas temporales vigentes, con la ocupación de cada (médico,
+ * fecha) en un árbol de intervalos para responder la disponibilidad sin consultar la tabla.
+ * Los vencimientos se programan en una rueda de tiempos: liberar una reserva vencida cuesta
+ * O(1) y no recorre las demás. La tabla reservas_temporales es la fuente de verdad; esta
+ * copia se actualiza al confirmar cada cambio local y se reconcilia con la tabla cada pocos
+ * segundos para ver las reservas de otras instancias.
+ */
+@Component
+public class ReservaTemporalCache {
+
+    private record Clave(Integer idMedico, LocalDate fecha) {
+    }
+
+    private record Registro(String token, Clave clave, int inicio, int fin, long expiraEn, long registradaEn,
+                            TimingWheel.Entrada<String> vencimiento) {
+    }
+
+    private final Map<String, Registro> registros = new HashMap<>();
+    private final Map<Clave, IntervalTree<Registro>> ocupacion = new HashMap<>();
+    private final TimingWheel<String> rueda;
+
+    public ReservaTemporalCache(ReservaTemporalProperties properties, MeterRegistry meterRegistry) {
+        this.rueda = new TimingWheel<>(properties.getTickMs(), properties.getRanuras(), System.currentTimeMillis());
+        Gauge.builder("mediapp.reservas-temporales.activas", this, ReservaTemporalCache::size)
+                .description("Reservas temporales vigentes en memoria").register(meterRegistry);
+    }
+
+    /**
+     * Agrega la reserva si sigue vigente y no estaba
+     */
+    public synchronized void agregar(ReservaTemporal reserva) {
+        long expiraEn = milisegundos(reserva.getExpiraEn());
+        if (registros.containsKey(reserva.getToken()) || expiraEn <= System.currentTimeMillis()) {
+            return;
+        }
+        Clave clave = new Clave(reserva.getIdMedico(), reserva.getFecha());
+        int inicio = minutoDelDia(reserva.getHora());
+        Registro registro = new Registro(reserva.getToken(), clave, inicio, inicio + reserva.getDuracionMinutos(),
+                expiraEn, System.currentTimeMillis(), rueda.programar(reserva.getToken(), expiraEn));
+        registros.put(registro.token(), registro);
+        ocupacion.computeIfAbsent(clave, c -> new IntervalTree<>()).insertar(registro.inicio(), registro.fin(), registro);
+    }
+
+    public synchronized boolean quitar(String token) {
+        Registro registro = registros.get(token);
+        if (registro == null) {
+            return false;
+        }
+        rueda.cancelar(registro.vencimiento());
+        descartar(registro);
+        return true;
+    }
+
+    /**
+     * Indica si alguna reserva vigente, distinta de tokenExcluido, se cruza con el horario
+     */
+    public synchronized boolean estaReservado(Integer idMedico, LocalDate fecha, LocalTime hora, int duracionMinutos,
+                                              String tokenExcluido) {
+        IntervalTree<Registro> arbol = ocupacion.get(new Clave(idMedico, fecha));
+        if (arbol == null) {
+            return false;
+        }
+        int inicio = minutoDelDia(hora);
+        long ahora = System.currentTimeMillis();
+        // La rueda libera con la resolución de un tick; el vencimiento exacto se revisa aquí
+        return arbol.solapamientos(inicio, inicio + Math.max(duracionMinutos, 1)).stream()
+                .anyMatch(r -> r.expiraEn() > ahora && !r.token().equals(tokenExcluido));
+    }
+
+    /**
+     * Libera las reservas vencidas hasta ahoraMillis y retorna cuántas liberó
+     */
+    public synchronized int expirar(long ahoraMillis) {
+        List<String> vencidas = rueda.avanzar(ahoraMillis);
+        for (String token : vencidas) {
+            descartar(registros.get(token));
+        }
+        return vencidas.size();
+    }
+
+    /**
+     * Iguala la copia con las reservas vigentes de la tabla leídas desde consultadaEn: agrega
+     * las que faltan y quita las liberadas o convertidas en otra instancia. Las registradas
+     * después de la consulta se conservan porque la lectura pudo no verlas.
+     */
+    public synchronized void reconciliar(Collection<ReservaTemporal> vigentes, long consultadaEn) {
+        Set<String> tokens = new HashSet<>();
+        for (ReservaTemporal reserva : vigentes) {
+            tokens.add(reserva.getToken());
+            agregar(reserva);
+        }
+        for (Registro registro : new ArrayList<>(registros.values())) {
+            if (!tokens.contains(registro.token()) && registro.registradaEn() < consultadaEn) {
+                quitar(registro.token());
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return registros.size();
+    }
+
+    private void descartar(Registro registro) {
+        registros.remove(registro.token());
+        IntervalTree<Registro> arbol = ocupacion.get(registro.clave());
+        arbol.eliminar(registro.inicio(), registro);
+        if (arbol.size() == 0) {
+            ocupacion.remove(registro.clave());
+        }
+    }
+
+    private static int minutoDelDia(LocalTime hora) {
+        return hora.toSecondOfDay() / 60;
+    }
+
+    private static long milisegundos(LocalDateTime fechaHora) {
+        return fechaHora.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,23 @@
+package com.mediapp.citasbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de la caché de agendas diarias por médico
+ */
+@Configuration
+@ConfigurationProperties(prefix = "mediapp.agenda-cache")
+@Data
+public class AgendaCacheProperties {
+
+    // Activa la caché; si se desactiva cada consulta va a la base de datos
+    private boolean enabled = true;
+
+    // Número máximo de agendas (médico, fecha) en memoria; se descarta la usada hace más tiempo
+    private int maxEntries = 10_000;
+
+    // Antigüedad máxima de una agenda cargada; acota lo que puede tardar en verse un cambio hecho por otra instancia
+    private long ttlSeconds = 300;
+}
@@ -0,0 +1,34 @@
+package com.mediapp.citasbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración del archivado de citas cerradas antiguas en la tabla citas_archivo
+ */
+@Configuration
+@ConfigurationProperties(prefix = "mediapp.archivo-citas")
+@Data
+public class ArchivoCitasProperties {
+
+    // Activa el archivado periódico; las lecturas consultan el archivo aunque esté desactivado
+    private boolean enabled = true;
+
+    // Antigüedad en días a partir de la cual se archivan las citas cerradas. Las consultas de
+    // rangos anteriores a esta antigüedad leen también el archivo, así que no debe aumentarse
+    // después de archivar: las citas archivadas entre la antigüedad anterior y la nueva no se verían
+    private int edadDias = 365;
+
+    // Citas movidas por transacción
+    private int tamanoTramo = 500;
+
+    // Tramos por ejecución; lo que quede se procesa en la siguiente
+    private int maxTramos = 20;
+
+    // Intervalo entre ejecuciones en milisegundos
+    private long intervaloMs = 3_600_000;
+
+    // Duración del arrendamiento; se renueva con cada tramo
+    private long arrendamientoSegundos = 300;
+}
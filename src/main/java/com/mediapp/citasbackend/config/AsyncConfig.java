@@ -0,0 +1,16 @@
+package com.mediapp.citasbackend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita la ejecución de tareas @Async y @Scheduled.
+ * Con spring.threads.virtual.enabled=true Spring Boot ejecuta las peticiones de Tomcat,
+ * el executor de @Async y el scheduler sobre hilos virtuales de Java 21.
+ */
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class AsyncConfig {
+}
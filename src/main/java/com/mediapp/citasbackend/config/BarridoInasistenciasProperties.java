@@ -0,0 +1,32 @@
+package com.mediapp.citasbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración del barrido que marca como NO_ASISTIO las citas programadas ya pasadas
+ */
+@Configuration
+@ConfigurationProperties(prefix = "mediapp.barrido-inasistencias")
+@Data
+public class BarridoInasistenciasProperties {
+
+    // Activa el barrido periódico
+    private boolean enabled = true;
+
+    // Minutos después de la hora de la cita antes de darla por no asistida
+    private long graciaMinutos = 120;
+
+    // Citas por tramo; cada tramo es una consulta y un cambio en lote
+    private int tamanoTramo = 200;
+
+    // Tramos por ejecución; lo que quede se procesa en la siguiente
+    private int maxTramos = 25;
+
+    // Intervalo entre ejecuciones en milisegundos
+    private long intervaloMs = 300_000;
+
+    // Duración del arrendamiento; se renueva con cada tramo y vence solo si la instancia se detiene
+    private long arrendamientoSegundos = 120;
+}
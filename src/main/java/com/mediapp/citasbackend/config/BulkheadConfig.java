@@ -0,0 +1,32 @@
+package com.mediapp.citasbackend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mediapp.citasbackend.resilience.AdaptiveConcurrencyLimiter;
+import com.mediapp.citasbackend.resilience.BulkheadFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Registra el filtro de bulkheads antes de la cadena de Spring Security, ya que la
+ * autenticación JWT también consulta la base de datos
+ */
+@Configuration
+@ConditionalOnProperty(value = "mediapp.bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+public class BulkheadConfig {
+
+    @Bean
+    public FilterRegistrationBean<BulkheadFilter> bulkheadFilter(
+            AdaptiveConcurrencyLimiter limiter,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        FilterRegistrationBean<BulkheadFilter> registration =
+                new FilterRegistrationBean<>(new BulkheadFilter(limiter, objectMapper, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,68 @@
+package com.mediapp.citasbackend.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de los bulkheads por clase de endpoint sobre el pool de conexiones
+ * y del limitador adaptativo que descarta tráfico de baja prioridad
+ */
+@Configuration
+@ConfigurationProperties(prefix = "mediapp.bulkhead")
+@Data
+public class BulkheadProperties {
+
+    // Activa el filtro de bulkheads
+    private boolean enabled = true;
+
+    // Reserva de petición de citas: nunca se reduce de forma adaptativa
+    private Limits booking = new Limits(10, 50, 2000);
+
+    // Consultas de pacientes y médicos
+    private Limits patientRead = new Limits(8, 50, 500);
+
+    // Listados completos, historiales y reportes administrativos
+    private Limits adminReporting = new Limits(2, 5, 0);
+
+    private Adaptive adaptive = new Adaptive();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limits {
+
+        // Peticiones concurrentes máximas de la clase
+        private int maxConcurrent;
+
+        // Peticiones que pueden esperar turno; el resto se rechaza de inmediato
+        private int maxQueue;
+
+        // Tiempo máximo de espera en la cola antes de responder 503
+        private long maxWaitMs;
+    }
+
+    @Data
+    public static class Adaptive {
+
+        // Activa el ajuste AIMD de los límites de baja prioridad
+        private boolean enabled = true;
+
+        // Espera promedio por una conexión del pool a partir de la cual se reducen los límites
+        private long targetPoolWaitMs = 50;
+
+        // Factor multiplicativo aplicado al límite cuando se supera la espera objetivo
+        private double backoffRatio = 0.7;
+
+        // Límite mínimo al que puede llegar una clase de baja prioridad
+        private int minLimit = 1;
+
+        // Intervalo de muestreo de la espera del pool
+        private long sampleIntervalMs = 1000;
+
+        // Valor de la cabecera Retry-After en las respuestas 503
+        private int retryAfterSeconds = 2;
+    }
+}
@@ -0,0 +1,26 @@
+package com.mediapp.citasbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de los contadores de citas por ámbito y estado
+ */
+@Configuration
+@ConfigurationProperties(prefix = "mediapp.contadores")
+@Data
+public class ContadorCitasProperties {
+
+    // Usa los contadores mantenidos; si se desactiva los conteos vuelven a ser COUNT sobre citas
+    private boolean enabled = true;
+
+    // Filas en las que se reparte cada contador para repartir la contención
+    private int franjas = 8;
+
+    // Contadores que se mantienen en memoria; los demás se leen de la tabla en cada consulta
+    private int maxEnMemoria = 100_000;
+
+    // Intervalo entre reconciliaciones contra la tabla citas
+    private long reconciliacionMs = 600_000;
+}
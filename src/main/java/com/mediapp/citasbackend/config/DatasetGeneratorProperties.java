@@ -0,0 +1,65 @@
+package com.mediapp.citasbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.LocalDate;
+
+/**
+ * Configuración del generador de datos sintéticos (perfil generate-dataset)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "mediapp.dataset.generator")
+@Data
+public class DatasetGeneratorProperties {
+
+    // Semilla del generador: la misma semilla y configuración producen exactamente las mismas filas
+    private long seed = 42;
+
+    // Fecha de referencia ("hoy" del dataset); si es nula se usa la fecha actual
+    private LocalDate referenceDate;
+
+    private int pacientes = 10_000;
+
+    private int medicosPorEspecialidad = 20;
+
+    private int administradores = 5;
+
+    // Años de historia de citas hacia atrás desde la fecha de referencia
+    private int years = 3;
+
+    // Días de citas futuras (programadas) después de la fecha de referencia
+    private int futureDays = 60;
+
+    // Citas promedio por paciente y por año
+    private double citasPorPacienteAnio = 4.0;
+
+    // Exponente de la distribución Zipf de popularidad de médicos (1.0 ≈ ley de Zipf clásica)
+    private double zipfExponent = 1.1;
+
+    private double cancellationRate = 0.12;
+
+    private double noShowRate = 0.05;
+
+    private double telemedicineRate = 0.25;
+
+    // Fracción de citas completadas que reciben una evaluación del paciente
+    private double evaluationRate = 0.3;
+
+    // Probabilidad de que una notificación con más de una semana esté leída
+    private double notificationReadRate = 0.85;
+
+    // Filas por lote JDBC o por sentencia INSERT en los archivos
+    private int batchSize = 1000;
+
+    // DATABASE escribe en el DataSource; SQL_GZIP escribe un archivo .sql.gz por tabla
+    private Output output = Output.DATABASE;
+
+    private String outputDir = "target/dataset";
+
+    public enum Output {
+        DATABASE,
+        SQL_GZIP
+    }
+}
@@ -0,0 +1,35 @@
+package com.mediapp.citasbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración del cargador del dataset JSON (perfil load-dataset)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "mediapp.dataset.loader")
+@Data
+public class DatasetLoaderProperties {
+
+    // Ubicación del dataset (classpath:, file: o ruta)
+    private String file = "classpath:data/dataset_mediapp.json";
+
+    // Solo valida el archivo (tipos, obligatorios, únicos y referencias) sin escribir en la base de datos
+    private boolean dryRun = false;
+
+    // Filas por lote JDBC
+    private int batchSize = 500;
+
+    // Lotes que se insertan en paralelo, cada uno con su propia conexión
+    private int threads = 4;
+
+    // Elimina los índices secundarios antes de la carga y los vuelve a crear al final (solo MySQL)
+    private boolean deferIndexes = true;
+
+    // Cada cuántas filas por tabla se registra el progreso
+    private long progressInterval = 50_000;
+
+    // Errores de validación que se detallan en el log antes de resumir el resto
+    private int maxReportedErrors = 50;
+}
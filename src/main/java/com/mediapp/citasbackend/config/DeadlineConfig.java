@@ -0,0 +1,26 @@
+package com.mediapp.citasbackend.config;
+
+import com.mediapp.citasbackend.resilience.DeadlineFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Registra el filtro de plazos antes del bulkhead, para que la espera en la cola
+ * también consuma el plazo de la petición
+ */
+@Configuration
+@ConditionalOnProperty(value = "mediapp.deadline.enabled", havingValue = "true", matchIfMissing = true)
+public class DeadlineConfig {
+
+    @Bean
+    public FilterRegistrationBean<DeadlineFilter> deadlineFilter(DeadlineProperties properties) {
+        FilterRegistrationBean<DeadlineFilter> registration =
+                new FilterRegistrationBean<>(new DeadlineFilter(properties));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 15);
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,35 @@
+package com.mediapp.citasbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración del plazo por petición que se propaga como timeout a las sentencias JDBC
+ */
+@Configuration
+@ConfigurationProperties(prefix = "mediapp.deadline")
+@Data
+public class DeadlineProperties {
+
+    // Activa el plazo por petición
+    private boolean enabled = true;
+
+    // Cabecera con la que el cliente indica su plazo en milisegundos
+    private String header = "X-Request-Timeout";
+
+    // Plazo por defecto de las reservas de citas
+    private long bookingTimeoutMs = 5000;
+
+    // Plazo por defecto de las consultas de pacientes y médicos
+    private long patientReadTimeoutMs = 5000;
+
+    // Plazo por defecto de los listados completos y reportes
+    private long adminReportingTimeoutMs = 15000;
+
+    // Plazo de las rutas que no pertenecen a ninguna clase de endpoint (autenticación)
+    private long defaultTimeoutMs = 10000;
+
+    // Plazo máximo aceptado desde la cabecera
+    private long maxTimeoutMs = 30000;
+}
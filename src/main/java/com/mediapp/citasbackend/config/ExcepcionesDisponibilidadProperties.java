@@ -0,0 +1,17 @@
+package com.mediapp.citasbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de las excepciones de disponibilidad compiladas por médico
+ */
+@Configuration
+@ConfigurationProperties(prefix = "mediapp.excepciones-disponibilidad")
+@Data
+public class ExcepcionesDisponibilidadProperties {
+
+    // Antigüedad máxima de las excepciones en memoria; acota lo que tarda en verse un cambio hecho en otra instancia
+    private long ttlSegundos = 300;
+}
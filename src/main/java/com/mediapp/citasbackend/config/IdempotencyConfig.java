@@ -0,0 +1,31 @@
+package com.mediapp.citasbackend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mediapp.citasbackend.resilience.IdempotencyFilter;
+import com.mediapp.citasbackend.resilience.IdempotencyStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registra el filtro de idempotencia después de la cadena de Spring Security, para que las
+ * claves queden asociadas al usuario autenticado y una petición rechazada no reserve la clave
+ */
+@Configuration
+@ConditionalOnProperty(value = "mediapp.idempotency.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyConfig {
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(
+            IdempotencyStore store,
+            IdempotencyProperties properties,
+            ObjectMapper objectMapper) {
+        FilterRegistrationBean<IdempotencyFilter> registration =
+                new FilterRegistrationBean<>(new IdempotencyFilter(store, properties.getPaths(), objectMapper));
+        // La cadena de Spring Security se registra con orden -100
+        registration.setOrder(0);
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
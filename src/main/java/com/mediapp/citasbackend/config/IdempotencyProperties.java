@@ -0,0 +1,42 @@
+package com.mediapp.citasbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuración de las respuestas idempotentes para los POST con cabecera Idempotency-Key
+ */
+@Configuration
+@ConfigurationProperties(prefix = "mediapp.idempotency")
+@Data
+public class IdempotencyProperties {
+
+    // Activa el filtro de idempotencia
+    private boolean enabled = true;
+
+    // Rutas exactas de los POST que admiten la cabecera
+    private List<String> paths = new ArrayList<>(List.of(
+            "/api/citas", "/api/citas/series", "/api/evaluaciones", "/api/auth/register"));
+
+    // Tiempo que se conserva una respuesta para repetirla
+    private long ttlSeconds = 86_400;
+
+    // Tiempo que otra instancia respeta una petición en curso antes de darla por abandonada
+    private long inFlightSeconds = 60;
+
+    // Máximo de claves en memoria; las demás se consultan en la tabla
+    private int maxEntries = 10_000;
+
+    // Espera máxima de una petición duplicada por el resultado de la original
+    private long waitMillis = 10_000;
+
+    // Intervalo de consulta a la tabla cuando la original se ejecuta en otra instancia
+    private long pollMillis = 200;
+
+    // Intervalo de la limpieza de respuestas vencidas en milisegundos
+    private long purgeIntervalMs = 600_000;
+}
@@ -0,0 +1,20 @@
+package com.mediapp.citasbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración del índice en memoria de médicos disponibles por día y franja horaria
+ */
+@Configuration
+@ConfigurationProperties(prefix = "mediapp.indice-disponibilidad")
+@Data
+public class IndiceDisponibilidadProperties {
+
+    // Responde las consultas de médicos disponibles desde el índice en lugar de la tabla
+    private boolean enabled = true;
+
+    // Antigüedad máxima del índice; acota lo que tarda en verse un cambio hecho en otra instancia
+    private long ttlSegundos = 300;
+}
@@ -0,0 +1,32 @@
+package com.mediapp.citasbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de la lista de espera que ofrece los horarios de las citas canceladas
+ */
+@Configuration
+@ConfigurationProperties(prefix = "mediapp.lista-espera")
+@Data
+public class ListaEsperaProperties {
+
+    // Activa el ofrecimiento automático de los horarios liberados
+    private boolean enabled = true;
+
+    // Segundos que tiene el paciente para confirmar el horario ofrecido
+    private long confirmacionSegundos = 900;
+
+    // Días máximos del rango de fechas de una entrada
+    private int maxDias = 31;
+
+    // Colas (médico o especialidad, fecha) en memoria; se descarta la usada hace más tiempo
+    private int maxColas = 10_000;
+
+    // Antigüedad máxima de una cola cargada; acota lo que tarda en verse una entrada registrada en otra instancia
+    private long ttlSegundos = 60;
+
+    // Intervalo en milisegundos para revisar las ofertas no confirmadas
+    private long revisionMs = 60_000;
+}
@@ -0,0 +1,29 @@
+package com.mediapp.citasbackend.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.support.ResourcePatternResolver;
+
+import javax.sql.DataSource;
+
+/**
+ * Aplica las migraciones del esquema antes de crear el EntityManagerFactory, ya que Hibernate
+ * valida al arrancar que las tablas coincidan con las entidades (ddl-auto=validate)
+ */
+@Configuration
+@ConditionalOnProperty(value = "mediapp.migraciones.enabled", havingValue = "true", matchIfMissing = true)
+public class MigracionesConfig {
+
+    @Bean
+    public MigradorEsquema migradorEsquema(DataSource dataSource, MigracionesProperties properties,
+                                           ResourcePatternResolver resolver) {
+        return new MigradorEsquema(dataSource, properties, resolver);
+    }
+
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor migracionesAntesDeJpa() {
+        return new EntityManagerFactoryDependsOnPostProcessor("migradorEsquema");
+    }
+}
@@ -0,0 +1,26 @@
+package com.mediapp.citasbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de las migraciones versionadas del esquema (db/migration)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "mediapp.migraciones")
+@Data
+public class MigracionesProperties {
+
+    // Aplica las migraciones pendientes al arrancar, antes de que Hibernate valide el esquema
+    private boolean enabled = true;
+
+    // Carpeta de los scripts V<versión>__<descripción>.sql
+    private String ubicacion = "classpath:db/migration";
+
+    // Versión que ya tiene una base creada con ddl-auto=update; sus scripts se registran sin ejecutarse
+    private int versionBase = 1;
+
+    // Espera máxima por el bloqueo de migraciones cuando otra instancia está migrando
+    private int esperaBloqueoSegundos = 300;
+}
@@ -0,0 +1,233 @@
+package com.mediapp.citasbackend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.util.StreamUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Aplica en orden los scripts V<versión>__<descripción>.sql que aún no figuran en
+ * historial_migraciones y registra cada uno con su checksum. Una base creada antes de las
+ * migraciones (con ddl-auto=update) se registra como migrada hasta versionBase sin ejecutar
+ * esos scripts. Si un script ya aplicado cambió o uno nuevo falla, la aplicación no arranca.
+ * En MySQL las instancias que arrancan a la vez se turnan con GET_LOCK.
+ */
+@Slf4j
+public class MigradorEsquema implements InitializingBean {
+
+    static final String TABLA_HISTORIAL = "historial_migraciones";
+
+    // Tabla que existe en cualquier base creada por la aplicación
+    private static final String TABLA_REFERENCIA = "citas";
+    private static final String BLOQUEO = "mediapp_migraciones";
+    private static final Pattern NOMBRE = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+    record Script(int version, String descripcion, long checksum, List<String> sentencias) {
+    }
+
+    private final DataSource dataSource;
+    private final MigracionesProperties properties;
+    private final ResourcePatternResolver resolver;
+
+    public MigradorEsquema(DataSource dataSource, MigracionesProperties properties, ResourcePatternResolver resolver) {
+        this.dataSource = dataSource;
+        this.properties = properties;
+        this.resolver = resolver;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        migrar();
+    }
+
+    // Devuelve los scripts ejecutados
+    public int migrar() {
+        List<Script> scripts = cargarScripts();
+        try (Connection conexion = dataSource.getConnection()) {
+            conexion.setAutoCommit(true);
+            boolean mysql = "MySQL".equalsIgnoreCase(conexion.getMetaData().getDatabaseProductName());
+            if (mysql) {
+                bloquear(conexion);
+            }
+            try {
+                return aplicar(conexion, scripts);
+            } finally {
+                if (mysql) {
+                    ejecutar(conexion, "SELECT RELEASE_LOCK('" + BLOQUEO + "')");
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudieron aplicar las migraciones: " + e.getMessage(), e);
+        }
+    }
+
+    List<Script> cargarScripts() {
+        try {
+            List<Script> scripts = new ArrayList<>();
+            for (Resource recurso : resolver.getResources(properties.getUbicacion() + "/V*__*.sql")) {
+                Matcher nombre = NOMBRE.matcher(recurso.getFilename() != null ? recurso.getFilename() : "");
+                if (!nombre.matches()) {
+                    throw new IllegalStateException("Nombre de migración inválido: " + recurso.getFilename());
+                }
+                String contenido = StreamUtils.copyToString(recurso.getInputStream(), StandardCharsets.UTF_8);
+                CRC32 crc = new CRC32();
+                crc.update(contenido.getBytes(StandardCharsets.UTF_8));
+                scripts.add(new Script(Integer.parseInt(nombre.group(1)), nombre.group(2).replace('_', ' '),
+                        crc.getValue(), sentencias(contenido)));
+            }
+            scripts.sort(Comparator.comparingInt(Script::version));
+            for (int i = 1; i < scripts.size(); i++) {
+                if (scripts.get(i).version() == scripts.get(i - 1).version()) {
+                    throw new IllegalStateException("Versión de migración repetida: V" + scripts.get(i).version());
+                }
+            }
+            return scripts;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int aplicar(Connection conexion, List<Script> scripts) throws SQLException {
+        ejecutar(conexion, "CREATE TABLE IF NOT EXISTS " + TABLA_HISTORIAL + " ("
+                + "version INTEGER NOT NULL PRIMARY KEY, "
+                + "descripcion VARCHAR(200) NOT NULL, "
+                + "checksum BIGINT NOT NULL, "
+                + "base BOOLEAN NOT NULL, "
+                + "fecha_aplicacion TIMESTAMP NOT NULL)");
+        Map<Integer, Long> aplicadas = leerHistorial(conexion);
+        if (aplicadas.isEmpty() && existeTabla(conexion, TABLA_REFERENCIA)) {
+            for (Script script : scripts) {
+                if (script.version() <= properties.getVersionBase()) {
+                    registrar(conexion, script, true);
+                }
+            }
+            log.info("Esquema existente registrado como migrado hasta V{}", properties.getVersionBase());
+            aplicadas = leerHistorial(conexion);
+        }
+
+        int ultima = aplicadas.keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+        int ejecutadas = 0;
+        for (Script script : scripts) {
+            Long checksum = aplicadas.get(script.version());
+            if (checksum != null) {
+                if (checksum != script.checksum()) {
+                    throw new IllegalStateException("La migración V" + script.version() + " cambió después de aplicarse");
+                }
+                continue;
+            }
+            if (script.version() < ultima) {
+                throw new IllegalStateException("La migración V" + script.version()
+                        + " es anterior a la última aplicada (V" + ultima + ")");
+            }
+            long inicio = System.currentTimeMillis();
+            for (String sentencia : script.sentencias()) {
+                try {
+                    ejecutar(conexion, sentencia);
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Falló la migración V" + script.version() + " en: " + sentencia, e);
+                }
+            }
+            registrar(conexion, script, false);
+            ejecutadas++;
+            log.info("Migración V{} ({}) aplicada en {} ms", script.version(), script.descripcion(),
+                    System.currentTimeMillis() - inicio);
+        }
+        return ejecutadas;
+    }
+
+    private void bloquear(Connection conexion) throws SQLException {
+        try (Statement statement = conexion.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT GET_LOCK('" + BLOQUEO + "', "
+                     + properties.getEsperaBloqueoSegundos() + ")")) {
+            if (!rs.next() || rs.getInt(1) != 1) {
+                throw new IllegalStateException("Otra instancia sigue aplicando las migraciones");
+            }
+        }
+    }
+
+    private static Map<Integer, Long> leerHistorial(Connection conexion) throws SQLException {
+        Map<Integer, Long> aplicadas = new HashMap<>();
+        try (Statement statement = conexion.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT version, checksum FROM " + TABLA_HISTORIAL)) {
+            while (rs.next()) {
+                aplicadas.put(rs.getInt(1), rs.getLong(2));
+            }
+        }
+        return aplicadas;
+    }
+
+    private static void registrar(Connection conexion, Script script, boolean base) throws SQLException {
+        try (PreparedStatement statement = conexion.prepareStatement("INSERT INTO " + TABLA_HISTORIAL
+                + " (version, descripcion, checksum, base, fecha_aplicacion) VALUES (?, ?, ?, ?, ?)")) {
+            statement.setInt(1, script.version());
+            statement.setString(2, script.descripcion());
+            statement.setLong(3, script.checksum());
+            statement.setBoolean(4, base);
+            statement.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
+            statement.executeUpdate();
+        }
+    }
+
+    private static boolean existeTabla(Connection conexion, String tabla) throws SQLException {
+        DatabaseMetaData metaData = conexion.getMetaData();
+        for (String nombre : List.of(tabla, tabla.toUpperCase())) {
+            try (ResultSet rs = metaData.getTables(conexion.getCatalog(), null, nombre, new String[]{"TABLE"})) {
+                if (rs.next()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void ejecutar(Connection conexion, String sql) throws SQLException {
+        try (Statement statement = conexion.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    // Sentencias separadas por ";" al final de línea, sin las líneas de comentario
+    static List<String> sentencias(String contenido) {
+        List<String> sentencias = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        for (String linea : contenido.split("\\R")) {
+            String recortada = linea.strip();
+            if (recortada.isEmpty() || recortada.startsWith("--")) {
+                continue;
+            }
+            if (recortada.endsWith(";")) {
+                actual.append(recortada, 0, recortada.length() - 1);
+                sentencias.add(actual.toString().strip());
+                actual.setLength(0);
+            } else {
+                actual.append(recortada).append('\n');
+            }
+        }
+        if (!actual.toString().isBlank()) {
+            sentencias.add(actual.toString().strip());
+        }
+        return sentencias;
+    }
+}
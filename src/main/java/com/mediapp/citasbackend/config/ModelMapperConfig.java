@@ -1,26 +0,0 @@
-package com.mediapp.citasbackend.config;
-
-import org.modelmapper.ModelMapper;
-import org.modelmapper.convention.MatchingStrategies;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-
-/**
- * Configuración de ModelMapper para facilitar el mapeo entre entidades y DTOs
- */
-@Configuration
-public class ModelMapperConfig {
-
-    @Bean
-    public ModelMapper modelMapper() {
-        ModelMapper modelMapper = new ModelMapper();
-        
-        // Configuración para matching estricto
-        modelMapper.getConfiguration()
-                .setMatchingStrategy(MatchingStrategies.STRICT)
-                .setSkipNullEnabled(true)
-                .setAmbiguityIgnored(false);
-        
-        return modelMapper;
-    }
-}
@@ -0,0 +1,17 @@
+package com.mediapp.citasbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de las plantillas semanales de horarios compiladas por médico
+ */
+@Configuration
+@ConfigurationProperties(prefix = "mediapp.plantillas-horario")
+@Data
+public class PlantillasHorarioProperties {
+
+    // Antigüedad máxima de una plantilla; acota lo que tarda en verse un cambio de horario hecho en otra instancia
+    private long ttlSegundos = 300;
+}
@@ -0,0 +1,26 @@
+package com.mediapp.citasbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de las reservas temporales de horarios durante la solicitud de una cita
+ */
+@Configuration
+@ConfigurationProperties(prefix = "mediapp.reservas-temporales")
+@Data
+public class ReservaTemporalProperties {
+
+    // Segundos que dura una reserva antes de liberarse sola
+    private long duracionSegundos = 300;
+
+    // Resolución de la rueda de vencimientos en milisegundos
+    private long tickMs = 1000;
+
+    // Ranuras de la rueda; con duracionSegundos * 1000 / tickMs o más, cada vencimiento se procesa una sola vez
+    private int ranuras = 512;
+
+    // Intervalo en milisegundos para traer a memoria las reservas hechas o liberadas en otras instancias
+    private long sincronizacionMs = 2000;
+}
@@ -0,0 +1,20 @@
+package com.mediapp.citasbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de las series de citas recurrentes
+ */
+@Configuration
+@ConfigurationProperties(prefix = "mediapp.series-citas")
+@Data
+public class SerieCitasProperties {
+
+    // Máximo de fechas que puede generar una regla
+    private int maxOcurrencias = 200;
+
+    // Filas por lote JDBC al insertar las citas de la serie
+    private int tamanoLote = 100;
+}
@@ -0,0 +1,26 @@
+package com.mediapp.citasbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de las estadísticas de sentencias SQL y del log de consultas lentas
+ */
+@Configuration
+@ConfigurationProperties(prefix = "mediapp.sql-stats")
+@Data
+public class SqlStatisticsProperties {
+
+    // Activa el interceptor JDBC que agrega estadísticas por sentencia normalizada
+    private boolean enabled = true;
+
+    // Sentencias que superan este tiempo se registran en el log con la URI y los tipos de parámetros
+    private long slowQueryThresholdMs = 500;
+
+    // Repeticiones de la misma sentencia dentro de una petición a partir de las cuales se sospecha N+1
+    private int repeatedStatementThreshold = 10;
+
+    // Número máximo de sentencias distintas que se agregan; el resto se acumula en una entrada común
+    private int maxStatements = 500;
+}
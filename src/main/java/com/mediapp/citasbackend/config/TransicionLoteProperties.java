@@ -0,0 +1,20 @@
+package com.mediapp.citasbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de los cambios de estado de citas en lote
+ */
+@Configuration
+@ConfigurationProperties(prefix = "mediapp.transiciones-lote")
+@Data
+public class TransicionLoteProperties {
+
+    // Citas por transacción: se bloquean y actualizan con una consulta y un UPDATE por tramo
+    private int tamanoTramo = 500;
+
+    // Máximo de citas por petición
+    private int maxCitas = 5_000;
+}
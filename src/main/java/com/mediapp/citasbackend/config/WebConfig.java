@@ -1,12 +1,15 @@
 package com.mediapp.citasbackend.config;
 
+import com.mediapp.citasbackend.resilience.DeadlineInterceptor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 /**
  * Configuración web para la aplicación
  * Incluye configuración de CORS para permitir peticiones desde el frontend
+ * y el interceptor que corta las peticiones con el plazo agotado
  */
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
@@ -20,4 +23,9 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowCredentials(true)
                 .maxAge(3600);
     }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new DeadlineInterceptor()).addPathPatterns("/api/**");
+    }
 }
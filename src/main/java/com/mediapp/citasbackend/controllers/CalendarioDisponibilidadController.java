@@ -1,5 +1,6 @@
 package com.mediapp.citasbackend.controllers;
 
+import com.mediapp.citasbackend.dtos.HorarioSemanalDTO;
 import com.mediapp.citasbackend.entities.CalendarioDisponibilidad;
 import com.mediapp.citasbackend.entities.Medico;
 import com.mediapp.citasbackend.services.interfaces.CalendarioDisponibilidadService;
@@ -263,6 +264,26 @@ public class CalendarioDisponibilidadController {
         }
     }
 
+    /**
+     * Buscar médicos disponibles por día y, opcionalmente, hora, especialidad, ciudad y verificación
+     */
+    @GetMapping("/medicos-disponibles") // http://56.125.172.86:8080/api/calendario-disponibilidad/medicos-disponibles?dia={dia}&hora={hora}&idEspecialidad={idEspecialidad}&ciudad={ciudad}&verificados={verificados}
+    public ResponseEntity<List<Medico>> buscarMedicosDisponibles(
+            @RequestParam CalendarioDisponibilidad.DiaSemana dia,
+            @RequestParam(required = false) String hora,
+            @RequestParam(required = false) Integer idEspecialidad,
+            @RequestParam(required = false) String ciudad,
+            @RequestParam(defaultValue = "false") boolean verificados) {
+        try {
+            LocalTime horaCita = hora == null ? null : LocalTime.parse(hora);
+            List<Medico> medicos = calendarioService.obtenerMedicosDisponibles(
+                    dia, horaCita, idEspecialidad, ciudad, verificados);
+            return ResponseEntity.ok(medicos);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
     /**
      * Obtener disponibilidades ordenadas por médico
      */
@@ -274,6 +295,29 @@ public class CalendarioDisponibilidadController {
         return ResponseEntity.ok(disponibilidades);
     }
 
+    /**
+     * Reemplazar todo el horario semanal de un médico en una sola operación
+     */
+    @PutMapping("/medico/{idMedico}/semana") // http://56.125.172.86:8080/api/calendario-disponibilidad/medico/{idMedico}/semana
+    @Operation(summary = "Reemplazar horario semanal",
+               description = "Valida todos los bloques y aplica en una transacción las altas, cambios y bajas " +
+                       "frente al horario actual del médico")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Horario reemplazado",
+            content = @Content(schema = @Schema(implementation = HorarioSemanalDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Bloques inválidos o que se superponen")
+    })
+    public ResponseEntity<HorarioSemanalDTO> reemplazarHorarioSemanal(
+            @PathVariable Integer idMedico,
+            @Parameter(description = "Bloques del horario completo; los que no se envíen se eliminan", required = true)
+            @RequestBody List<CalendarioDisponibilidad> bloques) {
+        try {
+            return ResponseEntity.ok(calendarioService.reemplazarHorarioSemanal(idMedico, bloques));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
+
     /**
      * Eliminar todas las disponibilidades de un médico
      */
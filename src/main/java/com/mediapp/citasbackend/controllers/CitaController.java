@@ -1,5 +1,9 @@
 package com.mediapp.citasbackend.controllers;
 
+import com.mediapp.citasbackend.dtos.AgendaDiaDTO;
+import com.mediapp.citasbackend.dtos.FiltroCitasDTO;
+import com.mediapp.citasbackend.dtos.HorarioLibreDTO;
+import com.mediapp.citasbackend.dtos.PaginaCitasDTO;
 import com.mediapp.citasbackend.entities.Cita;
 import com.mediapp.citasbackend.services.interfaces.CitaService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -15,6 +19,7 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -32,7 +37,8 @@ public class CitaController {
     private final CitaService citaService;
 
     @PostMapping // http://56.125.172.86:8080/api/citas
-    @Operation(summary = "Crear nueva cita", description = "Crea una nueva cita médica en el sistema")
+    @Operation(summary = "Crear nueva cita", description = "Crea una nueva cita médica en el sistema. " +
+            "Si se indica la reserva temporal del horario, la cita la consume")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Cita creada exitosamente",
             content = @Content(schema = @Schema(implementation = Cita.class))),
@@ -40,9 +46,11 @@ public class CitaController {
     })
     public ResponseEntity<Cita> crearCita(
         @Parameter(description = "Datos de la cita a crear", required = true)
-        @RequestBody Cita cita) {
+        @RequestBody Cita cita,
+        @Parameter(description = "Token de la reserva temporal del horario")
+        @RequestParam(required = false) String reserva) {
         try {
-            Cita nuevaCita = citaService.guardarCita(cita);
+            Cita nuevaCita = reserva == null ? citaService.guardarCita(cita) : citaService.guardarCita(cita, reserva);
             return new ResponseEntity<>(nuevaCita, HttpStatus.CREATED);
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
@@ -57,6 +65,38 @@ public class CitaController {
         return ResponseEntity.ok(citas);
     }
 
+    @GetMapping("/buscar") // http://56.125.172.86:8080/api/citas/buscar
+    @Operation(summary = "Buscar citas", description = "Busca citas por cualquier combinación de médico, paciente, estado, " +
+            "tipo, especialidad y rango de fechas, en orden de fecha y hora. Para la página siguiente se envía el " +
+            "cursor devuelto por la anterior")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página de citas"),
+        @ApiResponse(responseCode = "400", description = "Criterios, cursor o límite inválidos")
+    })
+    public ResponseEntity<PaginaCitasDTO> buscarCitas(
+            @RequestParam(required = false) Integer idMedico,
+            @RequestParam(required = false) Integer idPaciente,
+            @RequestParam(required = false) Cita.Estado estado,
+            @RequestParam(required = false) Cita.TipoCita tipoCita,
+            @RequestParam(required = false) Integer idEspecialidad,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaDesde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaHasta,
+            @Parameter(description = "Cursor de la página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Citas por página (máximo 200)", example = "50")
+            @RequestParam(required = false) Integer limite) {
+        FiltroCitasDTO filtro = FiltroCitasDTO.builder()
+                .idMedico(idMedico)
+                .idPaciente(idPaciente)
+                .estado(estado)
+                .tipoCita(tipoCita)
+                .idEspecialidad(idEspecialidad)
+                .fechaDesde(fechaDesde)
+                .fechaHasta(fechaHasta)
+                .build();
+        return ResponseEntity.ok(citaService.buscarCitas(filtro, cursor, limite));
+    }
+
     @GetMapping("/{id}") // http://56.125.172.86:8080/api/citas/{id}
     @Operation(summary = "Obtener cita por ID", description = "Retorna los detalles de una cita específica por su identificador")
     @ApiResponses(value = {
@@ -201,6 +241,41 @@ public class CitaController {
         return ResponseEntity.ok(citas);
     }
 
+    /**
+     * Obtener la agenda compacta de un médico en una fecha (admite If-None-Match)
+     */
+    @GetMapping("/medico/{idMedico}/agenda/{fecha}") // http://56.125.172.86:8080/api/citas/medico/{idMedico}/agenda/{fecha}
+    @Operation(summary = "Agenda diaria del médico", description = "Retorna todas las citas del médico en la fecha en formato compacto. " +
+            "La respuesta lleva un ETag con la versión de la agenda; si se envía en If-None-Match y no hubo cambios responde 304")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Agenda obtenida exitosamente"),
+        @ApiResponse(responseCode = "304", description = "La agenda no cambió desde la versión indicada")
+    })
+    public ResponseEntity<AgendaDiaDTO> obtenerAgendaDelDia(
+            @PathVariable Integer idMedico,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
+            WebRequest request) {
+        AgendaDiaDTO agenda = citaService.obtenerAgendaDelDia(idMedico, fecha);
+        String etag = "\"" + agenda.getVersion() + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(agenda);
+    }
+
+    /**
+     * Obtener los horarios libres de un médico en un rango de fechas
+     */
+    @GetMapping("/medico/{idMedico}/horarios-libres") // http://56.125.172.86:8080/api/citas/medico/{idMedico}/horarios-libres?desde={desde}&hasta={hasta}
+    @Operation(summary = "Horarios libres del médico", description = "Retorna los horarios del calendario del médico entre las dos fechas " +
+            "(máximo 31 días) que no ocupa ninguna cita ni reserva temporal, en orden de fecha y hora")
+    public ResponseEntity<List<HorarioLibreDTO>> obtenerHorariosLibres(
+            @PathVariable Integer idMedico,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        return ResponseEntity.ok(citaService.obtenerHorariosLibres(idMedico, desde, hasta));
+    }
+
     /**
      * Obtener citas por paciente y fecha
      */
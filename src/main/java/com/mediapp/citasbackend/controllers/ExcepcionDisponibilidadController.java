@@ -0,0 +1,87 @@
+package com.mediapp.citasbackend.controllers;
+
+import com.mediapp.citasbackend.entities.ExcepcionDisponibilidad;
+import com.mediapp.citasbackend.services.interfaces.ExcepcionDisponibilidadService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/excepciones-disponibilidad")
+@RequiredArgsConstructor
+@Tag(name = "Excepciones de Disponibilidad", description = "Vacaciones, festivos y horarios especiales por fecha sobre el horario semanal")
+@SecurityRequirement(name = "bearerAuth")
+public class ExcepcionDisponibilidadController {
+
+    private final ExcepcionDisponibilidadService excepcionService;
+
+    @PostMapping // http://56.125.172.86:8080/api/excepciones-disponibilidad
+    @Operation(summary = "Crear excepción",
+               description = "Cierra un rango de fechas (completo o en un rango de horas) o le asigna un horario especial, sin modificar el horario semanal")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Excepción creada exitosamente",
+            content = @Content(schema = @Schema(implementation = ExcepcionDisponibilidad.class))),
+        @ApiResponse(responseCode = "400", description = "Datos de la excepción inválidos")
+    })
+    public ResponseEntity<ExcepcionDisponibilidad> crearExcepcion(
+            @Parameter(description = "Datos de la excepción a crear", required = true)
+            @RequestBody ExcepcionDisponibilidad excepcion) {
+        try {
+            return new ResponseEntity<>(excepcionService.guardarExcepcion(excepcion), HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/{id}") // http://56.125.172.86:8080/api/excepciones-disponibilidad/{id}
+    @Operation(summary = "Obtener excepción por ID")
+    public ResponseEntity<ExcepcionDisponibilidad> obtenerExcepcionPorId(@PathVariable Integer id) {
+        return excepcionService.obtenerExcepcionPorId(id)
+                .map(ResponseEntity::ok)
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @PutMapping("/{id}") // http://56.125.172.86:8080/api/excepciones-disponibilidad/{id}
+    @Operation(summary = "Actualizar excepción")
+    public ResponseEntity<ExcepcionDisponibilidad> actualizarExcepcion(
+            @PathVariable Integer id,
+            @RequestBody ExcepcionDisponibilidad excepcion) {
+        try {
+            return ResponseEntity.ok(excepcionService.actualizarExcepcion(id, excepcion));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Eliminar una excepción
+     */
+    @DeleteMapping("/{id}") // http://56.125.172.86:8080/api/excepciones-disponibilidad/{id}
+    public ResponseEntity<Void> eliminarExcepcion(@PathVariable Integer id) {
+        try {
+            excepcionService.eliminarExcepcion(id);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    /**
+     * Obtener las excepciones del médico que no han terminado
+     */
+    @GetMapping("/medico/{idMedico}") // http://56.125.172.86:8080/api/excepciones-disponibilidad/medico/{idMedico}
+    public ResponseEntity<List<ExcepcionDisponibilidad>> obtenerExcepcionesVigentesPorMedico(@PathVariable Integer idMedico) {
+        return ResponseEntity.ok(excepcionService.obtenerExcepcionesVigentesPorMedico(idMedico));
+    }
+}
@@ -0,0 +1,71 @@
+package com.mediapp.citasbackend.controllers;
+
+import com.mediapp.citasbackend.entities.EntradaListaEspera;
+import com.mediapp.citasbackend.services.interfaces.ListaEsperaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/lista-espera")
+@RequiredArgsConstructor
+@Tag(name = "Lista de espera", description = "Aviso automático cuando se libera un horario con un médico o especialidad")
+@SecurityRequirement(name = "bearerAuth")
+public class ListaEsperaController {
+
+    private final ListaEsperaService listaEsperaService;
+
+    /**
+     * Registrar al paciente en la lista de espera
+     */
+    @PostMapping // http://56.125.172.86:8080/api/lista-espera
+    @Operation(summary = "Registrar en lista de espera", description = "Registra el interés del paciente en un médico (idMedico) " +
+            "o una especialidad (idEspecialidad) entre fechaDesde y fechaHasta. Cuando se cancela una cita que encaja, " +
+            "el horario se reserva para el paciente y se le envía una notificación para confirmarlo")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Entrada registrada"),
+        @ApiResponse(responseCode = "400", description = "Datos inválidos"),
+        @ApiResponse(responseCode = "404", description = "Paciente no encontrado")
+    })
+    public ResponseEntity<EntradaListaEspera> registrar(@RequestBody EntradaListaEspera entrada) {
+        return new ResponseEntity<>(listaEsperaService.registrar(entrada), HttpStatus.CREATED);
+    }
+
+    /**
+     * Retirar una entrada de la lista de espera
+     */
+    @DeleteMapping("/{id}") // http://56.125.172.86:8080/api/lista-espera/{id}
+    @Operation(summary = "Cancelar entrada", description = "Retira una entrada activa de la lista de espera")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Entrada cancelada"),
+        @ApiResponse(responseCode = "400", description = "La entrada no está activa"),
+        @ApiResponse(responseCode = "404", description = "Entrada no encontrada")
+    })
+    public ResponseEntity<Void> cancelar(
+        @Parameter(description = "ID de la entrada", required = true, example = "1")
+        @PathVariable Long id) {
+        listaEsperaService.cancelar(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Entradas vigentes del paciente
+     */
+    @GetMapping("/paciente/{idPaciente}") // http://56.125.172.86:8080/api/lista-espera/paciente/{idPaciente}
+    @Operation(summary = "Entradas del paciente", description = "Retorna las entradas activas u ofrecidas del paciente")
+    @ApiResponse(responseCode = "200", description = "Entradas obtenidas exitosamente")
+    public ResponseEntity<List<EntradaListaEspera>> obtenerPorPaciente(
+        @Parameter(description = "ID del paciente", required = true, example = "1")
+        @PathVariable Integer idPaciente) {
+        return ResponseEntity.ok(listaEsperaService.obtenerPorPaciente(idPaciente));
+    }
+}
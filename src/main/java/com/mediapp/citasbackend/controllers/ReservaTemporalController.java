@@ -0,0 +1,54 @@
+package com.mediapp.citasbackend.controllers;
+
+import com.mediapp.citasbackend.entities.ReservaTemporal;
+import com.mediapp.citasbackend.services.interfaces.ReservaTemporalService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/reservas-temporales")
+@RequiredArgsConstructor
+@Tag(name = "Reservas temporales", description = "Reserva de un horario mientras el paciente confirma la cita")
+@SecurityRequirement(name = "bearerAuth")
+public class ReservaTemporalController {
+
+    private final ReservaTemporalService reservaTemporalService;
+
+    /**
+     * Reservar un horario del médico
+     */
+    @PostMapping // http://56.125.172.86:8080/api/reservas-temporales
+    @Operation(summary = "Reservar horario", description = "Reserva el horario (idMedico, fecha, hora) por unos minutos. " +
+            "Retorna el token que se envía al crear la cita (POST /api/citas?reserva=token) o para liberarla")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Horario reservado"),
+        @ApiResponse(responseCode = "400", description = "Datos inválidos o el horario ya no está disponible")
+    })
+    public ResponseEntity<ReservaTemporal> reservar(@RequestBody ReservaTemporal solicitud) {
+        return new ResponseEntity<>(reservaTemporalService.reservar(solicitud), HttpStatus.CREATED);
+    }
+
+    /**
+     * Liberar una reserva antes de que venza
+     */
+    @DeleteMapping("/{token}") // http://56.125.172.86:8080/api/reservas-temporales/{token}
+    @Operation(summary = "Liberar reserva", description = "Libera el horario reservado sin esperar a que venza")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Reserva liberada"),
+        @ApiResponse(responseCode = "404", description = "La reserva no existe o ya se liberó")
+    })
+    public ResponseEntity<Void> liberar(
+        @Parameter(description = "Token de la reserva", required = true)
+        @PathVariable String token) {
+        reservaTemporalService.liberar(token);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,6 +1,9 @@
 package com.mediapp.citasbackend.controllers;
 
 import com.mediapp.citasbackend.dtos.UsuarioDTO;
+import com.mediapp.citasbackend.exceptions.ResourceNotFoundException;
+import com.mediapp.citasbackend.mappers.UsuarioMapper;
+import com.mediapp.citasbackend.services.interfaces.UsuarioService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -23,6 +26,9 @@ import org.springframework.web.bind.annotation.*;
 @SecurityRequirement(name = "Bearer Authentication")
 public class SecurityExampleController {
 
+    private final UsuarioService usuarioService;
+    private final UsuarioMapper usuarioMapper;
+
     // ===========================================
     // EJEMPLO 1: Endpoint público (sin autenticación)
     // ===========================================
@@ -97,13 +103,10 @@ public class SecurityExampleController {
     public ResponseEntity<UsuarioDTO> obtenerMiPerfil(Authentication authentication) {
         String email = authentication.getName();
         
-        // Aquí buscarías el usuario en la base de datos por su email
-        // Usuario usuario = usuarioRepository.findByEmail(email).orElseThrow(...);
-        
-        // Por ahora retornamos un ejemplo
-        UsuarioDTO perfil = new UsuarioDTO();
-        perfil.setEmail(email);
-        // ... llenar otros datos
+        // Buscar el usuario autenticado y mapearlo al DTO (sin contraseña)
+        UsuarioDTO perfil = usuarioService.obtenerUsuarioPorEmail(email)
+                .map(usuarioMapper::toDto)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuario", "email", email));
         
         return ResponseEntity.ok(perfil);
     }
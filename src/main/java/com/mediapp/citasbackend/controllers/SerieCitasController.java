@@ -0,0 +1,42 @@
+package com.mediapp.citasbackend.controllers;
+
+import com.mediapp.citasbackend.dtos.SerieCitasDTO;
+import com.mediapp.citasbackend.dtos.SerieCitasRequestDTO;
+import com.mediapp.citasbackend.services.interfaces.SerieCitasService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/citas/series")
+@RequiredArgsConstructor
+@Tag(name = "Series de citas", description = "Citas recurrentes de un paciente con un médico creadas en una sola petición")
+@SecurityRequirement(name = "bearerAuth")
+public class SerieCitasController {
+
+    private final SerieCitasService serieCitasService;
+
+    /**
+     * Crear una serie de citas recurrentes
+     */
+    @PostMapping // http://56.125.172.86:8080/api/citas/series
+    @Operation(summary = "Crear serie de citas", description = "Genera las fechas con la regla de recurrencia (p. ej. " +
+            "FREQ=WEEKLY;BYDAY=MO,TH;COUNT=12), hasta 6 meses adelante, y verifica cada una contra la agenda del médico. " +
+            "Sin omitirConflictos, una fecha en conflicto o fuera de plazo impide crear la serie; con omitirConflictos se crean las demás")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Serie creada; ver el resultado de cada fecha"),
+        @ApiResponse(responseCode = "400", description = "Datos o regla de recurrencia inválidos"),
+        @ApiResponse(responseCode = "404", description = "Paciente o médico no encontrado"),
+        @ApiResponse(responseCode = "409", description = "No se creó ninguna cita; ver los conflictos de cada fecha")
+    })
+    public ResponseEntity<SerieCitasDTO> crearSerie(@RequestBody SerieCitasRequestDTO solicitud) {
+        SerieCitasDTO serie = serieCitasService.crearSerie(solicitud);
+        return new ResponseEntity<>(serie, serie.getCreadas() > 0 ? HttpStatus.CREATED : HttpStatus.CONFLICT);
+    }
+}
@@ -0,0 +1,64 @@
+package com.mediapp.citasbackend.controllers;
+
+import com.mediapp.citasbackend.dtos.TransicionLoteDTO;
+import com.mediapp.citasbackend.dtos.TransicionLoteRequestDTO;
+import com.mediapp.citasbackend.entities.Cita;
+import com.mediapp.citasbackend.services.interfaces.TransicionCitasService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/citas/lote")
+@RequiredArgsConstructor
+@Tag(name = "Citas en lote", description = "Cambios de estado de varias citas en una sola petición")
+@SecurityRequirement(name = "bearerAuth")
+public class TransicionCitasController {
+
+    private final TransicionCitasService transicionCitasService;
+
+    /**
+     * Completar varias citas
+     */
+    @PostMapping("/completar") // http://56.125.172.86:8080/api/citas/lote/completar
+    @Operation(summary = "Completar citas en lote", description = "Marca como COMPLETADA cada cita de la lista o del médico en la fecha. " +
+            "Retorna el resultado de cada cita; las que no admiten el cambio no se modifican")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lote procesado; ver el resultado de cada cita"),
+        @ApiResponse(responseCode = "400", description = "Solicitud inválida")
+    })
+    public ResponseEntity<TransicionLoteDTO> completarCitas(@RequestBody TransicionLoteRequestDTO solicitud) {
+        return ResponseEntity.ok(transicionCitasService.cambiarEstado(solicitud, Cita.Estado.COMPLETADA));
+    }
+
+    /**
+     * Cancelar varias citas (por ejemplo, la agenda de un médico ausente)
+     */
+    @PostMapping("/cancelar") // http://56.125.172.86:8080/api/citas/lote/cancelar
+    @Operation(summary = "Cancelar citas en lote", description = "Cancela cada cita de la lista o del médico en la fecha y registra la fecha de cancelación")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lote procesado; ver el resultado de cada cita"),
+        @ApiResponse(responseCode = "400", description = "Solicitud inválida")
+    })
+    public ResponseEntity<TransicionLoteDTO> cancelarCitas(@RequestBody TransicionLoteRequestDTO solicitud) {
+        return ResponseEntity.ok(transicionCitasService.cambiarEstado(solicitud, Cita.Estado.CANCELADA));
+    }
+
+    /**
+     * Marcar varias citas como no asistió
+     */
+    @PostMapping("/no-asistio") // http://56.125.172.86:8080/api/citas/lote/no-asistio
+    @Operation(summary = "Marcar citas como no asistió en lote", description = "Marca como NO_ASISTIO cada cita programada de la lista o del médico en la fecha")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lote procesado; ver el resultado de cada cita"),
+        @ApiResponse(responseCode = "400", description = "Solicitud inválida")
+    })
+    public ResponseEntity<TransicionLoteDTO> marcarComoNoAsistio(@RequestBody TransicionLoteRequestDTO solicitud) {
+        return ResponseEntity.ok(transicionCitasService.cambiarEstado(solicitud, Cita.Estado.NO_ASISTIO));
+    }
+}
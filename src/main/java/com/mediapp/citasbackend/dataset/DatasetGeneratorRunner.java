@@ -0,0 +1,81 @@
+package com.mediapp.citasbackend.dataset;
+
+import com.mediapp.citasbackend.config.DatasetGeneratorProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Map;
+
+/**
+ * Genera el dataset sintético al arrancar con el perfil generate-dataset y termina la aplicación.
+ *
+ * Ejemplo: ./mvnw spring-boot:run -Dspring-boot.run.profiles=generate-dataset
+ *          -Dspring-boot.run.arguments="--mediapp.dataset.generator.pacientes=500000"
+ */
+@Component
+@Profile("generate-dataset")
+@RequiredArgsConstructor
+@Slf4j
+public class DatasetGeneratorRunner implements ApplicationRunner {
+
+    private final DatasetGeneratorProperties properties;
+    private final DataSource dataSource;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        SyntheticDatasetGenerator generator = new SyntheticDatasetGenerator(properties);
+        log.info("Generando dataset sintético: semilla={}, pacientes={}, médicos={}, años={}, fecha de referencia={}",
+                properties.getSeed(), properties.getPacientes(),
+                properties.getMedicosPorEspecialidad() * SyntheticDatasetGenerator.ESPECIALIDADES.length,
+                properties.getYears(), generator.getReferenceDate());
+
+        long inicio = System.nanoTime();
+        Map<String, Long> counts;
+        if (properties.getOutput() == DatasetGeneratorProperties.Output.SQL_GZIP) {
+            Path directorio = Path.of(properties.getOutputDir());
+            try (SqlGzipSink sink = new SqlGzipSink(directorio, properties.getBatchSize())) {
+                counts = generator.generate(sink);
+            }
+            log.info("Archivos escritos en {} (cargar con: zcat {}/*.sql.gz | mysql mediapp_db)",
+                    directorio.toAbsolutePath(), directorio);
+        } else {
+            try (Connection connection = dataSource.getConnection()) {
+                verificarBaseVacia(connection);
+                try (JdbcBatchSink sink = new JdbcBatchSink(connection, properties.getBatchSize())) {
+                    counts = generator.generate(sink);
+                }
+            }
+        }
+
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        long total = counts.values().stream().mapToLong(Long::longValue).sum();
+        counts.forEach((tabla, filas) -> log.info("  {}: {} filas", tabla, filas));
+        log.info("Dataset generado: {} filas en {} s ({} filas/s), {} citas descartadas por agenda llena",
+                total, String.format("%.1f", segundos), Math.round(total / Math.max(segundos, 1e-3)),
+                generator.getCitasDescartadas());
+
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+
+    private void verificarBaseVacia(Connection connection) throws Exception {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM usuarios")) {
+            if (rs.next() && rs.getLong(1) > 0) {
+                throw new IllegalStateException("La tabla usuarios ya tiene datos; el generador asigna los ids "
+                        + "de forma explícita y necesita una base de datos vacía");
+            }
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package com.mediapp.citasbackend.dataset;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mediapp.citasbackend.config.DatasetLoaderProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Carga el dataset JSON en la base de datos.
+ *
+ * El archivo se lee con el parser de streaming de Jackson, una fila a la vez, así el tamaño del
+ * dataset no está limitado por la memoria. Las claves foráneas del JSON (posiciones desde 1) se
+ * resuelven con un {@link IdMap} por tabla y las filas se insertan en lotes JDBC en paralelo; una
+ * tabla solo empieza a escribirse cuando terminaron las tablas a las que referencia.
+ */
+@Slf4j
+public class DatasetLoader {
+
+    private final DataSource dataSource;
+    private final DatasetLoaderProperties properties;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public DatasetLoader(DataSource dataSource, DatasetLoaderProperties properties) {
+        this.dataSource = dataSource;
+        this.properties = properties;
+    }
+
+    /**
+     * Valida el archivo completo (tipos, obligatorios, únicos y referencias) sin escribir nada
+     */
+    public LoadReport validate(InputStream json) throws IOException {
+        try {
+            return run(json, false);
+        } catch (SQLException | InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public LoadReport load(InputStream json) throws IOException, SQLException, InterruptedException {
+        return run(json, true);
+    }
+
+    private LoadReport run(InputStream json, boolean write) throws IOException, SQLException, InterruptedException {
+        long start = System.nanoTime();
+        Map<String, IdMap> idMaps = new HashMap<>();
+        Map<String, Set<Object>> uniques = new HashMap<>();
+        Map<String, Long> rows = new LinkedHashMap<>();
+        Errors errors = new Errors(properties.getMaxReportedErrors());
+        Writer writer = write ? new Writer() : null;
+
+        try (JsonParser parser = objectMapper.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("El dataset debe ser un objeto JSON con un arreglo por tabla");
+            }
+            if (writer != null) {
+                writer.begin();
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                DatasetSchema.Table table = DatasetSchema.table(name);
+                JsonToken token = parser.nextToken();
+                String problem = table == null ? "tabla desconocida"
+                        : token != JsonToken.START_ARRAY ? "se esperaba un arreglo de filas"
+                        : idMaps.containsKey(name) ? "tabla repetida"
+                        : missingParent(table, idMaps);
+                if (problem != null) {
+                    errors.add(name + ": " + problem);
+                    parser.skipChildren();
+                    continue;
+                }
+
+                IdMap ids = new IdMap(writer != null ? writer.maxId(table) : 0);
+                idMaps.put(name, ids);
+                if (writer != null) {
+                    writer.startTable(table);
+                }
+                long accepted = 0;
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    JsonNode node = parser.readValueAsTree();
+                    Object[] row = convert(table, node, ids.size() + 1, idMaps, uniques, errors);
+                    long id = ids.next(row != null);
+                    if (row != null) {
+                        row[0] = id;
+                        accepted++;
+                        if (writer != null) {
+                            writer.add(row);
+                        }
+                    }
+                }
+                if (writer != null) {
+                    writer.endTable();
+                } else {
+                    log.info("{}: {} filas válidas", name, accepted);
+                }
+                rows.put(name, accepted);
+            }
+            if (writer != null) {
+                writer.finish();
+            }
+        } finally {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+        return new LoadReport(rows, errors.messages, errors.count, System.nanoTime() - start);
+    }
+
+    private static String missingParent(DatasetSchema.Table table, Map<String, IdMap> idMaps) {
+        for (DatasetSchema.Column column : table.columns()) {
+            if (column.references() != null && !idMaps.containsKey(column.references())) {
+                return "debe aparecer después de " + column.references();
+            }
+        }
+        return null;
+    }
+
+    private static Object[] convert(DatasetSchema.Table table, JsonNode node, int position, Map<String, IdMap> idMaps,
+                                    Map<String, Set<Object>> uniques, Errors errors) {
+        String prefix = table.name() + " #" + position + ": ";
+        for (Iterator<String> fields = node.fieldNames(); fields.hasNext(); ) {
+            String field = fields.next();
+            if (table.column(field) == null) {
+                errors.add(prefix + "columna desconocida " + field);
+                return null;
+            }
+        }
+
+        List<DatasetSchema.Column> columns = table.columns();
+        Object[] row = new Object[columns.size() + 1];
+        for (int i = 0; i < columns.size(); i++) {
+            DatasetSchema.Column column = columns.get(i);
+            Object value;
+            try {
+                value = column.parse(node.get(column.name()));
+            } catch (RuntimeException e) {
+                errors.add(prefix + e.getMessage());
+                return null;
+            }
+            if (column.references() != null) {
+                long id = idMaps.get(column.references()).resolve((Long) value);
+                if (id == 0) {
+                    errors.add(prefix + column.name() + " referencia a " + column.references() + " #" + value
+                            + ", que no existe o fue rechazada");
+                    return null;
+                }
+                value = id;
+            }
+            if (column.unique() && value != null
+                    && !uniques.computeIfAbsent(table.name() + "." + column.name(), k -> new HashSet<>()).add(value)) {
+                errors.add(prefix + column.name() + " repetido: " + value);
+                return null;
+            }
+            row[i + 1] = value;
+        }
+        return row;
+    }
+
+    public record LoadReport(Map<String, Long> rows, List<String> errors, long errorCount, long elapsedNanos) {
+
+        public boolean valid() {
+            return errorCount == 0;
+        }
+
+        public long totalRows() {
+            return rows.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        public long rowsPerSecond() {
+            return Math.round(totalRows() / Math.max(elapsedNanos / 1e9, 1e-3));
+        }
+    }
+
+    private static final class Errors {
+        private final int maxMessages;
+        private final List<String> messages = new ArrayList<>();
+        private long count;
+
+        private Errors(int maxMessages) {
+            this.maxMessages = maxMessages;
+        }
+
+        private void add(String message) {
+            if (count++ < maxMessages) {
+                messages.add(message);
+            }
+        }
+    }
+
+    /**
+     * Inserta los lotes en un pool de hilos, cada uno con su propia conexión y transacción.
+     * Un semáforo limita los lotes en vuelo para que el parser no acumule filas sin escribir.
+     */
+    private final class Writer implements AutoCloseable {
+
+        private final AtomicInteger threadNumber = new AtomicInteger();
+        private final ExecutorService executor = Executors.newFixedThreadPool(properties.getThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "dataset-loader-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        private final Semaphore inFlight = new Semaphore(properties.getThreads() * 2);
+        private final Map<String, List<Future<?>>> pending = new HashMap<>();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final DeferredIndexes deferredIndexes = new DeferredIndexes();
+
+        private DatasetSchema.Table table;
+        private String insertSql;
+        private List<Object[]> batch;
+        private AtomicLong written;
+        private long tableStart;
+
+        private void begin() throws SQLException {
+            if (!properties.isDeferIndexes()) {
+                return;
+            }
+            try (Connection connection = dataSource.getConnection()) {
+                if (connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql")) {
+                    deferredIndexes.drop(connection, DatasetSchema.TABLES.stream().map(DatasetSchema.Table::name).toList());
+                }
+            }
+        }
+
+        private long maxId(DatasetSchema.Table table) throws SQLException {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT MAX(" + table.idColumn() + ") FROM " + table.name())) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+
+        private void startTable(DatasetSchema.Table table) throws InterruptedException {
+            for (DatasetSchema.Column column : table.columns()) {
+                if (column.references() != null) {
+                    await(pending.getOrDefault(column.references(), List.of()));
+                }
+            }
+            List<String> names = new ArrayList<>();
+            names.add(table.idColumn());
+            table.columns().forEach(column -> names.add(column.name()));
+            this.table = table;
+            this.insertSql = "INSERT INTO " + table.name() + " (" + String.join(", ", names) + ") VALUES ("
+                    + String.join(", ", Collections.nCopies(names.size(), "?")) + ")";
+            this.batch = new ArrayList<>(properties.getBatchSize());
+            this.written = new AtomicLong();
+            this.tableStart = System.nanoTime();
+            pending.put(table.name(), new ArrayList<>());
+        }
+
+        private void add(Object[] row) throws InterruptedException {
+            batch.add(row);
+            if (batch.size() >= properties.getBatchSize()) {
+                submit();
+            }
+        }
+
+        private void endTable() throws InterruptedException {
+            if (!batch.isEmpty()) {
+                submit();
+            }
+        }
+
+        private void submit() throws InterruptedException {
+            checkFailure();
+            inFlight.acquire();
+            List<Object[]> rows = batch;
+            String sql = insertSql;
+            String name = table.name();
+            AtomicLong counter = written;
+            long startedAt = tableStart;
+            batch = new ArrayList<>(properties.getBatchSize());
+            pending.get(name).add(executor.submit(() -> {
+                try {
+                    insert(sql, rows);
+                    long total = counter.addAndGet(rows.size());
+                    long interval = properties.getProgressInterval();
+                    if (interval > 0 && total / interval != (total - rows.size()) / interval) {
+                        double seconds = (System.nanoTime() - startedAt) / 1e9;
+                        log.info("{}: {} filas insertadas ({} filas/s)", name, total, Math.round(total / Math.max(seconds, 1e-3)));
+                    }
+                } catch (SQLException | RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    inFlight.release();
+                }
+                return null;
+            }));
+        }
+
+        private void insert(String sql, List<Object[]> rows) throws SQLException {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(false);
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    for (Object[] row : rows) {
+                        for (int i = 0; i < row.length; i++) {
+                            statement.setObject(i + 1, row[i]);
+                        }
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                }
+            }
+        }
+
+        private void finish() throws InterruptedException, SQLException {
+            for (List<Future<?>> futures : pending.values()) {
+                await(futures);
+            }
+            checkFailure();
+            if (!deferredIndexes.dropped().isEmpty()) {
+                try (Connection connection = dataSource.getConnection()) {
+                    deferredIndexes.recreate(connection);
+                }
+            }
+        }
+
+        private void await(List<Future<?>> futures) throws InterruptedException {
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    failure.compareAndSet(null, e.getCause());
+                }
+            }
+            checkFailure();
+        }
+
+        private void checkFailure() {
+            Throwable cause = failure.get();
+            if (cause != null) {
+                throw new IllegalStateException("Falló la inserción de un lote: " + cause.getMessage(), cause);
+            }
+        }
+
+        /**
+         * Si la carga falló antes de terminar, los índices diferidos se recrean igual: nada más
+         * los devolvería, porque las migraciones que los crean ya constan como aplicadas.
+         */
+        @Override
+        public void close() {
+            executor.shutdownNow();
+            if (deferredIndexes.dropped().isEmpty()) {
+                return;
+            }
+            try {
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            try (Connection connection = dataSource.getConnection()) {
+                deferredIndexes.recreate(connection);
+            } catch (SQLException e) {
+                log.error("No se pudieron recrear los índices diferidos {}: {}",
+                        deferredIndexes.dropped().stream().map(DeferredIndexes.Index::name).toList(), e.getMessage());
+            }
+        }
+    }
+}
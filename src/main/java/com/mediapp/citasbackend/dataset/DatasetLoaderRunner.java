@@ -0,0 +1,65 @@
+package com.mediapp.citasbackend.dataset;
+
+import com.mediapp.citasbackend.config.DatasetLoaderProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.InputStream;
+
+/**
+ * Carga el dataset JSON al arrancar con el perfil load-dataset y termina la aplicación.
+ * Siempre valida el archivo completo antes de escribir; con dry-run solo valida.
+ *
+ * Ejemplo: ./mvnw spring-boot:run -Dspring-boot.run.profiles=load-dataset
+ *          -Dspring-boot.run.arguments="--mediapp.dataset.loader.file=file:/datos/dataset.json"
+ */
+@Component
+@Profile("load-dataset")
+@RequiredArgsConstructor
+@Slf4j
+public class DatasetLoaderRunner implements ApplicationRunner {
+
+    private final DatasetLoaderProperties properties;
+    private final DataSource dataSource;
+    private final ResourceLoader resourceLoader;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Resource resource = resourceLoader.getResource(properties.getFile());
+        DatasetLoader loader = new DatasetLoader(dataSource, properties);
+
+        DatasetLoader.LoadReport validation;
+        try (InputStream json = resource.getInputStream()) {
+            validation = loader.validate(json);
+        }
+        log.info("Validación de {}: {} filas en {} ms, {} errores", resource.getDescription(),
+                validation.totalRows(), validation.elapsedNanos() / 1_000_000, validation.errorCount());
+        validation.errors().forEach(error -> log.error("  {}", error));
+        if (validation.errorCount() > validation.errors().size()) {
+            log.error("  ... y {} errores más", validation.errorCount() - validation.errors().size());
+        }
+
+        int exitCode = validation.valid() ? 0 : 1;
+        if (validation.valid() && !properties.isDryRun()) {
+            DatasetLoader.LoadReport report;
+            try (InputStream json = resource.getInputStream()) {
+                report = loader.load(json);
+            }
+            report.rows().forEach((tabla, filas) -> log.info("  {}: {} filas", tabla, filas));
+            log.info("Dataset cargado: {} filas en {} ms ({} filas/s)", report.totalRows(),
+                    report.elapsedNanos() / 1_000_000, report.rowsPerSecond());
+        }
+
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+}
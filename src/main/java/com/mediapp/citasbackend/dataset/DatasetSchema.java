@@ -0,0 +1,251 @@
+package com.mediapp.citasbackend.dataset;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.mediapp.citasbackend.entities.CalendarioDisponibilidad;
+import com.mediapp.citasbackend.entities.Cita;
+import com.mediapp.citasbackend.entities.Especialidad;
+import com.mediapp.citasbackend.entities.Medico;
+import com.mediapp.citasbackend.entities.Notificacion;
+import com.mediapp.citasbackend.entities.Usuario;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Tablas del dataset en orden de dependencias, con el tipo de cada columna y la tabla a la que
+ * referencia. En el JSON las claves foráneas son la posición (desde 1) de la fila referenciada
+ * dentro de su arreglo, y los valores por defecto replican los @PrePersist de las entidades.
+ */
+public final class DatasetSchema {
+
+    // Acepta "2024-10-08", "2024-10-08 09:30:00" y "2024-10-08T09:30:00"
+    private static final DateTimeFormatter DATE_TIME = new DateTimeFormatterBuilder()
+            .append(DateTimeFormatter.ISO_LOCAL_DATE)
+            .optionalStart().appendLiteral(' ').optionalEnd()
+            .optionalStart().appendLiteral('T').optionalEnd()
+            .optionalStart().append(DateTimeFormatter.ISO_LOCAL_TIME).optionalEnd()
+            .parseDefaulting(ChronoField.HOUR_OF_DAY, 0)
+            .toFormatter();
+
+    public static final List<Table> TABLES = List.of(
+            new Table("usuarios", "id_usuario",
+                    Column.text("nombre").asRequired(),
+                    Column.text("apellido").asRequired(),
+                    Column.text("email").asRequired().asUnique(),
+                    Column.text("contraseña").asRequired(),
+                    Column.of("fecha_nacimiento", Type.DATE),
+                    Column.enumeration("genero", Usuario.Genero.class),
+                    Column.text("telefono"),
+                    Column.text("direccion"),
+                    Column.text("ciudad"),
+                    Column.text("pais"),
+                    Column.enumeration("tipo_usuario", Usuario.TipoUsuario.class).asRequired(),
+                    Column.text("foto_perfil"),
+                    Column.of("fecha_registro", Type.DATE_TIME).orDefault(LocalDateTime::now),
+                    Column.enumeration("estado", Usuario.Estado.class).orDefault(() -> Usuario.Estado.ACTIVO)),
+            new Table("especialidades", "id_especialidad",
+                    Column.text("nombre_especialidad").asRequired(),
+                    Column.text("descripcion"),
+                    Column.enumeration("estado", Especialidad.Estado.class).orDefault(() -> Especialidad.Estado.ACTIVA)),
+            new Table("pacientes", "id_paciente",
+                    Column.reference("id_usuario", "usuarios").asUnique(),
+                    Column.text("numero_identificacion"),
+                    Column.text("tipo_sangre"),
+                    Column.text("alergias"),
+                    Column.text("enfermedades_cronicas"),
+                    Column.text("medicamentos_actuales"),
+                    Column.text("contacto_emergencia"),
+                    Column.text("telefono_emergencia")),
+            new Table("medicos", "id_medico",
+                    Column.reference("id_usuario", "usuarios").asUnique(),
+                    Column.text("numero_licencia"),
+                    Column.reference("id_especialidad", "especialidades"),
+                    Column.text("hospital_afiliado"),
+                    Column.of("experiencia_anos", Type.INTEGER),
+                    Column.text("resumen_bio"),
+                    Column.of("calificacion_promedio", Type.DECIMAL),
+                    Column.enumeration("estado_verificacion", Medico.EstadoVerificacion.class)
+                            .orDefault(() -> Medico.EstadoVerificacion.PENDIENTE),
+                    Column.of("fecha_verificacion", Type.DATE)),
+            new Table("calendario_disponibilidad", "id_disponibilidad",
+                    Column.reference("id_medico", "medicos"),
+                    Column.enumeration("dia_semana", CalendarioDisponibilidad.DiaSemana.class).asRequired(),
+                    Column.of("hora_inicio", Type.TIME).asRequired(),
+                    Column.of("hora_fin", Type.TIME).asRequired(),
+                    Column.of("intervalo_cita_minutos", Type.INTEGER).asRequired(),
+                    Column.enumeration("estado", CalendarioDisponibilidad.Estado.class)
+                            .orDefault(() -> CalendarioDisponibilidad.Estado.ACTIVO)),
+            new Table("citas", "id_cita",
+                    Column.reference("id_paciente", "pacientes"),
+                    Column.reference("id_medico", "medicos"),
+                    Column.of("fecha_cita", Type.DATE).asRequired(),
+                    Column.of("hora_cita", Type.TIME).asRequired(),
+                    Column.enumeration("tipo_cita", Cita.TipoCita.class).asRequired(),
+                    Column.text("motivo_consulta"),
+                    Column.enumeration("estado", Cita.Estado.class).orDefault(() -> Cita.Estado.PROGRAMADA),
+                    Column.text("enlace_videollamada"),
+                    Column.of("fecha_creacion", Type.DATE_TIME).orDefault(LocalDateTime::now),
+                    Column.of("fecha_cancelacion", Type.DATE_TIME)),
+            new Table("historial_medico", "id_historial",
+                    Column.reference("id_cita", "citas").asUnique(),
+                    Column.reference("id_paciente", "pacientes"),
+                    Column.reference("id_medico", "medicos"),
+                    Column.text("diagnostico"),
+                    Column.text("sintomas_reportados"),
+                    Column.text("tratamiento_recomendado"),
+                    Column.text("medicamentos_prescritos"),
+                    Column.text("observaciones"),
+                    Column.of("fecha_proximo_seguimiento", Type.DATE)),
+            new Table("prescripciones", "id_prescripcion",
+                    Column.reference("id_historial", "historial_medico"),
+                    Column.text("nombre_medicamento").asRequired(),
+                    Column.text("dosis"),
+                    Column.text("frecuencia"),
+                    Column.of("duracion_dias", Type.INTEGER),
+                    Column.text("instrucciones"),
+                    Column.of("fecha_prescripcion", Type.DATE).orDefault(LocalDate::now)),
+            new Table("evaluaciones", "id_evaluacion",
+                    Column.reference("id_paciente", "pacientes"),
+                    Column.reference("id_medico", "medicos"),
+                    Column.of("calificacion", Type.INTEGER).asRequired(),
+                    Column.text("comentario"),
+                    Column.of("fecha_evaluacion", Type.DATE_TIME).orDefault(LocalDateTime::now),
+                    Column.text("respuesta_medico")),
+            new Table("notificaciones", "id_notificacion",
+                    Column.reference("id_usuario", "usuarios"),
+                    Column.enumeration("tipo_notificacion", Notificacion.TipoNotificacion.class).asRequired(),
+                    Column.text("titulo").asRequired(),
+                    Column.text("contenido"),
+                    Column.of("fecha_envio", Type.DATE_TIME).orDefault(LocalDateTime::now),
+                    Column.of("leida", Type.BOOLEAN).orDefault(() -> Boolean.FALSE),
+                    Column.text("enlace_relacionado"))
+    );
+
+    private static final Map<String, Table> BY_NAME = new LinkedHashMap<>();
+
+    static {
+        TABLES.forEach(table -> BY_NAME.put(table.name(), table));
+    }
+
+    private DatasetSchema() {
+    }
+
+    public static Table table(String name) {
+        return BY_NAME.get(name);
+    }
+
+    public enum Type {
+        TEXT, INTEGER, DECIMAL, BOOLEAN, DATE, TIME, DATE_TIME, ENUM, REFERENCE
+    }
+
+    public record Table(String name, String idColumn, List<Column> columns) {
+
+        public Table(String name, String idColumn, Column... columns) {
+            this(name, idColumn, List.of(columns));
+        }
+
+        public Column column(String name) {
+            for (Column column : columns) {
+                if (column.name().equals(name)) {
+                    return column;
+                }
+            }
+            return null;
+        }
+    }
+
+    public record Column(String name, Type type, String references, Class<? extends Enum<?>> enumType,
+                         boolean required, boolean unique, Supplier<Object> defaultValue) {
+
+        static Column of(String name, Type type) {
+            return new Column(name, type, null, null, false, false, null);
+        }
+
+        static Column text(String name) {
+            return of(name, Type.TEXT);
+        }
+
+        static Column enumeration(String name, Class<? extends Enum<?>> enumType) {
+            return new Column(name, Type.ENUM, null, enumType, false, false, null);
+        }
+
+        static Column reference(String name, String table) {
+            return new Column(name, Type.REFERENCE, table, null, true, false, null);
+        }
+
+        Column asRequired() {
+            return new Column(name, type, references, enumType, true, unique, defaultValue);
+        }
+
+        Column asUnique() {
+            return new Column(name, type, references, enumType, required, true, defaultValue);
+        }
+
+        Column orDefault(Supplier<Object> value) {
+            return new Column(name, type, references, enumType, required, unique, value);
+        }
+
+        /**
+         * Convierte el valor JSON al tipo de la columna; las referencias se devuelven como
+         * la posición (long) de la fila referenciada, sin resolver
+         */
+        public Object parse(JsonNode node) {
+            if (node == null || node.isNull()) {
+                if (defaultValue != null) {
+                    return defaultValue.get();
+                }
+                if (required) {
+                    throw new IllegalArgumentException("la columna " + name + " es obligatoria");
+                }
+                return null;
+            }
+            return switch (type) {
+                case TEXT -> node.asText();
+                case INTEGER -> {
+                    if (!node.canConvertToInt()) {
+                        throw new IllegalArgumentException(name + " no es un entero: " + node);
+                    }
+                    yield node.intValue();
+                }
+                case REFERENCE -> {
+                    if (!node.canConvertToLong()) {
+                        throw new IllegalArgumentException(name + " no es una referencia válida: " + node);
+                    }
+                    yield node.longValue();
+                }
+                case DECIMAL -> {
+                    if (!node.isNumber()) {
+                        throw new IllegalArgumentException(name + " no es un número: " + node);
+                    }
+                    yield new BigDecimal(node.asText());
+                }
+                case BOOLEAN -> {
+                    if (!node.isBoolean()) {
+                        throw new IllegalArgumentException(name + " no es booleano: " + node);
+                    }
+                    yield node.booleanValue();
+                }
+                case DATE -> LocalDate.parse(node.asText(), DATE_TIME);
+                case TIME -> LocalTime.parse(node.asText());
+                case DATE_TIME -> LocalDateTime.parse(node.asText(), DATE_TIME);
+                case ENUM -> {
+                    String value = node.asText();
+                    if (Arrays.stream(enumType.getEnumConstants()).noneMatch(e -> e.name().equals(value))) {
+                        throw new IllegalArgumentException(name + " no admite el valor " + value);
+                    }
+                    yield value;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.mediapp.citasbackend.dataset;
+
+/**
+ * Destino de las filas generadas. Las tablas se declaran en orden de dependencias
+ * (claves foráneas) antes de recibir filas.
+ */
+public interface DatasetSink extends AutoCloseable {
+
+    void table(String table, String... columns) throws Exception;
+
+    void row(String table, Object... values) throws Exception;
+
+    /**
+     * Escribe las filas pendientes de todas las tablas
+     */
+    @Override
+    void close() throws Exception;
+}
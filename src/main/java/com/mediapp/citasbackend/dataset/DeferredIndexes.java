@@ -0,0 +1,85 @@
+package com.mediapp.citasbackend.dataset;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Índices secundarios que se eliminan antes de la carga masiva y se vuelven a crear al final,
+ * para construir cada índice una sola vez en lugar de actualizarlo fila a fila. Se conservan la
+ * clave primaria, los índices únicos (garantizan integridad) y los que empiezan por una columna
+ * de clave foránea (MySQL los exige mientras exista la restricción).
+ */
+@Slf4j
+class DeferredIndexes {
+
+    record Index(String table, String name, List<String> columns) {
+    }
+
+    private final List<Index> dropped = new ArrayList<>();
+
+    void drop(Connection connection, List<String> tables) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        for (String table : tables) {
+            Set<String> foreignKeyColumns = new HashSet<>();
+            try (ResultSet rs = metaData.getImportedKeys(connection.getCatalog(), null, table)) {
+                while (rs.next()) {
+                    foreignKeyColumns.add(rs.getString("FKCOLUMN_NAME").toLowerCase());
+                }
+            }
+            Map<String, TreeMap<Integer, String>> indexes = new LinkedHashMap<>();
+            try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), null, table, false, false)) {
+                while (rs.next()) {
+                    String name = rs.getString("INDEX_NAME");
+                    if (name == null || !rs.getBoolean("NON_UNIQUE") || "PRIMARY".equalsIgnoreCase(name)) {
+                        continue;
+                    }
+                    indexes.computeIfAbsent(name, k -> new TreeMap<>())
+                            .put(rs.getInt("ORDINAL_POSITION"), rs.getString("COLUMN_NAME"));
+                }
+            }
+            for (Map.Entry<String, TreeMap<Integer, String>> entry : indexes.entrySet()) {
+                List<String> columns = new ArrayList<>(entry.getValue().values());
+                if (foreignKeyColumns.contains(columns.get(0).toLowerCase())) {
+                    continue;
+                }
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("DROP INDEX " + entry.getKey() + " ON " + table);
+                }
+                dropped.add(new Index(table, entry.getKey(), columns));
+                log.info("Índice {} de {} diferido hasta el final de la carga", entry.getKey(), table);
+            }
+        }
+    }
+
+    // Cada índice creado sale de la lista, así un fallo deja en ella solo los que faltan
+    void recreate(Connection connection) throws SQLException {
+        for (Iterator<Index> pending = dropped.iterator(); pending.hasNext(); ) {
+            Index index = pending.next();
+            long start = System.nanoTime();
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE INDEX " + index.name() + " ON " + index.table()
+                        + " (" + String.join(", ", index.columns()) + ")");
+            }
+            pending.remove();
+            log.info("Índice {} de {} creado en {} ms", index.name(), index.table(),
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    List<Index> dropped() {
+        return dropped;
+    }
+}
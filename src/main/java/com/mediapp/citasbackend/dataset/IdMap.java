@@ -0,0 +1,45 @@
+package com.mediapp.citasbackend.dataset;
+
+import java.util.Arrays;
+
+/**
+ * Relación en memoria entre la posición de una fila en el JSON (desde 1) y el id asignado en
+ * la base de datos. Las posiciones de filas rechazadas quedan sin id, así las filas que las
+ * referencian también se rechazan.
+ */
+public class IdMap {
+
+    private final long base;
+    private long[] ids = new long[1024];
+    private int size;
+
+    /**
+     * @param base mayor id existente en la tabla; los ids nuevos se asignan a partir de base + 1
+     */
+    public IdMap(long base) {
+        this.base = base;
+    }
+
+    /**
+     * Registra la siguiente posición y devuelve su id, o 0 si la fila fue rechazada
+     */
+    public long next(boolean accepted) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        long id = accepted ? base + size + 1 : 0;
+        ids[size++] = id;
+        return id;
+    }
+
+    /**
+     * Id de la fila en la posición indicada, o 0 si no existe o fue rechazada
+     */
+    public long resolve(long position) {
+        return position >= 1 && position <= size ? ids[(int) (position - 1)] : 0;
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,88 @@
+package com.mediapp.citasbackend.dataset;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Escribe las filas directamente en la base de datos con lotes JDBC (un PreparedStatement
+ * por tabla). Antes de vaciar el lote de una tabla se vacían las tablas declaradas antes,
+ * así ninguna fila llega a la base de datos antes que las filas a las que referencia.
+ */
+public class JdbcBatchSink implements DatasetSink {
+
+    private final Connection connection;
+    private final int batchSize;
+    private final Map<String, Batch> batches = new LinkedHashMap<>();
+    private final List<Batch> order = new ArrayList<>();
+
+    public JdbcBatchSink(Connection connection, int batchSize) throws SQLException {
+        this.connection = connection;
+        this.batchSize = batchSize;
+        connection.setAutoCommit(false);
+    }
+
+    @Override
+    public void table(String table, String... columns) throws SQLException {
+        String sql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(columns.length, "?")) + ")";
+        Batch batch = new Batch(order.size(), connection.prepareStatement(sql));
+        batches.put(table, batch);
+        order.add(batch);
+    }
+
+    @Override
+    public void row(String table, Object... values) throws SQLException {
+        Batch batch = batches.get(table);
+        if (batch == null) {
+            throw new IllegalStateException("Tabla no declarada: " + table);
+        }
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            batch.statement.setObject(i + 1, value instanceof Enum<?> e ? e.name() : value);
+        }
+        batch.statement.addBatch();
+        if (++batch.pending >= batchSize) {
+            flushUpTo(batch.position);
+            connection.commit();
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            flushUpTo(order.size() - 1);
+            connection.commit();
+        } finally {
+            for (Batch batch : order) {
+                batch.statement.close();
+            }
+        }
+    }
+
+    private void flushUpTo(int position) throws SQLException {
+        for (int i = 0; i <= position; i++) {
+            Batch batch = order.get(i);
+            if (batch.pending > 0) {
+                batch.statement.executeBatch();
+                batch.pending = 0;
+            }
+        }
+    }
+
+    private static final class Batch {
+        private final int position;
+        private final PreparedStatement statement;
+        private int pending;
+
+        private Batch(int position, PreparedStatement statement) {
+            this.position = position;
+            this.statement = statement;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.mediapp.citasbackend.dataset;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Escribe un archivo NN_tabla.sql.gz por tabla con INSERT de varias filas, numerados en
+ * orden de dependencias para cargarlos con: zcat target/dataset/*.sql.gz | mysql mediapp_db
+ */
+public class SqlGzipSink implements DatasetSink {
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Path directory;
+    private final int rowsPerInsert;
+    private final Map<String, TableFile> files = new LinkedHashMap<>();
+
+    public SqlGzipSink(Path directory, int rowsPerInsert) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.rowsPerInsert = rowsPerInsert;
+    }
+
+    @Override
+    public void table(String table, String... columns) throws IOException {
+        Path file = directory.resolve(String.format("%02d_%s.sql.gz", files.size() + 1, table));
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(file), 1 << 16), StandardCharsets.UTF_8), 1 << 16);
+        files.put(table, new TableFile(writer, "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES\n"));
+    }
+
+    @Override
+    public void row(String table, Object... values) throws IOException {
+        TableFile file = files.get(table);
+        if (file == null) {
+            throw new IllegalStateException("Tabla no declarada: " + table);
+        }
+        BufferedWriter writer = file.writer;
+        writer.write(file.pending == 0 ? file.insertPrefix : ",\n");
+        writer.write('(');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(", ");
+            }
+            writeValue(writer, values[i]);
+        }
+        writer.write(')');
+        if (++file.pending >= rowsPerInsert) {
+            writer.write(";\n");
+            file.pending = 0;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (TableFile file : files.values()) {
+            try (BufferedWriter writer = file.writer) {
+                if (file.pending > 0) {
+                    writer.write(";\n");
+                }
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    static void writeValue(Appendable out, Object value) throws IOException {
+        if (value == null) {
+            out.append("NULL");
+        } else if (value instanceof Number) {
+            out.append(value.toString());
+        } else if (value instanceof Boolean b) {
+            out.append(b ? "1" : "0");
+        } else if (value instanceof LocalDateTime dateTime) {
+            out.append('\'').append(DATE_TIME.format(dateTime)).append('\'');
+        } else if (value instanceof LocalDate || value instanceof LocalTime) {
+            out.append('\'').append(value.toString()).append('\'');
+        } else {
+            String text = value instanceof Enum<?> e ? e.name() : value.toString();
+            out.append('\'');
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                switch (c) {
+                    case '\'' -> out.append("''");
+                    case '\\' -> out.append("\\\\");
+                    case '\n' -> out.append("\\n");
+                    default -> out.append(c);
+                }
+            }
+            out.append('\'');
+        }
+    }
+
+    private static final class TableFile {
+        private final BufferedWriter writer;
+        private final String insertPrefix;
+        private int pending;
+
+        private TableFile(BufferedWriter writer, String insertPrefix) {
+            this.writer = writer;
+            this.insertPrefix = insertPrefix;
+        }
+    }
+}
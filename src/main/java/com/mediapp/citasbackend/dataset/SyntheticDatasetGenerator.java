@@ -0,0 +1,493 @@
+package com.mediapp.citasbackend.dataset;
+
+import com.mediapp.citasbackend.config.DatasetGeneratorProperties;
+import com.mediapp.citasbackend.entities.CalendarioDisponibilidad;
+import com.mediapp.citasbackend.entities.Cita;
+import com.mediapp.citasbackend.entities.Especialidad;
+import com.mediapp.citasbackend.entities.Medico;
+import com.mediapp.citasbackend.entities.Notificacion;
+import com.mediapp.citasbackend.entities.Usuario;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.Normalizer;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Generador reproducible de un dataset sintético con el esquema de MediApp.
+ *
+ * Los identificadores se asignan de forma explícita y secuencial, así las claves foráneas se
+ * calculan sin consultar la base de datos. Las citas se generan día a día (sin acumularlas en
+ * memoria): el médico se elige con una distribución Zipf sobre un ranking de popularidad
+ * barajado con la semilla, y del estado de cada cita dependen su historial, prescripciones,
+ * evaluación y notificaciones.
+ */
+public class SyntheticDatasetGenerator {
+
+    // Hash BCrypt de "password123", la misma contraseña del dataset de ejemplo
+    static final String PASSWORD_HASH = "$2a$10$XPTmXgFJPKPX9sVRMx8uXOmMoJrXDNpBNg3pZ4xBRyVhgmLmqBHaG";
+
+    static final String[][] ESPECIALIDADES = {
+            {"Medicina General", "Atención médica integral para diagnóstico, tratamiento y prevención de enfermedades comunes"},
+            {"Cardiología", "Especialidad dedicada al diagnóstico y tratamiento de enfermedades del corazón y sistema circulatorio"},
+            {"Pediatría", "Atención médica especializada para la salud de bebés, niños y adolescentes"},
+            {"Dermatología", "Diagnóstico y tratamiento de enfermedades de la piel, cabello y uñas"},
+            {"Ginecología", "Especialidad enfocada en la salud del sistema reproductivo femenino"},
+            {"Psiquiatría", "Diagnóstico y tratamiento de trastornos mentales y emocionales"},
+            {"Oftalmología", "Especialidad dedicada a la salud visual y enfermedades de los ojos"},
+            {"Traumatología", "Tratamiento de lesiones y enfermedades del sistema músculo-esquelético"}
+    };
+
+    private static final String[] NOMBRES_FEMENINOS = {
+            "María", "Laura", "Ana", "Valentina", "Camila", "Daniela", "Sofía", "Carolina", "Paula", "Andrea",
+            "Juliana", "Natalia", "Isabella", "Manuela", "Diana", "Sara", "Lucía", "Gabriela", "Mariana", "Catalina"
+    };
+
+    private static final String[] NOMBRES_MASCULINOS = {
+            "Juan", "Carlos", "Andrés", "Santiago", "Sebastián", "Felipe", "Alejandro", "Mateo", "Daniel", "David",
+            "Jorge", "Luis", "Miguel", "Nicolás", "Diego", "Camilo", "Julián", "Samuel", "Esteban", "Tomás"
+    };
+
+    private static final String[] APELLIDOS = {
+            "García", "Rodríguez", "Martínez", "López", "González", "Hernández", "Pérez", "Sánchez", "Ramírez", "Torres",
+            "Flores", "Rivera", "Gómez", "Díaz", "Restrepo", "Ospina", "Cardona", "Giraldo", "Vargas", "Castro",
+            "Moreno", "Jiménez", "Muñoz", "Rojas", "Álvarez", "Romero", "Agudelo", "Londoño", "Zapata", "Mejía"
+    };
+
+    private static final String[] CIUDADES = {
+            "Bogotá", "Medellín", "Cali", "Barranquilla", "Cartagena", "Bucaramanga", "Pereira", "Manizales", "Armenia", "Ibagué"
+    };
+
+    // Peso de cada ciudad en la población de pacientes
+    private static final double[] PESO_CIUDADES = {0.30, 0.18, 0.14, 0.10, 0.06, 0.06, 0.05, 0.04, 0.04, 0.03};
+
+    private static final String[] HOSPITALES = {
+            "Hospital Universitario San Vicente", "Clínica del Country", "Fundación Valle del Lili", "Clínica Las Américas",
+            "Hospital San Juan de Dios", "Clínica Santa Fe", "Hospital Pablo Tobón Uribe", "Clínica Central del Quindío"
+    };
+
+    private static final String[] TIPOS_SANGRE = {"O+", "A+", "B+", "AB+", "O-", "A-", "B-", "AB-"};
+    private static final double[] PESO_TIPOS_SANGRE = {0.56, 0.26, 0.09, 0.02, 0.04, 0.02, 0.007, 0.003};
+
+    private static final String[] ALERGIAS = {"Penicilina", "Ibuprofeno", "Polen", "Ácaros", "Mariscos", "Látex", "Sulfas"};
+
+    private static final String[] ENFERMEDADES_CRONICAS = {"Hipertensión", "Diabetes tipo 2", "Asma", "Hipotiroidismo", "Migraña crónica"};
+
+    private static final String[] MOTIVOS = {
+            "Control de rutina", "Dolor de cabeza persistente", "Revisión de exámenes", "Dolor en el pecho",
+            "Control de presión arterial", "Fiebre y malestar general", "Dolor articular", "Erupción en la piel",
+            "Chequeo anual", "Seguimiento de tratamiento", "Ansiedad y problemas de sueño", "Dolor abdominal"
+    };
+
+    // {diagnóstico, síntomas reportados, tratamiento recomendado}
+    private static final String[][] DIAGNOSTICOS = {
+            {"Hipertensión arterial leve", "Dolor de cabeza, mareos ocasionales", "Dieta baja en sodio, ejercicio y control mensual de presión"},
+            {"Infección respiratoria aguda", "Tos, fiebre, congestión nasal", "Reposo, hidratación y antipirético"},
+            {"Gastritis", "Dolor abdominal, acidez", "Dieta blanda y protector gástrico"},
+            {"Dermatitis de contacto", "Enrojecimiento y picazón en la piel", "Crema con corticoide y evitar el alérgeno"},
+            {"Lumbalgia mecánica", "Dolor en la zona lumbar", "Analgésicos, fisioterapia y pausas activas"},
+            {"Trastorno de ansiedad generalizada", "Preocupación excesiva, insomnio", "Psicoterapia y seguimiento"},
+            {"Migraña", "Dolor de cabeza pulsátil, sensibilidad a la luz", "Analgésicos y registro de desencadenantes"},
+            {"Paciente sano", "Sin síntomas", "Mantener hábitos saludables"}
+    };
+
+    // {nombre, dosis, frecuencia, instrucciones}
+    private static final String[][] MEDICAMENTOS = {
+            {"Acetaminofén", "500 mg", "Cada 8 horas", "Tomar después de las comidas"},
+            {"Ibuprofeno", "400 mg", "Cada 8 horas", "No exceder 3 dosis al día"},
+            {"Losartán", "50 mg", "Cada 24 horas", "Tomar en la mañana"},
+            {"Omeprazol", "20 mg", "Cada 24 horas", "Tomar en ayunas"},
+            {"Amoxicilina", "500 mg", "Cada 8 horas", "Completar el tratamiento"},
+            {"Loratadina", "10 mg", "Cada 24 horas", "Puede causar somnolencia"},
+            {"Sertralina", "50 mg", "Cada 24 horas", "No suspender sin indicación médica"},
+            {"Metformina", "850 mg", "Cada 12 horas", "Tomar con las comidas"}
+    };
+
+    private static final String[] COMENTARIOS_POSITIVOS = {
+            "Excelente atención, muy profesional", "Me explicó todo con claridad", "Muy puntual y amable",
+            "Recomendado, resolvió todas mis dudas"
+    };
+
+    private static final String[] COMENTARIOS_NEGATIVOS = {
+            "La cita empezó tarde", "Consulta muy corta", "No me explicó bien el tratamiento"
+    };
+
+    // Bloques de 30 minutos de los días hábiles: 08:00-12:00 y 14:00-18:00
+    private static final int SLOTS_DIA_HABIL = 16;
+    // Los sábados solo se atiende en la mañana
+    private static final int SLOTS_SABADO = 8;
+    private static final int INTERVALO_MINUTOS = 30;
+    private static final int MAX_INTENTOS_CITA = 12;
+
+    private static final CalendarioDisponibilidad.DiaSemana[] DIAS_HABILES = {
+            CalendarioDisponibilidad.DiaSemana.LUNES, CalendarioDisponibilidad.DiaSemana.MARTES,
+            CalendarioDisponibilidad.DiaSemana.MIERCOLES, CalendarioDisponibilidad.DiaSemana.JUEVES,
+            CalendarioDisponibilidad.DiaSemana.VIERNES
+    };
+
+    private final DatasetGeneratorProperties properties;
+    private final LocalDate referenceDate;
+    private final LocalDateTime now;
+    private final SplittableRandom random;
+    private final Map<String, Long> counts = new LinkedHashMap<>();
+
+    private DatasetSink sink;
+
+    private int totalMedicos;
+    private int[] especialidadMedico;
+    private boolean[] atiendeSabado;
+    private double[] calidadMedico;
+    private String[] nombreMedico;
+    private int[] medicoPorRango;
+    private ZipfSampler popularidad;
+
+    private long nextCita = 1;
+    private long nextHistorial = 1;
+    private long nextPrescripcion = 1;
+    private long nextEvaluacion = 1;
+    private long nextNotificacion = 1;
+    private long citasDescartadas;
+
+    public SyntheticDatasetGenerator(DatasetGeneratorProperties properties) {
+        this.properties = properties;
+        this.referenceDate = properties.getReferenceDate() != null ? properties.getReferenceDate() : LocalDate.now();
+        this.now = referenceDate.atStartOfDay();
+        this.random = new SplittableRandom(properties.getSeed());
+    }
+
+    /**
+     * Genera todas las tablas en orden de dependencias y devuelve las filas escritas por tabla
+     */
+    public Map<String, Long> generate(DatasetSink sink) throws Exception {
+        this.sink = sink;
+        declararTablas();
+        generarEspecialidades();
+        generarAdministradores();
+        generarMedicos();
+        generarPacientes();
+        generarCitas();
+        return counts;
+    }
+
+    /**
+     * Citas que no se pudieron ubicar porque los médicos elegidos no tenían bloques libres ese día
+     */
+    public long getCitasDescartadas() {
+        return citasDescartadas;
+    }
+
+    public LocalDate getReferenceDate() {
+        return referenceDate;
+    }
+
+    private void declararTablas() throws Exception {
+        sink.table("especialidades", "id_especialidad", "nombre_especialidad", "descripcion", "estado");
+        sink.table("usuarios", "id_usuario", "nombre", "apellido", "email", "contraseña", "fecha_nacimiento", "genero",
+                "telefono", "direccion", "ciudad", "pais", "tipo_usuario", "foto_perfil", "fecha_registro", "estado");
+        sink.table("pacientes", "id_paciente", "id_usuario", "numero_identificacion", "tipo_sangre", "alergias",
+                "enfermedades_cronicas", "medicamentos_actuales", "contacto_emergencia", "telefono_emergencia");
+        sink.table("medicos", "id_medico", "id_usuario", "numero_licencia", "id_especialidad", "hospital_afiliado",
+                "experiencia_anos", "resumen_bio", "calificacion_promedio", "estado_verificacion", "fecha_verificacion");
+        sink.table("calendario_disponibilidad", "id_disponibilidad", "id_medico", "dia_semana", "hora_inicio", "hora_fin",
+                "intervalo_cita_minutos", "estado");
+        sink.table("citas", "id_cita", "id_paciente", "id_medico", "fecha_cita", "hora_cita", "tipo_cita",
+                "motivo_consulta", "estado", "enlace_videollamada", "fecha_creacion", "fecha_cancelacion");
+        sink.table("historial_medico", "id_historial", "id_cita", "id_paciente", "id_medico", "diagnostico",
+                "sintomas_reportados", "tratamiento_recomendado", "medicamentos_prescritos", "observaciones",
+                "fecha_proximo_seguimiento");
+        sink.table("prescripciones", "id_prescripcion", "id_historial", "nombre_medicamento", "dosis", "frecuencia",
+                "duracion_dias", "instrucciones", "fecha_prescripcion");
+        sink.table("evaluaciones", "id_evaluacion", "id_paciente", "id_medico", "calificacion", "comentario",
+                "fecha_evaluacion", "respuesta_medico");
+        sink.table("notificaciones", "id_notificacion", "id_usuario", "tipo_notificacion", "titulo", "contenido",
+                "fecha_envio", "leida", "enlace_relacionado");
+    }
+
+    private void row(String table, Object... values) throws Exception {
+        sink.row(table, values);
+        counts.merge(table, 1L, Long::sum);
+    }
+
+    private void generarEspecialidades() throws Exception {
+        for (int i = 0; i < ESPECIALIDADES.length; i++) {
+            row("especialidades", i + 1, ESPECIALIDADES[i][0], ESPECIALIDADES[i][1], Especialidad.Estado.ACTIVA);
+        }
+    }
+
+    private void generarAdministradores() throws Exception {
+        for (int a = 1; a <= properties.getAdministradores(); a++) {
+            generarUsuario(a, Usuario.TipoUsuario.ADMIN, referenceDate.minusYears(properties.getYears() + 1L));
+        }
+    }
+
+    private void generarMedicos() throws Exception {
+        totalMedicos = ESPECIALIDADES.length * properties.getMedicosPorEspecialidad();
+        especialidadMedico = new int[totalMedicos + 1];
+        atiendeSabado = new boolean[totalMedicos + 1];
+        calidadMedico = new double[totalMedicos + 1];
+        nombreMedico = new String[totalMedicos + 1];
+
+        long idDisponibilidad = 1;
+        LocalDate inicio = referenceDate.minusYears(properties.getYears());
+        for (int m = 1; m <= totalMedicos; m++) {
+            int idUsuario = properties.getAdministradores() + m;
+            String[] nombre = generarUsuario(idUsuario, Usuario.TipoUsuario.MEDICO, inicio);
+            nombreMedico[m] = nombre[0] + " " + nombre[1];
+            especialidadMedico[m] = (m - 1) % ESPECIALIDADES.length + 1;
+            atiendeSabado[m] = random.nextDouble() < 0.3;
+            calidadMedico[m] = 3.5 + random.nextDouble() * 1.5;
+
+            boolean verificado = random.nextDouble() < 0.95;
+            int experiencia = 2 + random.nextInt(30);
+            row("medicos", m, idUsuario, String.format("MED-%06d", m), especialidadMedico[m],
+                    elegir(HOSPITALES), experiencia,
+                    "Especialista en " + ESPECIALIDADES[especialidadMedico[m] - 1][0] + " con " + experiencia + " años de experiencia",
+                    BigDecimal.valueOf(calidadMedico[m]).setScale(1, RoundingMode.HALF_UP),
+                    verificado ? Medico.EstadoVerificacion.VERIFICADO : Medico.EstadoVerificacion.PENDIENTE,
+                    verificado ? inicio.minusDays(random.nextInt(30)) : null);
+
+            for (CalendarioDisponibilidad.DiaSemana dia : DIAS_HABILES) {
+                row("calendario_disponibilidad", idDisponibilidad++, m, dia, LocalTime.of(8, 0), LocalTime.of(12, 0),
+                        INTERVALO_MINUTOS, CalendarioDisponibilidad.Estado.ACTIVO);
+                row("calendario_disponibilidad", idDisponibilidad++, m, dia, LocalTime.of(14, 0), LocalTime.of(18, 0),
+                        INTERVALO_MINUTOS, CalendarioDisponibilidad.Estado.ACTIVO);
+            }
+            if (atiendeSabado[m]) {
+                row("calendario_disponibilidad", idDisponibilidad++, m, CalendarioDisponibilidad.DiaSemana.SABADO,
+                        LocalTime.of(8, 0), LocalTime.of(12, 0), INTERVALO_MINUTOS, CalendarioDisponibilidad.Estado.ACTIVO);
+            }
+        }
+
+        // El ranking de popularidad no sigue el orden de los ids: se baraja con la misma semilla
+        medicoPorRango = new int[totalMedicos];
+        for (int i = 0; i < totalMedicos; i++) {
+            medicoPorRango[i] = i + 1;
+        }
+        for (int i = totalMedicos - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = medicoPorRango[i];
+            medicoPorRango[i] = medicoPorRango[j];
+            medicoPorRango[j] = tmp;
+        }
+        popularidad = new ZipfSampler(totalMedicos, properties.getZipfExponent());
+    }
+
+    private void generarPacientes() throws Exception {
+        LocalDate inicio = referenceDate.minusYears(properties.getYears());
+        int offset = properties.getAdministradores() + totalMedicos;
+        for (int p = 1; p <= properties.getPacientes(); p++) {
+            int idUsuario = offset + p;
+            generarUsuario(idUsuario, Usuario.TipoUsuario.PACIENTE, inicio);
+            row("pacientes", p, idUsuario, String.valueOf(1_000_000_000L + p),
+                    elegir(TIPOS_SANGRE, PESO_TIPOS_SANGRE),
+                    random.nextDouble() < 0.2 ? elegir(ALERGIAS) : null,
+                    random.nextDouble() < 0.15 ? elegir(ENFERMEDADES_CRONICAS) : null,
+                    random.nextDouble() < 0.1 ? elegir(MEDICAMENTOS)[0] : null,
+                    elegir(NOMBRES_FEMENINOS) + " " + elegir(APELLIDOS), telefono());
+        }
+    }
+
+    private String[] generarUsuario(int id, Usuario.TipoUsuario tipo, LocalDate registroAntesDe) throws Exception {
+        boolean femenino = random.nextBoolean();
+        String nombre = femenino ? elegir(NOMBRES_FEMENINOS) : elegir(NOMBRES_MASCULINOS);
+        String apellido = elegir(APELLIDOS);
+        String email = normalizar(nombre) + "." + normalizar(apellido) + "." + id
+                + (tipo == Usuario.TipoUsuario.PACIENTE ? "@gmail.com" : "@mediapp.com");
+        LocalDate nacimiento = referenceDate.minusYears(tipo == Usuario.TipoUsuario.PACIENTE ? 1 + random.nextInt(85) : 28 + random.nextInt(35))
+                .minusDays(random.nextInt(365));
+        LocalDateTime registro = registroAntesDe.minusDays(random.nextInt(365)).atTime(8 + random.nextInt(12), random.nextInt(60));
+        Usuario.Estado estado = random.nextDouble() < 0.02 ? Usuario.Estado.INACTIVO : Usuario.Estado.ACTIVO;
+        row("usuarios", id, nombre, apellido, email, PASSWORD_HASH, nacimiento,
+                femenino ? Usuario.Genero.FEMENINO : Usuario.Genero.MASCULINO, telefono(),
+                "Calle " + (1 + random.nextInt(150)) + " # " + (1 + random.nextInt(99)) + "-" + (1 + random.nextInt(99)),
+                elegir(CIUDADES, PESO_CIUDADES), "Colombia", tipo, null, registro,
+                tipo == Usuario.TipoUsuario.PACIENTE ? estado : Usuario.Estado.ACTIVO);
+        return new String[]{nombre, apellido};
+    }
+
+    private void generarCitas() throws Exception {
+        LocalDate inicio = referenceDate.minusYears(properties.getYears());
+        LocalDate fin = referenceDate.plusDays(properties.getFutureDays());
+        // Lunes a viernes concentran la demanda; el domingo no hay agenda
+        double citasPorDiaHabil = properties.getPacientes() * properties.getCitasPorPacienteAnio() / 365.0 * 7.0 / 5.5;
+        Set<Long> ocupados = new HashSet<>();
+
+        for (LocalDate fecha = inicio; fecha.isBefore(fin); fecha = fecha.plusDays(1)) {
+            DayOfWeek dia = fecha.getDayOfWeek();
+            if (dia == DayOfWeek.SUNDAY) {
+                continue;
+            }
+            boolean sabado = dia == DayOfWeek.SATURDAY;
+            double esperadas = sabado ? citasPorDiaHabil * 0.5 : citasPorDiaHabil;
+            int total = (int) esperadas + (random.nextDouble() < esperadas - (int) esperadas ? 1 : 0);
+            ocupados.clear();
+            for (int i = 0; i < total; i++) {
+                generarCita(fecha, sabado, ocupados);
+            }
+        }
+    }
+
+    private void generarCita(LocalDate fecha, boolean sabado, Set<Long> ocupados) throws Exception {
+        int slots = sabado ? SLOTS_SABADO : SLOTS_DIA_HABIL;
+        int medico = -1;
+        int slot = -1;
+        for (int intento = 0; intento < MAX_INTENTOS_CITA && medico < 0; intento++) {
+            int candidato = medicoPorRango[popularidad.sample(random)];
+            if (sabado && !atiendeSabado[candidato]) {
+                continue;
+            }
+            int bloque = random.nextInt(slots);
+            if (ocupados.add((long) candidato * 32 + bloque)) {
+                medico = candidato;
+                slot = bloque;
+            }
+        }
+        if (medico < 0) {
+            citasDescartadas++;
+            return;
+        }
+
+        long idCita = nextCita++;
+        int paciente = 1 + random.nextInt(properties.getPacientes());
+        int idUsuarioPaciente = properties.getAdministradores() + totalMedicos + paciente;
+        LocalTime hora = slot < 8 ? LocalTime.of(8, 0).plusMinutes((long) slot * INTERVALO_MINUTOS)
+                : LocalTime.of(14, 0).plusMinutes((long) (slot - 8) * INTERVALO_MINUTOS);
+        LocalDateTime inicioCita = fecha.atTime(hora);
+
+        // La anticipación con la que se reserva sigue una distribución exponencial (media ~7 días)
+        long anticipacion = Math.min(60, 1 + (long) (-Math.log(1 - random.nextDouble()) * 7));
+        LocalDate diaReserva = fecha.minusDays(anticipacion);
+        if (diaReserva.isAfter(referenceDate)) {
+            diaReserva = referenceDate.minusDays(1);
+        }
+        LocalDateTime creacion = diaReserva.atTime(7 + random.nextInt(14), random.nextInt(60));
+
+        Cita.Estado estado;
+        double u = random.nextDouble();
+        if (!fecha.isBefore(referenceDate)) {
+            estado = u < properties.getCancellationRate() / 2 ? Cita.Estado.CANCELADA : Cita.Estado.PROGRAMADA;
+        } else if (u < properties.getCancellationRate()) {
+            estado = Cita.Estado.CANCELADA;
+        } else if (u < properties.getCancellationRate() + properties.getNoShowRate()) {
+            estado = Cita.Estado.NO_ASISTIO;
+        } else {
+            estado = Cita.Estado.COMPLETADA;
+        }
+        LocalDateTime cancelacion = null;
+        if (estado == Cita.Estado.CANCELADA) {
+            LocalDateTime limite = inicioCita.isBefore(now) ? inicioCita : now;
+            long minutos = Math.max(1, ChronoUnit.MINUTES.between(creacion, limite));
+            cancelacion = creacion.plusMinutes((long) (random.nextDouble() * minutos));
+        }
+
+        boolean telemedicina = random.nextDouble() < properties.getTelemedicineRate();
+        row("citas", idCita, paciente, medico, fecha, hora,
+                telemedicina ? Cita.TipoCita.TELEMEDICINA : Cita.TipoCita.PRESENCIAL,
+                elegir(MOTIVOS), estado, telemedicina ? "https://meet.mediapp.com/cita-" + idCita : null,
+                creacion, cancelacion);
+
+        notificar(idUsuarioPaciente, Notificacion.TipoNotificacion.CITA_CONFIRMADA, "Cita confirmada",
+                "Tu cita con " + nombreMedico[medico] + " quedó programada para el " + fecha + " a las " + hora,
+                creacion, idCita);
+        LocalDateTime recordatorio = fecha.minusDays(1).atTime(18, 0);
+        if ((cancelacion == null || cancelacion.isAfter(recordatorio)) && recordatorio.isAfter(creacion)) {
+            notificar(idUsuarioPaciente, Notificacion.TipoNotificacion.RECORDATORIO, "Recordatorio de cita",
+                    "Mañana tienes cita con " + nombreMedico[medico] + " a las " + hora, recordatorio, idCita);
+        }
+
+        if (estado == Cita.Estado.COMPLETADA) {
+            if (random.nextDouble() < 0.9) {
+                generarHistorial(idCita, paciente, idUsuarioPaciente, medico, inicioCita);
+            }
+            if (random.nextDouble() < properties.getEvaluationRate()) {
+                generarEvaluacion(paciente, medico, inicioCita);
+            }
+        }
+    }
+
+    private void generarHistorial(long idCita, int paciente, int idUsuarioPaciente, int medico,
+                                  LocalDateTime inicioCita) throws Exception {
+        long idHistorial = nextHistorial++;
+        String[] diagnostico = elegir(DIAGNOSTICOS);
+        int prescripciones = random.nextInt(4);
+        String[][] medicamentos = new String[prescripciones][];
+        StringBuilder prescritos = new StringBuilder();
+        for (int i = 0; i < prescripciones; i++) {
+            medicamentos[i] = elegir(MEDICAMENTOS);
+            if (i > 0) {
+                prescritos.append(", ");
+            }
+            prescritos.append(medicamentos[i][0]).append(' ').append(medicamentos[i][1]);
+        }
+        LocalDate seguimiento = random.nextDouble() < 0.4 ? inicioCita.toLocalDate().plusDays(30 + random.nextInt(60)) : null;
+        row("historial_medico", idHistorial, idCita, paciente, medico, diagnostico[0], diagnostico[1], diagnostico[2],
+                prescritos.length() > 0 ? prescritos.toString() : null, null, seguimiento);
+        for (String[] medicamento : medicamentos) {
+            row("prescripciones", nextPrescripcion++, idHistorial, medicamento[0], medicamento[1], medicamento[2],
+                    5 + random.nextInt(26), medicamento[3], inicioCita.toLocalDate());
+        }
+
+        LocalDateTime resultado = inicioCita.plusHours(2);
+        if (resultado.isBefore(now)) {
+            notificar(idUsuarioPaciente, Notificacion.TipoNotificacion.RESULTADO, "Resultados de tu consulta",
+                    "Ya puedes consultar el diagnóstico y las indicaciones de tu cita", resultado, idCita);
+        }
+    }
+
+    private void generarEvaluacion(int paciente, int medico, LocalDateTime inicioCita) throws Exception {
+        LocalDateTime fechaEvaluacion = inicioCita.plusHours(1 + random.nextInt(72));
+        if (!fechaEvaluacion.isBefore(now)) {
+            return;
+        }
+        int calificacion = (int) Math.round(calidadMedico[medico] + random.nextGaussian() * 0.8);
+        calificacion = Math.max(1, Math.min(5, calificacion));
+        String comentario = random.nextDouble() < 0.6
+                ? (calificacion >= 4 ? elegir(COMENTARIOS_POSITIVOS) : elegir(COMENTARIOS_NEGATIVOS)) : null;
+        String respuesta = comentario != null && random.nextDouble() < 0.3 ? "Gracias por tu comentario" : null;
+        row("evaluaciones", nextEvaluacion++, paciente, medico, calificacion, comentario, fechaEvaluacion, respuesta);
+    }
+
+    private void notificar(int idUsuario, Notificacion.TipoNotificacion tipo, String titulo, String contenido,
+                           LocalDateTime envio, long idCita) throws Exception {
+        if (!envio.isBefore(now)) {
+            return;
+        }
+        // Las notificaciones antiguas casi siempre están leídas; las de la última semana, menos
+        double probabilidadLeida = ChronoUnit.DAYS.between(envio, now) > 7
+                ? properties.getNotificationReadRate() : properties.getNotificationReadRate() / 2;
+        row("notificaciones", nextNotificacion++, idUsuario, tipo, titulo, contenido, envio,
+                random.nextDouble() < probabilidadLeida, "/citas/" + idCita);
+    }
+
+    private <T> T elegir(T[] valores) {
+        return valores[random.nextInt(valores.length)];
+    }
+
+    private <T> T elegir(T[] valores, double[] pesos) {
+        double u = random.nextDouble();
+        for (int i = 0; i < valores.length - 1; i++) {
+            u -= pesos[i];
+            if (u < 0) {
+                return valores[i];
+            }
+        }
+        return valores[valores.length - 1];
+    }
+
+    private String telefono() {
+        return String.format("3%09d", random.nextInt(1_000_000_000));
+    }
+
+    private static String normalizar(String texto) {
+        return Normalizer.normalize(texto, Normalizer.Form.NFD).replaceAll("\\p{M}", "").toLowerCase();
+    }
+}
@@ -0,0 +1,37 @@
+package com.mediapp.citasbackend.dataset;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Muestreo de rangos 0..n-1 con distribución Zipf: P(k) ∝ 1 / (k + 1)^s.
+ * La CDF se precalcula una vez y cada muestra es una búsqueda binaria.
+ */
+public class ZipfSampler {
+
+    private final double[] cdf;
+
+    public ZipfSampler(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("El número de elementos debe ser al menos 1");
+        }
+        cdf = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / Math.pow(k + 1, exponent);
+            cdf[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cdf[k] /= sum;
+        }
+    }
+
+    public int sample(SplittableRandom random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cdf.length - 1);
+    }
+
+    public double probability(int rank) {
+        return rank == 0 ? cdf[0] : cdf[rank] - cdf[rank - 1];
+    }
+}
@@ -0,0 +1,37 @@
+package com.mediapp.citasbackend.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalTime;
+
+@Value
+@Builder(toBuilder = true)
+@Schema(description = "Entrada compacta de la agenda diaria de un médico")
+public class AgendaCitaDTO {
+
+    @Schema(description = "ID de la cita", example = "1")
+    Integer idCita;
+
+    @Schema(description = "ID del paciente", example = "1")
+    Integer idPaciente;
+
+    @Schema(description = "Hora de la cita", example = "10:30:00")
+    LocalTime horaCita;
+
+    @Schema(description = "Duración de la cita en minutos", example = "30")
+    Integer duracionMinutos;
+
+    @Schema(description = "Tipo de cita", example = "PRESENCIAL")
+    String tipoCita;
+
+    @Schema(description = "Estado de la cita", example = "PROGRAMADA")
+    String estado;
+
+    @Schema(description = "Motivo de la consulta", example = "Dolor de cabeza recurrente")
+    String motivoConsulta;
+
+    @Schema(description = "Enlace de videollamada (solo telemedicina)", example = "https://meet.google.com/abc-defg-hij")
+    String enlaceVideollamada;
+}
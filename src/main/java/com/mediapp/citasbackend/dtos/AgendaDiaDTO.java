@@ -0,0 +1,26 @@
+package com.mediapp.citasbackend.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Value
+@Builder
+@Schema(description = "Agenda de un médico en una fecha, con todas sus citas ordenadas por hora")
+public class AgendaDiaDTO {
+
+    @Schema(description = "ID del médico", example = "1")
+    Integer idMedico;
+
+    @Schema(description = "Fecha de la agenda", example = "2025-11-15")
+    LocalDate fecha;
+
+    @Schema(description = "Versión de la agenda; cambia con cada modificación y se envía como ETag", example = "m3x9k2-42")
+    String version;
+
+    @Schema(description = "Citas del día ordenadas por hora")
+    List<AgendaCitaDTO> citas;
+}
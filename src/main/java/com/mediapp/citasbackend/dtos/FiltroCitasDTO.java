@@ -0,0 +1,35 @@
+package com.mediapp.citasbackend.dtos;
+
+import com.mediapp.citasbackend.entities.Cita;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+@Value
+@Builder
+@Schema(description = "Criterios de búsqueda de citas; los nulos no filtran")
+public class FiltroCitasDTO {
+
+    @Schema(description = "ID del médico", example = "1")
+    Integer idMedico;
+
+    @Schema(description = "ID del paciente", example = "1")
+    Integer idPaciente;
+
+    @Schema(description = "Estado de la cita", example = "PROGRAMADA")
+    Cita.Estado estado;
+
+    @Schema(description = "Tipo de cita", example = "PRESENCIAL")
+    Cita.TipoCita tipoCita;
+
+    @Schema(description = "ID de la especialidad del médico", example = "3")
+    Integer idEspecialidad;
+
+    @Schema(description = "Fecha inicial (inclusiva)", example = "2025-11-01")
+    LocalDate fechaDesde;
+
+    @Schema(description = "Fecha final (inclusiva)", example = "2025-11-30")
+    LocalDate fechaHasta;
+}
@@ -0,0 +1,23 @@
+package com.mediapp.citasbackend.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Value
+@Builder
+@Schema(description = "Horario del calendario de un médico sin citas ni reservas temporales que lo ocupen")
+public class HorarioLibreDTO {
+
+    @Schema(description = "Fecha del horario", example = "2025-11-15")
+    LocalDate fecha;
+
+    @Schema(description = "Hora de inicio", example = "10:30:00")
+    LocalTime hora;
+
+    @Schema(description = "Duración de la cita en ese horario, en minutos", example = "30")
+    Integer duracionMinutos;
+}
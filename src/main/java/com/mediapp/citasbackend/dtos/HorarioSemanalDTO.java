@@ -0,0 +1,29 @@
+package com.mediapp.citasbackend.dtos;
+
+import com.mediapp.citasbackend.entities.CalendarioDisponibilidad;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder
+@Schema(description = "Resultado del reemplazo del horario semanal de un médico")
+public class HorarioSemanalDTO {
+
+    @Schema(description = "Bloques creados", example = "2")
+    int insertados;
+
+    @Schema(description = "Bloques existentes modificados", example = "1")
+    int actualizados;
+
+    @Schema(description = "Bloques existentes que ya no están en el horario", example = "3")
+    int eliminados;
+
+    @Schema(description = "Bloques que no cambiaron", example = "4")
+    int sinCambios;
+
+    @Schema(description = "Horario semanal resultante, ordenado por día y hora de inicio")
+    List<CalendarioDisponibilidad> bloques;
+}
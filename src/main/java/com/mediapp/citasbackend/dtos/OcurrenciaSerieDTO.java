@@ -0,0 +1,39 @@
+package com.mediapp.citasbackend.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Value
+@Builder
+@Schema(description = "Resultado de una fecha de la serie")
+public class OcurrenciaSerieDTO {
+
+    @Schema(description = "Fecha de la cita", example = "2025-11-17")
+    LocalDate fecha;
+
+    @Schema(description = "Hora de la cita", example = "10:30:00")
+    LocalTime hora;
+
+    @Schema(description = "Resultado", example = "CREADA")
+    Resultado resultado;
+
+    @Schema(description = "ID de la cita creada", example = "120")
+    Integer idCita;
+
+    @Schema(description = "ID de la cita existente con la que se cruza", example = "87")
+    Integer idCitaConflicto;
+
+    @Schema(description = "Motivo cuando la cita no se creó", example = "El médico ya tiene una cita programada en esa fecha y hora")
+    String mensaje;
+
+    public enum Resultado {
+        CREADA,
+        DISPONIBLE,
+        CONFLICTO,
+        RECHAZADA
+    }
+}
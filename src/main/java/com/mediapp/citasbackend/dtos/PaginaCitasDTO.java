@@ -0,0 +1,20 @@
+package com.mediapp.citasbackend.dtos;
+
+import com.mediapp.citasbackend.entities.Cita;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder
+@Schema(description = "Página de una búsqueda de citas en orden de fecha, hora e ID")
+public class PaginaCitasDTO {
+
+    @Schema(description = "Citas de la página")
+    List<Cita> citas;
+
+    @Schema(description = "Cursor para pedir la página siguiente (nulo si no hay más)", example = "MjAyNS0xMS0xNXwxMDozMHw0Mg")
+    String siguienteCursor;
+}
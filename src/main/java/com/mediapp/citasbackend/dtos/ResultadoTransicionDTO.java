@@ -0,0 +1,28 @@
+package com.mediapp.citasbackend.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+@Schema(description = "Resultado del cambio de estado de una cita dentro de un lote")
+public class ResultadoTransicionDTO {
+
+    @Schema(description = "ID de la cita", example = "1")
+    Integer idCita;
+
+    @Schema(description = "Resultado", example = "ACTUALIZADA")
+    Resultado resultado;
+
+    @Schema(description = "Motivo cuando la cita no se actualizó", example = "No se puede cancelar una cita completada")
+    String mensaje;
+
+    public enum Resultado {
+        ACTUALIZADA,
+        SIN_CAMBIOS,
+        NO_ENCONTRADA,
+        RECHAZADA,
+        ERROR
+    }
+}
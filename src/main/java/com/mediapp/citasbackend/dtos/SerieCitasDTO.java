@@ -0,0 +1,26 @@
+package com.mediapp.citasbackend.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder
+@Schema(description = "Resultado de la creación de una serie de citas")
+public class SerieCitasDTO {
+
+    @Schema(description = "Identificador de la serie, guardado en cada cita creada (nulo si no se creó ninguna)",
+            example = "3f2b8c1e-7a4d-4e59-9c1a-2b6f0d8e4a11")
+    String idSerie;
+
+    @Schema(description = "Fechas generadas por la regla", example = "12")
+    int solicitadas;
+
+    @Schema(description = "Citas creadas", example = "11")
+    int creadas;
+
+    @Schema(description = "Resultado por fecha, en orden cronológico")
+    List<OcurrenciaSerieDTO> ocurrencias;
+}
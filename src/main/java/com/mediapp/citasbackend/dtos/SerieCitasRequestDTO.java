@@ -0,0 +1,50 @@
+package com.mediapp.citasbackend.dtos;
+
+import com.mediapp.citasbackend.entities.Cita;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Serie de citas recurrentes de un paciente con un médico, a la misma hora")
+public class SerieCitasRequestDTO {
+
+    @Schema(description = "ID del paciente", example = "1", required = true)
+    private Integer idPaciente;
+
+    @Schema(description = "ID del médico", example = "1", required = true)
+    private Integer idMedico;
+
+    @Schema(description = "Fecha de la primera cita posible de la serie", example = "2025-11-17", required = true)
+    private LocalDate fechaInicio;
+
+    @Schema(description = "Hora de todas las citas", example = "10:30:00", required = true)
+    private LocalTime horaCita;
+
+    @Schema(description = "Duración de cada cita en minutos; por defecto el intervalo de citas del médico en ese día", example = "30")
+    private Integer duracionMinutos;
+
+    @Schema(description = "Tipo de cita: PRESENCIAL o TELEMEDICINA", example = "PRESENCIAL", required = true)
+    private Cita.TipoCita tipoCita;
+
+    @Schema(description = "Motivo de la consulta", example = "Terapia física")
+    private String motivoConsulta;
+
+    @Schema(description = "Enlace para videollamada (obligatorio para telemedicina)", example = "https://meet.google.com/abc-defg-hij")
+    private String enlaceVideollamada;
+
+    @Schema(description = "Regla de recurrencia: FREQ (DAILY, WEEKLY, MONTHLY), INTERVAL, COUNT o UNTIL, y BYDAY en la semanal",
+            example = "FREQ=WEEKLY;BYDAY=MO,TH;COUNT=12", required = true)
+    private String recurrencia;
+
+    @Schema(description = "Crear las citas sin conflicto y omitir las demás; si es false, un conflicto cancela toda la serie", example = "false")
+    private boolean omitirConflictos;
+}
@@ -0,0 +1,25 @@
+package com.mediapp.citasbackend.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder
+@Schema(description = "Resultado de un cambio de estado en lote")
+public class TransicionLoteDTO {
+
+    @Schema(description = "Estado aplicado", example = "COMPLETADA")
+    String estado;
+
+    @Schema(description = "Citas incluidas en el lote", example = "25")
+    int solicitadas;
+
+    @Schema(description = "Citas que cambiaron de estado", example = "23")
+    int actualizadas;
+
+    @Schema(description = "Resultado por cita, en el orden de la solicitud")
+    List<ResultadoTransicionDTO> resultados;
+}
@@ -0,0 +1,27 @@
+package com.mediapp.citasbackend.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Citas a las que se aplica un cambio de estado en lote: una lista de IDs o todas las de un médico en una fecha")
+public class TransicionLoteRequestDTO {
+
+    @Schema(description = "IDs de las citas", example = "[1, 2, 3]")
+    private List<Integer> ids;
+
+    @Schema(description = "ID del médico (junto con la fecha, en lugar de los IDs)", example = "1")
+    private Integer idMedico;
+
+    @Schema(description = "Fecha de las citas del médico", example = "2025-11-15")
+    private LocalDate fecha;
+}
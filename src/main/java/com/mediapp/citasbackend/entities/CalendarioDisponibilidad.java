@@ -6,10 +6,14 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.DayOfWeek;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "calendario_disponibilidad")
+@Table(name = "calendario_disponibilidad", indexes = {
+        // Médicos con horario activo en un día de la semana
+        @Index(name = "idx_calendario_dia_estado", columnList = "dia_semana, estado, hora_inicio")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -63,7 +67,11 @@ public class CalendarioDisponibilidad {
         JUEVES,
         VIERNES,
         SABADO,
-        DOMINGO
+        DOMINGO;
+
+        public static DiaSemana de(DayOfWeek dia) {
+            return values()[dia.getValue() - 1];
+        }
     }
 
     public enum Estado {
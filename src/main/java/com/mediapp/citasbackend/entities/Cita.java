@@ -11,13 +11,26 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "citas")
+@Table(name = "citas", indexes = {
+        // Recorrido de citas programadas vencidas en orden (fecha, hora, id)
+        @Index(name = "idx_citas_estado_fecha_hora", columnList = "estado, fecha_cita, hora_cita"),
+        // Búsqueda de citas por médico o paciente, en orden de fecha y hora
+        @Index(name = "idx_citas_medico_fecha_hora", columnList = "id_medico, fecha_cita, hora_cita"),
+        @Index(name = "idx_citas_paciente_fecha", columnList = "id_paciente, fecha_cita"),
+        // Consultas por rango de fechas y recorrido del archivado en orden (fecha, id)
+        @Index(name = "idx_citas_fecha_cita", columnList = "fecha_cita"),
+        // Citas creadas juntas por una serie recurrente
+        @Index(name = "idx_citas_id_serie", columnList = "id_serie")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Schema(description = "Entidad que representa una cita médica")
 public class Cita {
 
+    // Duración de las citas sin duración registrada y de los médicos sin calendario para ese día
+    public static final int DURACION_PREDETERMINADA_MINUTOS = 30;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id_cita")
@@ -42,6 +55,10 @@ public class Cita {
     @Schema(description = "Hora de la cita", example = "10:30:00", required = true)
     private LocalTime horaCita;
 
+    @Column(name = "duracion_minutos")
+    @Schema(description = "Duración de la cita en minutos; por defecto el intervalo de citas del médico en ese día", example = "30", required = false)
+    private Integer duracionMinutos;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "tipo_cita", nullable = false, length = 20)
     @Schema(description = "Tipo de cita: PRESENCIAL o TELEMEDICINA", example = "PRESENCIAL", required = true, allowableValues = {"PRESENCIAL", "TELEMEDICINA"})
@@ -68,6 +85,10 @@ public class Cita {
     @Schema(description = "Fecha y hora de cancelación de la cita (si aplica)", accessMode = Schema.AccessMode.READ_ONLY, example = "2025-10-23T15:00:00", required = false)
     private LocalDateTime fechaCancelacion;
 
+    @Column(name = "id_serie", length = 36)
+    @Schema(description = "Identificador de la serie recurrente que creó la cita (si aplica)", accessMode = Schema.AccessMode.READ_ONLY, example = "3f2b8c1e-7a4d-4e59-9c1a-2b6f0d8e4a11", required = false)
+    private String idSerie;
+
     @PrePersist
     protected void onCreate() {
         if (fechaCreacion == null) {
@@ -0,0 +1,92 @@
+package com.mediapp.citasbackend.entities;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Cita cerrada y antigua movida de la tabla citas por el archivado. Conserva el ID original
+ * y las mismas columnas; se lee como Cita desde las consultas de CitaRepository que lo necesitan.
+ */
+@Entity
+@Table(name = "citas_archivo", indexes = {
+        @Index(name = "idx_citas_archivo_medico_fecha", columnList = "id_medico, fecha_cita"),
+        @Index(name = "idx_citas_archivo_paciente_fecha", columnList = "id_paciente, fecha_cita"),
+        @Index(name = "idx_citas_archivo_fecha", columnList = "fecha_cita")
+})
+@Data
+@NoArgsConstructor
+@Schema(description = "Cita archivada (solo lectura)")
+public class CitaArchivada {
+
+    @Id
+    @Column(name = "id_cita")
+    private Integer idCita;
+
+    @ManyToOne
+    @JoinColumn(name = "id_paciente", nullable = false)
+    private Paciente paciente;
+
+    @ManyToOne
+    @JoinColumn(name = "id_medico", nullable = false)
+    private Medico medico;
+
+    @Column(name = "fecha_cita", nullable = false)
+    private LocalDate fechaCita;
+
+    @Column(name = "hora_cita", nullable = false)
+    private LocalTime horaCita;
+
+    @Column(name = "duracion_minutos")
+    private Integer duracionMinutos;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo_cita", nullable = false, length = 20)
+    private Cita.TipoCita tipoCita;
+
+    @Column(name = "motivo_consulta", length = 255)
+    private String motivoConsulta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 20)
+    private Cita.Estado estado;
+
+    @Column(name = "enlace_videollamada", length = 255)
+    private String enlaceVideollamada;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_cancelacion")
+    private LocalDateTime fechaCancelacion;
+
+    @Column(name = "id_serie", length = 36)
+    private String idSerie;
+
+    @Column(name = "fecha_archivo", nullable = false)
+    private LocalDateTime fechaArchivo;
+
+    // Copia sin gestionar, para devolverla junto con las citas de la tabla principal
+    public Cita aCita() {
+        Cita cita = new Cita();
+        cita.setIdCita(idCita);
+        cita.setPaciente(paciente);
+        cita.setMedico(medico);
+        cita.setFechaCita(fechaCita);
+        cita.setHoraCita(horaCita);
+        cita.setDuracionMinutos(duracionMinutos);
+        cita.setTipoCita(tipoCita);
+        cita.setMotivoConsulta(motivoConsulta);
+        cita.setEstado(estado);
+        cita.setEnlaceVideollamada(enlaceVideollamada);
+        cita.setFechaCreacion(fechaCreacion);
+        cita.setFechaCancelacion(fechaCancelacion);
+        cita.setIdSerie(idSerie);
+        return cita;
+    }
+}
@@ -0,0 +1,49 @@
+package com.mediapp.citasbackend.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Fila de un contador de citas por (ámbito, estado). Cada contador se reparte en varias franjas
+ * para que las transacciones concurrentes no se bloqueen sobre la misma fila; su valor es la
+ * suma de todas sus franjas.
+ */
+@Entity
+@Table(name = "contadores_citas", uniqueConstraints = @UniqueConstraint(
+        name = "uk_contador_cita", columnNames = {"ambito", "id_ambito", "estado", "franja"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContadorCita {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_contador")
+    private Long idContador;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "ambito", nullable = false, length = 10)
+    private Ambito ambito;
+
+    // ID del médico o paciente; 0 para el ámbito global
+    @Column(name = "id_ambito", nullable = false)
+    private Integer idAmbito;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 20)
+    private Cita.Estado estado;
+
+    @Column(name = "franja", nullable = false)
+    private Integer franja;
+
+    @Column(name = "total", nullable = false)
+    private Long total;
+
+    public enum Ambito {
+        GLOBAL,
+        MEDICO,
+        PACIENTE
+    }
+}
@@ -0,0 +1,88 @@
+package com.mediapp.citasbackend.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Interés de un paciente en un médico o una especialidad dentro de un rango de fechas. Cuando
+ * se cancela una cita que encaja, se le ofrece el horario con una reserva temporal.
+ */
+@Entity
+@Table(name = "lista_espera", indexes = {
+        @Index(name = "idx_lista_espera_medico", columnList = "id_medico, estado, fecha_desde"),
+        @Index(name = "idx_lista_espera_especialidad", columnList = "id_especialidad, estado, fecha_desde"),
+        @Index(name = "idx_lista_espera_oferta", columnList = "estado, ofrecida_hasta")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntradaListaEspera {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_entrada")
+    private Long idEntrada;
+
+    @Column(name = "id_paciente", nullable = false)
+    private Integer idPaciente;
+
+    // Médico o especialidad de interés; se indica uno de los dos
+    @Column(name = "id_medico")
+    private Integer idMedico;
+
+    @Column(name = "id_especialidad")
+    private Integer idEspecialidad;
+
+    @Column(name = "fecha_desde", nullable = false)
+    private LocalDate fechaDesde;
+
+    @Column(name = "fecha_hasta", nullable = false)
+    private LocalDate fechaHasta;
+
+    // Mayor prioridad primero; a igual prioridad, por orden de registro
+    @Column(name = "prioridad", nullable = false)
+    private Integer prioridad;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 20)
+    private Estado estado;
+
+    // Cita cancelada cuyo horario se ofreció
+    @Column(name = "id_cita_liberada")
+    private Integer idCitaLiberada;
+
+    @Column(name = "token_reserva", length = 36)
+    private String tokenReserva;
+
+    @Column(name = "ofrecida_hasta")
+    private LocalDateTime ofrecidaHasta;
+
+    @Column(name = "fecha_registro", nullable = false, updatable = false)
+    private LocalDateTime fechaRegistro;
+
+    @PrePersist
+    protected void onCreate() {
+        if (fechaRegistro == null) {
+            fechaRegistro = LocalDateTime.now();
+        }
+        if (prioridad == null) {
+            prioridad = 0;
+        }
+        if (estado == null) {
+            estado = Estado.ACTIVA;
+        }
+    }
+
+    public enum Estado {
+        ACTIVA,
+        OFRECIDA,
+        ATENDIDA,
+        VENCIDA,
+        CANCELADA
+    }
+}
@@ -11,7 +11,11 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "evaluaciones")
+@Table(name = "evaluaciones", indexes = {
+        // Evaluaciones recientes y por calificación, en orden de fecha
+        @Index(name = "idx_evaluaciones_fecha", columnList = "fecha_evaluacion"),
+        @Index(name = "idx_evaluaciones_calificacion_fecha", columnList = "calificacion, fecha_evaluacion")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,68 @@
+package com.mediapp.citasbackend.entities;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Entity
+@Table(name = "excepciones_disponibilidad", indexes = {
+        // Excepciones vigentes de un médico
+        @Index(name = "idx_excepciones_medico_fecha_fin", columnList = "id_medico, fecha_fin")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Excepción por rango de fechas sobre el horario semanal de un médico (vacaciones, festivos u horario especial)")
+public class ExcepcionDisponibilidad {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_excepcion")
+    @Schema(description = "ID único de la excepción (generado automáticamente)", accessMode = Schema.AccessMode.READ_ONLY, example = "1")
+    private Integer idExcepcion;
+
+    @ManyToOne
+    @JoinColumn(name = "id_medico", nullable = false)
+    @Schema(description = "Médico al que aplica la excepción", required = true)
+    private Medico medico;
+
+    @Column(name = "fecha_inicio", nullable = false)
+    @Schema(description = "Primer día de la excepción", example = "2025-12-22", required = true)
+    private LocalDate fechaInicio;
+
+    @Column(name = "fecha_fin", nullable = false)
+    @Schema(description = "Último día de la excepción (incluido)", example = "2026-01-02", required = true)
+    private LocalDate fechaFin;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo", nullable = false, length = 20)
+    @Schema(description = "CERRADO no atiende (todo el día o en el rango de horas); HORARIO_ESPECIAL reemplaza los bloques de la semana",
+            example = "CERRADO", required = true, allowableValues = {"CERRADO", "HORARIO_ESPECIAL"})
+    private Tipo tipo;
+
+    @Column(name = "hora_inicio")
+    @Schema(description = "Hora de inicio; en CERRADO sin horas se cierra el día completo", example = "08:00:00")
+    private LocalTime horaInicio;
+
+    @Column(name = "hora_fin")
+    @Schema(description = "Hora de fin", example = "12:00:00")
+    private LocalTime horaFin;
+
+    @Column(name = "intervalo_cita_minutos")
+    @Schema(description = "Intervalo en minutos entre citas del horario especial", example = "30")
+    private Integer intervaloCitaMinutos;
+
+    @Column(name = "motivo", length = 255)
+    @Schema(description = "Motivo de la excepción", example = "Vacaciones")
+    private String motivo;
+
+    public enum Tipo {
+        CERRADO,
+        HORARIO_ESPECIAL
+    }
+}
@@ -9,7 +9,10 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "historial_medico")
+@Table(name = "historial_medico", indexes = {
+        // Seguimientos pendientes y vencidos
+        @Index(name = "idx_historial_proximo_seguimiento", columnList = "fecha_proximo_seguimiento")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
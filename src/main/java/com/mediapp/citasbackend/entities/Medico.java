@@ -10,7 +10,11 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "medicos")
+@Table(name = "medicos", indexes = {
+        // Búsqueda por licencia y listados por estado de verificación
+        @Index(name = "idx_medicos_numero_licencia", columnList = "numero_licencia"),
+        @Index(name = "idx_medicos_estado_verificacion", columnList = "estado_verificacion, fecha_verificacion")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
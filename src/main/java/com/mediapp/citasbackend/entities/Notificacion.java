@@ -9,7 +9,11 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notificaciones")
+@Table(name = "notificaciones", indexes = {
+        // Recordatorios sin leer y listados por tipo o por rango de fechas de envío
+        @Index(name = "idx_notificaciones_tipo_leida_fecha", columnList = "tipo_notificacion, leida, fecha_envio"),
+        @Index(name = "idx_notificaciones_fecha_envio", columnList = "fecha_envio")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
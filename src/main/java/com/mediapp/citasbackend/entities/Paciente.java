@@ -7,7 +7,9 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "pacientes")
+@Table(name = "pacientes", indexes = {
+        @Index(name = "idx_pacientes_numero_identificacion", columnList = "numero_identificacion")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
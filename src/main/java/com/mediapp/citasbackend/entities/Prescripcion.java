@@ -9,7 +9,11 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "prescripciones")
+@Table(name = "prescripciones", indexes = {
+        // Listados por fecha y búsqueda por medicamento
+        @Index(name = "idx_prescripciones_fecha", columnList = "fecha_prescripcion"),
+        @Index(name = "idx_prescripciones_medicamento", columnList = "nombre_medicamento")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
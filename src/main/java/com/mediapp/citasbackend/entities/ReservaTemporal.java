@@ -0,0 +1,60 @@
+package com.mediapp.citasbackend.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Reserva de un horario del médico mientras el paciente confirma la cita. Vence sola en
+ * expiraEn; se elimina al liberarla o al convertirla en cita.
+ */
+@Entity
+@Table(name = "reservas_temporales",
+        uniqueConstraints = @UniqueConstraint(name = "uk_reservas_medico_fecha_hora", columnNames = {"id_medico", "fecha", "hora"}),
+        indexes = @Index(name = "idx_reservas_expira_en", columnList = "expira_en"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservaTemporal {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_reserva")
+    private Long idReserva;
+
+    // Identificador que recibe el cliente para confirmar o liberar la reserva
+    @Column(name = "token", nullable = false, unique = true, length = 36)
+    private String token;
+
+    @Column(name = "id_medico", nullable = false)
+    private Integer idMedico;
+
+    // Paciente que reserva; si se indica, solo él puede convertirla en cita
+    @Column(name = "id_paciente")
+    private Integer idPaciente;
+
+    @Column(name = "fecha", nullable = false)
+    private LocalDate fecha;
+
+    @Column(name = "hora", nullable = false)
+    private LocalTime hora;
+
+    @Column(name = "duracion_minutos", nullable = false)
+    private Integer duracionMinutos;
+
+    @Column(name = "expira_en", nullable = false)
+    private LocalDateTime expiraEn;
+
+    @Column(name = "fecha_creacion", nullable = false, updatable = false)
+    private LocalDateTime fechaCreacion;
+
+    @PrePersist
+    protected void onCreate() {
+        fechaCreacion = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,57 @@
+package com.mediapp.citasbackend.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Respuesta guardada de una petición con Idempotency-Key, compartida entre instancias. Mientras
+ * la petición original se ejecuta la fila está EN_CURSO y vence pronto, por si la instancia se
+ * detiene; al terminar guarda la respuesta y vence con el TTL configurado.
+ */
+@Entity
+@Table(name = "respuestas_idempotentes", indexes = {
+        @Index(name = "idx_respuestas_idempotentes_expira_en", columnList = "expira_en")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RespuestaIdempotente {
+
+    // SHA-256 del usuario y la clave enviada por el cliente
+    @Id
+    @Column(name = "clave", length = 64)
+    private String clave;
+
+    // SHA-256 del método, la ruta y el cuerpo de la petición original
+    @Column(name = "huella", nullable = false, length = 64)
+    private String huella;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 20)
+    private Estado estado;
+
+    @Column(name = "status")
+    private Integer status;
+
+    @Column(name = "tipo_contenido", length = 100)
+    private String tipoContenido;
+
+    @Lob
+    @Column(name = "cuerpo", length = 1_048_576)
+    private byte[] cuerpo;
+
+    @Column(name = "expira_en", nullable = false)
+    private LocalDateTime expiraEn;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    public enum Estado {
+        EN_CURSO,
+        COMPLETADA
+    }
+}
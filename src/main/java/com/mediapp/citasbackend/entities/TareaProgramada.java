@@ -0,0 +1,38 @@
+package com.mediapp.citasbackend.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estado compartido de una tarea periódica entre instancias: quién la tiene arrendada y
+ * hasta cuándo, y la marca de avance desde la que continúa la siguiente ejecución.
+ */
+@Entity
+@Table(name = "tareas_programadas")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TareaProgramada {
+
+    @Id
+    @Column(name = "nombre", length = 100)
+    private String nombre;
+
+    // Instancia que tiene el arrendamiento
+    @Column(name = "propietario", length = 150)
+    private String propietario;
+
+    @Column(name = "bloqueada_hasta")
+    private LocalDateTime bloqueadaHasta;
+
+    // Posición hasta la que se procesó, en el formato que defina cada tarea
+    @Column(name = "marca", length = 255)
+    private String marca;
+
+    @Column(name = "ultima_ejecucion")
+    private LocalDateTime ultimaEjecucion;
+}
@@ -0,0 +1,14 @@
+package com.mediapp.citasbackend.events;
+
+import com.mediapp.citasbackend.entities.Cita;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Se publica una vez por cada tramo de un cambio de estado en lote, y por cada cancelación
+ * individual, dentro de su transacción; los oyentes que solo deban ver cambios confirmados
+ * usan @TransactionalEventListener
+ */
+public record CitasCambiaronEstadoEvent(Cita.Estado estado, List<Integer> idsCita, LocalDateTime fecha) {
+}
@@ -0,0 +1,11 @@
+package com.mediapp.citasbackend.exceptions;
+
+/**
+ * Excepción lanzada cuando se agota el plazo asignado a la petición
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,8 @@
 package com.mediapp.citasbackend.exceptions;
 
+import io.micrometer.core.instrument.Metrics;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -202,6 +204,42 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Maneja excepciones de plazo agotado antes de invocar el controlador
+     */
+    @ExceptionHandler(DeadlineExceededException.class)
+    public ResponseEntity<ErrorResponse> handleDeadlineExceededException(
+            DeadlineExceededException ex, 
+            HttpServletRequest request) {
+        
+        return deadlineExceeded("handler", ex.getMessage(), request);
+    }
+
+    /**
+     * Maneja consultas canceladas por timeout (plazo de la petición agotado en la base de datos)
+     */
+    @ExceptionHandler({QueryTimeoutException.class, jakarta.persistence.QueryTimeoutException.class})
+    public ResponseEntity<ErrorResponse> handleQueryTimeoutException(
+            RuntimeException ex, 
+            HttpServletRequest request) {
+        
+        return deadlineExceeded("query", "La consulta superó el tiempo máximo permitido para la petición", request);
+    }
+
+    private ResponseEntity<ErrorResponse> deadlineExceeded(String stage, String message, HttpServletRequest request) {
+        Metrics.counter("mediapp.deadline.exceeded", "stage", stage).increment();
+        
+        ErrorResponse error = new ErrorResponse(
+            LocalDateTime.now(),
+            HttpStatus.GATEWAY_TIMEOUT.value(),
+            "Tiempo de Espera Agotado",
+            message,
+            request.getRequestURI()
+        );
+        
+        return new ResponseEntity<>(error, HttpStatus.GATEWAY_TIMEOUT);
+    }
+
     /**
      * Maneja todas las demás excepciones no controladas
      */
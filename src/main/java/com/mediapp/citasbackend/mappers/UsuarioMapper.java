@@ -0,0 +1,60 @@
+package com.mediapp.citasbackend.mappers;
+
+import com.mediapp.citasbackend.dtos.AuthResponseDTO;
+import com.mediapp.citasbackend.dtos.RegisterRequestDTO;
+import com.mediapp.citasbackend.dtos.UsuarioCreateDTO;
+import com.mediapp.citasbackend.dtos.UsuarioDTO;
+import com.mediapp.citasbackend.dtos.UsuarioUpdateDTO;
+import com.mediapp.citasbackend.entities.Usuario;
+import org.mapstruct.BeanMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+
+import java.util.List;
+
+/**
+ * Mapper entre la entidad Usuario y sus DTOs. La implementación la genera MapStruct en
+ * compilación con getters y setters planos; un campo destino sin mapear es un error de
+ * compilación (mapstruct.unmappedTargetPolicy=ERROR en el pom).
+ *
+ * La contraseña nunca se copia desde un DTO: el servicio la asigna ya encriptada.
+ * LoginRequestDTO y UsuarioLoginDTO son solo credenciales y no tienen mapeo a entidad.
+ */
+@Mapper
+public interface UsuarioMapper {
+
+    UsuarioDTO toDto(Usuario usuario);
+
+    List<UsuarioDTO> toDtoList(List<Usuario> usuarios);
+
+    @Mapping(target = "idUsuario", ignore = true)
+    @Mapping(target = "contraseña", ignore = true)
+    @Mapping(target = "fechaRegistro", ignore = true)
+    @Mapping(target = "estado", ignore = true)
+    Usuario toEntity(UsuarioCreateDTO dto);
+
+    @Mapping(target = "idUsuario", ignore = true)
+    @Mapping(target = "contraseña", ignore = true)
+    @Mapping(target = "fotoPerfil", ignore = true)
+    @Mapping(target = "fechaRegistro", ignore = true)
+    @Mapping(target = "estado", ignore = true)
+    Usuario toEntity(RegisterRequestDTO dto);
+
+    /**
+     * Copia solo los campos no nulos del DTO, igual que el ModelMapper anterior con skipNullEnabled
+     */
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "idUsuario", ignore = true)
+    @Mapping(target = "contraseña", ignore = true)
+    @Mapping(target = "tipoUsuario", ignore = true)
+    @Mapping(target = "fechaRegistro", ignore = true)
+    void updateEntity(UsuarioUpdateDTO dto, @MappingTarget Usuario usuario);
+
+    // "tipo" se ignora para conservar el valor por defecto "Bearer" del builder
+    @Mapping(target = "tipo", ignore = true)
+    @Mapping(target = "token", source = "token")
+    @Mapping(target = "refreshToken", source = "refreshToken")
+    AuthResponseDTO toAuthResponse(Usuario usuario, String token, String refreshToken);
+}
@@ -0,0 +1,77 @@
+package com.mediapp.citasbackend.monitoring;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Envuelve el DataSource de la aplicación para que todas las sentencias JDBC pasen por
+ * los {@link JdbcExecutionListener} registrados como beans
+ */
+@Component
+public class DataSourceProxyPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<JdbcExecutionListener> listenerProvider;
+    private volatile List<JdbcExecutionListener> listeners;
+
+    public DataSourceProxyPostProcessor(ObjectProvider<JdbcExecutionListener> listenerProvider) {
+        this.listenerProvider = listenerProvider;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+            return new ProxyDataSource(dataSource, new JdbcProxyFactory(this::listeners));
+        }
+        return bean;
+    }
+
+    // Los listeners se resuelven en la primera sentencia para no inicializarlos antes que el DataSource
+    private List<JdbcExecutionListener> listeners() {
+        List<JdbcExecutionListener> resolved = listeners;
+        if (resolved == null) {
+            resolved = listenerProvider.orderedStream().toList();
+            listeners = resolved;
+        }
+        return resolved;
+    }
+
+    static class ProxyDataSource extends DelegatingDataSource {
+
+        private final JdbcProxyFactory proxyFactory;
+
+        ProxyDataSource(DataSource target, JdbcProxyFactory proxyFactory) {
+            super(target);
+            this.proxyFactory = proxyFactory;
+        }
+
+        @Override
+        @NonNull
+        public Connection getConnection() throws SQLException {
+            long start = System.nanoTime();
+            try {
+                return proxyFactory.wrap(obtainTargetDataSource().getConnection());
+            } finally {
+                proxyFactory.connectionAcquired(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        @NonNull
+        public Connection getConnection(@NonNull String username, @NonNull String password) throws SQLException {
+            long start = System.nanoTime();
+            try {
+                return proxyFactory.wrap(obtainTargetDataSource().getConnection(username, password));
+            } finally {
+                proxyFactory.connectionAcquired(System.nanoTime() - start);
+            }
+        }
+    }
+}
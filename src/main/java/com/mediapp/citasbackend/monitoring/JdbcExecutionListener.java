@@ -0,0 +1,36 @@
+package com.mediapp.citasbackend.monitoring;
+
+import java.sql.SQLException;
+
+/**
+ * Punto de extensión del proxy JDBC: recibe cada sentencia antes y después de ejecutarse
+ */
+public interface JdbcExecutionListener {
+
+    /**
+     * Se invoca al pedir una conexión al DataSource con el tiempo de espera en el pool,
+     * también cuando la espera termina con error por timeout
+     */
+    default void afterConnectionAcquired(long waitNanos) {
+    }
+
+    /**
+     * Se invoca antes de enviar la sentencia a la base de datos. Puede lanzar una
+     * excepción para impedir la ejecución.
+     */
+    default void beforeExecute(StatementExecution execution) throws SQLException {
+    }
+
+    /**
+     * Se invoca al terminar la ejecución (con éxito o con error), también si un listener la
+     * impidió en beforeExecute
+     */
+    default void afterExecute(StatementExecution execution) {
+    }
+
+    /**
+     * Se invoca al cerrar el ResultSet de una consulta con el número de filas leídas
+     */
+    default void afterResultSetClosed(StatementExecution execution, long rows) {
+    }
+}
@@ -0,0 +1,231 @@
+package com.mediapp.citasbackend.monitoring;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Crea proxies dinámicos sobre Connection, Statement y ResultSet que notifican a los
+ * {@link JdbcExecutionListener} de cada sentencia ejecutada. Solo registra los tipos de
+ * los parámetros, nunca sus valores, para no exponer datos clínicos en los logs.
+ */
+public class JdbcProxyFactory {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch"
+    );
+
+    private final Supplier<List<JdbcExecutionListener>> listeners;
+
+    public JdbcProxyFactory(Supplier<List<JdbcExecutionListener>> listeners) {
+        this.listeners = listeners;
+    }
+
+    /**
+     * Notifica a los listeners el tiempo que se esperó por una conexión del pool
+     */
+    public void connectionAcquired(long waitNanos) {
+        for (JdbcExecutionListener listener : listeners.get()) {
+            listener.afterConnectionAcquired(waitNanos);
+        }
+    }
+
+    public Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                JdbcProxyFactory.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection)
+        );
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private static String shapeOf(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof CharSequence text) {
+            return "String(" + text.length() + ")";
+        }
+        return value.getClass().getSimpleName();
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("unwrap") && args[0] == Connection.class) {
+                return proxy;
+            }
+            Object result = JdbcProxyFactory.invoke(target, method, args);
+            return switch (name) {
+                case "createStatement" -> wrapStatement((Statement) result, Statement.class, null);
+                case "prepareStatement" -> wrapStatement((Statement) result, PreparedStatement.class, (String) args[0]);
+                case "prepareCall" -> wrapStatement((Statement) result, CallableStatement.class, (String) args[0]);
+                default -> result;
+            };
+        }
+
+        private Object wrapStatement(Statement statement, Class<?> type, String sql) {
+            return Proxy.newProxyInstance(
+                    JdbcProxyFactory.class.getClassLoader(),
+                    new Class<?>[]{type},
+                    new StatementHandler(statement, sql)
+            );
+        }
+    }
+
+    private class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String preparedSql;
+        private final List<String> parameterShapes = new ArrayList<>();
+        private final List<String> batchSql = new ArrayList<>();
+        private int batchSize;
+        private StatementExecution lastExecution;
+
+        StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            if (EXECUTE_METHODS.contains(name)) {
+                return execute(proxy, method, args);
+            }
+            if (name.equals("getResultSet")) {
+                return wrapResultSet((ResultSet) JdbcProxyFactory.invoke(target, method, args), lastExecution);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index
+                    && preparedSql != null) {
+                recordParameter(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameterShapes.clear();
+            } else if (name.equals("addBatch")) {
+                batchSize++;
+                if (args != null && args.length == 1 && batchSql.isEmpty()) {
+                    batchSql.add((String) args[0]);
+                }
+            } else if (name.equals("clearBatch")) {
+                batchSize = 0;
+                batchSql.clear();
+            }
+            return JdbcProxyFactory.invoke(target, method, args);
+        }
+
+        private Object execute(Object proxy, Method method, Object[] args) throws Throwable {
+            String sql = preparedSql;
+            if (sql == null) {
+                sql = args != null && args.length > 0 && args[0] instanceof String text
+                        ? text
+                        : (batchSql.isEmpty() ? "" : batchSql.get(0));
+            }
+            boolean batch = method.getName().endsWith("Batch");
+            StatementExecution execution = new StatementExecution(
+                    (Statement) proxy,
+                    sql,
+                    parameterShapes.isEmpty() ? Collections.emptyList() : List.copyOf(parameterShapes),
+                    batch ? batchSize : 0
+            );
+            lastExecution = execution;
+            List<JdbcExecutionListener> current = listeners.get();
+            try {
+                // Una sentencia que un listener rechaza (plazo vencido) también llega a afterExecute, como error
+                for (JdbcExecutionListener listener : current) {
+                    listener.beforeExecute(execution);
+                }
+                Object result = JdbcProxyFactory.invoke(target, method, args);
+                execution.setElapsedNanos(System.nanoTime() - execution.getStartNanos());
+                if (batch) {
+                    batchSize = 0;
+                    batchSql.clear();
+                }
+                return result instanceof ResultSet resultSet ? wrapResultSet(resultSet, execution) : result;
+            } catch (Throwable e) {
+                execution.setElapsedNanos(System.nanoTime() - execution.getStartNanos());
+                execution.setFailure(e);
+                throw e;
+            } finally {
+                for (JdbcExecutionListener listener : current) {
+                    listener.afterExecute(execution);
+                }
+            }
+        }
+
+        private void recordParameter(int index, Object value) {
+            while (parameterShapes.size() < index) {
+                parameterShapes.add("?");
+            }
+            parameterShapes.set(index - 1, shapeOf(value));
+        }
+
+        private ResultSet wrapResultSet(ResultSet resultSet, StatementExecution execution) {
+            if (resultSet == null || execution == null) {
+                return resultSet;
+            }
+            return (ResultSet) Proxy.newProxyInstance(
+                    JdbcProxyFactory.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class},
+                    new ResultSetHandler(resultSet, execution)
+            );
+        }
+    }
+
+    private class ResultSetHandler implements InvocationHandler {
+
+        private final ResultSet target;
+        private final StatementExecution execution;
+        private long rows;
+        private boolean reported;
+
+        ResultSetHandler(ResultSet target, StatementExecution execution) {
+            this.target = target;
+            this.execution = execution;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("getStatement")) {
+                return execution.getStatement();
+            }
+            Object result = JdbcProxyFactory.invoke(target, method, args);
+            if (name.equals("next") && Boolean.TRUE.equals(result)) {
+                rows++;
+            } else if (name.equals("close") && !reported) {
+                reported = true;
+                for (JdbcExecutionListener listener : listeners.get()) {
+                    listener.afterResultSetClosed(execution, rows);
+                }
+            }
+            return result;
+        }
+    }
+}
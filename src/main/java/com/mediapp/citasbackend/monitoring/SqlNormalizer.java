@@ -0,0 +1,46 @@
+package com.mediapp.citasbackend.monitoring;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Normaliza sentencias SQL para agruparlas en las estadísticas: elimina literales,
+ * colapsa listas IN y espacios en blanco. Las sentencias generadas por Hibernate se
+ * repiten textualmente, por lo que el resultado se memoriza.
+ */
+public final class SqlNormalizer {
+
+    private static final int MAX_CACHE_SIZE = 2_000;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMERIC_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Map<String, String> CACHE = new ConcurrentHashMap<>();
+
+    private SqlNormalizer() {
+    }
+
+    /**
+     * Retorna la forma normalizada de una sentencia SQL
+     */
+    public static String normalize(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        String cached = CACHE.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMERIC_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("in (?...)");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        if (CACHE.size() < MAX_CACHE_SIZE) {
+            CACHE.put(sql, normalized);
+        }
+        return normalized;
+    }
+}
@@ -0,0 +1,43 @@
+package com.mediapp.citasbackend.monitoring;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Contexto de la petición HTTP en curso para las estadísticas SQL: URI y número de
+ * veces que se ejecutó cada sentencia normalizada (para detectar patrones N+1).
+ */
+public final class SqlRequestContext {
+
+    private static final ThreadLocal<SqlRequestContext> CURRENT = new ThreadLocal<>();
+
+    private final String requestUri;
+    private final Map<String, Integer> executions = new HashMap<>();
+
+    private SqlRequestContext(String requestUri) {
+        this.requestUri = requestUri;
+    }
+
+    public static void begin(String requestUri) {
+        CURRENT.set(new SqlRequestContext(requestUri));
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    public static SqlRequestContext current() {
+        return CURRENT.get();
+    }
+
+    public String getRequestUri() {
+        return requestUri;
+    }
+
+    /**
+     * Registra una ejecución de la sentencia y retorna cuántas veces se ha ejecutado en esta petición
+     */
+    public int recordExecution(String normalizedSql) {
+        return executions.merge(normalizedSql, 1, Integer::sum);
+    }
+}
@@ -0,0 +1,37 @@
+package com.mediapp.citasbackend.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Asocia las sentencias SQL ejecutadas a la petición HTTP que las originó
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(value = "mediapp.sql-stats.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlRequestContextFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        SqlRequestContext.begin(request.getMethod() + " " + request.getRequestURI());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlRequestContext.end();
+        }
+    }
+}
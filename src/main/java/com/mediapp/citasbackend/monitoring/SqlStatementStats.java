@@ -0,0 +1,21 @@
+package com.mediapp.citasbackend.monitoring;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Estadísticas acumuladas de una sentencia SQL normalizada
+ */
+@Data
+@AllArgsConstructor
+public class SqlStatementStats {
+
+    private String sql;
+    private long count;
+    private double totalMs;
+    private double avgMs;
+    private double maxMs;
+    private long rows;
+    private long errors;
+    private long suspectedNPlusOne;
+}
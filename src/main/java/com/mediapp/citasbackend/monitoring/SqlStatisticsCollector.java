@@ -0,0 +1,113 @@
+package com.mediapp.citasbackend.monitoring;
+
+import com.mediapp.citasbackend.config.SqlStatisticsProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Agrega estadísticas por sentencia SQL normalizada: ejecuciones, tiempo total y máximo,
+ * filas retornadas, errores y sospechas de N+1. Registra en el log las sentencias lentas.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "mediapp.sql-stats.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatisticsCollector implements JdbcExecutionListener {
+
+    private static final String OVERFLOW_KEY = "<otras sentencias>";
+
+    private final SqlStatisticsProperties properties;
+    private final ConcurrentMap<String, Entry> statistics = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterExecute(StatementExecution execution) {
+        Entry entry = entryFor(execution.getNormalizedSql());
+        long elapsed = execution.getElapsedNanos();
+        entry.count.increment();
+        entry.totalNanos.add(elapsed);
+        entry.maxNanos.accumulateAndGet(elapsed, Math::max);
+        if (execution.getFailure() != null) {
+            entry.errors.increment();
+        }
+
+        SqlRequestContext context = SqlRequestContext.current();
+        if (context != null) {
+            int repetitions = context.recordExecution(execution.getNormalizedSql());
+            if (repetitions == properties.getRepeatedStatementThreshold()) {
+                entry.suspectedNPlusOne.increment();
+                log.warn("Posible N+1 en {}: la sentencia se ejecutó {} veces en la misma petición: {}",
+                        context.getRequestUri(), repetitions, execution.getNormalizedSql());
+            }
+        }
+
+        if (execution.getElapsedMillis() >= properties.getSlowQueryThresholdMs()) {
+            log.warn("Consulta lenta ({} ms) en {}: {} parámetros={}{}",
+                    execution.getElapsedMillis(),
+                    context != null ? context.getRequestUri() : "<sin petición>",
+                    execution.getNormalizedSql(),
+                    execution.getParameterShapes(),
+                    execution.getBatchSize() > 0 ? " lote=" + execution.getBatchSize() : "");
+        }
+    }
+
+    @Override
+    public void afterResultSetClosed(StatementExecution execution, long rows) {
+        entryFor(execution.getNormalizedSql()).rows.add(rows);
+    }
+
+    /**
+     * Retorna las estadísticas ordenadas por tiempo total descendente
+     */
+    public List<SqlStatementStats> snapshot() {
+        return statistics.entrySet().stream()
+                .map(e -> e.getValue().toStats(e.getKey()))
+                .sorted(Comparator.comparingDouble(SqlStatementStats::getTotalMs).reversed())
+                .toList();
+    }
+
+    public void reset() {
+        statistics.clear();
+    }
+
+    private Entry entryFor(String normalizedSql) {
+        Entry entry = statistics.get(normalizedSql);
+        if (entry != null) {
+            return entry;
+        }
+        String key = statistics.size() < properties.getMaxStatements() ? normalizedSql : OVERFLOW_KEY;
+        return statistics.computeIfAbsent(key, k -> new Entry());
+    }
+
+    private static final class Entry {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder suspectedNPlusOne = new LongAdder();
+
+        private SqlStatementStats toStats(String sql) {
+            long executions = count.sum();
+            double totalMs = totalNanos.sum() / 1_000_000.0;
+            return new SqlStatementStats(
+                    sql,
+                    executions,
+                    totalMs,
+                    executions == 0 ? 0 : totalMs / executions,
+                    maxNanos.get() / 1_000_000.0,
+                    rows.sum(),
+                    errors.sum(),
+                    suspectedNPlusOne.sum()
+            );
+        }
+    }
+}
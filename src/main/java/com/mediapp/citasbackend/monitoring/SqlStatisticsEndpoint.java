@@ -0,0 +1,33 @@
+package com.mediapp.citasbackend.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Endpoint de actuator con las estadísticas de sentencias SQL
+ * Disponible en: /actuator/sqlstats (DELETE reinicia los contadores)
+ */
+@Component
+@ConditionalOnProperty(value = "mediapp.sql-stats.enabled", havingValue = "true", matchIfMissing = true)
+@Endpoint(id = "sqlstats")
+@RequiredArgsConstructor
+public class SqlStatisticsEndpoint {
+
+    private final SqlStatisticsCollector collector;
+
+    @ReadOperation
+    public List<SqlStatementStats> statistics() {
+        return collector.snapshot();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        collector.reset();
+    }
+}
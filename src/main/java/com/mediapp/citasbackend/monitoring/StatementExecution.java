@@ -0,0 +1,40 @@
+package com.mediapp.citasbackend.monitoring;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Información de una ejecución JDBC que se entrega a los {@link JdbcExecutionListener}
+ */
+@Getter
+public class StatementExecution {
+
+    private final Statement statement;
+    private final String sql;
+    private final String normalizedSql;
+    private final List<String> parameterShapes;
+    private final int batchSize;
+    private final long startNanos;
+
+    @Setter
+    private long elapsedNanos;
+
+    @Setter
+    private Throwable failure;
+
+    public StatementExecution(Statement statement, String sql, List<String> parameterShapes, int batchSize) {
+        this.statement = statement;
+        this.sql = sql;
+        this.normalizedSql = SqlNormalizer.normalize(sql);
+        this.parameterShapes = parameterShapes;
+        this.batchSize = batchSize;
+        this.startNanos = System.nanoTime();
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+}
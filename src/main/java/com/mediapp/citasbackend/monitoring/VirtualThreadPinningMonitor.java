@@ -0,0 +1,82 @@
+package com.mediapp.citasbackend.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Diagnóstico de hilos virtuales fijados (pinned) a su hilo portador, por ejemplo al
+ * bloquearse dentro de un bloque synchronized. Escucha el evento JFR
+ * jdk.VirtualThreadPinned, lo registra en el log con las primeras líneas de la pila y
+ * lo cuenta en la métrica mediapp.virtual-threads.pinned.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final int STACK_DEPTH = 8;
+
+    private final Duration threshold;
+    private final Counter pinnedCounter;
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${mediapp.virtual-threads.pinned-threshold-ms:20}") long thresholdMs) {
+        this.threshold = Duration.ofMillis(thresholdMs);
+        this.pinnedCounter = Counter.builder("mediapp.virtual-threads.pinned")
+                .description("Hilos virtuales fijados a su hilo portador por encima del umbral")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+        stream.startAsync();
+    }
+
+    @Override
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCounter.increment();
+        log.warn("Hilo virtual fijado durante {} ms en:\n{}", event.getDuration().toMillis(), stackOf(event));
+    }
+
+    private static String stackOf(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "\t<sin pila>";
+        }
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        return frames.stream()
+                .limit(STACK_DEPTH)
+                .map(f -> "\tat " + f.getMethod().getType().getName() + "." + f.getMethod().getName()
+                        + ":" + f.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -50,6 +50,12 @@ public interface CalendarioDisponibilidadRepository extends JpaRepository<Calend
             @Param("horaFin") LocalTime horaFin
     );
 
+    // Buscar todas las disponibilidades de un médico en un día, activas o no, por hora de inicio
+    List<CalendarioDisponibilidad> findAllByMedico_IdMedicoAndDiaSemanaOrderByHoraInicio(
+            Integer idMedico,
+            CalendarioDisponibilidad.DiaSemana diaSemana
+    );
+
     // Buscar disponibilidad específica de un médico en un día
     Optional<CalendarioDisponibilidad> findByMedico_IdMedicoAndDiaSemana(
             Integer idMedico,
@@ -76,6 +82,11 @@ public interface CalendarioDisponibilidadRepository extends JpaRepository<Calend
             @Param("hora") LocalTime hora
     );
 
+    // Bloques activos de todos los médicos, para cargar el índice de disponibilidad
+    @Query("SELECT cd.medico.idMedico, cd.diaSemana, cd.horaInicio, cd.horaFin FROM CalendarioDisponibilidad cd " +
+           "WHERE cd.estado = 'ACTIVO'")
+    List<Object[]> findBloquesActivosIndice();
+
     // Buscar todas las disponibilidades de un médico ordenadas por día
     @Query("SELECT cd FROM CalendarioDisponibilidad cd WHERE cd.medico.idMedico = :idMedico " +
            "ORDER BY cd.diaSemana, cd.horaInicio")
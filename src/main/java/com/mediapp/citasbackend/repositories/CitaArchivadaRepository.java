@@ -0,0 +1,29 @@
+package com.mediapp.citasbackend.repositories;
+
+import com.mediapp.citasbackend.entities.CitaArchivada;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface CitaArchivadaRepository extends JpaRepository<CitaArchivada, Integer> {
+
+    // Copiar al archivo las citas indicadas que siguen cerradas y anteriores al corte
+    @Modifying
+    @Query(value = "INSERT INTO citas_archivo (id_cita, id_paciente, id_medico, fecha_cita, hora_cita, duracion_minutos, " +
+            "tipo_cita, motivo_consulta, estado, enlace_videollamada, fecha_creacion, fecha_cancelacion, id_serie, fecha_archivo) " +
+            "SELECT id_cita, id_paciente, id_medico, fecha_cita, hora_cita, duracion_minutos, tipo_cita, motivo_consulta, " +
+            "estado, enlace_videollamada, fecha_creacion, fecha_cancelacion, id_serie, :fechaArchivo FROM citas " +
+            "WHERE id_cita IN (:ids) AND estado <> 'PROGRAMADA' AND fecha_cita < :corte", nativeQuery = true)
+    int copiarDesdeCitas(
+            @Param("ids") Collection<Integer> ids,
+            @Param("corte") LocalDate corte,
+            @Param("fechaArchivo") LocalDateTime fechaArchivo
+    );
+}
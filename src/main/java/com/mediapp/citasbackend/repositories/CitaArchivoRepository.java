@@ -0,0 +1,101 @@
+package com.mediapp.citasbackend.repositories;
+
+import com.mediapp.citasbackend.dtos.FiltroCitasDTO;
+import com.mediapp.citasbackend.entities.Cita;
+import com.mediapp.citasbackend.entities.Medico;
+import com.mediapp.citasbackend.entities.Paciente;
+import com.mediapp.citasbackend.utils.CursorCitas;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Consultas de CitaRepository que incluyen las citas archivadas en citas_archivo. Las de una
+ * fecha o un rango (también el de cancelación) leen el archivo solo si empiezan antes de la
+ * antigüedad de archivado; los historiales, los listados completos, los filtros por estado o tipo
+ * y los conteos lo leen siempre. Las citas archivadas se devuelven como Cita sin gestionar.
+ */
+public interface CitaArchivoRepository {
+
+    // Listar todas las citas
+    List<Cita> findAll();
+
+    // Buscar citas de un paciente
+    List<Cita> findByPaciente(Paciente paciente);
+
+    // Buscar citas de un paciente por ID
+    List<Cita> findByPaciente_IdPaciente(Integer idPaciente);
+
+    // Buscar citas de un médico
+    List<Cita> findByMedico(Medico medico);
+
+    // Buscar citas de un médico por ID
+    List<Cita> findByMedico_IdMedico(Integer idMedico);
+
+    // Buscar citas por estado
+    List<Cita> findByEstado(Cita.Estado estado);
+
+    // Buscar citas de un paciente por estado
+    List<Cita> findByPaciente_IdPacienteAndEstado(Integer idPaciente, Cita.Estado estado);
+
+    // Buscar citas de un médico por estado
+    List<Cita> findByMedico_IdMedicoAndEstado(Integer idMedico, Cita.Estado estado);
+
+    // Buscar citas por tipo de cita
+    List<Cita> findByTipoCita(Cita.TipoCita tipoCita);
+
+    // Buscar citas por fecha
+    List<Cita> findByFechaCita(LocalDate fecha);
+
+    // Buscar citas de un médico en una fecha específica
+    List<Cita> findCitasByMedicoAndFecha(Integer idMedico, LocalDate fecha);
+
+    // Buscar citas de un paciente en una fecha específica
+    List<Cita> findCitasByPacienteAndFecha(Integer idPaciente, LocalDate fecha);
+
+    // Buscar citas en un rango de fechas
+    List<Cita> findCitasEnRangoFechas(LocalDate fechaInicio, LocalDate fechaFin);
+
+    // Buscar citas de un médico en un rango de fechas
+    List<Cita> findCitasByMedicoEnRangoFechas(Integer idMedico, LocalDate fechaInicio, LocalDate fechaFin);
+
+    // Buscar citas de un paciente en un rango de fechas
+    List<Cita> findCitasByPacienteEnRangoFechas(Integer idPaciente, LocalDate fechaInicio, LocalDate fechaFin);
+
+    // Buscar citas canceladas en un rango de fechas de cancelación, de la más reciente a la más antigua
+    List<Cita> findCitasCanceladasEnRango(LocalDateTime fechaInicio, LocalDateTime fechaFin);
+
+    // Buscar citas entre paciente y médico, de la más reciente a la más antigua
+    List<Cita> findUltimaCitaByPacienteAndMedico(Integer idPaciente, Integer idMedico);
+
+    // Buscar historial de citas completadas de un paciente
+    List<Cita> findHistorialCitasByPaciente(Integer idPaciente);
+
+    // Buscar historial de citas completadas de un médico
+    List<Cita> findHistorialCitasByMedico(Integer idMedico);
+
+    // Verificar si existe una cita entre paciente y médico en una fecha
+    boolean existsByPaciente_IdPacienteAndMedico_IdMedicoAndFechaCita(Integer idPaciente, Integer idMedico, LocalDate fechaCita);
+
+    // Contar citas por estado
+    Long contarCitasPorEstado(Cita.Estado estado);
+
+    // Contar citas de un médico por estado
+    Long contarCitasByMedicoAndEstado(Integer idMedico, Cita.Estado estado);
+
+    // Contar citas de un paciente por estado
+    Long contarCitasByPacienteAndEstado(Integer idPaciente, Cita.Estado estado);
+
+    // Contar citas por estado agrupadas por médico: [idMedico, estado, total]
+    List<Object[]> contarCitasPorMedicoAgrupadas();
+
+    // Contar citas por estado agrupadas por paciente: [idPaciente, estado, total]
+    List<Object[]> contarCitasPorPacienteAgrupadas();
+
+    // Contar citas agrupadas por estado: [estado, total]
+    List<Object[]> contarCitasAgrupadasPorEstado();
+
+    // Buscar hasta "limite" citas que cumplan el filtro, posteriores al cursor en el orden (fecha, hora, id)
+    List<Cita> buscar(FiltroCitasDTO filtro, CursorCitas despuesDe, int limite);
+}
@@ -0,0 +1,298 @@
+package com.mediapp.citasbackend.repositories;
+
+import com.mediapp.citasbackend.dtos.FiltroCitasDTO;
+import com.mediapp.citasbackend.entities.Cita;
+import com.mediapp.citasbackend.entities.CitaArchivada;
+import com.mediapp.citasbackend.entities.Medico;
+import com.mediapp.citasbackend.entities.Paciente;
+import com.mediapp.citasbackend.utils.CursorCitas;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cada consulta se escribe una vez con "%s" en lugar de la entidad y se ejecuta sobre Cita y,
+ * cuando hace falta, sobre CitaArchivada; los resultados se unen y se reordenan en memoria.
+ * El archivado solo mueve citas anteriores a hoy menos edadDias (con un día de margen), así
+ * que una fecha posterior a ese límite nunca está en el archivo.
+ */
+@Slf4j
+public class CitaArchivoRepositoryImpl implements CitaArchivoRepository {
+
+    private static final String CITA = "Cita";
+    private static final String ARCHIVO = "CitaArchivada";
+
+    private static final Comparator<Cita> CRONOLOGICO = Comparator.comparing(Cita::getFechaCita)
+            .thenComparing(Cita::getHoraCita);
+
+    private static final Comparator<Cita> CANCELACION_RECIENTE = Comparator.comparing(Cita::getFechaCancelacion)
+            .reversed();
+
+    private static final Comparator<Cita> CURSOR = CRONOLOGICO.thenComparing(Cita::getIdCita);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${mediapp.archivo-citas.edad-dias:365}")
+    private int edadDias;
+
+    @Override
+    public List<Cita> findAll() {
+        return listar("SELECT c FROM %s c", Map.of(), true, null);
+    }
+
+    @Override
+    public List<Cita> findByEstado(Cita.Estado estado) {
+        return listar("SELECT c FROM %s c WHERE c.estado = :estado", Map.of("estado", estado), true, null);
+    }
+
+    @Override
+    public List<Cita> findByPaciente_IdPacienteAndEstado(Integer idPaciente, Cita.Estado estado) {
+        return listar("SELECT c FROM %s c WHERE c.paciente.idPaciente = :idPaciente AND c.estado = :estado",
+                Map.of("idPaciente", idPaciente, "estado", estado), true, null);
+    }
+
+    @Override
+    public List<Cita> findByMedico_IdMedicoAndEstado(Integer idMedico, Cita.Estado estado) {
+        return listar("SELECT c FROM %s c WHERE c.medico.idMedico = :idMedico AND c.estado = :estado",
+                Map.of("idMedico", idMedico, "estado", estado), true, null);
+    }
+
+    @Override
+    public List<Cita> findByTipoCita(Cita.TipoCita tipoCita) {
+        return listar("SELECT c FROM %s c WHERE c.tipoCita = :tipoCita", Map.of("tipoCita", tipoCita), true, null);
+    }
+
+    @Override
+    public List<Cita> findByPaciente(Paciente paciente) {
+        return findByPaciente_IdPaciente(paciente.getIdPaciente());
+    }
+
+    @Override
+    public List<Cita> findByPaciente_IdPaciente(Integer idPaciente) {
+        return listar("SELECT c FROM %s c WHERE c.paciente.idPaciente = :idPaciente",
+                Map.of("idPaciente", idPaciente), true, null);
+    }
+
+    @Override
+    public List<Cita> findByMedico(Medico medico) {
+        return findByMedico_IdMedico(medico.getIdMedico());
+    }
+
+    @Override
+    public List<Cita> findByMedico_IdMedico(Integer idMedico) {
+        return listar("SELECT c FROM %s c WHERE c.medico.idMedico = :idMedico",
+                Map.of("idMedico", idMedico), true, null);
+    }
+
+    @Override
+    public List<Cita> findByFechaCita(LocalDate fecha) {
+        return listar("SELECT c FROM %s c WHERE c.fechaCita = :fecha",
+                Map.of("fecha", fecha), requiereArchivo(fecha), null);
+    }
+
+    @Override
+    public List<Cita> findCitasByMedicoAndFecha(Integer idMedico, LocalDate fecha) {
+        return listar("SELECT c FROM %s c WHERE c.medico.idMedico = :idMedico AND c.fechaCita = :fecha ORDER BY c.horaCita",
+                Map.of("idMedico", idMedico, "fecha", fecha), requiereArchivo(fecha), CRONOLOGICO);
+    }
+
+    @Override
+    public List<Cita> findCitasByPacienteAndFecha(Integer idPaciente, LocalDate fecha) {
+        return listar("SELECT c FROM %s c WHERE c.paciente.idPaciente = :idPaciente AND c.fechaCita = :fecha ORDER BY c.horaCita",
+                Map.of("idPaciente", idPaciente, "fecha", fecha), requiereArchivo(fecha), CRONOLOGICO);
+    }
+
+    @Override
+    public List<Cita> findCitasEnRangoFechas(LocalDate fechaInicio, LocalDate fechaFin) {
+        return listar("SELECT c FROM %s c WHERE c.fechaCita BETWEEN :fechaInicio AND :fechaFin " +
+                        "ORDER BY c.fechaCita, c.horaCita",
+                Map.of("fechaInicio", fechaInicio, "fechaFin", fechaFin), requiereArchivo(fechaInicio), CRONOLOGICO);
+    }
+
+    @Override
+    public List<Cita> findCitasByMedicoEnRangoFechas(Integer idMedico, LocalDate fechaInicio, LocalDate fechaFin) {
+        return listar("SELECT c FROM %s c WHERE c.medico.idMedico = :idMedico " +
+                        "AND c.fechaCita BETWEEN :fechaInicio AND :fechaFin ORDER BY c.fechaCita, c.horaCita",
+                Map.of("idMedico", idMedico, "fechaInicio", fechaInicio, "fechaFin", fechaFin),
+                requiereArchivo(fechaInicio), CRONOLOGICO);
+    }
+
+    @Override
+    public List<Cita> findCitasByPacienteEnRangoFechas(Integer idPaciente, LocalDate fechaInicio, LocalDate fechaFin) {
+        return listar("SELECT c FROM %s c WHERE c.paciente.idPaciente = :idPaciente " +
+                        "AND c.fechaCita BETWEEN :fechaInicio AND :fechaFin ORDER BY c.fechaCita, c.horaCita",
+                Map.of("idPaciente", idPaciente, "fechaInicio", fechaInicio, "fechaFin", fechaFin),
+                requiereArchivo(fechaInicio), CRONOLOGICO);
+    }
+
+    @Override
+    public List<Cita> findCitasCanceladasEnRango(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        // Una cita se cancela antes de su fecha: si el rango empieza después del límite, no está archivada
+        return listar("SELECT c FROM %s c WHERE c.estado = 'CANCELADA' " +
+                        "AND c.fechaCancelacion BETWEEN :fechaInicio AND :fechaFin ORDER BY c.fechaCancelacion DESC",
+                Map.of("fechaInicio", fechaInicio, "fechaFin", fechaFin),
+                requiereArchivo(fechaInicio.toLocalDate()), CANCELACION_RECIENTE);
+    }
+
+    @Override
+    public List<Cita> findUltimaCitaByPacienteAndMedico(Integer idPaciente, Integer idMedico) {
+        return listar("SELECT c FROM %s c WHERE c.paciente.idPaciente = :idPaciente AND c.medico.idMedico = :idMedico " +
+                        "ORDER BY c.fechaCita DESC, c.horaCita DESC",
+                Map.of("idPaciente", idPaciente, "idMedico", idMedico), true, CRONOLOGICO.reversed());
+    }
+
+    @Override
+    public List<Cita> findHistorialCitasByPaciente(Integer idPaciente) {
+        return listar("SELECT c FROM %s c WHERE c.paciente.idPaciente = :idPaciente AND c.estado = 'COMPLETADA' " +
+                        "ORDER BY c.fechaCita DESC, c.horaCita DESC",
+                Map.of("idPaciente", idPaciente), true, CRONOLOGICO.reversed());
+    }
+
+    @Override
+    public List<Cita> findHistorialCitasByMedico(Integer idMedico) {
+        return listar("SELECT c FROM %s c WHERE c.medico.idMedico = :idMedico AND c.estado = 'COMPLETADA' " +
+                        "ORDER BY c.fechaCita DESC, c.horaCita DESC",
+                Map.of("idMedico", idMedico), true, CRONOLOGICO.reversed());
+    }
+
+    @Override
+    public boolean existsByPaciente_IdPacienteAndMedico_IdMedicoAndFechaCita(Integer idPaciente, Integer idMedico,
+                                                                              LocalDate fechaCita) {
+        String jpql = "SELECT COUNT(c) FROM %s c WHERE c.paciente.idPaciente = :idPaciente " +
+                "AND c.medico.idMedico = :idMedico AND c.fechaCita = :fecha";
+        Map<String, Object> parametros = Map.of("idPaciente", idPaciente, "idMedico", idMedico, "fecha", fechaCita);
+        return consultar(jpql, CITA, Long.class, parametros).get(0) > 0
+                || (requiereArchivo(fechaCita) && consultar(jpql, ARCHIVO, Long.class, parametros).get(0) > 0);
+    }
+
+    @Override
+    public Long contarCitasPorEstado(Cita.Estado estado) {
+        return contar("SELECT COUNT(c) FROM %s c WHERE c.estado = :estado", Map.of("estado", estado));
+    }
+
+    @Override
+    public Long contarCitasByMedicoAndEstado(Integer idMedico, Cita.Estado estado) {
+        return contar("SELECT COUNT(c) FROM %s c WHERE c.medico.idMedico = :idMedico AND c.estado = :estado",
+                Map.of("idMedico", idMedico, "estado", estado));
+    }
+
+    @Override
+    public Long contarCitasByPacienteAndEstado(Integer idPaciente, Cita.Estado estado) {
+        return contar("SELECT COUNT(c) FROM %s c WHERE c.paciente.idPaciente = :idPaciente AND c.estado = :estado",
+                Map.of("idPaciente", idPaciente, "estado", estado));
+    }
+
+    @Override
+    public List<Object[]> contarCitasPorMedicoAgrupadas() {
+        return agrupar("SELECT c.medico.idMedico, c.estado, COUNT(c) FROM %s c GROUP BY c.medico.idMedico, c.estado");
+    }
+
+    @Override
+    public List<Object[]> contarCitasPorPacienteAgrupadas() {
+        return agrupar("SELECT c.paciente.idPaciente, c.estado, COUNT(c) FROM %s c GROUP BY c.paciente.idPaciente, c.estado");
+    }
+
+    @Override
+    public List<Object[]> contarCitasAgrupadasPorEstado() {
+        return agrupar("SELECT c.estado, COUNT(c) FROM %s c GROUP BY c.estado");
+    }
+
+    @Override
+    public List<Cita> buscar(FiltroCitasDTO filtro, CursorCitas despuesDe, int limite) {
+        log.debug("Búsqueda de citas con {}", CitaSpecifications.indice(filtro));
+        List<Cita> citas = buscarEn(Cita.class, filtro, despuesDe, limite);
+        LocalDate desde = despuesDe != null ? despuesDe.fecha() : filtro.getFechaDesde();
+        if (desde != null && !requiereArchivo(desde)) {
+            return citas;
+        }
+        List<CitaArchivada> archivadas = buscarEn(CitaArchivada.class, filtro, despuesDe, limite);
+        if (archivadas.isEmpty()) {
+            return citas;
+        }
+        List<Cita> todas = new ArrayList<>(citas.size() + archivadas.size());
+        todas.addAll(citas);
+        archivadas.forEach(a -> todas.add(a.aCita()));
+        todas.sort(CURSOR);
+        return todas.size() > limite ? todas.subList(0, limite) : todas;
+    }
+
+    private <T> List<T> buscarEn(Class<T> entidad, FiltroCitasDTO filtro, CursorCitas despuesDe, int limite) {
+        Specification<T> especificacion = CitaSpecifications.conFiltro(filtro);
+        if (despuesDe != null) {
+            especificacion = especificacion.and(CitaSpecifications.despuesDe(despuesDe));
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(entidad);
+        Root<T> root = query.from(entidad);
+        query.select(root)
+                .where(especificacion.toPredicate(root, query, cb))
+                .orderBy(cb.asc(root.get("fechaCita")), cb.asc(root.get("horaCita")), cb.asc(root.get("idCita")));
+        return entityManager.createQuery(query).setMaxResults(limite).getResultList();
+    }
+
+    // Una fecha anterior a la antigüedad de archivado puede tener citas en el archivo
+    private boolean requiereArchivo(LocalDate fecha) {
+        return fecha.isBefore(LocalDate.now().minusDays(edadDias));
+    }
+
+    private List<Cita> listar(String jpql, Map<String, Object> parametros, boolean conArchivo, Comparator<Cita> orden) {
+        List<Cita> citas = consultar(jpql, CITA, Cita.class, parametros);
+        if (!conArchivo) {
+            return citas;
+        }
+        List<CitaArchivada> archivadas = consultar(jpql, ARCHIVO, CitaArchivada.class, parametros);
+        if (archivadas.isEmpty()) {
+            return citas;
+        }
+        List<Cita> todas = new ArrayList<>(citas.size() + archivadas.size());
+        todas.addAll(citas);
+        archivadas.forEach(a -> todas.add(a.aCita()));
+        if (orden != null) {
+            todas.sort(orden);
+        }
+        return todas;
+    }
+
+    private long contar(String jpql, Map<String, Object> parametros) {
+        return consultar(jpql, CITA, Long.class, parametros).get(0) + consultar(jpql, ARCHIVO, Long.class, parametros).get(0);
+    }
+
+    // Suma los conteos (última columna) de las filas con la misma clave (columnas anteriores)
+    private List<Object[]> agrupar(String jpql) {
+        Map<List<Object>, Long> totales = new LinkedHashMap<>();
+        for (String entidad : List.of(CITA, ARCHIVO)) {
+            for (Object[] fila : consultar(jpql, entidad, Object[].class, Map.of())) {
+                totales.merge(Arrays.asList(fila).subList(0, fila.length - 1), (Long) fila[fila.length - 1], Long::sum);
+            }
+        }
+        List<Object[]> filas = new ArrayList<>(totales.size());
+        totales.forEach((clave, total) -> {
+            Object[] fila = Arrays.copyOf(clave.toArray(), clave.size() + 1);
+            fila[clave.size()] = total;
+            filas.add(fila);
+        });
+        return filas;
+    }
+
+    private <T> List<T> consultar(String jpql, String entidad, Class<T> tipo, Map<String, Object> parametros) {
+        TypedQuery<T> query = entityManager.createQuery(jpql.formatted(entidad), tipo);
+        parametros.forEach(query::setParameter);
+        return query.getResultList();
+    }
+}
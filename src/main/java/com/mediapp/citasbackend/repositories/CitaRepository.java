@@ -1,9 +1,11 @@
 package com.mediapp.citasbackend.repositories;
 
 import com.mediapp.citasbackend.entities.Cita;
-import com.mediapp.citasbackend.entities.Medico;
-import com.mediapp.citasbackend.entities.Paciente;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -11,32 +13,11 @@ import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 @Repository
-public interface CitaRepository extends JpaRepository<Cita, Integer> {
-
-    // Buscar citas de un paciente
-    List<Cita> findByPaciente(Paciente paciente);
-
-    // Buscar citas de un paciente por ID
-    List<Cita> findByPaciente_IdPaciente(Integer idPaciente);
-
-    // Buscar citas de un médico
-    List<Cita> findByMedico(Medico medico);
-
-    // Buscar citas de un médico por ID
-    List<Cita> findByMedico_IdMedico(Integer idMedico);
-
-    // Buscar citas por estado
-    List<Cita> findByEstado(Cita.Estado estado);
-
-    // Buscar citas de un paciente por estado
-    List<Cita> findByPaciente_IdPacienteAndEstado(Integer idPaciente, Cita.Estado estado);
-
-    // Buscar citas de un médico por estado
-    List<Cita> findByMedico_IdMedicoAndEstado(Integer idMedico, Cita.Estado estado);
+public interface CitaRepository extends JpaRepository<Cita, Integer>, CitaArchivoRepository {
 
     // Buscar citas programadas de un paciente
     @Query("SELECT c FROM Cita c WHERE c.paciente.idPaciente = :idPaciente AND c.estado = 'PROGRAMADA' " +
@@ -48,61 +29,6 @@ public interface CitaRepository extends JpaRepository<Cita, Integer> {
            "ORDER BY c.fechaCita, c.horaCita")
     List<Cita> findCitasProgramadasByMedico(@Param("idMedico") Integer idMedico);
 
-    // Buscar citas por fecha
-    List<Cita> findByFechaCita(LocalDate fecha);
-
-    // Buscar citas de un médico en una fecha específica
-    @Query("SELECT c FROM Cita c WHERE c.medico.idMedico = :idMedico AND c.fechaCita = :fecha " +
-           "ORDER BY c.horaCita")
-    List<Cita> findCitasByMedicoAndFecha(@Param("idMedico") Integer idMedico, @Param("fecha") LocalDate fecha);
-
-    // Buscar citas de un paciente en una fecha específica
-    @Query("SELECT c FROM Cita c WHERE c.paciente.idPaciente = :idPaciente AND c.fechaCita = :fecha " +
-           "ORDER BY c.horaCita")
-    List<Cita> findCitasByPacienteAndFecha(@Param("idPaciente") Integer idPaciente, @Param("fecha") LocalDate fecha);
-
-    // Verificar disponibilidad de un médico en fecha y hora específica
-    @Query("SELECT c FROM Cita c WHERE c.medico.idMedico = :idMedico " +
-           "AND c.fechaCita = :fecha " +
-           "AND c.horaCita = :hora " +
-           "AND c.estado != 'CANCELADA'")
-    Optional<Cita> findCitaByMedicoFechaHora(
-            @Param("idMedico") Integer idMedico,
-            @Param("fecha") LocalDate fecha,
-            @Param("hora") LocalTime hora
-    );
-
-    // Buscar citas en un rango de fechas
-    @Query("SELECT c FROM Cita c WHERE c.fechaCita BETWEEN :fechaInicio AND :fechaFin " +
-           "ORDER BY c.fechaCita, c.horaCita")
-    List<Cita> findCitasEnRangoFechas(
-            @Param("fechaInicio") LocalDate fechaInicio,
-            @Param("fechaFin") LocalDate fechaFin
-    );
-
-    // Buscar citas de un médico en un rango de fechas
-    @Query("SELECT c FROM Cita c WHERE c.medico.idMedico = :idMedico " +
-           "AND c.fechaCita BETWEEN :fechaInicio AND :fechaFin " +
-           "ORDER BY c.fechaCita, c.horaCita")
-    List<Cita> findCitasByMedicoEnRangoFechas(
-            @Param("idMedico") Integer idMedico,
-            @Param("fechaInicio") LocalDate fechaInicio,
-            @Param("fechaFin") LocalDate fechaFin
-    );
-
-    // Buscar citas de un paciente en un rango de fechas
-    @Query("SELECT c FROM Cita c WHERE c.paciente.idPaciente = :idPaciente " +
-           "AND c.fechaCita BETWEEN :fechaInicio AND :fechaFin " +
-           "ORDER BY c.fechaCita, c.horaCita")
-    List<Cita> findCitasByPacienteEnRangoFechas(
-            @Param("idPaciente") Integer idPaciente,
-            @Param("fechaInicio") LocalDate fechaInicio,
-            @Param("fechaFin") LocalDate fechaFin
-    );
-
-    // Buscar citas por tipo de cita
-    List<Cita> findByTipoCita(Cita.TipoCita tipoCita);
-
     // Buscar citas de telemedicina de un médico
     @Query("SELECT c FROM Cita c WHERE c.medico.idMedico = :idMedico " +
            "AND c.tipoCita = 'TELEMEDICINA' " +
@@ -130,30 +56,6 @@ public interface CitaRepository extends JpaRepository<Cita, Integer> {
             @Param("fechaActual") LocalDate fechaActual
     );
 
-    // Buscar historial de citas completadas de un paciente
-    @Query("SELECT c FROM Cita c WHERE c.paciente.idPaciente = :idPaciente " +
-           "AND c.estado = 'COMPLETADA' " +
-           "ORDER BY c.fechaCita DESC, c.horaCita DESC")
-    List<Cita> findHistorialCitasByPaciente(@Param("idPaciente") Integer idPaciente);
-
-    // Buscar historial de citas completadas de un médico
-    @Query("SELECT c FROM Cita c WHERE c.medico.idMedico = :idMedico " +
-           "AND c.estado = 'COMPLETADA' " +
-           "ORDER BY c.fechaCita DESC, c.horaCita DESC")
-    List<Cita> findHistorialCitasByMedico(@Param("idMedico") Integer idMedico);
-
-    // Contar citas por estado
-    @Query("SELECT COUNT(c) FROM Cita c WHERE c.estado = :estado")
-    Long contarCitasPorEstado(@Param("estado") Cita.Estado estado);
-
-    // Contar citas de un médico por estado
-    @Query("SELECT COUNT(c) FROM Cita c WHERE c.medico.idMedico = :idMedico AND c.estado = :estado")
-    Long contarCitasByMedicoAndEstado(@Param("idMedico") Integer idMedico, @Param("estado") Cita.Estado estado);
-
-    // Contar citas de un paciente por estado
-    @Query("SELECT COUNT(c) FROM Cita c WHERE c.paciente.idPaciente = :idPaciente AND c.estado = :estado")
-    Long contarCitasByPacienteAndEstado(@Param("idPaciente") Integer idPaciente, @Param("estado") Cita.Estado estado);
-
     // Buscar citas del día actual de un médico
     @Query("SELECT c FROM Cita c WHERE c.medico.idMedico = :idMedico " +
            "AND c.fechaCita = :fechaActual " +
@@ -164,28 +66,96 @@ public interface CitaRepository extends JpaRepository<Cita, Integer> {
             @Param("fechaActual") LocalDate fechaActual
     );
 
-    // Buscar citas canceladas en un rango de fechas
-    @Query("SELECT c FROM Cita c WHERE c.estado = 'CANCELADA' " +
-           "AND c.fechaCancelacion BETWEEN :fechaInicio AND :fechaFin " +
-           "ORDER BY c.fechaCancelacion DESC")
-    List<Cita> findCitasCanceladasEnRango(
-            @Param("fechaInicio") LocalDateTime fechaInicio,
-            @Param("fechaFin") LocalDateTime fechaFin
+    // IDs de las citas de un médico en una fecha
+    @Query("SELECT c.idCita FROM Cita c WHERE c.medico.idMedico = :idMedico AND c.fechaCita = :fecha " +
+           "ORDER BY c.idCita")
+    List<Integer> findIdsByMedicoAndFecha(@Param("idMedico") Integer idMedico, @Param("fecha") LocalDate fecha);
+
+    // Bloquear el día del médico hasta el fin de la transacción (filas y hueco del índice, para que nadie
+    // agende en él a la vez) y retornar sus citas no canceladas: [idCita, fechaCita, horaCita, duracionMinutos]
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c.idCita, c.fechaCita, c.horaCita, c.duracionMinutos FROM Cita c " +
+           "WHERE c.medico.idMedico = :idMedico AND c.fechaCita = :fecha " +
+           "AND c.estado != 'CANCELADA' ORDER BY c.horaCita")
+    List<Object[]> bloquearOcupacionDelDia(@Param("idMedico") Integer idMedico, @Param("fecha") LocalDate fecha);
+
+    // Bloquear los días del médico en el rango como bloquearOcupacionDelDia, para agendar una serie:
+    // [idCita, fechaCita, horaCita, duracionMinutos] de las citas no canceladas
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c.idCita, c.fechaCita, c.horaCita, c.duracionMinutos FROM Cita c " +
+           "WHERE c.medico.idMedico = :idMedico AND c.fechaCita BETWEEN :fechaInicio AND :fechaFin " +
+           "AND c.estado != 'CANCELADA' ORDER BY c.fechaCita, c.horaCita")
+    List<Object[]> bloquearOcupacionEnRango(
+            @Param("idMedico") Integer idMedico,
+            @Param("fechaInicio") LocalDate fechaInicio,
+            @Param("fechaFin") LocalDate fechaFin
     );
 
-    // Verificar si existe cita entre paciente y médico en una fecha
-    boolean existsByPaciente_IdPacienteAndMedico_IdMedicoAndFechaCita(
-            Integer idPaciente,
-            Integer idMedico,
-            LocalDate fechaCita
+    // Bloquear las citas indicadas hasta el fin de la transacción: [idCita, estado, idMedico, idPaciente]
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c.idCita, c.estado, c.medico.idMedico, c.paciente.idPaciente FROM Cita c " +
+           "WHERE c.idCita IN :ids ORDER BY c.idCita")
+    List<Object[]> bloquearEstados(@Param("ids") Collection<Integer> ids);
+
+    // Cambiar el estado de varias citas en una sola sentencia
+    @Modifying
+    @Query("UPDATE Cita c SET c.estado = :estado WHERE c.idCita IN :ids")
+    int actualizarEstados(@Param("ids") Collection<Integer> ids, @Param("estado") Cita.Estado estado);
+
+    // Cancelar varias citas en una sola sentencia
+    @Modifying
+    @Query("UPDATE Cita c SET c.estado = 'CANCELADA', c.fechaCancelacion = :fecha WHERE c.idCita IN :ids")
+    int cancelarCitas(@Param("ids") Collection<Integer> ids, @Param("fecha") LocalDateTime fecha);
+
+    // Citas programadas hasta el corte posteriores a la posición (fecha, hora, id), en ese orden: [idCita, fecha, hora]
+    @Query("SELECT c.idCita, c.fechaCita, c.horaCita FROM Cita c WHERE c.estado = 'PROGRAMADA' " +
+           "AND (c.fechaCita > :fecha OR (c.fechaCita = :fecha AND (c.horaCita > :hora " +
+           "OR (c.horaCita = :hora AND c.idCita > :idCita)))) " +
+           "AND (c.fechaCita < :fechaCorte OR (c.fechaCita = :fechaCorte AND c.horaCita <= :horaCorte)) " +
+           "ORDER BY c.fechaCita, c.horaCita, c.idCita")
+    List<Object[]> findProgramadasVencidas(
+            @Param("fecha") LocalDate fecha,
+            @Param("hora") LocalTime hora,
+            @Param("idCita") Integer idCita,
+            @Param("fechaCorte") LocalDate fechaCorte,
+            @Param("horaCorte") LocalTime horaCorte,
+            Pageable pagina
     );
 
-    // Buscar última cita entre paciente y médico
-    @Query("SELECT c FROM Cita c WHERE c.paciente.idPaciente = :idPaciente " +
-           "AND c.medico.idMedico = :idMedico " +
-           "ORDER BY c.fechaCita DESC, c.horaCita DESC")
-    List<Cita> findUltimaCitaByPacienteAndMedico(
-            @Param("idPaciente") Integer idPaciente,
-            @Param("idMedico") Integer idMedico
+    // Horario que dejan las citas indicadas: [idCita, idMedico, idEspecialidad, fecha, hora, idPaciente, estado]
+    @Query("SELECT c.idCita, m.idMedico, e.idEspecialidad, c.fechaCita, c.horaCita, c.paciente.idPaciente, c.estado " +
+           "FROM Cita c JOIN c.medico m LEFT JOIN m.especialidad e WHERE c.idCita IN :ids")
+    List<Object[]> findHorarios(@Param("ids") Collection<Integer> ids);
+
+    // Ocupación del médico en un rango de fechas: [idCita, fecha, hora, duracionMinutos] de las citas no canceladas
+    @Query("SELECT c.idCita, c.fechaCita, c.horaCita, c.duracionMinutos FROM Cita c " +
+           "WHERE c.medico.idMedico = :idMedico AND c.fechaCita BETWEEN :fechaInicio AND :fechaFin " +
+           "AND c.estado != 'CANCELADA' ORDER BY c.fechaCita, c.horaCita")
+    List<Object[]> findOcupacionByMedicoEnRango(
+            @Param("idMedico") Integer idMedico,
+            @Param("fechaInicio") LocalDate fechaInicio,
+            @Param("fechaFin") LocalDate fechaFin
     );
+
+    // Citas de una serie recurrente: [idCita, fecha]
+    @Query("SELECT c.idCita, c.fechaCita FROM Cita c WHERE c.idSerie = :idSerie ORDER BY c.fechaCita")
+    List<Object[]> findIdsBySerie(@Param("idSerie") String idSerie);
+
+    // Citas cerradas anteriores al corte y posteriores a la posición (fecha, id), sin historial médico
+    // que las referencie, en ese orden: [idCita, fecha]
+    @Query("SELECT c.idCita, c.fechaCita FROM Cita c WHERE c.estado <> 'PROGRAMADA' AND c.fechaCita < :corte " +
+           "AND (c.fechaCita > :fecha OR (c.fechaCita = :fecha AND c.idCita > :idCita)) " +
+           "AND NOT EXISTS (SELECT h.idHistorial FROM HistorialMedico h WHERE h.cita.idCita = c.idCita) " +
+           "ORDER BY c.fechaCita, c.idCita")
+    List<Object[]> findArchivables(
+            @Param("fecha") LocalDate fecha,
+            @Param("idCita") Integer idCita,
+            @Param("corte") LocalDate corte,
+            Pageable pagina
+    );
+
+    // Eliminar las citas ya copiadas al archivo, con las mismas condiciones de la copia
+    @Modifying
+    @Query("DELETE FROM Cita c WHERE c.idCita IN :ids AND c.estado <> 'PROGRAMADA' AND c.fechaCita < :corte")
+    int eliminarArchivadas(@Param("ids") Collection<Integer> ids, @Param("corte") LocalDate corte);
 }
@@ -0,0 +1,77 @@
+package com.mediapp.citasbackend.repositories;
+
+import com.mediapp.citasbackend.dtos.FiltroCitasDTO;
+import com.mediapp.citasbackend.utils.CursorCitas;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Predicados de la búsqueda de citas. Usan los nombres de atributo comunes a Cita y
+ * CitaArchivada, así que la misma búsqueda se ejecuta sobre las dos tablas.
+ *
+ * Cada combinación de filtros queda cubierta por un índice: igualdad sobre su primera
+ * columna, rango sobre fecha_cita y el orden (fecha, hora, id) recorrido en el índice
+ * hasta completar la página, sin ordenar todas las coincidencias.
+ */
+public final class CitaSpecifications {
+
+    private CitaSpecifications() {
+    }
+
+    public static <T> Specification<T> conFiltro(FiltroCitasDTO filtro) {
+        return (root, query, cb) -> {
+            List<Predicate> predicados = new ArrayList<>();
+            if (filtro.getIdMedico() != null) {
+                predicados.add(cb.equal(root.get("medico").get("idMedico"), filtro.getIdMedico()));
+            }
+            if (filtro.getIdPaciente() != null) {
+                predicados.add(cb.equal(root.get("paciente").get("idPaciente"), filtro.getIdPaciente()));
+            }
+            if (filtro.getEstado() != null) {
+                predicados.add(cb.equal(root.get("estado"), filtro.getEstado()));
+            }
+            if (filtro.getTipoCita() != null) {
+                predicados.add(cb.equal(root.get("tipoCita"), filtro.getTipoCita()));
+            }
+            if (filtro.getIdEspecialidad() != null) {
+                predicados.add(cb.equal(root.get("medico").get("especialidad").get("idEspecialidad"),
+                        filtro.getIdEspecialidad()));
+            }
+            if (filtro.getFechaDesde() != null) {
+                predicados.add(cb.greaterThanOrEqualTo(root.get("fechaCita"), filtro.getFechaDesde()));
+            }
+            if (filtro.getFechaHasta() != null) {
+                predicados.add(cb.lessThanOrEqualTo(root.get("fechaCita"), filtro.getFechaHasta()));
+            }
+            return cb.and(predicados.toArray(Predicate[]::new));
+        };
+    }
+
+    // Citas posteriores al cursor en el orden (fecha, hora, id)
+    public static <T> Specification<T> despuesDe(CursorCitas cursor) {
+        return (root, query, cb) -> cb.or(
+                cb.greaterThan(root.get("fechaCita"), cursor.fecha()),
+                cb.and(cb.equal(root.get("fechaCita"), cursor.fecha()),
+                        cb.greaterThan(root.get("horaCita"), cursor.hora())),
+                cb.and(cb.equal(root.get("fechaCita"), cursor.fecha()),
+                        cb.equal(root.get("horaCita"), cursor.hora()),
+                        cb.greaterThan(root.get("idCita"), cursor.idCita())));
+    }
+
+    // Índice de citas que sirve la búsqueda, de la columna de igualdad más selectiva a la menos
+    public static String indice(FiltroCitasDTO filtro) {
+        if (filtro.getIdMedico() != null) {
+            return "idx_citas_medico_fecha_hora";
+        }
+        if (filtro.getIdPaciente() != null) {
+            return "idx_citas_paciente_fecha";
+        }
+        if (filtro.getEstado() != null) {
+            return "idx_citas_estado_fecha_hora";
+        }
+        return "idx_citas_fecha_cita";
+    }
+}
@@ -0,0 +1,47 @@
+package com.mediapp.citasbackend.repositories;
+
+import com.mediapp.citasbackend.entities.Cita;
+import com.mediapp.citasbackend.entities.ContadorCita;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ContadorCitaRepository extends JpaRepository<ContadorCita, Long> {
+
+    // Sumar un delta a una franja; retorna 0 si el contador aún no tiene filas
+    @Modifying
+    @Query("UPDATE ContadorCita c SET c.total = c.total + :delta WHERE c.ambito = :ambito " +
+           "AND c.idAmbito = :idAmbito AND c.estado = :estado AND c.franja = :franja")
+    int incrementar(
+            @Param("ambito") ContadorCita.Ambito ambito,
+            @Param("idAmbito") Integer idAmbito,
+            @Param("estado") Cita.Estado estado,
+            @Param("franja") Integer franja,
+            @Param("delta") long delta
+    );
+
+    // Valor de un contador (suma de sus franjas); null si no tiene filas
+    @Query("SELECT SUM(c.total) FROM ContadorCita c WHERE c.ambito = :ambito " +
+           "AND c.idAmbito = :idAmbito AND c.estado = :estado")
+    Long sumar(
+            @Param("ambito") ContadorCita.Ambito ambito,
+            @Param("idAmbito") Integer idAmbito,
+            @Param("estado") Cita.Estado estado
+    );
+
+    // Filas de un ámbito
+    List<ContadorCita> findByAmbitoAndIdAmbito(ContadorCita.Ambito ambito, Integer idAmbito);
+
+    // Contar las filas de un ámbito (estados por franjas cuando está completo)
+    long countByAmbitoAndIdAmbito(ContadorCita.Ambito ambito, Integer idAmbito);
+
+    // Valores de todos los contadores de un tipo de ámbito: [idAmbito, estado, total]
+    @Query("SELECT c.idAmbito, c.estado, SUM(c.total) FROM ContadorCita c WHERE c.ambito = :ambito " +
+           "GROUP BY c.idAmbito, c.estado")
+    List<Object[]> sumarPorAmbito(@Param("ambito") ContadorCita.Ambito ambito);
+}
@@ -0,0 +1,60 @@
+package com.mediapp.citasbackend.repositories;
+
+import com.mediapp.citasbackend.entities.EntradaListaEspera;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EntradaListaEsperaRepository extends JpaRepository<EntradaListaEspera, Long> {
+
+    // Entradas activas para un médico que cubren la fecha
+    @Query("SELECT e FROM EntradaListaEspera e WHERE e.idMedico = :idMedico AND e.estado = 'ACTIVA' " +
+           "AND e.fechaDesde <= :fecha AND e.fechaHasta >= :fecha")
+    List<EntradaListaEspera> findActivasByMedicoAndFecha(
+            @Param("idMedico") Integer idMedico,
+            @Param("fecha") LocalDate fecha
+    );
+
+    // Entradas activas para una especialidad que cubren la fecha
+    @Query("SELECT e FROM EntradaListaEspera e WHERE e.idEspecialidad = :idEspecialidad AND e.estado = 'ACTIVA' " +
+           "AND e.fechaDesde <= :fecha AND e.fechaHasta >= :fecha")
+    List<EntradaListaEspera> findActivasByEspecialidadAndFecha(
+            @Param("idEspecialidad") Integer idEspecialidad,
+            @Param("fecha") LocalDate fecha
+    );
+
+    List<EntradaListaEspera> findByIdPacienteAndEstadoInOrderByFechaRegistroDesc(
+            Integer idPaciente, List<EntradaListaEspera.Estado> estados);
+
+    // Ofertas cuyo plazo de confirmación ya pasó
+    @Query("SELECT e FROM EntradaListaEspera e WHERE e.estado = 'OFRECIDA' AND e.ofrecidaHasta < :ahora ORDER BY e.ofrecidaHasta")
+    List<EntradaListaEspera> findOfertasVencidas(@Param("ahora") LocalDateTime ahora, Pageable pageable);
+
+    // Tomar la entrada para ofrecerle un horario; retorna 0 si ya no está activa (otra instancia la tomó o se canceló)
+    @Modifying
+    @Query("UPDATE EntradaListaEspera e SET e.estado = 'OFRECIDA', e.idCitaLiberada = :idCita, " +
+           "e.tokenReserva = :token, e.ofrecidaHasta = :hasta WHERE e.idEntrada = :idEntrada AND e.estado = 'ACTIVA'")
+    int ofrecer(
+            @Param("idEntrada") Long idEntrada,
+            @Param("idCita") Integer idCita,
+            @Param("token") String token,
+            @Param("hasta") LocalDateTime hasta
+    );
+
+    // Cambiar el estado solo si sigue en el esperado
+    @Modifying
+    @Query("UPDATE EntradaListaEspera e SET e.estado = :nuevo WHERE e.idEntrada = :idEntrada AND e.estado = :actual")
+    int cambiarEstado(
+            @Param("idEntrada") Long idEntrada,
+            @Param("actual") EntradaListaEspera.Estado actual,
+            @Param("nuevo") EntradaListaEspera.Estado nuevo
+    );
+}
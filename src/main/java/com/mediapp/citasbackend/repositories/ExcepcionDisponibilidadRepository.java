@@ -0,0 +1,20 @@
+package com.mediapp.citasbackend.repositories;
+
+import com.mediapp.citasbackend.entities.ExcepcionDisponibilidad;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ExcepcionDisponibilidadRepository extends JpaRepository<ExcepcionDisponibilidad, Integer> {
+
+    // Excepciones de un médico que terminan en la fecha dada o después, ordenadas por inicio
+    @Query("SELECT e FROM ExcepcionDisponibilidad e WHERE e.medico.idMedico = :idMedico " +
+           "AND e.fechaFin >= :desde ORDER BY e.fechaInicio, e.idExcepcion")
+    List<ExcepcionDisponibilidad> findVigentesByMedico(@Param("idMedico") Integer idMedico,
+                                                       @Param("desde") LocalDate desde);
+}
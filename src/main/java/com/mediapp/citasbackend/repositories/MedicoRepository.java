@@ -190,4 +190,13 @@ public interface MedicoRepository extends JpaRepository<Medico, Integer> {
     @Query("SELECT COUNT(m) FROM Medico m WHERE m.numeroLicencia = :numeroLicencia " +
            "AND m.idMedico != :idExcluir")
     Long contarPorLicenciaExcluyendoId(@Param("numeroLicencia") String numeroLicencia, @Param("idExcluir") Integer idExcluir);
+
+    // Especialidad, ciudad, verificación y estado de todos los médicos, para el índice de disponibilidad
+    @Query("SELECT m.idMedico, u.idUsuario, e.idEspecialidad, u.ciudad, m.estadoVerificacion, u.estado " +
+           "FROM Medico m JOIN m.usuario u LEFT JOIN m.especialidad e")
+    List<Object[]> findAtributosIndice();
+
+    @Query("SELECT m.idMedico, u.idUsuario, e.idEspecialidad, u.ciudad, m.estadoVerificacion, u.estado " +
+           "FROM Medico m JOIN m.usuario u LEFT JOIN m.especialidad e WHERE m.idMedico = :idMedico")
+    List<Object[]> findAtributosIndiceByIdMedico(@Param("idMedico") Integer idMedico);
 }
@@ -0,0 +1,74 @@
+package com.mediapp.citasbackend.repositories;
+
+import com.mediapp.citasbackend.entities.ReservaTemporal;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ReservaTemporalRepository extends JpaRepository<ReservaTemporal, Long> {
+
+    // Bloquear la reserva para convertirla en cita sin que otra transacción la consuma a la vez
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ReservaTemporal r WHERE r.token = :token")
+    Optional<ReservaTemporal> bloquearPorToken(@Param("token") String token);
+
+    // Reservas vigentes de un médico en una fecha
+    @Query("SELECT r FROM ReservaTemporal r WHERE r.idMedico = :idMedico AND r.fecha = :fecha AND r.expiraEn > :ahora")
+    List<ReservaTemporal> findActivasByMedicoAndFecha(
+            @Param("idMedico") Integer idMedico,
+            @Param("fecha") LocalDate fecha,
+            @Param("ahora") LocalDateTime ahora
+    );
+
+    // Bloquear las reservas del médico en la fecha hasta el fin de la transacción (filas y hueco del índice)
+    // y retornar las vigentes, para que dos instancias no reserven a la vez horarios que se cruzan
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ReservaTemporal r WHERE r.idMedico = :idMedico AND r.fecha = :fecha AND r.expiraEn > :ahora " +
+           "ORDER BY r.hora")
+    List<ReservaTemporal> bloquearActivasByMedicoAndFecha(
+            @Param("idMedico") Integer idMedico,
+            @Param("fecha") LocalDate fecha,
+            @Param("ahora") LocalDateTime ahora
+    );
+
+    // Reservas vigentes de un médico en un rango de fechas
+    @Query("SELECT r FROM ReservaTemporal r WHERE r.idMedico = :idMedico AND r.fecha BETWEEN :fechaInicio AND :fechaFin " +
+           "AND r.expiraEn > :ahora")
+    List<ReservaTemporal> findActivasByMedicoEnRango(
+            @Param("idMedico") Integer idMedico,
+            @Param("fechaInicio") LocalDate fechaInicio,
+            @Param("fechaFin") LocalDate fechaFin,
+            @Param("ahora") LocalDateTime ahora
+    );
+
+    // Todas las reservas vigentes, para sincronizar la copia en memoria
+    @Query("SELECT r FROM ReservaTemporal r WHERE r.expiraEn > :ahora")
+    List<ReservaTemporal> findActivas(@Param("ahora") LocalDateTime ahora);
+
+    @Modifying
+    @Query("DELETE FROM ReservaTemporal r WHERE r.token = :token")
+    int eliminarPorToken(@Param("token") String token);
+
+    @Modifying
+    @Query("DELETE FROM ReservaTemporal r WHERE r.expiraEn <= :ahora")
+    int eliminarVencidas(@Param("ahora") LocalDateTime ahora);
+
+    // Eliminar las vencidas del día antes de reservar, para que no choquen con la restricción única
+    @Modifying
+    @Query("DELETE FROM ReservaTemporal r WHERE r.idMedico = :idMedico AND r.fecha = :fecha AND r.expiraEn <= :ahora")
+    int eliminarVencidasByMedicoAndFecha(
+            @Param("idMedico") Integer idMedico,
+            @Param("fecha") LocalDate fecha,
+            @Param("ahora") LocalDateTime ahora
+    );
+}
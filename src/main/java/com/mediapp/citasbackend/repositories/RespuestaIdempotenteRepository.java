@@ -0,0 +1,51 @@
+package com.mediapp.citasbackend.repositories;
+
+import com.mediapp.citasbackend.entities.RespuestaIdempotente;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface RespuestaIdempotenteRepository extends JpaRepository<RespuestaIdempotente, String> {
+
+    // Reclamar la clave; la clave primaria hace fallar el insert si otra instancia ya la tiene
+    @Modifying
+    @Query(value = "INSERT INTO respuestas_idempotentes (clave, huella, estado, expira_en, fecha_creacion) " +
+            "VALUES (:clave, :huella, 'EN_CURSO', :expiraEn, :ahora)", nativeQuery = true)
+    int reclamar(
+            @Param("clave") String clave,
+            @Param("huella") String huella,
+            @Param("ahora") LocalDateTime ahora,
+            @Param("expiraEn") LocalDateTime expiraEn
+    );
+
+    // Guardar la respuesta de una petición en curso
+    @Modifying
+    @Query("UPDATE RespuestaIdempotente r SET r.estado = 'COMPLETADA', r.status = :status, " +
+           "r.tipoContenido = :tipoContenido, r.cuerpo = :cuerpo, r.expiraEn = :expiraEn " +
+           "WHERE r.clave = :clave AND r.estado = 'EN_CURSO'")
+    int completar(
+            @Param("clave") String clave,
+            @Param("status") Integer status,
+            @Param("tipoContenido") String tipoContenido,
+            @Param("cuerpo") byte[] cuerpo,
+            @Param("expiraEn") LocalDateTime expiraEn
+    );
+
+    @Modifying
+    @Query("DELETE FROM RespuestaIdempotente r WHERE r.clave = :clave")
+    int eliminarPorClave(@Param("clave") String clave);
+
+    // Eliminar la fila de la clave solo si venció, para reclamarla de nuevo
+    @Modifying
+    @Query("DELETE FROM RespuestaIdempotente r WHERE r.clave = :clave AND r.expiraEn <= :ahora")
+    int eliminarVencida(@Param("clave") String clave, @Param("ahora") LocalDateTime ahora);
+
+    @Modifying
+    @Query("DELETE FROM RespuestaIdempotente r WHERE r.expiraEn <= :ahora")
+    int eliminarVencidas(@Param("ahora") LocalDateTime ahora);
+}
@@ -0,0 +1,48 @@
+package com.mediapp.citasbackend.repositories;
+
+import com.mediapp.citasbackend.entities.TareaProgramada;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface TareaProgramadaRepository extends JpaRepository<TareaProgramada, String> {
+
+    // Tomar el arrendamiento si está libre, vencido o ya es del propietario; retorna 0 si lo tiene otro
+    @Modifying
+    @Query("UPDATE TareaProgramada t SET t.propietario = :propietario, t.bloqueadaHasta = :hasta " +
+           "WHERE t.nombre = :nombre AND (t.bloqueadaHasta IS NULL OR t.bloqueadaHasta < :ahora " +
+           "OR t.propietario = :propietario)")
+    int adquirir(
+            @Param("nombre") String nombre,
+            @Param("propietario") String propietario,
+            @Param("ahora") LocalDateTime ahora,
+            @Param("hasta") LocalDateTime hasta
+    );
+
+    // Guardar la marca de avance y renovar el arrendamiento; retorna 0 si el propietario ya no lo tiene
+    @Modifying
+    @Query("UPDATE TareaProgramada t SET t.marca = :marca, t.bloqueadaHasta = :hasta " +
+           "WHERE t.nombre = :nombre AND t.propietario = :propietario AND t.bloqueadaHasta >= :ahora")
+    int guardarMarca(
+            @Param("nombre") String nombre,
+            @Param("propietario") String propietario,
+            @Param("marca") String marca,
+            @Param("ahora") LocalDateTime ahora,
+            @Param("hasta") LocalDateTime hasta
+    );
+
+    // Liberar el arrendamiento y registrar el fin de la ejecución
+    @Modifying
+    @Query("UPDATE TareaProgramada t SET t.bloqueadaHasta = NULL, t.ultimaEjecucion = :ahora " +
+           "WHERE t.nombre = :nombre AND t.propietario = :propietario")
+    int liberar(
+            @Param("nombre") String nombre,
+            @Param("propietario") String propietario,
+            @Param("ahora") LocalDateTime ahora
+    );
+}
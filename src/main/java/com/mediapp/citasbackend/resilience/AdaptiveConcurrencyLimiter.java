@@ -0,0 +1,108 @@
+package com.mediapp.citasbackend.resilience;
+
+import com.mediapp.citasbackend.config.BulkheadProperties;
+import com.mediapp.citasbackend.monitoring.JdbcExecutionListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mantiene un bulkhead por clase de endpoint y ajusta los límites de las clases de baja
+ * prioridad con AIMD según la espera por conexiones del pool: si la espera promedio del
+ * intervalo supera el objetivo, el límite se multiplica por backoffRatio (primero en
+ * reportes, luego en consultas); si no, crece de a uno hasta el máximo configurado.
+ * El bulkhead de reservas conserva siempre su límite.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "mediapp.bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+public class AdaptiveConcurrencyLimiter implements JdbcExecutionListener {
+
+    private final BulkheadProperties.Adaptive adaptive;
+    private final Map<EndpointClass, Bulkhead> bulkheads = new EnumMap<>(EndpointClass.class);
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder waitCount = new LongAdder();
+    private volatile double lastAverageWaitMs;
+
+    public AdaptiveConcurrencyLimiter(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        this.adaptive = properties.getAdaptive();
+        register(EndpointClass.BOOKING, properties.getBooking());
+        register(EndpointClass.PATIENT_READ, properties.getPatientRead());
+        register(EndpointClass.ADMIN_REPORTING, properties.getAdminReporting());
+
+        bulkheads.values().forEach(bulkhead -> {
+            String tag = bulkhead.getEndpointClass().name();
+            Gauge.builder("mediapp.bulkhead.limit", bulkhead, Bulkhead::getLimit)
+                    .tag("class", tag).register(meterRegistry);
+            Gauge.builder("mediapp.bulkhead.in-flight", bulkhead, Bulkhead::getInFlight)
+                    .tag("class", tag).register(meterRegistry);
+        });
+        Gauge.builder("mediapp.bulkhead.pool-wait", this, AdaptiveConcurrencyLimiter::getLastAverageWaitMs)
+                .baseUnit("milliseconds").register(meterRegistry);
+    }
+
+    private void register(EndpointClass endpointClass, BulkheadProperties.Limits limits) {
+        bulkheads.put(endpointClass, new Bulkhead(
+                endpointClass, limits.getMaxConcurrent(), limits.getMaxQueue(), limits.getMaxWaitMs()));
+    }
+
+    public Bulkhead bulkhead(EndpointClass endpointClass) {
+        return bulkheads.get(endpointClass);
+    }
+
+    @Override
+    public void afterConnectionAcquired(long nanos) {
+        waitNanos.add(nanos);
+        waitCount.increment();
+    }
+
+    /**
+     * Recalcula los límites con la espera promedio del último intervalo
+     */
+    @Scheduled(fixedDelayString = "${mediapp.bulkhead.adaptive.sample-interval-ms:1000}")
+    public void adjust() {
+        long count = waitCount.sumThenReset();
+        long total = waitNanos.sumThenReset();
+        lastAverageWaitMs = count == 0 ? 0 : total / (double) count / 1_000_000.0;
+        if (!adaptive.isEnabled()) {
+            return;
+        }
+
+        Bulkhead reporting = bulkheads.get(EndpointClass.ADMIN_REPORTING);
+        Bulkhead reads = bulkheads.get(EndpointClass.PATIENT_READ);
+        if (lastAverageWaitMs > adaptive.getTargetPoolWaitMs()) {
+            Bulkhead target = reporting.getLimit() > adaptive.getMinLimit() ? reporting : reads;
+            decrease(target);
+        } else {
+            Bulkhead target = reads.getLimit() < reads.getMaxLimit() ? reads : reporting;
+            if (target.getLimit() < target.getMaxLimit()) {
+                target.setLimit(target.getLimit() + 1);
+            }
+        }
+    }
+
+    private void decrease(Bulkhead bulkhead) {
+        int current = bulkhead.getLimit();
+        int reduced = Math.max(adaptive.getMinLimit(), (int) Math.floor(current * adaptive.getBackoffRatio()));
+        if (reduced < current) {
+            bulkhead.setLimit(reduced);
+            log.warn("Espera promedio del pool {} ms: límite de {} reducido de {} a {}",
+                    String.format("%.1f", lastAverageWaitMs), bulkhead.getEndpointClass(), current, reduced);
+        }
+    }
+
+    public double getLastAverageWaitMs() {
+        return lastAverageWaitMs;
+    }
+
+    public int getRetryAfterSeconds() {
+        return adaptive.getRetryAfterSeconds();
+    }
+}
@@ -0,0 +1,137 @@
+package com.mediapp.citasbackend.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Límite de concurrencia con cola acotada. A diferencia de un Semaphore, el límite
+ * puede reducirse en caliente: las peticiones en curso terminan y las nuevas esperan
+ * hasta que el número en curso baje del nuevo límite.
+ */
+public class Bulkhead {
+
+    private final EndpointClass endpointClass;
+    private final int maxLimit;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition available = lock.newCondition();
+    private int limit;
+    private int inFlight;
+    private int waiting;
+
+    public Bulkhead(EndpointClass endpointClass, int maxLimit, int maxQueue, long maxWaitMs) {
+        if (maxLimit < 1) {
+            throw new IllegalArgumentException("El límite de concurrencia debe ser al menos 1");
+        }
+        this.endpointClass = endpointClass;
+        this.maxLimit = maxLimit;
+        this.maxQueue = maxQueue;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.limit = maxLimit;
+    }
+
+    /**
+     * Intenta ocupar un lugar esperando como máximo el tiempo configurado.
+     * Retorna false si la cola está llena o si se agotó la espera.
+     */
+    public boolean tryAcquire() throws InterruptedException {
+        return tryAcquire(Long.MAX_VALUE);
+    }
+
+    /**
+     * Igual que {@link #tryAcquire()} pero sin esperar más que el plazo indicado
+     */
+    public boolean tryAcquire(long timeoutNanos) throws InterruptedException {
+        long waitNanos = Math.min(maxWaitNanos, timeoutNanos);
+        lock.lock();
+        try {
+            if (inFlight < limit) {
+                inFlight++;
+                return true;
+            }
+            if (waiting >= maxQueue || waitNanos <= 0) {
+                return false;
+            }
+            waiting++;
+            try {
+                long remaining = waitNanos;
+                while (inFlight >= limit) {
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    remaining = available.awaitNanos(remaining);
+                }
+                inFlight++;
+                return true;
+            } finally {
+                waiting--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ajusta el límite entre 1 y el máximo configurado
+     */
+    public void setLimit(int newLimit) {
+        lock.lock();
+        try {
+            int bounded = Math.max(1, Math.min(maxLimit, newLimit));
+            if (bounded > limit) {
+                available.signalAll();
+            }
+            limit = bounded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public EndpointClass getEndpointClass() {
+        return endpointClass;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWaiting() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
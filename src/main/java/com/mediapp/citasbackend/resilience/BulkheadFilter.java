@@ -0,0 +1,91 @@
+package com.mediapp.citasbackend.resilience;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mediapp.citasbackend.exceptions.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Hace pasar cada petición de la API por el bulkhead de su clase de endpoint. Si no hay
+ * lugar dentro del tiempo de espera configurado (o del plazo restante de la petición)
+ * responde 503 con Retry-After, sin tocar el pool de conexiones.
+ */
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final Map<EndpointClass, Counter> rejected = new EnumMap<>(EndpointClass.class);
+
+    public BulkheadFilter(AdaptiveConcurrencyLimiter limiter, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            rejected.put(endpointClass, Counter.builder("mediapp.bulkhead.rejected")
+                    .tag("class", endpointClass.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        EndpointClass endpointClass = EndpointClass.classify(request.getMethod(), request.getRequestURI());
+        if (endpointClass == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Bulkhead bulkhead = limiter.bulkhead(endpointClass);
+        boolean acquired;
+        try {
+            RequestDeadline deadline = RequestDeadline.current();
+            acquired = bulkhead.tryAcquire(deadline != null ? deadline.remainingNanos() : Long.MAX_VALUE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.get(endpointClass).increment();
+            reject(request, response);
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ErrorResponse error = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Servicio Saturado",
+                "El servidor está atendiendo demasiadas peticiones. Intente nuevamente en unos segundos",
+                request.getRequestURI()
+        );
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(limiter.getRetryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getWriter(), error);
+    }
+}
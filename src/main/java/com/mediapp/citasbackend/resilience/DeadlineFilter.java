@@ -0,0 +1,62 @@
+package com.mediapp.citasbackend.resilience;
+
+import com.mediapp.citasbackend.config.DeadlineProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Asigna el plazo de la petición a partir de la cabecera configurada (acotada al máximo)
+ * o del plazo por defecto de su clase de endpoint
+ */
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    private final DeadlineProperties properties;
+
+    public DeadlineFilter(DeadlineProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        RequestDeadline.begin(budgetFor(request));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDeadline.end();
+        }
+    }
+
+    long budgetFor(HttpServletRequest request) {
+        String header = request.getHeader(properties.getHeader());
+        if (header != null) {
+            try {
+                long requested = Long.parseLong(header.trim());
+                if (requested > 0) {
+                    return Math.min(requested, properties.getMaxTimeoutMs());
+                }
+            } catch (NumberFormatException ignored) {
+                // Cabecera inválida: se usa el plazo por defecto del endpoint
+            }
+        }
+
+        EndpointClass endpointClass = EndpointClass.classify(request.getMethod(), request.getRequestURI());
+        if (endpointClass == null) {
+            return properties.getDefaultTimeoutMs();
+        }
+        return switch (endpointClass) {
+            case BOOKING -> properties.getBookingTimeoutMs();
+            case PATIENT_READ -> properties.getPatientReadTimeoutMs();
+            case ADMIN_REPORTING -> properties.getAdminReportingTimeoutMs();
+        };
+    }
+}
@@ -0,0 +1,22 @@
+package com.mediapp.citasbackend.resilience;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Evita invocar el controlador si la petición agotó su plazo esperando en el bulkhead
+ * o en la autenticación. La excepción la traduce GlobalExceptionHandler a 504.
+ */
+public class DeadlineInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull Object handler) {
+        RequestDeadline.checkNotExpired();
+        return true;
+    }
+}
@@ -0,0 +1,43 @@
+package com.mediapp.citasbackend.resilience;
+
+import com.mediapp.citasbackend.monitoring.JdbcExecutionListener;
+import com.mediapp.citasbackend.monitoring.StatementExecution;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+
+/**
+ * Asigna a cada sentencia un query timeout igual al plazo restante de la petición, de
+ * modo que el driver cancele la consulta en la base de datos al agotarse. Si el plazo
+ * ya venció, la sentencia no se envía. JDBC expresa el timeout en segundos, por lo que
+ * el restante se redondea hacia arriba.
+ */
+@Component
+@ConditionalOnProperty(value = "mediapp.deadline.enabled", havingValue = "true", matchIfMissing = true)
+public class DeadlineStatementListener implements JdbcExecutionListener {
+
+    // SQLState estándar de "consulta cancelada"; Hibernate la traduce a QueryTimeoutException
+    private static final String QUERY_CANCELED = "57014";
+
+    @Override
+    public void beforeExecute(StatementExecution execution) throws SQLException {
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline == null) {
+            return;
+        }
+        long remainingMs = deadline.remainingMillis();
+        if (remainingMs <= 0) {
+            throw new SQLTimeoutException(
+                    "Plazo de " + deadline.getBudgetMs() + " ms agotado antes de ejecutar la sentencia",
+                    QUERY_CANCELED);
+        }
+
+        int seconds = (int) Math.max(1, (remainingMs + 999) / 1000);
+        int current = execution.getStatement().getQueryTimeout();
+        if (current == 0 || seconds < current) {
+            execution.getStatement().setQueryTimeout(seconds);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.mediapp.citasbackend.resilience;
+
+/**
+ * Clases de endpoint con bulkhead propio, de mayor a menor prioridad
+ */
+public enum EndpointClass {
+    BOOKING,
+    PATIENT_READ,
+    ADMIN_REPORTING;
+
+    /**
+     * Clasifica una petición por método y URI. Retorna null para las rutas que no pasan
+     * por los bulkheads (autenticación, actuator, documentación).
+     */
+    public static EndpointClass classify(String method, String uri) {
+        if (!uri.startsWith("/api/") || uri.startsWith("/api/auth/")) {
+            return null;
+        }
+        boolean read = "GET".equals(method) || "HEAD".equals(method);
+
+        // Crear, reprogramar o cancelar citas y consultar disponibilidad forman el flujo de reserva
+        if (uri.startsWith("/api/calendario-disponibilidad") || uri.startsWith("/api/excepciones-disponibilidad")) {
+            return BOOKING;
+        }
+        if (uri.startsWith("/api/citas") && !read) {
+            return BOOKING;
+        }
+
+        if (read && isReporting(uri)) {
+            return ADMIN_REPORTING;
+        }
+        return PATIENT_READ;
+    }
+
+    private static boolean isReporting(String uri) {
+        String path = uri.endsWith("/") ? uri.substring(0, uri.length() - 1) : uri;
+        // Listados completos: GET /api/citas, /api/historial-medico, ...
+        if (path.indexOf('/', "/api/".length()) < 0) {
+            return true;
+        }
+        return path.startsWith("/api/usuarios")
+                || path.contains("/rango-fechas")
+                || path.contains("/estadisticas")
+                || path.contains("/contar")
+                || path.startsWith("/api/historial-medico/buscar");
+    }
+}
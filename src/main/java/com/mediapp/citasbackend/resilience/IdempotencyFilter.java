@@ -0,0 +1,206 @@
+package com.mediapp.citasbackend.resilience;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mediapp.citasbackend.exceptions.ErrorResponse;
+import com.mediapp.citasbackend.resilience.IdempotencyStore.Reclamo;
+import com.mediapp.citasbackend.resilience.IdempotencyStore.Respuesta;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Atiende los POST con cabecera Idempotency-Key. La primera petición con una clave se ejecuta
+ * y su respuesta se guarda; las repeticiones con el mismo cuerpo reciben esa respuesta sin
+ * llegar al servicio, y las que llegan mientras la original sigue en curso la esperan. Las
+ * claves son por usuario, y las respuestas 5xx no se guardan para que el cliente pueda reintentar.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_LONGITUD_CLAVE = 255;
+
+    private final IdempotencyStore store;
+    private final List<String> paths;
+    private final ObjectMapper objectMapper;
+
+    public IdempotencyFilter(IdempotencyStore store, List<String> paths, ObjectMapper objectMapper) {
+        this.store = store;
+        this.paths = List.copyOf(paths);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod())
+                || request.getHeader(HEADER) == null
+                || !paths.contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        String claveCliente = request.getHeader(HEADER).trim();
+        if (claveCliente.isEmpty() || claveCliente.length() > MAX_LONGITUD_CLAVE) {
+            error(request, response, HttpStatus.BAD_REQUEST, "Idempotency-Key Inválida",
+                    "La cabecera Idempotency-Key debe tener entre 1 y " + MAX_LONGITUD_CLAVE + " caracteres");
+            return;
+        }
+
+        byte[] cuerpo = request.getInputStream().readAllBytes();
+        String huella = sha256(request.getMethod(), request.getRequestURI(),
+                String.valueOf(request.getQueryString()), cuerpo);
+        String clave = sha256(usuario(), claveCliente);
+
+        Reclamo reclamo = store.reclamar(clave, huella);
+        if (!reclamo.huella().equals(huella)) {
+            error(request, response, HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key Reutilizada",
+                    "La Idempotency-Key ya se usó con una petición distinta");
+            return;
+        }
+        if (!reclamo.propio()) {
+            Respuesta anterior = store.esperar(clave, reclamo);
+            if (anterior == null) {
+                error(request, response, HttpStatus.CONFLICT, "Petición en Curso",
+                        "La petición original con esta Idempotency-Key sigue en curso o falló. Intente nuevamente");
+                return;
+            }
+            repetir(response, anterior);
+            return;
+        }
+
+        ContentCachingResponseWrapper respuesta = new ContentCachingResponseWrapper(response);
+        boolean guardada = false;
+        try {
+            filterChain.doFilter(new CuerpoLeido(request, cuerpo), respuesta);
+            if (respuesta.getStatus() < 500) {
+                store.completar(clave, new Respuesta(respuesta.getStatus(), respuesta.getContentType(),
+                        respuesta.getContentAsByteArray()));
+                guardada = true;
+            }
+        } finally {
+            if (!guardada) {
+                store.descartar(clave);
+            }
+            respuesta.copyBodyToResponse();
+        }
+    }
+
+    private static void repetir(HttpServletResponse response, Respuesta anterior) throws IOException {
+        response.setStatus(anterior.status());
+        if (anterior.tipoContenido() != null) {
+            response.setContentType(anterior.tipoContenido());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(anterior.cuerpo().length);
+        response.getOutputStream().write(anterior.cuerpo());
+    }
+
+    private void error(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                       String titulo, String mensaje) throws IOException {
+        ErrorResponse error = new ErrorResponse(LocalDateTime.now(), status.value(), titulo, mensaje, request.getRequestURI());
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getWriter(), error);
+    }
+
+    private static String usuario() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || auth instanceof AnonymousAuthenticationToken) {
+            return "anonimo";
+        }
+        return auth.getName();
+    }
+
+    private static String sha256(Object... partes) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Object parte : partes) {
+                digest.update(parte instanceof byte[] bytes ? bytes : parte.toString().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Petición cuyo cuerpo ya se leyó para calcular la huella
+    private static final class CuerpoLeido extends HttpServletRequestWrapper {
+
+        private final byte[] cuerpo;
+
+        CuerpoLeido(HttpServletRequest request, byte[] cuerpo) {
+            super(request);
+            this.cuerpo = cuerpo;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream entrada = new ByteArrayInputStream(cuerpo);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return entrada.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return entrada.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return entrada.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
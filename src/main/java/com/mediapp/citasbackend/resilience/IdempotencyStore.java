@@ -0,0 +1,238 @@
+package com.mediapp.citasbackend.resilience;
+
+import com.mediapp.citasbackend.config.IdempotencyProperties;
+import com.mediapp.citasbackend.entities.RespuestaIdempotente;
+import com.mediapp.citasbackend.repositories.RespuestaIdempotenteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Claves de idempotencia y sus respuestas. La tabla respuestas_idempotentes es la fuente de
+ * verdad entre instancias: la petición que logra insertar la clave es la única que se ejecuta.
+ * En memoria se guarda, con TTL y un máximo de claves, un futuro por clave: los duplicados que
+ * llegan a la misma instancia esperan ese futuro y las respuestas ya conocidas se repiten sin
+ * consultar la tabla. Si la original corre en otra instancia, el duplicado consulta la tabla
+ * cada pollMillis hasta que aparezca la respuesta.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    public record Respuesta(int status, String tipoContenido, byte[] cuerpo) {
+    }
+
+    // Resultado de reclamar una clave: "propio" si esta petición debe ejecutarse; "remoto" si la
+    // original se ejecuta en otra instancia y hay que consultar la tabla para conocer su respuesta
+    public record Reclamo(boolean propio, String huella, CompletableFuture<Respuesta> respuesta, boolean remoto) {
+    }
+
+    private static final class Entrada {
+        final CompletableFuture<Respuesta> respuesta = new CompletableFuture<>();
+        volatile String huella;
+        volatile long expiraEn;
+        volatile boolean remoto;
+
+        Entrada(String huella, long expiraEn) {
+            this.huella = huella;
+            this.expiraEn = expiraEn;
+        }
+    }
+
+    private final RespuestaIdempotenteRepository repository;
+    private final IdempotencyProperties properties;
+    private final TransactionTemplate transaccion;
+    private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+
+    public IdempotencyStore(RespuestaIdempotenteRepository repository,
+                            IdempotencyProperties properties,
+                            PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.properties = properties;
+        // Fuera de cualquier transacción de la petición: la clave debe verse en las demás instancias de inmediato
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.transaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public Reclamo reclamar(String clave, String huella) {
+        long ahora = System.currentTimeMillis();
+        Entrada nueva = new Entrada(huella, ahora + properties.getInFlightSeconds() * 1000);
+        Entrada actual;
+        while ((actual = entradas.putIfAbsent(clave, nueva)) != null) {
+            if (actual.expiraEn > ahora) {
+                return new Reclamo(false, actual.huella, actual.respuesta, actual.remoto);
+            }
+            entradas.remove(clave, actual);
+        }
+        acotar(ahora);
+
+        try {
+            return reclamarEnTabla(clave, huella, nueva);
+        } catch (RuntimeException e) {
+            descartarLocal(clave, nueva);
+            throw e;
+        }
+    }
+
+    /**
+     * Espera la respuesta de la petición original hasta waitMillis; null si no terminó a tiempo
+     * o falló sin guardar una respuesta.
+     */
+    public Respuesta esperar(String clave, Reclamo reclamo) {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getWaitMillis());
+        if (reclamo.remoto()) {
+            sondear(clave, reclamo.respuesta(), limite);
+        }
+        try {
+            return reclamo.respuesta().get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
+        }
+    }
+
+    // Guardar la respuesta de la petición original y entregarla a los duplicados que esperan
+    public void completar(String clave, Respuesta respuesta) {
+        long expiraEn = System.currentTimeMillis() + properties.getTtlSeconds() * 1000;
+        try {
+            transaccion.executeWithoutResult(status -> repository.completar(clave, respuesta.status(),
+                    respuesta.tipoContenido(), respuesta.cuerpo(), LocalDateTime.now().plusSeconds(properties.getTtlSeconds())));
+        } catch (DataAccessException e) {
+            // Los duplicados de esta instancia reciben la respuesta; los de otras la reejecutan cuando venza la fila
+            log.warn("No se pudo guardar la respuesta idempotente: {}", e.getMessage());
+        }
+        Entrada entrada = entradas.get(clave);
+        if (entrada != null) {
+            entrada.expiraEn = expiraEn;
+            entrada.respuesta.complete(respuesta);
+        }
+    }
+
+    // Liberar la clave de una petición que falló, para que un reintento se ejecute de nuevo
+    public void descartar(String clave) {
+        try {
+            transaccion.executeWithoutResult(status -> repository.eliminarPorClave(clave));
+        } catch (DataAccessException e) {
+            log.warn("No se pudo liberar la clave idempotente: {}", e.getMessage());
+        }
+        Entrada entrada = entradas.get(clave);
+        if (entrada != null) {
+            descartarLocal(clave, entrada);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${mediapp.idempotency.purge-interval-ms:600000}",
+            fixedDelayString = "${mediapp.idempotency.purge-interval-ms:600000}")
+    public int purgar() {
+        long ahora = System.currentTimeMillis();
+        entradas.entrySet().removeIf(e -> e.getValue().expiraEn <= ahora && e.getValue().respuesta.isDone());
+        Integer eliminadas = transaccion.execute(status -> repository.eliminarVencidas(LocalDateTime.now()));
+        return eliminadas != null ? eliminadas : 0;
+    }
+
+    public int size() {
+        return entradas.size();
+    }
+
+    private Reclamo reclamarEnTabla(String clave, String huella, Entrada nueva) {
+        for (int intento = 0; intento < 2; intento++) {
+            LocalDateTime ahora = LocalDateTime.now();
+            if (insertar(clave, huella, ahora)) {
+                return new Reclamo(true, huella, nueva.respuesta, false);
+            }
+            Optional<RespuestaIdempotente> fila = transaccion.execute(status -> repository.findById(clave));
+            if (fila.isEmpty()) {
+                // La original falló y liberó la clave entre el insert y la lectura
+                continue;
+            }
+            RespuestaIdempotente existente = fila.get();
+            if (!existente.getExpiraEn().isAfter(ahora)) {
+                transaccion.executeWithoutResult(status -> repository.eliminarVencida(clave, ahora));
+                continue;
+            }
+            nueva.huella = existente.getHuella();
+            if (existente.getEstado() == RespuestaIdempotente.Estado.COMPLETADA) {
+                nueva.respuesta.complete(respuesta(existente));
+                return new Reclamo(false, existente.getHuella(), nueva.respuesta, false);
+            }
+            nueva.remoto = true;
+            return new Reclamo(false, existente.getHuella(), nueva.respuesta, true);
+        }
+        nueva.remoto = true;
+        return new Reclamo(false, nueva.huella, nueva.respuesta, true);
+    }
+
+    private boolean insertar(String clave, String huella, LocalDateTime ahora) {
+        try {
+            transaccion.executeWithoutResult(status -> repository.reclamar(
+                    clave, huella, ahora, ahora.plusSeconds(properties.getInFlightSeconds())));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    private void sondear(String clave, CompletableFuture<Respuesta> respuesta, long limite) {
+        while (!respuesta.isDone() && System.nanoTime() < limite) {
+            Optional<RespuestaIdempotente> fila = transaccion.execute(status -> repository.findById(clave));
+            if (fila.isEmpty()) {
+                respuesta.complete(null);
+                return;
+            }
+            if (fila.get().getEstado() == RespuestaIdempotente.Estado.COMPLETADA) {
+                respuesta.complete(respuesta(fila.get()));
+                Entrada entrada = entradas.get(clave);
+                if (entrada != null) {
+                    entrada.expiraEn = System.currentTimeMillis() + properties.getTtlSeconds() * 1000;
+                }
+                return;
+            }
+            try {
+                Thread.sleep(properties.getPollMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void descartarLocal(String clave, Entrada entrada) {
+        entradas.remove(clave, entrada);
+        entrada.respuesta.complete(null);
+    }
+
+    // Al superar el máximo se quitan primero las vencidas y luego respuestas ya guardadas en la tabla
+    private void acotar(long ahora) {
+        if (entradas.size() <= properties.getMaxEntries()) {
+            return;
+        }
+        entradas.entrySet().removeIf(e -> e.getValue().expiraEn <= ahora && e.getValue().respuesta.isDone());
+        Iterator<Map.Entry<String, Entrada>> iterador = entradas.entrySet().iterator();
+        while (entradas.size() > properties.getMaxEntries() && iterador.hasNext()) {
+            if (iterador.next().getValue().respuesta.isDone()) {
+                iterador.remove();
+            }
+        }
+    }
+
+    private static Respuesta respuesta(RespuestaIdempotente fila) {
+        return new Respuesta(fila.getStatus(), fila.getTipoContenido(), fila.getCuerpo() != null ? fila.getCuerpo() : new byte[0]);
+    }
+}
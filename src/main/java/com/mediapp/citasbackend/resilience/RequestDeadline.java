@@ -0,0 +1,62 @@
+package com.mediapp.citasbackend.resilience;
+
+import com.mediapp.citasbackend.exceptions.DeadlineExceededException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plazo de la petición HTTP en curso. Lo fija {@link DeadlineFilter} y lo consultan el
+ * bulkhead, el interceptor de controladores y el listener JDBC que asigna el timeout de
+ * cada sentencia.
+ */
+public final class RequestDeadline {
+
+    private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+
+    private final long budgetMs;
+    private final long deadlineNanos;
+
+    private RequestDeadline(long budgetMs) {
+        this.budgetMs = budgetMs;
+        this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMs);
+    }
+
+    public static void begin(long budgetMs) {
+        CURRENT.set(new RequestDeadline(budgetMs));
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    public static RequestDeadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Lanza DeadlineExceededException si la petición en curso ya agotó su plazo
+     */
+    public static void checkNotExpired() {
+        RequestDeadline deadline = CURRENT.get();
+        if (deadline != null && deadline.isExpired()) {
+            throw new DeadlineExceededException(
+                    "La petición superó su plazo de " + deadline.budgetMs + " ms");
+        }
+    }
+
+    public long getBudgetMs() {
+        return budgetMs;
+    }
+
+    public long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+
+    public long remainingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(remainingNanos());
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+}
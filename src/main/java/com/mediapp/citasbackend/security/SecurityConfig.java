@@ -39,8 +39,11 @@ public class SecurityConfig {
                     "/v3/api-docs/**",
                     "/swagger-ui/**",
                     "/swagger-ui.html",
-                    "/actuator/**"
+                    "/actuator/health/**",
+                    "/actuator/info"
                 ).permitAll()
+                // Métricas y estadísticas internas solo para administradores
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 // Endpoints protegidos por rol
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
                 .requestMatchers("/api/medicos/**").hasAnyRole("MEDICO", "ADMIN")
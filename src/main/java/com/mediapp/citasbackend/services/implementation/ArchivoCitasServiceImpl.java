@@ -0,0 +1,136 @@
+package com.mediapp.citasbackend.services.implementation;
+
+import com.mediapp.citasbackend.config.ArchivoCitasProperties;
+import com.mediapp.citasbackend.repositories.CitaArchivadaRepository;
+import com.mediapp.citasbackend.repositories.CitaRepository;
+import com.mediapp.citasbackend.services.interfaces.ArchivoCitasService;
+import com.mediapp.citasbackend.services.interfaces.TareaProgramadaService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Mueve las citas cerradas (no PROGRAMADA) más antiguas que edadDias de la tabla citas a
+ * citas_archivo, para que las consultas de citas recientes y futuras no recorran todo el
+ * historial. Cada tramo es una transacción que bloquea las citas, las copia con un
+ * INSERT ... SELECT y las elimina con las mismas condiciones. Las citas con historial médico se
+ * quedan en citas porque historial_medico las referencia con clave foránea. Como el barrido de
+ * inasistencias, solo trabaja la instancia con el arrendamiento y la marca (fecha, id) evita
+ * volver a leer lo ya recorrido.
+ */
+@Slf4j
+@Service
+public class ArchivoCitasServiceImpl implements ArchivoCitasService {
+
+    static final String TAREA = "archivo-citas";
+
+    private static final Marca INICIO = new Marca(LocalDate.of(1970, 1, 1), 0);
+
+    record Marca(LocalDate fecha, Integer idCita) {
+
+        static Marca de(String texto) {
+            String[] partes = texto.split("\\|");
+            return new Marca(LocalDate.parse(partes[0]), Integer.valueOf(partes[1]));
+        }
+
+        String texto() {
+            return fecha + "|" + idCita;
+        }
+    }
+
+    private final CitaRepository citaRepository;
+    private final CitaArchivadaRepository citaArchivadaRepository;
+    private final TareaProgramadaService tareaProgramadaService;
+    private final ArchivoCitasProperties properties;
+    private final TransactionTemplate transaccion;
+    private final Counter archivadas;
+
+    public ArchivoCitasServiceImpl(CitaRepository citaRepository,
+                                   CitaArchivadaRepository citaArchivadaRepository,
+                                   TareaProgramadaService tareaProgramadaService,
+                                   ArchivoCitasProperties properties,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry) {
+        this.citaRepository = citaRepository;
+        this.citaArchivadaRepository = citaArchivadaRepository;
+        this.tareaProgramadaService = tareaProgramadaService;
+        this.properties = properties;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.archivadas = Counter.builder("mediapp.archivo-citas.citas")
+                .description("Citas movidas a la tabla de archivo").register(meterRegistry);
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${mediapp.archivo-citas.intervalo-ms:3600000}",
+            fixedDelayString = "${mediapp.archivo-citas.intervalo-ms:3600000}")
+    public int archivar() {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+        Duration arrendamiento = Duration.ofSeconds(properties.getArrendamientoSegundos());
+        if (!tareaProgramadaService.adquirir(TAREA, arrendamiento)) {
+            return 0;
+        }
+
+        int total = 0;
+        try {
+            Marca marca = tareaProgramadaService.obtenerMarca(TAREA).map(Marca::de).orElse(INICIO);
+            // Un día de margen respecto al límite con que las lecturas deciden consultar el archivo
+            LocalDate corte = LocalDate.now().minusDays(properties.getEdadDias() + 1L);
+            for (int i = 0; i < properties.getMaxTramos(); i++) {
+                List<Object[]> filas = citaRepository.findArchivables(marca.fecha(), marca.idCita(), corte,
+                        PageRequest.of(0, properties.getTamanoTramo()));
+                if (filas.isEmpty()) {
+                    break;
+                }
+                List<Integer> ids = filas.stream().map(f -> (Integer) f[0]).toList();
+                try {
+                    total += transaccion.execute(status -> moverTramo(ids, corte));
+                } catch (DataAccessException | IllegalStateException e) {
+                    // Sin avanzar la marca: el tramo se reintenta en la siguiente ejecución
+                    log.warn("Falló el archivado de un tramo de {} citas: {}", ids.size(), e.getMessage());
+                    break;
+                }
+
+                Object[] ultima = filas.get(filas.size() - 1);
+                marca = new Marca((LocalDate) ultima[1], (Integer) ultima[0]);
+                if (!tareaProgramadaService.guardarMarca(TAREA, marca.texto(), arrendamiento)) {
+                    log.warn("El archivado de citas perdió el arrendamiento; se detiene");
+                    break;
+                }
+                if (filas.size() < properties.getTamanoTramo()) {
+                    break;
+                }
+            }
+        } finally {
+            tareaProgramadaService.liberar(TAREA);
+        }
+        if (total > 0) {
+            log.info("Archivado de citas: {} citas movidas a citas_archivo", total);
+        }
+        return total;
+    }
+
+    private int moverTramo(List<Integer> ids, LocalDate corte) {
+        // El bloqueo impide que una cita del tramo cambie entre la copia y la eliminación
+        citaRepository.bloquearEstados(ids);
+        int copiadas = citaArchivadaRepository.copiarDesdeCitas(ids, corte, LocalDateTime.now());
+        int eliminadas = citaRepository.eliminarArchivadas(ids, corte);
+        if (copiadas != eliminadas) {
+            throw new IllegalStateException("El archivado copió " + copiadas + " citas y eliminó " + eliminadas);
+        }
+        archivadas.increment(eliminadas);
+        return eliminadas;
+    }
+}
@@ -6,6 +6,7 @@ import com.mediapp.citasbackend.dtos.RegisterRequestDTO;
 import com.mediapp.citasbackend.entities.Usuario;
 import com.mediapp.citasbackend.exceptions.InvalidCredentialsException;
 import com.mediapp.citasbackend.exceptions.ResourceAlreadyExistsException;
+import com.mediapp.citasbackend.mappers.UsuarioMapper;
 import com.mediapp.citasbackend.repositories.UsuarioRepository;
 import com.mediapp.citasbackend.security.JwtService;
 import com.mediapp.citasbackend.services.interfaces.AuthService;
@@ -30,6 +31,7 @@ public class AuthServiceImpl implements AuthService {
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
     private final UserDetailsService userDetailsService;
+    private final UsuarioMapper usuarioMapper;
 
     @Override
     @Transactional
@@ -40,21 +42,10 @@ public class AuthServiceImpl implements AuthService {
         }
 
         // Crear nuevo usuario
-        Usuario usuario = Usuario.builder()
-                .nombre(request.getNombre())
-                .apellido(request.getApellido())
-                .email(request.getEmail())
-                .contraseña(passwordEncoder.encode(request.getContraseña()))
-                .fechaNacimiento(request.getFechaNacimiento())
-                .genero(request.getGenero())
-                .telefono(request.getTelefono())
-                .direccion(request.getDireccion())
-                .ciudad(request.getCiudad())
-                .pais(request.getPais())
-                .tipoUsuario(request.getTipoUsuario())
-                .fechaRegistro(LocalDateTime.now())
-                .estado(Usuario.Estado.ACTIVO)
-                .build();
+        Usuario usuario = usuarioMapper.toEntity(request);
+        usuario.setContraseña(passwordEncoder.encode(request.getContraseña()));
+        usuario.setFechaRegistro(LocalDateTime.now());
+        usuario.setEstado(Usuario.Estado.ACTIVO);
 
         Usuario savedUsuario = usuarioRepository.save(usuario);
 
@@ -63,15 +54,7 @@ public class AuthServiceImpl implements AuthService {
         String token = jwtService.generateToken(userDetails);
         String refreshToken = jwtService.generateRefreshToken(userDetails);
 
-        return AuthResponseDTO.builder()
-                .token(token)
-                .refreshToken(refreshToken)
-                .idUsuario(savedUsuario.getIdUsuario())
-                .email(savedUsuario.getEmail())
-                .nombre(savedUsuario.getNombre())
-                .apellido(savedUsuario.getApellido())
-                .tipoUsuario(savedUsuario.getTipoUsuario().name())
-                .build();
+        return usuarioMapper.toAuthResponse(savedUsuario, token, refreshToken);
     }
 
     @Override
@@ -103,15 +86,7 @@ public class AuthServiceImpl implements AuthService {
             String token = jwtService.generateToken(userDetails);
             String refreshToken = jwtService.generateRefreshToken(userDetails);
 
-            return AuthResponseDTO.builder()
-                    .token(token)
-                    .refreshToken(refreshToken)
-                    .idUsuario(usuario.getIdUsuario())
-                    .email(usuario.getEmail())
-                    .nombre(usuario.getNombre())
-                    .apellido(usuario.getApellido())
-                    .tipoUsuario(usuario.getTipoUsuario().name())
-                    .build();
+            return usuarioMapper.toAuthResponse(usuario, token, refreshToken);
 
         } catch (InvalidCredentialsException e) {
             // Re-lanzar excepciones de credenciales (incluyendo cuenta inactiva/bloqueada)
@@ -143,14 +118,6 @@ public class AuthServiceImpl implements AuthService {
         // Generar nuevo token de acceso
         String newToken = jwtService.generateToken(userDetails);
 
-        return AuthResponseDTO.builder()
-                .token(newToken)
-                .refreshToken(refreshToken)
-                .idUsuario(usuario.getIdUsuario())
-                .email(usuario.getEmail())
-                .nombre(usuario.getNombre())
-                .apellido(usuario.getApellido())
-                .tipoUsuario(usuario.getTipoUsuario().name())
-                .build();
+        return usuarioMapper.toAuthResponse(usuario, newToken, refreshToken);
     }
 }
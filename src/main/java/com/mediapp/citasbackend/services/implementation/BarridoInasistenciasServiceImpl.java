@@ -0,0 +1,143 @@
+package com.mediapp.citasbackend.services.implementation;
+
+import com.mediapp.citasbackend.config.BarridoInasistenciasProperties;
+import com.mediapp.citasbackend.dtos.ResultadoTransicionDTO;
+import com.mediapp.citasbackend.dtos.TransicionLoteDTO;
+import com.mediapp.citasbackend.dtos.TransicionLoteRequestDTO;
+import com.mediapp.citasbackend.entities.Cita;
+import com.mediapp.citasbackend.repositories.CitaRepository;
+import com.mediapp.citasbackend.services.interfaces.BarridoInasistenciasService;
+import com.mediapp.citasbackend.services.interfaces.TareaProgramadaService;
+import com.mediapp.citasbackend.services.interfaces.TransicionCitasService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Marca como NO_ASISTIO las citas que siguen PROGRAMADA pasado el periodo de gracia. Recorre
+ * las citas vencidas en orden (fecha, hora, id) por tramos, y guarda tras cada tramo la
+ * última posición procesada: la siguiente ejecución continúa desde ahí en lugar de volver a
+ * leer el índice desde el principio. Solo barre la instancia que tiene el arrendamiento, y
+ * cada ejecución procesa como máximo maxTramos tramos.
+ */
+@Slf4j
+@Service
+public class BarridoInasistenciasServiceImpl implements BarridoInasistenciasService {
+
+    static final String TAREA = "barrido-inasistencias";
+
+    // Posición inicial cuando la tarea nunca avanzó
+    private static final Marca INICIO = new Marca(LocalDate.of(1970, 1, 1), LocalTime.MIN, 0);
+
+    record Marca(LocalDate fecha, LocalTime hora, Integer idCita) {
+
+        static Marca de(String texto) {
+            String[] partes = texto.split("\\|");
+            return new Marca(LocalDate.parse(partes[0]), LocalTime.parse(partes[1]), Integer.valueOf(partes[2]));
+        }
+
+        String texto() {
+            return fecha + "|" + hora + "|" + idCita;
+        }
+    }
+
+    private final CitaRepository citaRepository;
+    private final TransicionCitasService transicionCitasService;
+    private final TareaProgramadaService tareaProgramadaService;
+    private final BarridoInasistenciasProperties properties;
+    private final Counter marcadas;
+    private final Counter tramos;
+    private final MeterRegistry meterRegistry;
+    private final Timer duracion;
+
+    public BarridoInasistenciasServiceImpl(CitaRepository citaRepository,
+                                           TransicionCitasService transicionCitasService,
+                                           TareaProgramadaService tareaProgramadaService,
+                                           BarridoInasistenciasProperties properties,
+                                           MeterRegistry meterRegistry) {
+        this.citaRepository = citaRepository;
+        this.transicionCitasService = transicionCitasService;
+        this.tareaProgramadaService = tareaProgramadaService;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.marcadas = Counter.builder("mediapp.barrido-inasistencias.citas")
+                .description("Citas marcadas como NO_ASISTIO por el barrido").register(meterRegistry);
+        this.tramos = Counter.builder("mediapp.barrido-inasistencias.tramos")
+                .description("Tramos procesados por el barrido").register(meterRegistry);
+        this.duracion = Timer.builder("mediapp.barrido-inasistencias.duracion")
+                .description("Duración de las ejecuciones del barrido").register(meterRegistry);
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${mediapp.barrido-inasistencias.intervalo-ms:300000}",
+            fixedDelayString = "${mediapp.barrido-inasistencias.intervalo-ms:300000}")
+    public int barrer() {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+        Duration arrendamiento = Duration.ofSeconds(properties.getArrendamientoSegundos());
+        if (!tareaProgramadaService.adquirir(TAREA, arrendamiento)) {
+            ejecucion("omitida");
+            return 0;
+        }
+
+        Timer.Sample muestra = Timer.start(meterRegistry);
+        int total = 0;
+        String resultado = "completada";
+        try {
+            Marca marca = tareaProgramadaService.obtenerMarca(TAREA).map(Marca::de).orElse(INICIO);
+            LocalDateTime corte = LocalDateTime.now().minusMinutes(properties.getGraciaMinutos());
+            for (int i = 0; i < properties.getMaxTramos(); i++) {
+                List<Object[]> filas = citaRepository.findProgramadasVencidas(marca.fecha(), marca.hora(), marca.idCita(),
+                        corte.toLocalDate(), corte.toLocalTime(), PageRequest.of(0, properties.getTamanoTramo()));
+                if (filas.isEmpty()) {
+                    break;
+                }
+                List<Integer> ids = filas.stream().map(f -> (Integer) f[0]).toList();
+                TransicionLoteDTO lote = transicionCitasService.cambiarEstado(
+                        TransicionLoteRequestDTO.builder().ids(ids).build(), Cita.Estado.NO_ASISTIO);
+                tramos.increment();
+                marcadas.increment(lote.getActualizadas());
+                total += lote.getActualizadas();
+                if (lote.getResultados().stream().anyMatch(r -> r.getResultado() == ResultadoTransicionDTO.Resultado.ERROR)) {
+                    // Sin avanzar la marca: el tramo se reintenta en la siguiente ejecución
+                    resultado = "interrumpida";
+                    break;
+                }
+
+                Object[] ultima = filas.get(filas.size() - 1);
+                marca = new Marca((LocalDate) ultima[1], (LocalTime) ultima[2], (Integer) ultima[0]);
+                if (!tareaProgramadaService.guardarMarca(TAREA, marca.texto(), arrendamiento)) {
+                    log.warn("El barrido de inasistencias perdió el arrendamiento; se detiene");
+                    resultado = "interrumpida";
+                    break;
+                }
+                if (filas.size() < properties.getTamanoTramo()) {
+                    break;
+                }
+            }
+        } finally {
+            tareaProgramadaService.liberar(TAREA);
+            muestra.stop(duracion);
+        }
+        ejecucion(resultado);
+        if (total > 0) {
+            log.info("Barrido de inasistencias: {} citas marcadas como NO_ASISTIO", total);
+        }
+        return total;
+    }
+
+    private void ejecucion(String resultado) {
+        meterRegistry.counter("mediapp.barrido-inasistencias.ejecuciones", "result", resultado).increment();
+    }
+}
@@ -1,15 +1,32 @@
 package com.mediapp.citasbackend.services.implementation;
 
+import com.mediapp.citasbackend.cache.IndiceDisponibilidadMedicos;
+import com.mediapp.citasbackend.cache.PlantillasHorarioCache;
+import com.mediapp.citasbackend.dtos.HorarioSemanalDTO;
 import com.mediapp.citasbackend.entities.CalendarioDisponibilidad;
+import com.mediapp.citasbackend.entities.Cita;
 import com.mediapp.citasbackend.entities.Medico;
+import com.mediapp.citasbackend.entities.Usuario;
 import com.mediapp.citasbackend.repositories.CalendarioDisponibilidadRepository;
+import com.mediapp.citasbackend.repositories.MedicoRepository;
 import com.mediapp.citasbackend.services.interfaces.CalendarioDisponibilidadService;
+import com.mediapp.citasbackend.services.interfaces.ExcepcionDisponibilidadService;
+import com.mediapp.citasbackend.utils.PlantillaSemanal;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -17,7 +34,22 @@ import java.util.Optional;
 @Transactional
 public class CalendarioDisponibilidadServiceImpl implements CalendarioDisponibilidadService {
 
+    private static final String LEER_BLOQUES = "SELECT id_disponibilidad, dia_semana, hora_inicio, hora_fin, " +
+            "intervalo_cita_minutos, estado FROM calendario_disponibilidad WHERE id_medico = ?";
+    private static final String ACTUALIZAR_BLOQUE = "UPDATE calendario_disponibilidad SET dia_semana = ?, " +
+            "hora_inicio = ?, hora_fin = ?, intervalo_cita_minutos = ?, estado = ? WHERE id_disponibilidad = ?";
+    private static final String INSERTAR_BLOQUE = "INSERT INTO calendario_disponibilidad (id_medico, dia_semana, " +
+            "hora_inicio, hora_fin, intervalo_cita_minutos, estado) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private record Clave(CalendarioDisponibilidad.DiaSemana dia, LocalTime horaInicio) {
+    }
+
     private final CalendarioDisponibilidadRepository calendarioRepository;
+    private final PlantillasHorarioCache plantillasHorarioCache;
+    private final MedicoRepository medicoRepository;
+    private final IndiceDisponibilidadMedicos indiceDisponibilidad;
+    private final JdbcTemplate jdbcTemplate;
+    private final ExcepcionDisponibilidadService excepcionDisponibilidadService;
 
     @Override
     public CalendarioDisponibilidad guardarDisponibilidad(CalendarioDisponibilidad disponibilidad) {
@@ -36,8 +68,10 @@ public class CalendarioDisponibilidadServiceImpl implements CalendarioDisponibil
                 disponibilidad.getDiaSemana() + " que se superpone con el horario especificado"
             );
         }
-        
-        return calendarioRepository.save(disponibilidad);
+
+        CalendarioDisponibilidad guardada = calendarioRepository.save(disponibilidad);
+        registrarCambioDeBloques(guardada.getMedico().getIdMedico());
+        return guardada;
     }
 
     @Override
@@ -67,6 +101,8 @@ public class CalendarioDisponibilidadServiceImpl implements CalendarioDisponibil
             );
         }
 
+        Integer idMedicoAnterior = disponibilidadExistente.getMedico().getIdMedico();
+
         // Actualizar campos
         disponibilidadExistente.setMedico(disponibilidad.getMedico());
         disponibilidadExistente.setDiaSemana(disponibilidad.getDiaSemana());
@@ -75,15 +111,161 @@ public class CalendarioDisponibilidadServiceImpl implements CalendarioDisponibil
         disponibilidadExistente.setIntervaloCitaMinutos(disponibilidad.getIntervaloCitaMinutos());
         disponibilidadExistente.setEstado(disponibilidad.getEstado());
 
-        return calendarioRepository.save(disponibilidadExistente);
+        CalendarioDisponibilidad actualizada = calendarioRepository.save(disponibilidadExistente);
+        // Si el bloque cambia de médico, los horarios de los dos cambian
+        registrarCambioDeBloques(idMedicoAnterior);
+        if (!idMedicoAnterior.equals(actualizada.getMedico().getIdMedico())) {
+            registrarCambioDeBloques(actualizada.getMedico().getIdMedico());
+        }
+        return actualizada;
     }
 
     @Override
     public void eliminarDisponibilidad(Integer id) {
-        if (!calendarioRepository.existsById(id)) {
-            throw new IllegalArgumentException("Disponibilidad no encontrada con ID: " + id);
-        }
+        CalendarioDisponibilidad disponibilidad = calendarioRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Disponibilidad no encontrada con ID: " + id));
         calendarioRepository.deleteById(id);
+        registrarCambioDeBloques(disponibilidad.getMedico().getIdMedico());
+    }
+
+    /**
+     * Reemplaza todos los bloques del médico por los recibidos. Se validan en memoria (cruces con
+     * un barrido por día y hora de inicio) y se comparan con los existentes: un bloque con ID, o
+     * sin ID pero con el mismo día y hora de inicio que uno existente, lo actualiza si cambió; el
+     * resto se inserta y los existentes sin pareja se eliminan. Las escrituras van por lotes JDBC
+     * (la clave IDENTITY impide que Hibernate agrupe los inserts), así que una semana completa
+     * cuesta un DELETE, un lote de UPDATE y uno de INSERT en una sola transacción.
+     */
+    @Override
+    public HorarioSemanalDTO reemplazarHorarioSemanal(Integer idMedico, List<CalendarioDisponibilidad> bloques) {
+        if (idMedico == null) {
+            throw new IllegalArgumentException("El ID del médico no puede ser nulo");
+        }
+        if (bloques == null) {
+            throw new IllegalArgumentException("El horario semanal no puede ser nulo");
+        }
+        Medico medico = medicoRepository.findById(idMedico)
+                .orElseThrow(() -> new IllegalArgumentException("Médico no encontrado con ID: " + idMedico));
+        for (CalendarioDisponibilidad bloque : bloques) {
+            if (bloque != null) {
+                bloque.setMedico(medico);
+            }
+            validarDisponibilidad(bloque);
+            validarHorario(bloque.getHoraInicio(), bloque.getHoraFin());
+            if (bloque.getEstado() == null) {
+                bloque.setEstado(CalendarioDisponibilidad.Estado.ACTIVO);
+            }
+        }
+        validarSinCruces(bloques);
+
+        Map<Integer, CalendarioDisponibilidad> existentes = new LinkedHashMap<>();
+        for (CalendarioDisponibilidad existente : jdbcTemplate.query(LEER_BLOQUES, (rs, fila) -> {
+            CalendarioDisponibilidad leida = new CalendarioDisponibilidad();
+            leida.setIdDisponibilidad(rs.getInt(1));
+            leida.setDiaSemana(CalendarioDisponibilidad.DiaSemana.valueOf(rs.getString(2)));
+            leida.setHoraInicio(rs.getObject(3, LocalTime.class));
+            leida.setHoraFin(rs.getObject(4, LocalTime.class));
+            leida.setIntervaloCitaMinutos(rs.getInt(5));
+            leida.setEstado(CalendarioDisponibilidad.Estado.valueOf(rs.getString(6)));
+            return leida;
+        }, idMedico)) {
+            existentes.put(existente.getIdDisponibilidad(), existente);
+        }
+
+        List<CalendarioDisponibilidad> nuevos = new ArrayList<>();
+        List<Object[]> actualizaciones = new ArrayList<>();
+        List<CalendarioDisponibilidad> sinId = new ArrayList<>();
+        int sinCambios = 0;
+        for (CalendarioDisponibilidad bloque : bloques) {
+            if (bloque.getIdDisponibilidad() == null) {
+                sinId.add(bloque);
+                continue;
+            }
+            // Un ID ajeno o repetido ya no está en existentes
+            CalendarioDisponibilidad existente = existentes.remove(bloque.getIdDisponibilidad());
+            if (existente == null) {
+                throw new IllegalArgumentException("La disponibilidad con ID " + bloque.getIdDisponibilidad() +
+                        " no pertenece al médico " + idMedico + " o está repetida");
+            }
+            if (mismoBloque(existente, bloque)) {
+                sinCambios++;
+            } else {
+                actualizaciones.add(filaActualizacion(bloque, existente.getIdDisponibilidad()));
+            }
+        }
+        Map<Clave, CalendarioDisponibilidad> porInicio = new HashMap<>();
+        for (CalendarioDisponibilidad existente : existentes.values()) {
+            porInicio.putIfAbsent(new Clave(existente.getDiaSemana(), existente.getHoraInicio()), existente);
+        }
+        for (CalendarioDisponibilidad bloque : sinId) {
+            CalendarioDisponibilidad existente = porInicio.remove(new Clave(bloque.getDiaSemana(), bloque.getHoraInicio()));
+            if (existente == null) {
+                nuevos.add(bloque);
+                continue;
+            }
+            existentes.remove(existente.getIdDisponibilidad());
+            if (mismoBloque(existente, bloque)) {
+                sinCambios++;
+            } else {
+                actualizaciones.add(filaActualizacion(bloque, existente.getIdDisponibilidad()));
+            }
+        }
+        List<Integer> eliminados = new ArrayList<>(existentes.keySet());
+
+        if (!eliminados.isEmpty()) {
+            jdbcTemplate.update("DELETE FROM calendario_disponibilidad WHERE id_disponibilidad IN (" +
+                    String.join(", ", Collections.nCopies(eliminados.size(), "?")) + ")", eliminados.toArray());
+        }
+        if (!actualizaciones.isEmpty()) {
+            jdbcTemplate.batchUpdate(ACTUALIZAR_BLOQUE, actualizaciones);
+        }
+        if (!nuevos.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERTAR_BLOQUE, nuevos.stream()
+                    .map(b -> new Object[]{idMedico, b.getDiaSemana().name(), b.getHoraInicio(), b.getHoraFin(),
+                            b.getIntervaloCitaMinutos(), b.getEstado().name()})
+                    .toList());
+        }
+        if (!eliminados.isEmpty() || !actualizaciones.isEmpty() || !nuevos.isEmpty()) {
+            registrarCambioDeBloques(idMedico);
+        }
+
+        return HorarioSemanalDTO.builder()
+                .insertados(nuevos.size())
+                .actualizados(actualizaciones.size())
+                .eliminados(eliminados.size())
+                .sinCambios(sinCambios)
+                .bloques(calendarioRepository.findByMedicoOrdenadas(idMedico))
+                .build();
+    }
+
+    // Ordenados por día y hora de inicio, cada bloque solo puede cruzarse con el anterior del mismo día
+    private static void validarSinCruces(List<CalendarioDisponibilidad> bloques) {
+        List<CalendarioDisponibilidad> ordenados = bloques.stream()
+                .sorted(Comparator.comparing(CalendarioDisponibilidad::getDiaSemana)
+                        .thenComparing(CalendarioDisponibilidad::getHoraInicio))
+                .toList();
+        for (int i = 1; i < ordenados.size(); i++) {
+            CalendarioDisponibilidad anterior = ordenados.get(i - 1);
+            CalendarioDisponibilidad bloque = ordenados.get(i);
+            if (anterior.getDiaSemana() == bloque.getDiaSemana() && bloque.getHoraInicio().isBefore(anterior.getHoraFin())) {
+                throw new IllegalArgumentException("Los bloques del día " + bloque.getDiaSemana() + " " +
+                        anterior.getHoraInicio() + "-" + anterior.getHoraFin() + " y " +
+                        bloque.getHoraInicio() + "-" + bloque.getHoraFin() + " se superponen");
+            }
+        }
+    }
+
+    private static boolean mismoBloque(CalendarioDisponibilidad existente, CalendarioDisponibilidad bloque) {
+        return existente.getDiaSemana() == bloque.getDiaSemana()
+                && existente.getHoraInicio().equals(bloque.getHoraInicio())
+                && existente.getHoraFin().equals(bloque.getHoraFin())
+                && Objects.equals(existente.getIntervaloCitaMinutos(), bloque.getIntervaloCitaMinutos())
+                && existente.getEstado() == bloque.getEstado();
+    }
+
+    private static Object[] filaActualizacion(CalendarioDisponibilidad bloque, Integer idDisponibilidad) {
+        return new Object[]{bloque.getDiaSemana().name(), bloque.getHoraInicio(), bloque.getHoraFin(),
+                bloque.getIntervaloCitaMinutos(), bloque.getEstado().name(), idDisponibilidad};
     }
 
     @Override
@@ -187,7 +369,24 @@ public class CalendarioDisponibilidadServiceImpl implements CalendarioDisponibil
         if (horaInicio == null || horaFin == null) {
             throw new IllegalArgumentException("Las horas de inicio y fin no pueden ser nulas");
         }
-        return calendarioRepository.findDisponibilidadesConflicto(idMedico, dia, horaInicio, horaFin);
+
+        // Ordenados por hora de inicio, como en validarSinCruces, el recorrido termina en el primer bloque
+        // que empieza después del rango; un bloque que termina cuando empieza otro no se cruza con él
+        List<CalendarioDisponibilidad> conflictos = new ArrayList<>();
+        for (CalendarioDisponibilidad bloque
+                : calendarioRepository.findAllByMedico_IdMedicoAndDiaSemanaOrderByHoraInicio(idMedico, dia)) {
+            if (!bloque.getHoraInicio().isBefore(horaFin)) {
+                break;
+            }
+            if (bloque.getHoraInicio().isBefore(bloque.getHoraFin()) && bloque.getHoraFin().isAfter(horaInicio)) {
+                conflictos.add(bloque);
+            }
+        }
+        return conflictos;
+    }
+
+    private static int minutos(LocalTime hora) {
+        return hora.toSecondOfDay() / 60;
     }
 
     @Override
@@ -232,7 +431,11 @@ public class CalendarioDisponibilidadServiceImpl implements CalendarioDisponibil
         if (dia == null) {
             throw new IllegalArgumentException("El día de la semana no puede ser nulo");
         }
-        return calendarioRepository.findMedicosDisponiblesEnDia(dia);
+        if (!indiceDisponibilidad.isEnabled()) {
+            return calendarioRepository.findMedicosDisponiblesEnDia(dia);
+        }
+        return medicosPorId(indiceDisponibilidad.disponiblesEnDia(dia,
+                IndiceDisponibilidadMedicos.Filtro.NINGUNO, this::cargaIndice));
     }
 
     @Override
@@ -246,7 +449,46 @@ public class CalendarioDisponibilidadServiceImpl implements CalendarioDisponibil
         if (hora == null) {
             throw new IllegalArgumentException("La hora no puede ser nula");
         }
-        return calendarioRepository.findMedicosDisponiblesEnDiaYHora(dia, hora);
+        if (!indiceDisponibilidad.isEnabled()) {
+            return calendarioRepository.findMedicosDisponiblesEnDiaYHora(dia, hora);
+        }
+        return medicosPorId(indiceDisponibilidad.disponiblesEnDiaYHora(dia, hora,
+                IndiceDisponibilidadMedicos.Filtro.NINGUNO, this::cargaIndice));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Medico> obtenerMedicosDisponibles(
+            CalendarioDisponibilidad.DiaSemana dia,
+            LocalTime hora,
+            Integer idEspecialidad,
+            String ciudad,
+            boolean soloVerificados) {
+        if (dia == null) {
+            throw new IllegalArgumentException("El día de la semana no puede ser nulo");
+        }
+        String ciudadFiltro = ciudad == null || ciudad.isBlank() ? null : ciudad;
+        if (!indiceDisponibilidad.isEnabled()) {
+            List<Medico> disponibles = hora == null
+                    ? calendarioRepository.findMedicosDisponiblesEnDia(dia)
+                    : calendarioRepository.findMedicosDisponiblesEnDiaYHora(dia, hora);
+            return disponibles.stream()
+                    .filter(m -> idEspecialidad == null || (m.getEspecialidad() != null
+                            && idEspecialidad.equals(m.getEspecialidad().getIdEspecialidad())))
+                    .filter(m -> ciudadFiltro == null || (m.getUsuario() != null && m.getUsuario().getCiudad() != null
+                            && m.getUsuario().getCiudad().strip().equalsIgnoreCase(ciudadFiltro.strip())))
+                    .filter(m -> !soloVerificados || m.getEstadoVerificacion() == Medico.EstadoVerificacion.VERIFICADO)
+                    .filter(m -> m.getUsuario() != null && m.getUsuario().getEstado() == Usuario.Estado.ACTIVO)
+                    .sorted(Comparator.comparing(Medico::getIdMedico))
+                    .toList();
+        }
+        // Solo médicos con usuario activo: la búsqueda es para pacientes que quieren agendar
+        IndiceDisponibilidadMedicos.Filtro filtro =
+                new IndiceDisponibilidadMedicos.Filtro(idEspecialidad, ciudadFiltro, soloVerificados, true);
+        List<Integer> ids = hora == null
+                ? indiceDisponibilidad.disponiblesEnDia(dia, filtro, this::cargaIndice)
+                : indiceDisponibilidad.disponiblesEnDiaYHora(dia, hora, filtro, this::cargaIndice);
+        return medicosPorId(ids);
     }
 
     @Override
@@ -264,6 +506,7 @@ public class CalendarioDisponibilidadServiceImpl implements CalendarioDisponibil
             throw new IllegalArgumentException("El ID del médico no puede ser nulo");
         }
         calendarioRepository.deleteByMedico_IdMedico(idMedico);
+        registrarCambioDeBloques(idMedico);
     }
 
     @Override
@@ -289,7 +532,9 @@ public class CalendarioDisponibilidadServiceImpl implements CalendarioDisponibil
         CalendarioDisponibilidad disponibilidad = calendarioRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Disponibilidad no encontrada con ID: " + id));
         disponibilidad.setEstado(CalendarioDisponibilidad.Estado.ACTIVO);
-        return calendarioRepository.save(disponibilidad);
+        CalendarioDisponibilidad guardada = calendarioRepository.save(disponibilidad);
+        registrarCambioDeBloques(guardada.getMedico().getIdMedico());
+        return guardada;
     }
 
     @Override
@@ -297,7 +542,75 @@ public class CalendarioDisponibilidadServiceImpl implements CalendarioDisponibil
         CalendarioDisponibilidad disponibilidad = calendarioRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Disponibilidad no encontrada con ID: " + id));
         disponibilidad.setEstado(CalendarioDisponibilidad.Estado.INACTIVO);
-        return calendarioRepository.save(disponibilidad);
+        CalendarioDisponibilidad guardada = calendarioRepository.save(disponibilidad);
+        registrarCambioDeBloques(guardada.getMedico().getIdMedico());
+        return guardada;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int duracionDeCita(Integer idMedico, LocalDate fecha, LocalTime hora) {
+        // Intervalo del bloque que contiene la hora, o del primero del día si ninguno la contiene;
+        // un horario especial en esa fecha manda sobre la semana
+        int duracion = excepcionDisponibilidadService.obtenerExcepcionesPorFecha(idMedico).duracion(fecha, minutos(hora));
+        if (duracion <= 0) {
+            duracion = obtenerPlantillaSemanal(idMedico).duracion(fecha.getDayOfWeek(), minutos(hora));
+        }
+        return duracion > 0 ? duracion : Cita.DURACION_PREDETERMINADA_MINUTOS;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PlantillaSemanal obtenerPlantillaSemanal(Integer idMedico) {
+        if (idMedico == null) {
+            throw new IllegalArgumentException("El ID del médico no puede ser nulo");
+        }
+        return plantillasHorarioCache.obtener(idMedico,
+                () -> calendarioRepository.findDisponibilidadesActivasByMedico(idMedico));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PlantillaSemanal.Cursor obtenerHorarios(Integer idMedico, LocalDate desde, LocalDate hasta) {
+        if (desde == null || hasta == null) {
+            throw new IllegalArgumentException("Las fechas no pueden ser nulas");
+        }
+        // Las excepciones se aplican al expandir: ni la plantilla ni los bloques de la semana cambian
+        return obtenerPlantillaSemanal(idMedico)
+                .horarios(desde, hasta, excepcionDisponibilidadService.obtenerExcepcionesPorFecha(idMedico));
+    }
+
+    // Invalida la plantilla del médico y rehace sus bloques en el índice, ambos al confirmar
+    private void registrarCambioDeBloques(Integer idMedico) {
+        plantillasHorarioCache.registrarCambio(idMedico);
+        if (indiceDisponibilidad.isEnabled()) {
+            List<IndiceDisponibilidadMedicos.Bloque> bloques = calendarioRepository.findDisponibilidadesActivasByMedico(idMedico)
+                    .stream()
+                    .map(d -> new IndiceDisponibilidadMedicos.Bloque(idMedico, d.getDiaSemana(), d.getHoraInicio(), d.getHoraFin()))
+                    .toList();
+            indiceDisponibilidad.registrarBloques(idMedico, bloques);
+        }
+    }
+
+    private IndiceDisponibilidadMedicos.Carga cargaIndice() {
+        List<IndiceDisponibilidadMedicos.Bloque> bloques = calendarioRepository.findBloquesActivosIndice().stream()
+                .map(fila -> new IndiceDisponibilidadMedicos.Bloque((Integer) fila[0],
+                        (CalendarioDisponibilidad.DiaSemana) fila[1], (LocalTime) fila[2], (LocalTime) fila[3]))
+                .toList();
+        List<IndiceDisponibilidadMedicos.Atributos> medicos = medicoRepository.findAtributosIndice().stream()
+                .map(IndiceDisponibilidadMedicos.Atributos::de)
+                .toList();
+        return new IndiceDisponibilidadMedicos.Carga(bloques, medicos);
+    }
+
+    // Médicos de los IDs del índice, en el mismo orden ascendente
+    private List<Medico> medicosPorId(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return medicoRepository.findAllById(ids).stream()
+                .sorted(Comparator.comparing(Medico::getIdMedico))
+                .toList();
     }
 
     @Override
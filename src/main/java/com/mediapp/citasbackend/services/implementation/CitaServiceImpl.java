@@ -1,45 +1,99 @@
 package com.mediapp.citasbackend.services.implementation;
 
+import com.mediapp.citasbackend.cache.AgendaCache;
+import com.mediapp.citasbackend.dtos.AgendaCitaDTO;
+import com.mediapp.citasbackend.dtos.AgendaDiaDTO;
+import com.mediapp.citasbackend.dtos.FiltroCitasDTO;
+import com.mediapp.citasbackend.dtos.HorarioLibreDTO;
+import com.mediapp.citasbackend.dtos.PaginaCitasDTO;
 import com.mediapp.citasbackend.entities.Cita;
+import com.mediapp.citasbackend.entities.ContadorCita;
 import com.mediapp.citasbackend.entities.Medico;
 import com.mediapp.citasbackend.entities.Paciente;
+import com.mediapp.citasbackend.entities.ReservaTemporal;
+import com.mediapp.citasbackend.events.CitasCambiaronEstadoEvent;
 import com.mediapp.citasbackend.exceptions.BusinessRuleException;
 import com.mediapp.citasbackend.exceptions.InvalidDataException;
 import com.mediapp.citasbackend.exceptions.ResourceNotFoundException;
 import com.mediapp.citasbackend.repositories.CitaRepository;
+import com.mediapp.citasbackend.services.interfaces.CalendarioDisponibilidadService;
 import com.mediapp.citasbackend.services.interfaces.CitaService;
+import com.mediapp.citasbackend.services.interfaces.ContadorCitasService;
+import com.mediapp.citasbackend.services.interfaces.ContadorCitasService.Huella;
+import com.mediapp.citasbackend.services.interfaces.ReservaTemporalService;
+import com.mediapp.citasbackend.utils.CursorCitas;
+import com.mediapp.citasbackend.utils.PlantillaSemanal;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class CitaServiceImpl implements CitaService {
 
+    // Tamaño de página de la búsqueda de citas
+    private static final int LIMITE_BUSQUEDA_PREDETERMINADO = 50;
+    private static final int LIMITE_BUSQUEDA_MAXIMO = 200;
+    // Días máximos del rango de la consulta de horarios libres
+    private static final int MAX_DIAS_HORARIOS_LIBRES = 31;
+
     private final CitaRepository citaRepository;
+    private final AgendaCache agendaCache;
+    private final ContadorCitasService contadorCitasService;
+    private final CalendarioDisponibilidadService calendarioDisponibilidadService;
+    private final ReservaTemporalService reservaTemporalService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public Cita guardarCita(Cita cita) {
+        return guardarCita(cita, null);
+    }
+
+    @Override
+    public Cita guardarCita(Cita cita, String tokenReserva) {
         validarCita(cita);
         validarFechaCita(cita.getFechaCita(), cita.getHoraCita());
-        
-        // Verificar que el médico esté disponible en esa fecha y hora
-        if (!medicoDisponibleEnFechaHora(
-                cita.getMedico().getIdMedico(),
-                cita.getFechaCita(),
-                cita.getHoraCita()
-        )) {
+
+        // La reserva del paciente se elimina en esta misma transacción: o se convierte en la cita o sigue vigente
+        if (tokenReserva != null) {
+            ReservaTemporal reserva = reservaTemporalService.consumir(tokenReserva, cita);
+            if (cita.getDuracionMinutos() == null) {
+                cita.setDuracionMinutos(reserva.getDuracionMinutos());
+            }
+        }
+
+        if (cita.getDuracionMinutos() == null) {
+            cita.setDuracionMinutos(calendarioDisponibilidadService.duracionDeCita(
+                    cita.getMedico().getIdMedico(), cita.getFechaCita(), cita.getHoraCita()));
+        }
+
+        // Verificar que el médico no tenga otra cita que se cruce con este horario; el día queda
+        // bloqueado hasta confirmar, así que otra transacción no puede agendar en él a la vez
+        if (citaQueSeCruza(bloquearDia(cita), cita.getHoraCita(), cita.getDuracionMinutos(), null).isPresent()) {
             throw new BusinessRuleException("El médico ya tiene una cita programada en esa fecha y hora");
         }
-        
-        return citaRepository.save(cita);
+
+        // Ni una reserva temporal de otro paciente
+        if (reservaTemporalService.haySolapamiento(cita.getMedico().getIdMedico(), cita.getFechaCita(),
+                cita.getHoraCita(), cita.getDuracionMinutos(), tokenReserva)) {
+            throw new BusinessRuleException("El horario está reservado temporalmente por otro paciente");
+        }
+
+        Cita guardada = citaRepository.save(cita);
+        contadorCitasService.registrarCambio(null, Huella.de(guardada));
+        agendaCache.registrarCambio(guardada);
+        return guardada;
     }
 
     @Override
@@ -55,38 +109,45 @@ public class CitaServiceImpl implements CitaService {
                                !citaExistente.getHoraCita().equals(cita.getHoraCita()) ||
                                !citaExistente.getMedico().getIdMedico().equals(cita.getMedico().getIdMedico());
 
-        if (cambioHorario) {
-            Optional<Cita> citaConflicto = verificarDisponibilidadMedicoFechaHora(
-                    cita.getMedico().getIdMedico(),
-                    cita.getFechaCita(),
-                    cita.getHoraCita()
-            );
+        if (cita.getDuracionMinutos() == null) {
+            cita.setDuracionMinutos(cambioHorario || citaExistente.getDuracionMinutos() == null
+                    ? calendarioDisponibilidadService.duracionDeCita(
+                            cita.getMedico().getIdMedico(), cita.getFechaCita(), cita.getHoraCita())
+                    : citaExistente.getDuracionMinutos());
+        }
 
-            // Verificar que el conflicto no sea con la misma cita que estamos actualizando
-            if (citaConflicto.isPresent() && !citaConflicto.get().getIdCita().equals(id)) {
-                throw new BusinessRuleException("El médico ya tiene una cita programada en esa fecha y hora");
-            }
+        // El conflicto con la misma cita que estamos actualizando no cuenta
+        if ((cambioHorario || !cita.getDuracionMinutos().equals(citaExistente.getDuracionMinutos()))
+                && citaQueSeCruza(bloquearDia(cita), cita.getHoraCita(), cita.getDuracionMinutos(), id).isPresent()) {
+            throw new BusinessRuleException("El médico ya tiene una cita programada en esa fecha y hora");
         }
 
+        Huella antes = Huella.de(citaExistente);
+
         // Actualizar campos
         citaExistente.setPaciente(cita.getPaciente());
         citaExistente.setMedico(cita.getMedico());
         citaExistente.setFechaCita(cita.getFechaCita());
         citaExistente.setHoraCita(cita.getHoraCita());
+        citaExistente.setDuracionMinutos(cita.getDuracionMinutos());
         citaExistente.setTipoCita(cita.getTipoCita());
         citaExistente.setMotivoConsulta(cita.getMotivoConsulta());
         citaExistente.setEstado(cita.getEstado());
         citaExistente.setEnlaceVideollamada(cita.getEnlaceVideollamada());
 
-        return citaRepository.save(citaExistente);
+        Cita actualizada = citaRepository.save(citaExistente);
+        contadorCitasService.registrarCambio(antes, Huella.de(actualizada));
+        agendaCache.registrarCambio(actualizada);
+        return actualizada;
     }
 
     @Override
     public void eliminarCita(Integer id) {
-        if (!citaRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Cita", "ID", id);
-        }
+        Cita cita = citaRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Cita", "ID", id));
         citaRepository.deleteById(id);
+        contadorCitasService.registrarCambio(Huella.de(cita), null);
+        agendaCache.registrarEliminacion(id);
     }
 
     @Override
@@ -209,6 +270,18 @@ public class CitaServiceImpl implements CitaService {
         return citaRepository.findCitasByMedicoAndFecha(idMedico, fecha);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public AgendaDiaDTO obtenerAgendaDelDia(Integer idMedico, LocalDate fecha) {
+        if (idMedico == null) {
+            throw new InvalidDataException("El ID del médico no puede ser nulo");
+        }
+        if (fecha == null) {
+            throw new InvalidDataException("La fecha no puede ser nula");
+        }
+        return agendaCache.obtener(idMedico, fecha, cargadorAgenda(idMedico, fecha));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Cita> obtenerCitasPorPacienteYFecha(Integer idPaciente, LocalDate fecha) {
@@ -275,14 +348,92 @@ public class CitaServiceImpl implements CitaService {
         if (hora == null) {
             throw new InvalidDataException("La hora no puede ser nula");
         }
-        return citaRepository.findCitaByMedicoFechaHora(idMedico, fecha, hora);
+        // Se consulta la base de datos: la agenda en caché no ve lo agendado en otra instancia
+        int duracion = calendarioDisponibilidadService.duracionDeCita(idMedico, fecha, hora);
+        return citaQueSeCruza(citaRepository.findOcupacionByMedicoEnRango(idMedico, fecha, fecha), hora, duracion, null)
+                .flatMap(citaRepository::findById);
     }
 
     @Override
     @Transactional(readOnly = true)
     public boolean medicoDisponibleEnFechaHora(Integer idMedico, LocalDate fecha, LocalTime hora) {
         Optional<Cita> cita = verificarDisponibilidadMedicoFechaHora(idMedico, fecha, hora);
-        return cita.isEmpty();
+        // Un horario reservado temporalmente tampoco está disponible
+        return cita.isEmpty() && !reservaTemporalService.estaReservado(
+                idMedico, fecha, hora, calendarioDisponibilidadService.duracionDeCita(idMedico, fecha, hora), null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<HorarioLibreDTO> obtenerHorariosLibres(Integer idMedico, LocalDate desde, LocalDate hasta) {
+        if (idMedico == null) {
+            throw new InvalidDataException("El ID del médico no puede ser nulo");
+        }
+        if (desde == null || hasta == null) {
+            throw new InvalidDataException("Las fechas no pueden ser nulas");
+        }
+        if (desde.isAfter(hasta)) {
+            throw new InvalidDataException("La fecha inicial no puede ser posterior a la final");
+        }
+        if (ChronoUnit.DAYS.between(desde, hasta) >= MAX_DIAS_HORARIOS_LIBRES) {
+            throw new InvalidDataException("El rango no puede superar " + MAX_DIAS_HORARIOS_LIBRES + " días");
+        }
+
+        // Los horarios que ya empezaron no se ofrecen
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDate hoy = ahora.toLocalDate();
+        int minutoActual = ahora.getHour() * 60 + ahora.getMinute();
+
+        PlantillaSemanal.Cursor horarios = calendarioDisponibilidadService.obtenerHorarios(
+                idMedico, desde.isBefore(hoy) ? hoy : desde, hasta);
+        List<HorarioLibreDTO> libres = new ArrayList<>();
+        LocalDate fechaAgenda = null;
+        List<AgendaCitaDTO> ocupadas = List.of();
+        int primera = 0;
+        while (horarios.siguiente()) {
+            LocalDate fecha = horarios.fecha();
+            if (!fecha.equals(fechaAgenda)) {
+                // Una carga de agenda por día con horarios, no por horario
+                fechaAgenda = fecha;
+                ocupadas = agendaCache.obtener(idMedico, fecha, cargadorAgenda(idMedico, fecha)).getCitas().stream()
+                        .filter(c -> !Cita.Estado.CANCELADA.name().equals(c.getEstado()))
+                        .toList();
+                primera = 0;
+            }
+            int inicio = horarios.minuto();
+            if (fecha.equals(hoy) && inicio <= minutoActual) {
+                continue;
+            }
+            int fin = inicio + horarios.duracion();
+            // Citas y horarios van en orden de hora: las que terminaron antes de este horario no ocupan los siguientes
+            while (primera < ocupadas.size() && finDe(ocupadas.get(primera)) <= inicio) {
+                primera++;
+            }
+            boolean ocupado = false;
+            for (int i = primera; i < ocupadas.size() && inicioDe(ocupadas.get(i)) < fin && !ocupado; i++) {
+                ocupado = finDe(ocupadas.get(i)) > inicio;
+            }
+            if (ocupado) {
+                continue;
+            }
+            LocalTime hora = horarios.hora();
+            if (!reservaTemporalService.estaReservado(idMedico, fecha, hora, horarios.duracion(), null)) {
+                libres.add(HorarioLibreDTO.builder()
+                        .fecha(fecha)
+                        .hora(hora)
+                        .duracionMinutos(horarios.duracion())
+                        .build());
+            }
+        }
+        return libres;
+    }
+
+    private static int inicioDe(AgendaCitaDTO cita) {
+        return cita.getHoraCita().toSecondOfDay() / 60;
+    }
+
+    private static int finDe(AgendaCitaDTO cita) {
+        return inicioDe(cita) + Math.max(cita.getDuracionMinutos(), 1);
     }
 
     @Override
@@ -321,6 +472,31 @@ public class CitaServiceImpl implements CitaService {
         return citaRepository.findProximasCitasByMedico(idMedico, LocalDate.now());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaCitasDTO buscarCitas(FiltroCitasDTO filtro, String cursor, Integer limite) {
+        if (filtro.getFechaDesde() != null && filtro.getFechaHasta() != null
+                && filtro.getFechaDesde().isAfter(filtro.getFechaHasta())) {
+            throw new InvalidDataException("La fecha de inicio debe ser anterior o igual a la fecha de fin");
+        }
+        int tamano = limite != null ? limite : LIMITE_BUSQUEDA_PREDETERMINADO;
+        if (tamano < 1 || tamano > LIMITE_BUSQUEDA_MAXIMO) {
+            throw new InvalidDataException("El límite debe estar entre 1 y " + LIMITE_BUSQUEDA_MAXIMO);
+        }
+        CursorCitas despuesDe = cursor != null ? CursorCitas.decodificar(cursor) : null;
+
+        // Se pide una cita de más para saber si hay página siguiente
+        List<Cita> citas = citaRepository.buscar(filtro, despuesDe, tamano + 1);
+        if (citas.size() <= tamano) {
+            return PaginaCitasDTO.builder().citas(citas).build();
+        }
+        List<Cita> pagina = citas.subList(0, tamano);
+        return PaginaCitasDTO.builder()
+                .citas(pagina)
+                .siguienteCursor(CursorCitas.deCita(pagina.get(tamano - 1)).codificar())
+                .build();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Cita> obtenerHistorialCitasPorPaciente(Integer idPaciente) {
@@ -345,7 +521,7 @@ public class CitaServiceImpl implements CitaService {
         if (estado == null) {
             throw new InvalidDataException("El estado no puede ser nulo");
         }
-        return citaRepository.contarCitasPorEstado(estado);
+        return contadorCitasService.contar(ContadorCita.Ambito.GLOBAL, null, estado);
     }
 
     @Override
@@ -357,7 +533,7 @@ public class CitaServiceImpl implements CitaService {
         if (estado == null) {
             throw new InvalidDataException("El estado no puede ser nulo");
         }
-        return citaRepository.contarCitasByMedicoAndEstado(idMedico, estado);
+        return contadorCitasService.contar(ContadorCita.Ambito.MEDICO, idMedico, estado);
     }
 
     @Override
@@ -369,7 +545,7 @@ public class CitaServiceImpl implements CitaService {
         if (estado == null) {
             throw new InvalidDataException("El estado no puede ser nulo");
         }
-        return citaRepository.contarCitasByPacienteAndEstado(idPaciente, estado);
+        return contadorCitasService.contar(ContadorCita.Ambito.PACIENTE, idPaciente, estado);
     }
 
     @Override
@@ -435,8 +611,9 @@ public class CitaServiceImpl implements CitaService {
             throw new InvalidDataException("No se puede completar una cita cancelada");
         }
         
+        Huella antes = Huella.de(cita);
         cita.setEstado(Cita.Estado.COMPLETADA);
-        return citaRepository.save(cita);
+        return registrarCambio(antes, citaRepository.save(cita));
     }
 
     @Override
@@ -448,9 +625,14 @@ public class CitaServiceImpl implements CitaService {
             throw new InvalidDataException("No se puede cancelar una cita completada");
         }
         
+        Huella antes = Huella.de(cita);
         cita.setEstado(Cita.Estado.CANCELADA);
         cita.setFechaCancelacion(LocalDateTime.now());
-        return citaRepository.save(cita);
+        Cita cancelada = registrarCambio(antes, citaRepository.save(cita));
+        // La lista de espera ofrece el horario cuando confirma la transacción
+        eventPublisher.publishEvent(new CitasCambiaronEstadoEvent(
+                Cita.Estado.CANCELADA, List.of(cancelada.getIdCita()), cancelada.getFechaCancelacion()));
+        return cancelada;
     }
 
     @Override
@@ -466,8 +648,46 @@ public class CitaServiceImpl implements CitaService {
             throw new InvalidDataException("No se puede marcar como no asistió una cita completada");
         }
         
+        Huella antes = Huella.de(cita);
         cita.setEstado(Cita.Estado.NO_ASISTIO);
-        return citaRepository.save(cita);
+        return registrarCambio(antes, citaRepository.save(cita));
+    }
+
+    // Ocupación del día de la cita leída de la base de datos con el día bloqueado hasta el fin de la transacción
+    private List<Object[]> bloquearDia(Cita cita) {
+        return citaRepository.bloquearOcupacionDelDia(cita.getMedico().getIdMedico(), cita.getFechaCita());
+    }
+
+    /**
+     * ID de la primera cita de la ocupación [idCita, fecha, hora, duración], ordenada por hora,
+     * que se cruza con [hora, hora + duración), sin contar la cita excluida
+     */
+    static Optional<Integer> citaQueSeCruza(List<Object[]> ocupacion, LocalTime hora, int duracionMinutos,
+                                                    Integer idExcluida) {
+        int inicio = hora.toSecondOfDay() / 60;
+        int fin = inicio + Math.max(duracionMinutos, 1);
+        for (Object[] fila : ocupacion) {
+            int inicioCita = ((LocalTime) fila[2]).toSecondOfDay() / 60;
+            if (inicioCita >= fin) {
+                break;
+            }
+            Integer duracion = (Integer) fila[3];
+            int finCita = inicioCita + Math.max(duracion != null ? duracion : Cita.DURACION_PREDETERMINADA_MINUTOS, 1);
+            if (inicio < finCita && !fila[0].equals(idExcluida)) {
+                return Optional.of((Integer) fila[0]);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Supplier<List<Cita>> cargadorAgenda(Integer idMedico, LocalDate fecha) {
+        return () -> citaRepository.findCitasByMedicoAndFecha(idMedico, fecha);
+    }
+
+    private Cita registrarCambio(Huella antes, Cita cita) {
+        contadorCitasService.registrarCambio(antes, Huella.de(cita));
+        agendaCache.registrarCambio(cita);
+        return cita;
     }
 
     @Override
@@ -496,6 +716,10 @@ public class CitaServiceImpl implements CitaService {
             throw new InvalidDataException("El tipo de cita es obligatorio");
         }
 
+        if (cita.getDuracionMinutos() != null && (cita.getDuracionMinutos() < 5 || cita.getDuracionMinutos() > 240)) {
+            throw new InvalidDataException("La duración de la cita debe estar entre 5 y 240 minutos");
+        }
+
         // Validar enlace de videollamada para telemedicina
         if (cita.getTipoCita() == Cita.TipoCita.TELEMEDICINA) {
             if (cita.getEnlaceVideollamada() == null || cita.getEnlaceVideollamada().trim().isEmpty()) {
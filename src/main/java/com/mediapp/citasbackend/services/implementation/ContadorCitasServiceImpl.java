@@ -0,0 +1,253 @@
+package com.mediapp.citasbackend.services.implementation;
+
+import com.mediapp.citasbackend.config.ContadorCitasProperties;
+import com.mediapp.citasbackend.entities.Cita;
+import com.mediapp.citasbackend.entities.ContadorCita;
+import com.mediapp.citasbackend.entities.ContadorCita.Ambito;
+import com.mediapp.citasbackend.repositories.CitaRepository;
+import com.mediapp.citasbackend.repositories.ContadorCitaRepository;
+import com.mediapp.citasbackend.services.interfaces.ContadorCitasService;
+import com.mediapp.citasbackend.utils.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de citas por (ámbito, estado) guardados en contadores_citas y repartidos en
+ * franjas: cada cambio suma o resta en una franja al azar dentro de la transacción de la cita,
+ * y el valor es la suma de las franjas. Los valores leídos se mantienen en memoria y se
+ * actualizan al confirmar cada transacción. La reconciliación periódica corrige las
+ * diferencias con la tabla citas (cargas masivas, cambios hechos fuera del servicio) y vacía
+ * la memoria para recoger los cambios de otras instancias.
+ */
+@Slf4j
+@Service
+public class ContadorCitasServiceImpl implements ContadorCitasService {
+
+    private static final int ID_GLOBAL = 0;
+
+    // Orden fijo de actualización para que dos transacciones no se bloqueen en orden inverso
+    private static final Comparator<Clave> ORDEN = Comparator.comparing(Clave::ambito)
+            .thenComparing(Clave::idAmbito)
+            .thenComparing(Clave::estado);
+
+    private record Clave(Ambito ambito, Integer idAmbito, Cita.Estado estado) {
+    }
+
+    private final ContadorCitaRepository contadorRepository;
+    private final CitaRepository citaRepository;
+    private final ContadorCitasProperties properties;
+    private final TransactionTemplate nuevaTransaccion;
+    private final TransactionTemplate lecturaConsistente;
+    private final Map<Clave, LongAdder> memoria = new ConcurrentHashMap<>();
+    // Ámbitos con todas sus filas creadas ("MEDICO:5")
+    private final Set<String> iniciados = ConcurrentHashMap.newKeySet();
+    // Cuenta los cambios confirmados; una lectura que se cruzó con alguno no se guarda en memoria
+    private final AtomicLong cambios = new AtomicLong();
+
+    public ContadorCitasServiceImpl(ContadorCitaRepository contadorRepository,
+                                    CitaRepository citaRepository,
+                                    ContadorCitasProperties properties,
+                                    PlatformTransactionManager transactionManager) {
+        this.contadorRepository = contadorRepository;
+        this.citaRepository = citaRepository;
+        this.properties = properties;
+        this.nuevaTransaccion = new TransactionTemplate(transactionManager);
+        this.nuevaTransaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.lecturaConsistente = new TransactionTemplate(transactionManager);
+        this.lecturaConsistente.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.lecturaConsistente.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.lecturaConsistente.setReadOnly(true);
+    }
+
+    @Override
+    @Transactional
+    public void registrarCambio(Huella antes, Huella despues) {
+        registrarCambios(antes != null ? List.of(antes) : List.of(), despues != null ? List.of(despues) : List.of());
+    }
+
+    @Override
+    @Transactional
+    public void registrarCambios(List<Huella> antes, List<Huella> despues) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Map<Clave, Long> deltas = new TreeMap<>(ORDEN);
+        antes.forEach(h -> claves(h).forEach(c -> deltas.merge(c, -1L, Long::sum)));
+        despues.forEach(h -> claves(h).forEach(c -> deltas.merge(c, 1L, Long::sum)));
+        deltas.values().removeIf(delta -> delta == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        deltas.forEach(this::incrementar);
+        TransactionUtils.alConfirmar(() -> {
+            cambios.incrementAndGet();
+            deltas.forEach((clave, delta) -> {
+                LongAdder valor = memoria.get(clave);
+                if (valor != null) {
+                    valor.add(delta);
+                }
+            });
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long contar(Ambito ambito, Integer idAmbito, Cita.Estado estado) {
+        Clave clave = clave(ambito, idAmbito, estado);
+        if (!properties.isEnabled()) {
+            return contarEnCitas(clave);
+        }
+        LongAdder valor = memoria.get(clave);
+        if (valor != null) {
+            return valor.sum();
+        }
+
+        long cambiosAntes = cambios.get();
+        Long total = contadorRepository.sumar(clave.ambito(), clave.idAmbito(), clave.estado());
+        if (total == null) {
+            inicializar(clave.ambito(), clave.idAmbito());
+            total = contadorRepository.sumar(clave.ambito(), clave.idAmbito(), clave.estado());
+        }
+        long resultado = total != null ? total : 0L;
+        if (cambios.get() == cambiosAntes && memoria.size() < properties.getMaxEnMemoria()) {
+            LongAdder nuevo = new LongAdder();
+            nuevo.add(resultado);
+            memoria.putIfAbsent(clave, nuevo);
+        }
+        return resultado;
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${mediapp.contadores.reconciliacion-ms:600000}",
+            fixedDelayString = "${mediapp.contadores.reconciliacion-ms:600000}")
+    public int reconciliar() {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+        // Ambas lecturas en la misma instantánea para no confundir una transacción en curso con una diferencia
+        Map<Clave, Long> diferencias = lecturaConsistente.execute(status -> {
+            Map<Clave, Long> reales = new HashMap<>();
+            for (Object[] fila : citaRepository.contarCitasAgrupadasPorEstado()) {
+                reales.put(new Clave(Ambito.GLOBAL, ID_GLOBAL, (Cita.Estado) fila[0]), (Long) fila[1]);
+            }
+            agregar(reales, Ambito.MEDICO, citaRepository.contarCitasPorMedicoAgrupadas());
+            agregar(reales, Ambito.PACIENTE, citaRepository.contarCitasPorPacienteAgrupadas());
+
+            Map<Clave, Long> resultado = new TreeMap<>(ORDEN);
+            for (Ambito ambito : Ambito.values()) {
+                for (Object[] fila : contadorRepository.sumarPorAmbito(ambito)) {
+                    Clave clave = new Clave(ambito, (Integer) fila[0], (Cita.Estado) fila[1]);
+                    // Los ámbitos sin filas se inicializan con el conteo real cuando se usan por primera vez
+                    long diferencia = reales.getOrDefault(clave, 0L) - ((Number) fila[2]).longValue();
+                    if (diferencia != 0) {
+                        resultado.put(clave, diferencia);
+                    }
+                }
+            }
+            return resultado;
+        });
+
+        if (!diferencias.isEmpty()) {
+            // Se corrige con deltas: lo que cambió después de la lectura ya está sumado en ambos lados
+            nuevaTransaccion.executeWithoutResult(status -> diferencias.forEach(this::incrementar));
+            log.warn("Reconciliación de contadores de citas: {} contadores corregidos", diferencias.size());
+        }
+        memoria.clear();
+        iniciados.clear();
+        cambios.incrementAndGet();
+        return diferencias.size();
+    }
+
+    private void incrementar(Clave clave, long delta) {
+        // Las filas se crean antes del UPDATE: un UPDATE sin filas tomaría un bloqueo de rango
+        // que la transacción aparte de la inicialización tendría que esperar
+        Ambito ambito = clave.ambito();
+        if (!iniciados.contains(ambito + ":" + clave.idAmbito())) {
+            if (contadorRepository.countByAmbitoAndIdAmbito(ambito, clave.idAmbito())
+                    < (long) Cita.Estado.values().length * properties.getFranjas()) {
+                inicializar(ambito, clave.idAmbito());
+            }
+            iniciados.add(ambito + ":" + clave.idAmbito());
+        }
+        int franja = ThreadLocalRandom.current().nextInt(properties.getFranjas());
+        if (contadorRepository.incrementar(ambito, clave.idAmbito(), clave.estado(), franja, delta) == 0) {
+            // Filas borradas por fuera: se vuelven a crear con el conteo real en el próximo uso
+            iniciados.remove(ambito + ":" + clave.idAmbito());
+            log.warn("Contador {} sin fila para la franja {}; se reinicializará", clave, franja);
+        }
+    }
+
+    /**
+     * Crea en una transacción aparte las filas que le falten al ámbito. La franja 0 de cada
+     * estado nuevo arranca con el conteo actual de la tabla citas, que no incluye los cambios
+     * sin confirmar de la transacción que la necesitó; esos se suman después.
+     */
+    private void inicializar(Ambito ambito, Integer idAmbito) {
+        try {
+            nuevaTransaccion.executeWithoutResult(status -> {
+                Map<Cita.Estado, boolean[]> existentes = new HashMap<>();
+                for (ContadorCita fila : contadorRepository.findByAmbitoAndIdAmbito(ambito, idAmbito)) {
+                    if (fila.getFranja() < properties.getFranjas()) {
+                        existentes.computeIfAbsent(fila.getEstado(), e -> new boolean[properties.getFranjas()])[fila.getFranja()] = true;
+                    }
+                }
+                for (Cita.Estado estado : Cita.Estado.values()) {
+                    boolean[] franjas = existentes.get(estado);
+                    long inicial = franjas == null ? contarEnCitas(new Clave(ambito, idAmbito, estado)) : 0L;
+                    for (int franja = 0; franja < properties.getFranjas(); franja++) {
+                        if (franjas == null || !franjas[franja]) {
+                            contadorRepository.save(new ContadorCita(null, ambito, idAmbito, estado, franja,
+                                    franja == 0 ? inicial : 0L));
+                        }
+                    }
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Otra transacción creó las filas al mismo tiempo
+            log.debug("Contadores de {} {} creados por otra transacción", ambito, idAmbito);
+        }
+    }
+
+    private long contarEnCitas(Clave clave) {
+        Long total = switch (clave.ambito()) {
+            case GLOBAL -> citaRepository.contarCitasPorEstado(clave.estado());
+            case MEDICO -> citaRepository.contarCitasByMedicoAndEstado(clave.idAmbito(), clave.estado());
+            case PACIENTE -> citaRepository.contarCitasByPacienteAndEstado(clave.idAmbito(), clave.estado());
+        };
+        return total != null ? total : 0L;
+    }
+
+    private static void agregar(Map<Clave, Long> reales, Ambito ambito, List<Object[]> filas) {
+        for (Object[] fila : filas) {
+            reales.put(new Clave(ambito, (Integer) fila[0], (Cita.Estado) fila[1]), (Long) fila[2]);
+        }
+    }
+
+    private static List<Clave> claves(Huella huella) {
+        return List.of(
+                new Clave(Ambito.GLOBAL, ID_GLOBAL, huella.estado()),
+                new Clave(Ambito.MEDICO, huella.idMedico(), huella.estado()),
+                new Clave(Ambito.PACIENTE, huella.idPaciente(), huella.estado()));
+    }
+
+    private static Clave clave(Ambito ambito, Integer idAmbito, Cita.Estado estado) {
+        return new Clave(ambito, ambito == Ambito.GLOBAL ? ID_GLOBAL : idAmbito, estado);
+    }
+}
@@ -0,0 +1,122 @@
+package com.mediapp.citasbackend.services.implementation;
+
+import com.mediapp.citasbackend.cache.ExcepcionesDisponibilidadCache;
+import com.mediapp.citasbackend.entities.ExcepcionDisponibilidad;
+import com.mediapp.citasbackend.repositories.ExcepcionDisponibilidadRepository;
+import com.mediapp.citasbackend.services.interfaces.ExcepcionDisponibilidadService;
+import com.mediapp.citasbackend.utils.ExcepcionesPorFecha;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ExcepcionDisponibilidadServiceImpl implements ExcepcionDisponibilidadService {
+
+    private final ExcepcionDisponibilidadRepository excepcionRepository;
+    private final ExcepcionesDisponibilidadCache excepcionesCache;
+
+    @Override
+    public ExcepcionDisponibilidad guardarExcepcion(ExcepcionDisponibilidad excepcion) {
+        validarExcepcion(excepcion);
+        ExcepcionDisponibilidad guardada = excepcionRepository.save(excepcion);
+        excepcionesCache.registrarCambio(guardada.getMedico().getIdMedico());
+        return guardada;
+    }
+
+    @Override
+    public ExcepcionDisponibilidad actualizarExcepcion(Integer id, ExcepcionDisponibilidad excepcion) {
+        ExcepcionDisponibilidad existente = excepcionRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Excepción no encontrada con ID: " + id));
+        validarExcepcion(excepcion);
+        Integer idMedicoAnterior = existente.getMedico().getIdMedico();
+
+        existente.setMedico(excepcion.getMedico());
+        existente.setFechaInicio(excepcion.getFechaInicio());
+        existente.setFechaFin(excepcion.getFechaFin());
+        existente.setTipo(excepcion.getTipo());
+        existente.setHoraInicio(excepcion.getHoraInicio());
+        existente.setHoraFin(excepcion.getHoraFin());
+        existente.setIntervaloCitaMinutos(excepcion.getIntervaloCitaMinutos());
+        existente.setMotivo(excepcion.getMotivo());
+
+        ExcepcionDisponibilidad actualizada = excepcionRepository.save(existente);
+        excepcionesCache.registrarCambio(idMedicoAnterior);
+        excepcionesCache.registrarCambio(actualizada.getMedico().getIdMedico());
+        return actualizada;
+    }
+
+    @Override
+    public void eliminarExcepcion(Integer id) {
+        ExcepcionDisponibilidad excepcion = excepcionRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Excepción no encontrada con ID: " + id));
+        excepcionRepository.delete(excepcion);
+        excepcionesCache.registrarCambio(excepcion.getMedico().getIdMedico());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ExcepcionDisponibilidad> obtenerExcepcionPorId(Integer id) {
+        return excepcionRepository.findById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ExcepcionDisponibilidad> obtenerExcepcionesVigentesPorMedico(Integer idMedico) {
+        if (idMedico == null) {
+            throw new IllegalArgumentException("El ID del médico no puede ser nulo");
+        }
+        return excepcionRepository.findVigentesByMedico(idMedico, LocalDate.now());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ExcepcionesPorFecha obtenerExcepcionesPorFecha(Integer idMedico) {
+        if (idMedico == null) {
+            throw new IllegalArgumentException("El ID del médico no puede ser nulo");
+        }
+        return excepcionesCache.obtener(idMedico,
+                () -> excepcionRepository.findVigentesByMedico(idMedico, LocalDate.now()));
+    }
+
+    @Override
+    public void validarExcepcion(ExcepcionDisponibilidad excepcion) {
+        if (excepcion == null) {
+            throw new IllegalArgumentException("La excepción no puede ser nula");
+        }
+        if (excepcion.getMedico() == null) {
+            throw new IllegalArgumentException("El médico es obligatorio");
+        }
+        if (excepcion.getFechaInicio() == null || excepcion.getFechaFin() == null) {
+            throw new IllegalArgumentException("Las fechas de inicio y fin son obligatorias");
+        }
+        if (excepcion.getFechaFin().isBefore(excepcion.getFechaInicio())) {
+            throw new IllegalArgumentException("La fecha de fin no puede ser anterior a la de inicio");
+        }
+        if (excepcion.getTipo() == null) {
+            throw new IllegalArgumentException("El tipo de excepción es obligatorio");
+        }
+
+        boolean sinHoras = excepcion.getHoraInicio() == null && excepcion.getHoraFin() == null;
+        if (excepcion.getTipo() == ExcepcionDisponibilidad.Tipo.CERRADO && sinHoras) {
+            // Día completo cerrado
+            return;
+        }
+        if (excepcion.getHoraInicio() == null || excepcion.getHoraFin() == null) {
+            throw new IllegalArgumentException("Las horas de inicio y fin deben indicarse juntas");
+        }
+        if (!excepcion.getHoraInicio().isBefore(excepcion.getHoraFin())) {
+            throw new IllegalArgumentException("La hora de inicio debe ser anterior a la hora de fin");
+        }
+        if (excepcion.getTipo() == ExcepcionDisponibilidad.Tipo.HORARIO_ESPECIAL
+                && (excepcion.getIntervaloCitaMinutos() == null
+                || excepcion.getIntervaloCitaMinutos() < 5 || excepcion.getIntervaloCitaMinutos() > 120)) {
+            throw new IllegalArgumentException("El intervalo de cita del horario especial debe estar entre 5 y 120 minutos");
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.mediapp.citasbackend.services.implementation;
+
+import com.mediapp.citasbackend.cache.ListaEsperaCache;
+import com.mediapp.citasbackend.cache.ListaEsperaCache.Ambito;
+import com.mediapp.citasbackend.cache.ListaEsperaCache.Candidata;
+import com.mediapp.citasbackend.cache.ListaEsperaCache.Clave;
+import com.mediapp.citasbackend.config.ListaEsperaProperties;
+import com.mediapp.citasbackend.entities.Cita;
+import com.mediapp.citasbackend.entities.EntradaListaEspera;
+import com.mediapp.citasbackend.entities.Notificacion;
+import com.mediapp.citasbackend.entities.ReservaTemporal;
+import com.mediapp.citasbackend.events.CitasCambiaronEstadoEvent;
+import com.mediapp.citasbackend.exceptions.BusinessRuleException;
+import com.mediapp.citasbackend.exceptions.InvalidDataException;
+import com.mediapp.citasbackend.exceptions.ResourceNotFoundException;
+import com.mediapp.citasbackend.repositories.CitaRepository;
+import com.mediapp.citasbackend.repositories.EntradaListaEsperaRepository;
+import com.mediapp.citasbackend.repositories.PacienteRepository;
+import com.mediapp.citasbackend.services.interfaces.ListaEsperaService;
+import com.mediapp.citasbackend.services.interfaces.NotificacionService;
+import com.mediapp.citasbackend.services.interfaces.ReservaTemporalService;
+import com.mediapp.citasbackend.utils.TransactionUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Lista de espera: cuando se cancela una cita, su horario se ofrece a la primera entrada de
+ * las colas del médico y de su especialidad para esa fecha, con una reserva temporal a nombre
+ * del paciente y una notificación con el enlace para confirmarla. Tomar la entrada es un
+ * UPDATE condicional, así que dos instancias no ofrecen el mismo horario ni la misma entrada
+ * dos veces. Si el paciente no confirma en el plazo, el horario pasa a la siguiente entrada.
+ */
+@Slf4j
+@Service
+public class ListaEsperaServiceImpl implements ListaEsperaService {
+
+    // Ofertas vencidas revisadas por ejecución
+    private static final int OFERTAS_POR_REVISION = 100;
+
+    record Horario(Integer idCita, Integer idMedico, Integer idEspecialidad, LocalDate fecha, LocalTime hora,
+                   Integer idPaciente) {
+    }
+
+    private final EntradaListaEsperaRepository entradaRepository;
+    private final ListaEsperaCache listaEsperaCache;
+    private final CitaRepository citaRepository;
+    private final PacienteRepository pacienteRepository;
+    private final ReservaTemporalService reservaTemporalService;
+    private final NotificacionService notificacionService;
+    private final ListaEsperaProperties properties;
+    private final TransactionTemplate transaccion;
+    private final Counter ofertas;
+
+    public ListaEsperaServiceImpl(EntradaListaEsperaRepository entradaRepository,
+                                  ListaEsperaCache listaEsperaCache,
+                                  CitaRepository citaRepository,
+                                  PacienteRepository pacienteRepository,
+                                  ReservaTemporalService reservaTemporalService,
+                                  NotificacionService notificacionService,
+                                  ListaEsperaProperties properties,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry) {
+        this.entradaRepository = entradaRepository;
+        this.listaEsperaCache = listaEsperaCache;
+        this.citaRepository = citaRepository;
+        this.pacienteRepository = pacienteRepository;
+        this.reservaTemporalService = reservaTemporalService;
+        this.notificacionService = notificacionService;
+        this.properties = properties;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.ofertas = Counter.builder("mediapp.lista-espera.ofertas")
+                .description("Horarios liberados ofrecidos a pacientes en lista de espera").register(meterRegistry);
+    }
+
+    @Override
+    @Transactional
+    public EntradaListaEspera registrar(EntradaListaEspera entrada) {
+        validarEntrada(entrada);
+        if (!pacienteRepository.existsById(entrada.getIdPaciente())) {
+            throw new ResourceNotFoundException("Paciente", "ID", entrada.getIdPaciente());
+        }
+
+        entrada.setIdEntrada(null);
+        entrada.setEstado(EntradaListaEspera.Estado.ACTIVA);
+        entrada.setIdCitaLiberada(null);
+        entrada.setTokenReserva(null);
+        entrada.setOfrecidaHasta(null);
+        entrada.setFechaRegistro(null);
+        EntradaListaEspera guardada = entradaRepository.save(entrada);
+        TransactionUtils.alConfirmar(() -> listaEsperaCache.agregar(guardada));
+        return guardada;
+    }
+
+    @Override
+    @Transactional
+    public void cancelar(Long idEntrada) {
+        EntradaListaEspera entrada = entradaRepository.findById(idEntrada)
+                .orElseThrow(() -> new ResourceNotFoundException("Entrada de lista de espera", "ID", idEntrada));
+        if (entrada.getEstado() != EntradaListaEspera.Estado.ACTIVA) {
+            throw new BusinessRuleException("Solo se pueden cancelar entradas activas");
+        }
+        entrada.setEstado(EntradaListaEspera.Estado.CANCELADA);
+        entradaRepository.save(entrada);
+        TransactionUtils.alConfirmar(() -> listaEsperaCache.quitar(entrada));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EntradaListaEspera> obtenerPorPaciente(Integer idPaciente) {
+        if (idPaciente == null) {
+            throw new InvalidDataException("El ID del paciente no puede ser nulo");
+        }
+        return entradaRepository.findByIdPacienteAndEstadoInOrderByFechaRegistroDesc(idPaciente,
+                List.of(EntradaListaEspera.Estado.ACTIVA, EntradaListaEspera.Estado.OFRECIDA));
+    }
+
+    @Override
+    @Async
+    @TransactionalEventListener
+    public void alCambiarEstado(CitasCambiaronEstadoEvent evento) {
+        if (properties.isEnabled() && evento.estado() == Cita.Estado.CANCELADA) {
+            ofrecerHorarios(evento.idsCita());
+        }
+    }
+
+    @Override
+    public int ofrecerHorarios(Collection<Integer> idsCita) {
+        int ofrecidos = 0;
+        LocalDateTime ahora = LocalDateTime.now();
+        for (Object[] fila : citaRepository.findHorarios(idsCita)) {
+            Horario horario = new Horario((Integer) fila[0], (Integer) fila[1], (Integer) fila[2],
+                    (LocalDate) fila[3], (LocalTime) fila[4], (Integer) fila[5]);
+            if (fila[6] != Cita.Estado.CANCELADA || LocalDateTime.of(horario.fecha(), horario.hora()).isBefore(ahora)) {
+                continue;
+            }
+            try {
+                // Una transacción por horario: si falla uno, los demás siguen
+                if (Boolean.TRUE.equals(transaccion.execute(estado -> ofrecer(horario)))) {
+                    ofrecidos++;
+                }
+            } catch (BusinessRuleException | DataAccessException e) {
+                log.debug("No se ofreció el horario de la cita {}: {}", horario.idCita(), e.getMessage());
+            }
+        }
+        ofertas.increment(ofrecidos);
+        return ofrecidos;
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${mediapp.lista-espera.revision-ms:60000}",
+            fixedDelayString = "${mediapp.lista-espera.revision-ms:60000}")
+    public int revisarOfertas() {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+        List<EntradaListaEspera> vencidas = entradaRepository.findOfertasVencidas(
+                LocalDateTime.now(), PageRequest.of(0, OFERTAS_POR_REVISION));
+        int reofrecidos = 0;
+        for (EntradaListaEspera entrada : vencidas) {
+            Boolean vencida = transaccion.execute(estado -> cerrarOferta(entrada));
+            if (Boolean.TRUE.equals(vencida)) {
+                reofrecidos += ofrecerHorarios(List.of(entrada.getIdCitaLiberada()));
+            }
+        }
+        return reofrecidos;
+    }
+
+    // Toma la mejor entrada disponible, le reserva el horario y la notifica; false si no hay ninguna
+    private boolean ofrecer(Horario horario) {
+        Set<Long> descartadas = new HashSet<>();
+        while (true) {
+            Optional<Candidata> candidata = siguiente(horario, descartadas);
+            if (candidata.isEmpty()) {
+                return false;
+            }
+            Long idEntrada = candidata.get().idEntrada();
+
+            // Si el horario ya no está libre, la excepción revierte la transacción y no se sigue buscando
+            ReservaTemporal solicitud = new ReservaTemporal();
+            solicitud.setIdMedico(horario.idMedico());
+            solicitud.setIdPaciente(candidata.get().idPaciente());
+            solicitud.setFecha(horario.fecha());
+            solicitud.setHora(horario.hora());
+            ReservaTemporal reserva = reservaTemporalService.reservar(solicitud, properties.getConfirmacionSegundos());
+
+            int tomadas = entradaRepository.ofrecer(idEntrada, horario.idCita(), reserva.getToken(), reserva.getExpiraEn());
+            entradaRepository.findById(idEntrada).ifPresent(e -> TransactionUtils.alConfirmar(() -> listaEsperaCache.quitar(e)));
+            if (tomadas == 0) {
+                // Otra instancia la tomó o el paciente la canceló; la cola en memoria estaba desactualizada
+                reservaTemporalService.liberar(reserva.getToken());
+                descartadas.add(idEntrada);
+                continue;
+            }
+            notificar(candidata.get().idPaciente(), horario, reserva);
+            return true;
+        }
+    }
+
+    private Optional<Candidata> siguiente(Horario horario, Set<Long> descartadas) {
+        // Quien canceló no recibe su propio horario
+        Predicate<Candidata> elegible = c -> !descartadas.contains(c.idEntrada()) && !c.idPaciente().equals(horario.idPaciente());
+        Optional<Candidata> porMedico = listaEsperaCache.primera(
+                new Clave(Ambito.MEDICO, horario.idMedico(), horario.fecha()), elegible,
+                () -> entradaRepository.findActivasByMedicoAndFecha(horario.idMedico(), horario.fecha()));
+        Optional<Candidata> porEspecialidad = horario.idEspecialidad() == null ? Optional.empty() : listaEsperaCache.primera(
+                new Clave(Ambito.ESPECIALIDAD, horario.idEspecialidad(), horario.fecha()), elegible,
+                () -> entradaRepository.findActivasByEspecialidadAndFecha(horario.idEspecialidad(), horario.fecha()));
+        return Stream.concat(porMedico.stream(), porEspecialidad.stream()).min(ListaEsperaCache.ORDEN);
+    }
+
+    private void notificar(Integer idPaciente, Horario horario, ReservaTemporal reserva) {
+        pacienteRepository.findById(idPaciente).ifPresent(paciente -> {
+            Notificacion notificacion = new Notificacion();
+            notificacion.setUsuario(paciente.getUsuario());
+            notificacion.setTipoNotificacion(Notificacion.TipoNotificacion.MENSAJE);
+            notificacion.setTitulo("Horario disponible en su lista de espera");
+            notificacion.setContenido(String.format("Se liberó un horario el %s a las %s. Está reservado para usted " +
+                    "hasta las %s; confírmelo para agendar la cita.", horario.fecha(), horario.hora(),
+                    reserva.getExpiraEn().toLocalTime().truncatedTo(ChronoUnit.MINUTES)));
+            notificacion.setEnlaceRelacionado("/api/citas?reserva=" + reserva.getToken());
+            notificacionService.guardarNotificacion(notificacion);
+        });
+    }
+
+    // Cierra una oferta vencida como ATENDIDA o VENCIDA; true si venció sin usarse y el horario debe ofrecerse de nuevo
+    private boolean cerrarOferta(EntradaListaEspera entrada) {
+        boolean atendida = citaRepository.findHorarios(List.of(entrada.getIdCitaLiberada())).stream()
+                .findFirst()
+                .map(f -> citaRepository.existsByPaciente_IdPacienteAndMedico_IdMedicoAndFechaCita(
+                        entrada.getIdPaciente(), (Integer) f[1], (LocalDate) f[3]))
+                .orElse(false);
+        EntradaListaEspera.Estado nuevo = atendida ? EntradaListaEspera.Estado.ATENDIDA : EntradaListaEspera.Estado.VENCIDA;
+        return entradaRepository.cambiarEstado(entrada.getIdEntrada(), EntradaListaEspera.Estado.OFRECIDA, nuevo) == 1
+                && !atendida;
+    }
+
+    private void validarEntrada(EntradaListaEspera entrada) {
+        if (entrada == null) {
+            throw new InvalidDataException("La entrada no puede ser nula");
+        }
+        if (entrada.getIdPaciente() == null) {
+            throw new InvalidDataException("El paciente es obligatorio");
+        }
+        if ((entrada.getIdMedico() == null) == (entrada.getIdEspecialidad() == null)) {
+            throw new InvalidDataException("Indique un médico o una especialidad, no ambos");
+        }
+        if (entrada.getFechaDesde() == null || entrada.getFechaHasta() == null) {
+            throw new InvalidDataException("Las fechas de inicio y fin no pueden ser nulas");
+        }
+        if (entrada.getFechaDesde().isAfter(entrada.getFechaHasta())) {
+            throw new InvalidDataException("La fecha de inicio debe ser anterior o igual a la fecha de fin");
+        }
+        if (entrada.getFechaHasta().isBefore(LocalDate.now())) {
+            throw new InvalidDataException("El rango de fechas ya pasó");
+        }
+        if (ChronoUnit.DAYS.between(entrada.getFechaDesde(), entrada.getFechaHasta()) >= properties.getMaxDias()) {
+            throw new InvalidDataException("El rango de fechas no puede superar " + properties.getMaxDias() + " días");
+        }
+        if (entrada.getPrioridad() != null && entrada.getPrioridad() < 0) {
+            throw new InvalidDataException("La prioridad no puede ser negativa");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.mediapp.citasbackend.services.implementation;
 
+import com.mediapp.citasbackend.cache.IndiceDisponibilidadMedicos;
 import com.mediapp.citasbackend.entities.Especialidad;
 import com.mediapp.citasbackend.entities.Medico;
 import com.mediapp.citasbackend.entities.Usuario;
@@ -23,6 +24,7 @@ import java.util.Optional;
 public class MedicoServiceImpl implements MedicoService {
 
     private final MedicoRepository medicoRepository;
+    private final IndiceDisponibilidadMedicos indiceDisponibilidad;
 
     @Override
     public Medico guardarMedico(Medico medico) {
@@ -40,7 +42,9 @@ public class MedicoServiceImpl implements MedicoService {
             }
         }
         
-        return medicoRepository.save(medico);
+        Medico guardado = medicoRepository.save(medico);
+        registrarEnIndice(guardado.getIdMedico());
+        return guardado;
     }
 
     @Override
@@ -70,7 +74,9 @@ public class MedicoServiceImpl implements MedicoService {
         medicoExistente.setEstadoVerificacion(medico.getEstadoVerificacion());
         medicoExistente.setFechaVerificacion(medico.getFechaVerificacion());
 
-        return medicoRepository.save(medicoExistente);
+        Medico actualizado = medicoRepository.save(medicoExistente);
+        registrarEnIndice(actualizado.getIdMedico());
+        return actualizado;
     }
 
     @Override
@@ -79,6 +85,7 @@ public class MedicoServiceImpl implements MedicoService {
             throw new ResourceNotFoundException("Médico", "ID", id);
         }
         medicoRepository.deleteById(id);
+        indiceDisponibilidad.quitarMedico(id);
     }
 
     @Override
@@ -369,7 +376,9 @@ public class MedicoServiceImpl implements MedicoService {
         medico.setEstadoVerificacion(Medico.EstadoVerificacion.VERIFICADO);
         medico.setFechaVerificacion(LocalDate.now());
         
-        return medicoRepository.save(medico);
+        Medico verificado = medicoRepository.save(medico);
+        registrarEnIndice(verificado.getIdMedico());
+        return verificado;
     }
 
     @Override
@@ -380,7 +389,9 @@ public class MedicoServiceImpl implements MedicoService {
         medico.setEstadoVerificacion(Medico.EstadoVerificacion.PENDIENTE);
         medico.setFechaVerificacion(null);
         
-        return medicoRepository.save(medico);
+        Medico pendiente = medicoRepository.save(medico);
+        registrarEnIndice(pendiente.getIdMedico());
+        return pendiente;
     }
 
     @Override
@@ -402,6 +413,16 @@ public class MedicoServiceImpl implements MedicoService {
         return medicoRepository.save(medico);
     }
 
+    // Relee especialidad, ciudad y estados del médico ya guardado; el Usuario recibido puede venir incompleto
+    private void registrarEnIndice(Integer idMedico) {
+        if (indiceDisponibilidad.isEnabled() && idMedico != null) {
+            medicoRepository.findAtributosIndiceByIdMedico(idMedico).stream()
+                    .findFirst()
+                    .map(IndiceDisponibilidadMedicos.Atributos::de)
+                    .ifPresent(indiceDisponibilidad::registrarMedico);
+        }
+    }
+
     @Override
     public void validarMedico(Medico medico) {
         if (medico == null) {
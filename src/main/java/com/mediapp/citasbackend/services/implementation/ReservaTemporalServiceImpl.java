@@ -0,0 +1,186 @@
+package com.mediapp.citasbackend.services.implementation;
+
+import com.mediapp.citasbackend.cache.AgendaCache;
+import com.mediapp.citasbackend.cache.ReservaTemporalCache;
+import com.mediapp.citasbackend.config.ReservaTemporalProperties;
+import com.mediapp.citasbackend.entities.Cita;
+import com.mediapp.citasbackend.entities.ReservaTemporal;
+import com.mediapp.citasbackend.exceptions.BusinessRuleException;
+import com.mediapp.citasbackend.exceptions.InvalidDataException;
+import com.mediapp.citasbackend.exceptions.ResourceNotFoundException;
+import com.mediapp.citasbackend.repositories.CitaRepository;
+import com.mediapp.citasbackend.repositories.ReservaTemporalRepository;
+import com.mediapp.citasbackend.services.interfaces.CalendarioDisponibilidadService;
+import com.mediapp.citasbackend.services.interfaces.ReservaTemporalService;
+import com.mediapp.citasbackend.utils.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reservas temporales de horarios mientras el paciente confirma la cita. La tabla decide en
+ * las escrituras (reservar bloquea el día del médico y sus reservas vigentes; consumir y el
+ * guardado de citas consultan las reservas vigentes en esa fecha); la copia en memoria responde
+ * las consultas de disponibilidad y libera las vencidas con una rueda de tiempos.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ReservaTemporalServiceImpl implements ReservaTemporalService {
+
+    private final ReservaTemporalRepository reservaRepository;
+    private final ReservaTemporalCache reservaCache;
+    private final AgendaCache agendaCache;
+    private final CitaRepository citaRepository;
+    private final CalendarioDisponibilidadService calendarioDisponibilidadService;
+    private final ReservaTemporalProperties properties;
+
+    @Override
+    public ReservaTemporal reservar(ReservaTemporal solicitud) {
+        return reservar(solicitud, properties.getDuracionSegundos());
+    }
+
+    @Override
+    public ReservaTemporal reservar(ReservaTemporal solicitud, long duracionSegundos) {
+        if (solicitud == null || solicitud.getIdMedico() == null) {
+            throw new InvalidDataException("El ID del médico no puede ser nulo");
+        }
+        if (solicitud.getFecha() == null || solicitud.getHora() == null) {
+            throw new InvalidDataException("La fecha y hora no pueden ser nulas");
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        if (LocalDateTime.of(solicitud.getFecha(), solicitud.getHora()).isBefore(ahora)) {
+            throw new InvalidDataException("No se pueden reservar horarios en el pasado");
+        }
+
+        Integer idMedico = solicitud.getIdMedico();
+        LocalDate fecha = solicitud.getFecha();
+        int duracion = calendarioDisponibilidadService.duracionDeCita(idMedico, fecha, solicitud.getHora());
+        reservaRepository.eliminarVencidasByMedicoAndFecha(idMedico, fecha, ahora);
+
+        if (!agendaCache.solapamientos(idMedico, fecha, solicitud.getHora(), duracion, null,
+                () -> citaRepository.findCitasByMedicoAndFecha(idMedico, fecha)).isEmpty()) {
+            throw new BusinessRuleException("El horario ya no está disponible");
+        }
+        // Como al agendar, el día del médico y sus reservas quedan bloqueados hasta confirmar: otra
+        // instancia no puede reservar ni agendar a la vez un horario que se cruce con este
+        if (CitaServiceImpl.citaQueSeCruza(citaRepository.bloquearOcupacionDelDia(idMedico, fecha),
+                solicitud.getHora(), duracion, null).isPresent()
+                || seCruza(reservaRepository.bloquearActivasByMedicoAndFecha(idMedico, fecha, ahora),
+                        solicitud.getHora(), duracion, null)) {
+            throw new BusinessRuleException("El horario ya no está disponible");
+        }
+
+        ReservaTemporal reserva = new ReservaTemporal();
+        reserva.setToken(UUID.randomUUID().toString());
+        reserva.setIdMedico(idMedico);
+        reserva.setIdPaciente(solicitud.getIdPaciente());
+        reserva.setFecha(fecha);
+        reserva.setHora(solicitud.getHora());
+        reserva.setDuracionMinutos(duracion);
+        reserva.setExpiraEn(ahora.plusSeconds(duracionSegundos));
+        ReservaTemporal guardada;
+        try {
+            // Otra instancia pudo reservar la misma hora entre la consulta y el insert
+            guardada = reservaRepository.saveAndFlush(reserva);
+        } catch (DataIntegrityViolationException e) {
+            throw new BusinessRuleException("El horario ya no está disponible");
+        }
+        TransactionUtils.alConfirmar(() -> reservaCache.agregar(guardada));
+        return guardada;
+    }
+
+    @Override
+    public void liberar(String token) {
+        if (reservaRepository.eliminarPorToken(token) == 0) {
+            throw new ResourceNotFoundException("Reserva temporal", "token", token);
+        }
+        TransactionUtils.alConfirmar(() -> reservaCache.quitar(token));
+    }
+
+    @Override
+    public ReservaTemporal consumir(String token, Cita cita) {
+        ReservaTemporal reserva = reservaRepository.bloquearPorToken(token)
+                .filter(r -> r.getExpiraEn().isAfter(LocalDateTime.now()))
+                .orElseThrow(() -> new BusinessRuleException("La reserva temporal no existe o ya venció"));
+
+        boolean corresponde = reserva.getIdMedico().equals(cita.getMedico().getIdMedico())
+                && reserva.getFecha().equals(cita.getFechaCita())
+                && reserva.getHora().equals(cita.getHoraCita())
+                && (reserva.getIdPaciente() == null
+                    || reserva.getIdPaciente().equals(cita.getPaciente().getIdPaciente()));
+        if (!corresponde) {
+            throw new BusinessRuleException("La reserva temporal no corresponde a la cita");
+        }
+
+        // Si la cita no se guarda, el rollback devuelve la reserva
+        reservaRepository.delete(reserva);
+        TransactionUtils.alConfirmar(() -> reservaCache.quitar(token));
+        return reserva;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean haySolapamiento(Integer idMedico, LocalDate fecha, LocalTime hora, int duracionMinutos,
+                                   String tokenExcluido) {
+        return seCruza(reservaRepository.findActivasByMedicoAndFecha(idMedico, fecha, LocalDateTime.now()),
+                hora, duracionMinutos, tokenExcluido);
+    }
+
+    private static boolean seCruza(List<ReservaTemporal> reservas, LocalTime hora, int duracionMinutos,
+                                   String tokenExcluido) {
+        int inicio = hora.toSecondOfDay() / 60;
+        int fin = inicio + Math.max(duracionMinutos, 1);
+        return reservas.stream()
+                .filter(r -> !r.getToken().equals(tokenExcluido))
+                .anyMatch(r -> {
+                    int inicioReserva = r.getHora().toSecondOfDay() / 60;
+                    return inicioReserva < fin && inicio < inicioReserva + r.getDuracionMinutos();
+                });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ReservaTemporal> obtenerActivas(Integer idMedico, LocalDate fechaInicio, LocalDate fechaFin) {
+        return reservaRepository.findActivasByMedicoEnRango(idMedico, fechaInicio, fechaFin, LocalDateTime.now());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public boolean estaReservado(Integer idMedico, LocalDate fecha, LocalTime hora, int duracionMinutos,
+                                 String tokenExcluido) {
+        return reservaCache.estaReservado(idMedico, fecha, hora, duracionMinutos, tokenExcluido);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Scheduled(fixedDelayString = "${mediapp.reservas-temporales.tick-ms:1000}")
+    public int expirar() {
+        return reservaCache.expirar(System.currentTimeMillis());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${mediapp.reservas-temporales.sincronizacion-ms:2000}")
+    public int sincronizar() {
+        long consultadaEn = System.currentTimeMillis();
+        LocalDateTime ahora = LocalDateTime.now();
+        List<ReservaTemporal> vigentes = reservaRepository.findActivas(ahora);
+        reservaCache.reconciliar(vigentes, consultadaEn);
+        int purgadas = reservaRepository.eliminarVencidas(ahora);
+        if (purgadas > 0) {
+            log.debug("Reservas temporales vencidas eliminadas: {}", purgadas);
+        }
+        return vigentes.size();
+    }
+}
@@ -0,0 +1,235 @@
+package com.mediapp.citasbackend.services.implementation;
+
+import com.mediapp.citasbackend.cache.AgendaCache;
+import com.mediapp.citasbackend.config.SerieCitasProperties;
+import com.mediapp.citasbackend.dtos.OcurrenciaSerieDTO;
+import com.mediapp.citasbackend.dtos.OcurrenciaSerieDTO.Resultado;
+import com.mediapp.citasbackend.dtos.SerieCitasDTO;
+import com.mediapp.citasbackend.dtos.SerieCitasRequestDTO;
+import com.mediapp.citasbackend.entities.Cita;
+import com.mediapp.citasbackend.entities.Medico;
+import com.mediapp.citasbackend.entities.Paciente;
+import com.mediapp.citasbackend.entities.ReservaTemporal;
+import com.mediapp.citasbackend.exceptions.InvalidDataException;
+import com.mediapp.citasbackend.exceptions.ResourceNotFoundException;
+import com.mediapp.citasbackend.repositories.CitaRepository;
+import com.mediapp.citasbackend.repositories.MedicoRepository;
+import com.mediapp.citasbackend.repositories.PacienteRepository;
+import com.mediapp.citasbackend.services.interfaces.CalendarioDisponibilidadService;
+import com.mediapp.citasbackend.services.interfaces.CitaService;
+import com.mediapp.citasbackend.services.interfaces.ContadorCitasService;
+import com.mediapp.citasbackend.services.interfaces.ContadorCitasService.Huella;
+import com.mediapp.citasbackend.services.interfaces.ReservaTemporalService;
+import com.mediapp.citasbackend.services.interfaces.SerieCitasService;
+import com.mediapp.citasbackend.utils.ReglaRecurrencia;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * Series de citas recurrentes. Todas las fechas de la serie se comparan con la ocupación del
+ * médico leída con una sola consulta por rango (citas no canceladas y reservas temporales
+ * vigentes), con un barrido en orden de inicio. Las citas sin conflicto se insertan con
+ * lotes JDBC en la misma transacción: la clave IDENTITY de citas impide que Hibernate agrupe
+ * los inserts, así que los IDs se leen después con una consulta por el identificador de serie.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class SerieCitasServiceImpl implements SerieCitasService {
+
+    private static final String INSERTAR_CITA = "INSERT INTO citas (id_paciente, id_medico, fecha_cita, hora_cita, " +
+            "duracion_minutos, tipo_cita, motivo_consulta, estado, enlace_videollamada, fecha_creacion, id_serie) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int MINUTOS_DIA = 24 * 60;
+
+    private final CitaRepository citaRepository;
+    private final PacienteRepository pacienteRepository;
+    private final MedicoRepository medicoRepository;
+    private final CitaService citaService;
+    private final CalendarioDisponibilidadService calendarioDisponibilidadService;
+    private final ReservaTemporalService reservaTemporalService;
+    private final ContadorCitasService contadorCitasService;
+    private final AgendaCache agendaCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final SerieCitasProperties properties;
+
+    // Intervalo ocupado en minutos absolutos (día epoch * 1440 + minuto del día); idCita nulo para una reserva
+    private record Ocupacion(long inicio, long fin, Integer idCita) {
+
+        static Ocupacion de(LocalDate fecha, LocalTime hora, int duracionMinutos, Integer idCita) {
+            long dia = fecha.toEpochDay() * MINUTOS_DIA;
+            long inicio = dia + hora.toSecondOfDay() / 60;
+            // Como en la agenda, las citas que pasarían de medianoche ocupan hasta el final del día
+            return new Ocupacion(inicio, Math.min(inicio + Math.max(duracionMinutos, 1), dia + MINUTOS_DIA), idCita);
+        }
+    }
+
+    @Override
+    public SerieCitasDTO crearSerie(SerieCitasRequestDTO solicitud) {
+        if (solicitud == null) {
+            throw new InvalidDataException("La solicitud no puede ser nula");
+        }
+        ReglaRecurrencia regla = ReglaRecurrencia.parse(solicitud.getRecurrencia());
+        if (solicitud.getIdPaciente() == null || solicitud.getIdMedico() == null) {
+            throw new InvalidDataException("El paciente y el médico son obligatorios");
+        }
+        Paciente paciente = pacienteRepository.findById(solicitud.getIdPaciente())
+                .orElseThrow(() -> new ResourceNotFoundException("Paciente", "ID", solicitud.getIdPaciente()));
+        Medico medico = medicoRepository.findById(solicitud.getIdMedico())
+                .orElseThrow(() -> new ResourceNotFoundException("Médico", "ID", solicitud.getIdMedico()));
+
+        Cita plantilla = cita(solicitud, paciente, medico, solicitud.getFechaInicio());
+        citaService.validarCita(plantilla);
+        List<LocalDate> fechas = regla.fechas(solicitud.getFechaInicio(), properties.getMaxOcurrencias());
+        if (fechas.isEmpty()) {
+            throw new InvalidDataException("La regla de recurrencia no genera ninguna fecha");
+        }
+
+        List<OcurrenciaSerieDTO> ocurrencias = new ArrayList<>(fechas.size());
+        List<Cita> nuevas = new ArrayList<>(fechas.size());
+        evaluar(solicitud, paciente, medico, fechas, ocurrencias, nuevas);
+
+        boolean hayConflictos = ocurrencias.stream().anyMatch(o -> o.getResultado() != Resultado.DISPONIBLE);
+        if (nuevas.isEmpty() || (hayConflictos && !solicitud.isOmitirConflictos())) {
+            return SerieCitasDTO.builder()
+                    .solicitadas(fechas.size())
+                    .creadas(0)
+                    .ocurrencias(ocurrencias)
+                    .build();
+        }
+
+        String idSerie = UUID.randomUUID().toString();
+        insertar(nuevas, idSerie);
+        Map<LocalDate, Integer> ids = new HashMap<>();
+        citaRepository.findIdsBySerie(idSerie).forEach(fila -> ids.put((LocalDate) fila[1], (Integer) fila[0]));
+        nuevas.forEach(c -> c.setIdCita(ids.get(c.getFechaCita())));
+
+        contadorCitasService.registrarCambios(List.of(), nuevas.stream().map(Huella::de).toList());
+        nuevas.forEach(agendaCache::registrarCambio);
+
+        List<OcurrenciaSerieDTO> resultado = ocurrencias.stream()
+                .map(o -> o.getResultado() != Resultado.DISPONIBLE ? o : OcurrenciaSerieDTO.builder()
+                        .fecha(o.getFecha())
+                        .hora(o.getHora())
+                        .resultado(Resultado.CREADA)
+                        .idCita(ids.get(o.getFecha()))
+                        .build())
+                .toList();
+        return SerieCitasDTO.builder()
+                .idSerie(idSerie)
+                .solicitadas(fechas.size())
+                .creadas(nuevas.size())
+                .ocurrencias(resultado)
+                .build();
+    }
+
+    /**
+     * Clasifica cada fecha y deja en "nuevas" las citas de las fechas disponibles. Fechas y
+     * ocupaciones se recorren una sola vez en orden de inicio; el montículo guarda las
+     * ocupaciones ya comenzadas ordenadas por fin, y si tras descartar las terminadas queda
+     * alguna, esa se cruza con la fecha evaluada.
+     */
+    private void evaluar(SerieCitasRequestDTO solicitud, Paciente paciente, Medico medico, List<LocalDate> fechas,
+                         List<OcurrenciaSerieDTO> ocurrencias, List<Cita> nuevas) {
+        Integer idMedico = medico.getIdMedico();
+        LocalTime hora = solicitud.getHoraCita();
+        LocalDate desde = fechas.get(0);
+        LocalDate hasta = fechas.get(fechas.size() - 1);
+
+        // Con los días bloqueados, una cita individual concurrente espera a que la serie termine
+        List<Ocupacion> ocupadas = new ArrayList<>();
+        for (Object[] fila : citaRepository.bloquearOcupacionEnRango(idMedico, desde, hasta)) {
+            Integer duracion = (Integer) fila[3];
+            ocupadas.add(Ocupacion.de((LocalDate) fila[1], (LocalTime) fila[2],
+                    duracion != null ? duracion : Cita.DURACION_PREDETERMINADA_MINUTOS, (Integer) fila[0]));
+        }
+        for (ReservaTemporal reserva : reservaTemporalService.obtenerActivas(idMedico, desde, hasta)) {
+            ocupadas.add(Ocupacion.de(reserva.getFecha(), reserva.getHora(), reserva.getDuracionMinutos(), null));
+        }
+        ocupadas.sort(Comparator.comparingLong(Ocupacion::inicio));
+
+        PriorityQueue<Ocupacion> comenzadas = new PriorityQueue<>(Comparator.comparingLong(Ocupacion::fin));
+        int siguiente = 0;
+        for (LocalDate fecha : fechas) {
+            OcurrenciaSerieDTO.OcurrenciaSerieDTOBuilder ocurrencia = OcurrenciaSerieDTO.builder().fecha(fecha).hora(hora);
+            try {
+                citaService.validarFechaCita(fecha, hora);
+            } catch (InvalidDataException e) {
+                ocurrencias.add(ocurrencia.resultado(Resultado.RECHAZADA).mensaje(e.getMessage()).build());
+                continue;
+            }
+
+            Cita cita = cita(solicitud, paciente, medico, fecha);
+            if (cita.getDuracionMinutos() == null) {
+                // Depende de la fecha (horarios especiales); plantilla y excepciones salen de caché
+                cita.setDuracionMinutos(calendarioDisponibilidadService.duracionDeCita(idMedico, fecha, hora));
+            }
+            Ocupacion propia = Ocupacion.de(fecha, hora, cita.getDuracionMinutos(), null);
+            while (siguiente < ocupadas.size() && ocupadas.get(siguiente).inicio() < propia.fin()) {
+                comenzadas.add(ocupadas.get(siguiente++));
+            }
+            while (!comenzadas.isEmpty() && comenzadas.peek().fin() <= propia.inicio()) {
+                comenzadas.poll();
+            }
+
+            Ocupacion cruce = comenzadas.peek();
+            if (cruce == null) {
+                ocurrencias.add(ocurrencia.resultado(Resultado.DISPONIBLE).build());
+                nuevas.add(cita);
+            } else if (cruce.idCita() != null) {
+                ocurrencias.add(ocurrencia.resultado(Resultado.CONFLICTO).idCitaConflicto(cruce.idCita())
+                        .mensaje("El médico ya tiene una cita programada en esa fecha y hora").build());
+            } else {
+                ocurrencias.add(ocurrencia.resultado(Resultado.CONFLICTO)
+                        .mensaje("El horario está reservado temporalmente por otro paciente").build());
+            }
+        }
+    }
+
+    private void insertar(List<Cita> citas, String idSerie) {
+        jdbcTemplate.batchUpdate(INSERTAR_CITA, citas, properties.getTamanoLote(), (ps, cita) -> {
+            cita.setIdSerie(idSerie);
+            ps.setInt(1, cita.getPaciente().getIdPaciente());
+            ps.setInt(2, cita.getMedico().getIdMedico());
+            ps.setObject(3, cita.getFechaCita());
+            ps.setObject(4, cita.getHoraCita());
+            ps.setInt(5, cita.getDuracionMinutos());
+            ps.setString(6, cita.getTipoCita().name());
+            ps.setString(7, cita.getMotivoConsulta());
+            ps.setString(8, cita.getEstado().name());
+            ps.setString(9, cita.getEnlaceVideollamada());
+            ps.setTimestamp(10, Timestamp.valueOf(cita.getFechaCreacion()));
+            ps.setString(11, idSerie);
+        });
+    }
+
+    private static Cita cita(SerieCitasRequestDTO solicitud, Paciente paciente, Medico medico, LocalDate fecha) {
+        Cita cita = new Cita();
+        cita.setPaciente(paciente);
+        cita.setMedico(medico);
+        cita.setFechaCita(fecha);
+        cita.setHoraCita(solicitud.getHoraCita());
+        cita.setDuracionMinutos(solicitud.getDuracionMinutos());
+        cita.setTipoCita(solicitud.getTipoCita());
+        cita.setMotivoConsulta(solicitud.getMotivoConsulta());
+        cita.setEnlaceVideollamada(solicitud.getEnlaceVideollamada());
+        cita.setEstado(Cita.Estado.PROGRAMADA);
+        cita.setFechaCreacion(LocalDateTime.now());
+        return cita;
+    }
+}
@@ -0,0 +1,80 @@
+package com.mediapp.citasbackend.services.implementation;
+
+import com.mediapp.citasbackend.entities.TareaProgramada;
+import com.mediapp.citasbackend.repositories.TareaProgramadaRepository;
+import com.mediapp.citasbackend.services.interfaces.TareaProgramadaService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Arrendamientos de tareas periódicas en la tabla tareas_programadas, para que solo una
+ * instancia ejecute cada tarea. Cada operación confirma en su propia transacción: el
+ * arrendamiento debe verse en las demás instancias aunque la tarea siga trabajando.
+ */
+@Slf4j
+@Service
+public class TareaProgramadaServiceImpl implements TareaProgramadaService {
+
+    private final TareaProgramadaRepository tareaRepository;
+    private final TransactionTemplate transaccion;
+    private final String propietario;
+
+    public TareaProgramadaServiceImpl(TareaProgramadaRepository tareaRepository,
+                                      PlatformTransactionManager transactionManager) {
+        this.tareaRepository = tareaRepository;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.transaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // Nombre de la JVM (pid@host) más un sufijo por si dos instancias comparten ambos
+        this.propietario = ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Override
+    public boolean adquirir(String nombre, Duration duracion) {
+        LocalDateTime ahora = LocalDateTime.now();
+        Integer tomadas = transaccion.execute(status ->
+                tareaRepository.adquirir(nombre, propietario, ahora, ahora.plus(duracion)));
+        if (tomadas != null && tomadas > 0) {
+            return true;
+        }
+        if (tareaRepository.existsById(nombre)) {
+            return false;
+        }
+        try {
+            transaccion.executeWithoutResult(status -> tareaRepository.saveAndFlush(
+                    new TareaProgramada(nombre, propietario, ahora.plus(duracion), null, null)));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Otra instancia creó la fila al mismo tiempo y se quedó con el arrendamiento
+            log.debug("Tarea {} creada por otra instancia", nombre);
+            return false;
+        }
+    }
+
+    @Override
+    public Optional<String> obtenerMarca(String nombre) {
+        return tareaRepository.findById(nombre).map(TareaProgramada::getMarca);
+    }
+
+    @Override
+    public boolean guardarMarca(String nombre, String marca, Duration duracion) {
+        LocalDateTime ahora = LocalDateTime.now();
+        Integer guardadas = transaccion.execute(status ->
+                tareaRepository.guardarMarca(nombre, propietario, marca, ahora, ahora.plus(duracion)));
+        return guardadas != null && guardadas > 0;
+    }
+
+    @Override
+    public void liberar(String nombre) {
+        transaccion.executeWithoutResult(status -> tareaRepository.liberar(nombre, propietario, LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,178 @@
+package com.mediapp.citasbackend.services.implementation;
+
+import com.mediapp.citasbackend.cache.AgendaCache;
+import com.mediapp.citasbackend.config.TransicionLoteProperties;
+import com.mediapp.citasbackend.dtos.ResultadoTransicionDTO;
+import com.mediapp.citasbackend.dtos.ResultadoTransicionDTO.Resultado;
+import com.mediapp.citasbackend.dtos.TransicionLoteDTO;
+import com.mediapp.citasbackend.dtos.TransicionLoteRequestDTO;
+import com.mediapp.citasbackend.entities.Cita;
+import com.mediapp.citasbackend.events.CitasCambiaronEstadoEvent;
+import com.mediapp.citasbackend.exceptions.InvalidDataException;
+import com.mediapp.citasbackend.repositories.CitaRepository;
+import com.mediapp.citasbackend.services.interfaces.ContadorCitasService;
+import com.mediapp.citasbackend.services.interfaces.ContadorCitasService.Huella;
+import com.mediapp.citasbackend.services.interfaces.TransicionCitasService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cambios de estado de muchas citas a la vez. Las citas se procesan en tramos, cada uno en su
+ * propia transacción: una consulta bloquea las citas del tramo y lee su estado, las
+ * transiciones se validan en memoria y las válidas se aplican con un único UPDATE. Un tramo
+ * que falla no deshace los anteriores; sus citas se reportan con resultado ERROR.
+ */
+@Slf4j
+@Service
+public class TransicionCitasServiceImpl implements TransicionCitasService {
+
+    private final CitaRepository citaRepository;
+    private final ContadorCitasService contadorCitasService;
+    private final AgendaCache agendaCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransicionLoteProperties properties;
+    private final TransactionTemplate transaccion;
+
+    public TransicionCitasServiceImpl(CitaRepository citaRepository,
+                                      ContadorCitasService contadorCitasService,
+                                      AgendaCache agendaCache,
+                                      ApplicationEventPublisher eventPublisher,
+                                      TransicionLoteProperties properties,
+                                      PlatformTransactionManager transactionManager) {
+        this.citaRepository = citaRepository;
+        this.contadorCitasService = contadorCitasService;
+        this.agendaCache = agendaCache;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.transaccion = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public TransicionLoteDTO cambiarEstado(TransicionLoteRequestDTO solicitud, Cita.Estado estado) {
+        if (estado == null || estado == Cita.Estado.PROGRAMADA) {
+            throw new InvalidDataException("El estado destino debe ser COMPLETADA, CANCELADA o NO_ASISTIO");
+        }
+        List<Integer> ids = resolverIds(solicitud);
+        if (ids.size() > properties.getMaxCitas()) {
+            throw new InvalidDataException("No se pueden procesar más de " + properties.getMaxCitas() + " citas por solicitud");
+        }
+
+        LocalDateTime ahora = LocalDateTime.now();
+        Map<Integer, ResultadoTransicionDTO> resultados = new LinkedHashMap<>();
+        for (int inicio = 0; inicio < ids.size(); inicio += properties.getTamanoTramo()) {
+            List<Integer> tramo = ids.subList(inicio, Math.min(inicio + properties.getTamanoTramo(), ids.size()));
+            try {
+                resultados.putAll(transaccion.execute(status -> procesarTramo(tramo, estado, ahora)));
+            } catch (DataAccessException e) {
+                log.warn("Falló el tramo de {} citas al pasar a {}: {}", tramo.size(), estado, e.getMessage());
+                tramo.forEach(id -> resultados.put(id, resultado(id, Resultado.ERROR,
+                        "No se pudo aplicar el cambio; intente de nuevo")));
+            }
+        }
+
+        List<ResultadoTransicionDTO> lista = ids.stream().map(resultados::get).toList();
+        return TransicionLoteDTO.builder()
+                .estado(estado.name())
+                .solicitadas(ids.size())
+                .actualizadas((int) lista.stream().filter(r -> r.getResultado() == Resultado.ACTUALIZADA).count())
+                .resultados(lista)
+                .build();
+    }
+
+    private Map<Integer, ResultadoTransicionDTO> procesarTramo(List<Integer> ids, Cita.Estado estado, LocalDateTime ahora) {
+        Map<Integer, Object[]> filas = new HashMap<>();
+        for (Object[] fila : citaRepository.bloquearEstados(ids)) {
+            filas.put((Integer) fila[0], fila);
+        }
+
+        Map<Integer, ResultadoTransicionDTO> resultados = new HashMap<>();
+        List<Integer> aplicar = new ArrayList<>();
+        List<Huella> antes = new ArrayList<>();
+        List<Huella> despues = new ArrayList<>();
+        for (Integer id : ids) {
+            Object[] fila = filas.get(id);
+            if (fila == null) {
+                resultados.put(id, resultado(id, Resultado.NO_ENCONTRADA, "Cita no encontrada con ID: " + id));
+                continue;
+            }
+            Cita.Estado actual = (Cita.Estado) fila[1];
+            if (actual == estado) {
+                resultados.put(id, resultado(id, Resultado.SIN_CAMBIOS, "La cita ya está en estado " + estado));
+            } else if (motivoRechazo(actual, estado) != null) {
+                resultados.put(id, resultado(id, Resultado.RECHAZADA, motivoRechazo(actual, estado)));
+            } else {
+                aplicar.add(id);
+                antes.add(new Huella((Integer) fila[2], (Integer) fila[3], actual));
+                despues.add(new Huella((Integer) fila[2], (Integer) fila[3], estado));
+                resultados.put(id, resultado(id, Resultado.ACTUALIZADA, null));
+            }
+        }
+        if (aplicar.isEmpty()) {
+            return resultados;
+        }
+
+        int actualizadas = estado == Cita.Estado.CANCELADA
+                ? citaRepository.cancelarCitas(aplicar, ahora)
+                : citaRepository.actualizarEstados(aplicar, estado);
+        if (actualizadas != aplicar.size()) {
+            throw new ConcurrencyFailureException("Se esperaban " + aplicar.size() + " citas actualizadas y fueron " + actualizadas);
+        }
+        contadorCitasService.registrarCambios(antes, despues);
+        agendaCache.registrarEstados(aplicar, estado);
+        eventPublisher.publishEvent(new CitasCambiaronEstadoEvent(estado, List.copyOf(aplicar), ahora));
+        return resultados;
+    }
+
+    private List<Integer> resolverIds(TransicionLoteRequestDTO solicitud) {
+        if (solicitud == null) {
+            throw new InvalidDataException("La solicitud no puede ser nula");
+        }
+        boolean porIds = solicitud.getIds() != null && !solicitud.getIds().isEmpty();
+        boolean porMedico = solicitud.getIdMedico() != null || solicitud.getFecha() != null;
+        if (porIds == porMedico) {
+            throw new InvalidDataException("Indique los IDs de las citas o el médico y la fecha, no ambos");
+        }
+        if (porIds) {
+            if (solicitud.getIds().stream().anyMatch(Objects::isNull)) {
+                throw new InvalidDataException("Los IDs de las citas no pueden ser nulos");
+            }
+            return List.copyOf(new LinkedHashSet<>(solicitud.getIds()));
+        }
+        if (solicitud.getIdMedico() == null || solicitud.getFecha() == null) {
+            throw new InvalidDataException("El ID del médico y la fecha son obligatorios");
+        }
+        return citaRepository.findIdsByMedicoAndFecha(solicitud.getIdMedico(), solicitud.getFecha());
+    }
+
+    // Mismas reglas que completarCita, cancelarCita y marcarComoNoAsistio
+    private static String motivoRechazo(Cita.Estado actual, Cita.Estado destino) {
+        return switch (destino) {
+            case COMPLETADA -> actual == Cita.Estado.CANCELADA ? "No se puede completar una cita cancelada" : null;
+            case CANCELADA -> actual == Cita.Estado.COMPLETADA ? "No se puede cancelar una cita completada" : null;
+            case NO_ASISTIO -> switch (actual) {
+                case CANCELADA -> "No se puede marcar como no asistió una cita cancelada";
+                case COMPLETADA -> "No se puede marcar como no asistió una cita completada";
+                default -> null;
+            };
+            case PROGRAMADA -> "No se puede volver a programar una cita en lote";
+        };
+    }
+
+    private static ResultadoTransicionDTO resultado(Integer id, Resultado resultado, String mensaje) {
+        return ResultadoTransicionDTO.builder().idCita(id).resultado(resultado).mensaje(mensaje).build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.mediapp.citasbackend.services.implementation;
 
+import com.mediapp.citasbackend.cache.IndiceDisponibilidadMedicos;
 import com.mediapp.citasbackend.entities.Usuario;
 import com.mediapp.citasbackend.exceptions.InvalidDataException;
 import com.mediapp.citasbackend.exceptions.ResourceAlreadyExistsException;
@@ -19,6 +20,7 @@ import java.util.Optional;
 public class UsuarioServiceImpl implements UsuarioService {
 
     private final UsuarioRepository usuarioRepository;
+    private final IndiceDisponibilidadMedicos indiceDisponibilidad;
 
     @Override
     public Usuario guardarUsuario(Usuario usuario) {
@@ -81,7 +83,9 @@ public class UsuarioServiceImpl implements UsuarioService {
             usuarioExistente.setContraseña(usuario.getContraseña());
         }
 
-        return usuarioRepository.save(usuarioExistente);
+        Usuario actualizado = usuarioRepository.save(usuarioExistente);
+        indiceDisponibilidad.registrarUsuario(actualizado);
+        return actualizado;
     }
 
     @Override
@@ -202,7 +206,9 @@ public class UsuarioServiceImpl implements UsuarioService {
         Usuario usuario = usuarioRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario", "ID", id));
         usuario.setEstado(Usuario.Estado.ACTIVO);
-        return usuarioRepository.save(usuario);
+        Usuario guardado = usuarioRepository.save(usuario);
+        indiceDisponibilidad.registrarUsuario(guardado);
+        return guardado;
     }
 
     @Override
@@ -210,7 +216,9 @@ public class UsuarioServiceImpl implements UsuarioService {
         Usuario usuario = usuarioRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario", "ID", id));
         usuario.setEstado(Usuario.Estado.INACTIVO);
-        return usuarioRepository.save(usuario);
+        Usuario guardado = usuarioRepository.save(usuario);
+        indiceDisponibilidad.registrarUsuario(guardado);
+        return guardado;
     }
 
     @Override
@@ -218,7 +226,9 @@ public class UsuarioServiceImpl implements UsuarioService {
         Usuario usuario = usuarioRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario", "ID", id));
         usuario.setEstado(Usuario.Estado.BLOQUEADO);
-        return usuarioRepository.save(usuario);
+        Usuario guardado = usuarioRepository.save(usuario);
+        indiceDisponibilidad.registrarUsuario(guardado);
+        return guardado;
     }
 
     @Override
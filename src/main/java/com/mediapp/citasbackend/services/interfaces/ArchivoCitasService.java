@@ -0,0 +1,7 @@
+package com.mediapp.citasbackend.services.interfaces;
+
+public interface ArchivoCitasService {
+
+    // Mover a citas_archivo las citas cerradas más antiguas que la antigüedad configurada; retorna cuántas se movieron
+    int archivar();
+}
@@ -0,0 +1,7 @@
+package com.mediapp.citasbackend.services.interfaces;
+
+public interface BarridoInasistenciasService {
+
+    // Marcar como NO_ASISTIO las citas programadas vencidas; retorna cuántas se marcaron
+    int barrer();
+}
@@ -1,8 +1,11 @@
 package com.mediapp.citasbackend.services.interfaces;
 
+import com.mediapp.citasbackend.dtos.HorarioSemanalDTO;
 import com.mediapp.citasbackend.entities.CalendarioDisponibilidad;
 import com.mediapp.citasbackend.entities.Medico;
+import com.mediapp.citasbackend.utils.PlantillaSemanal;
 
+import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
 import java.util.Optional;
@@ -75,10 +78,21 @@ public interface CalendarioDisponibilidadService {
             LocalTime hora
     );
 
+    // Médicos con usuario activo disponibles ese día (y hora, si se indica) que cumplen los filtros
+    List<Medico> obtenerMedicosDisponibles(
+            CalendarioDisponibilidad.DiaSemana dia,
+            LocalTime hora,
+            Integer idEspecialidad,
+            String ciudad,
+            boolean soloVerificados
+    );
+
     // Ordenamiento
     List<CalendarioDisponibilidad> obtenerDisponibilidadesOrdenadasPorMedico(Integer idMedico);
 
     // Operaciones masivas
+    HorarioSemanalDTO reemplazarHorarioSemanal(Integer idMedico, List<CalendarioDisponibilidad> bloques);
+
     void eliminarTodasLasDisponibilidadesPorMedico(Integer idMedico);
     
     boolean medicoTieneDisponibilidadConfigurada(Integer idMedico);
@@ -91,6 +105,15 @@ public interface CalendarioDisponibilidadService {
     
     CalendarioDisponibilidad desactivarDisponibilidad(Integer id);
 
+    // Duración de una cita en ese horario según el bloque de disponibilidad del médico
+    int duracionDeCita(Integer idMedico, LocalDate fecha, LocalTime hora);
+
+    // Horarios semanales del médico compilados desde sus bloques activos
+    PlantillaSemanal obtenerPlantillaSemanal(Integer idMedico);
+
+    // Horarios del médico entre dos fechas: su plantilla semanal con sus excepciones por fecha aplicadas
+    PlantillaSemanal.Cursor obtenerHorarios(Integer idMedico, LocalDate desde, LocalDate hasta);
+
     // Validaciones
     void validarDisponibilidad(CalendarioDisponibilidad disponibilidad);
     
@@ -1,5 +1,9 @@
 package com.mediapp.citasbackend.services.interfaces;
 
+import com.mediapp.citasbackend.dtos.AgendaDiaDTO;
+import com.mediapp.citasbackend.dtos.FiltroCitasDTO;
+import com.mediapp.citasbackend.dtos.HorarioLibreDTO;
+import com.mediapp.citasbackend.dtos.PaginaCitasDTO;
 import com.mediapp.citasbackend.entities.Cita;
 import com.mediapp.citasbackend.entities.Medico;
 import com.mediapp.citasbackend.entities.Paciente;
@@ -14,6 +18,9 @@ public interface CitaService {
 
     // Operaciones CRUD básicas
     Cita guardarCita(Cita cita);
+
+    // Guardar la cita consumiendo la reserva temporal del horario en la misma transacción
+    Cita guardarCita(Cita cita, String tokenReserva);
     
     Cita actualizarCita(Integer id, Cita cita);
     
@@ -48,6 +55,9 @@ public interface CitaService {
     List<Cita> obtenerCitasPorFecha(LocalDate fecha);
     
     List<Cita> obtenerCitasPorMedicoYFecha(Integer idMedico, LocalDate fecha);
+
+    // Agenda compacta del médico en la fecha, servida desde la caché de agendas
+    AgendaDiaDTO obtenerAgendaDelDia(Integer idMedico, LocalDate fecha);
     
     List<Cita> obtenerCitasPorPacienteYFecha(Integer idPaciente, LocalDate fecha);
 
@@ -63,6 +73,9 @@ public interface CitaService {
     
     boolean medicoDisponibleEnFechaHora(Integer idMedico, LocalDate fecha, LocalTime hora);
 
+    // Horarios del calendario del médico entre dos fechas que no ocupa ninguna cita ni reserva
+    List<HorarioLibreDTO> obtenerHorariosLibres(Integer idMedico, LocalDate desde, LocalDate hasta);
+
     // Búsquedas por tipo de cita
     List<Cita> obtenerCitasPorTipo(Cita.TipoCita tipoCita);
     
@@ -73,6 +86,9 @@ public interface CitaService {
     
     List<Cita> obtenerProximasCitasPorMedico(Integer idMedico);
 
+    // Búsqueda por cualquier combinación de criterios, paginada con cursor
+    PaginaCitasDTO buscarCitas(FiltroCitasDTO filtro, String cursor, Integer limite);
+
     // Historial de citas
     List<Cita> obtenerHistorialCitasPorPaciente(Integer idPaciente);
     
@@ -0,0 +1,29 @@
+package com.mediapp.citasbackend.services.interfaces;
+
+import com.mediapp.citasbackend.entities.Cita;
+import com.mediapp.citasbackend.entities.ContadorCita;
+
+import java.util.List;
+
+public interface ContadorCitasService {
+
+    // Médico, paciente y estado de una cita: lo que determina qué contadores la cuentan
+    record Huella(Integer idMedico, Integer idPaciente, Cita.Estado estado) {
+
+        public static Huella de(Cita cita) {
+            return new Huella(cita.getMedico().getIdMedico(), cita.getPaciente().getIdPaciente(), cita.getEstado());
+        }
+    }
+
+    // Registrar en la transacción actual que una cita pasó de "antes" a "despues" (null si no existía o ya no existe)
+    void registrarCambio(Huella antes, Huella despues);
+
+    // Registrar varios cambios a la vez; los deltas de un mismo contador se suman en una sola actualización
+    void registrarCambios(List<Huella> antes, List<Huella> despues);
+
+    // Número de citas del ámbito en el estado (idAmbito se ignora en el ámbito global)
+    long contar(ContadorCita.Ambito ambito, Integer idAmbito, Cita.Estado estado);
+
+    // Corregir los contadores que no coinciden con la tabla citas; retorna cuántos se corrigieron
+    int reconciliar();
+}
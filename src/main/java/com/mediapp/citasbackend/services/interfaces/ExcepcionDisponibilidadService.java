@@ -0,0 +1,28 @@
+package com.mediapp.citasbackend.services.interfaces;
+
+import com.mediapp.citasbackend.entities.ExcepcionDisponibilidad;
+import com.mediapp.citasbackend.utils.ExcepcionesPorFecha;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ExcepcionDisponibilidadService {
+
+    // CRUD
+    ExcepcionDisponibilidad guardarExcepcion(ExcepcionDisponibilidad excepcion);
+
+    ExcepcionDisponibilidad actualizarExcepcion(Integer id, ExcepcionDisponibilidad excepcion);
+
+    void eliminarExcepcion(Integer id);
+
+    Optional<ExcepcionDisponibilidad> obtenerExcepcionPorId(Integer id);
+
+    // Excepciones del médico que no han terminado, ordenadas por fecha de inicio
+    List<ExcepcionDisponibilidad> obtenerExcepcionesVigentesPorMedico(Integer idMedico);
+
+    // Excepciones vigentes del médico compiladas para combinarlas con su plantilla semanal
+    ExcepcionesPorFecha obtenerExcepcionesPorFecha(Integer idMedico);
+
+    // Validaciones
+    void validarExcepcion(ExcepcionDisponibilidad excepcion);
+}
@@ -0,0 +1,28 @@
+package com.mediapp.citasbackend.services.interfaces;
+
+import com.mediapp.citasbackend.entities.EntradaListaEspera;
+import com.mediapp.citasbackend.events.CitasCambiaronEstadoEvent;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ListaEsperaService {
+
+    // Registrar el interés del paciente en un médico o una especialidad entre dos fechas
+    EntradaListaEspera registrar(EntradaListaEspera entrada);
+
+    // Retirar una entrada activa
+    void cancelar(Long idEntrada);
+
+    // Entradas activas u ofrecidas del paciente
+    List<EntradaListaEspera> obtenerPorPaciente(Integer idPaciente);
+
+    // Ofrecer el horario de cada cita cancelada a la primera entrada que encaje; retorna cuántos se ofrecieron
+    int ofrecerHorarios(Collection<Integer> idsCita);
+
+    // Ofrecer los horarios de las citas canceladas cuando confirma la cancelación
+    void alCambiarEstado(CitasCambiaronEstadoEvent evento);
+
+    // Cerrar las ofertas no confirmadas a tiempo y ofrecer sus horarios a la siguiente entrada
+    int revisarOfertas();
+}
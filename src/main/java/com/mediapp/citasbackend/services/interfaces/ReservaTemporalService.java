@@ -0,0 +1,38 @@
+package com.mediapp.citasbackend.services.interfaces;
+
+import com.mediapp.citasbackend.entities.Cita;
+import com.mediapp.citasbackend.entities.ReservaTemporal;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+public interface ReservaTemporalService {
+
+    // Reservar el horario del médico por la duración configurada; falla si está ocupado o reservado
+    ReservaTemporal reservar(ReservaTemporal solicitud);
+
+    // Igual, con otra duración (p. ej. el plazo de confirmación de la lista de espera)
+    ReservaTemporal reservar(ReservaTemporal solicitud, long duracionSegundos);
+
+    // Liberar la reserva antes de que venza
+    void liberar(String token);
+
+    // Eliminar la reserva dentro de la transacción que crea la cita; falla si venció o no corresponde a la cita
+    ReservaTemporal consumir(String token, Cita cita);
+
+    // Cruce con reservas vigentes según la tabla, para las escrituras
+    boolean haySolapamiento(Integer idMedico, LocalDate fecha, LocalTime hora, int duracionMinutos, String tokenExcluido);
+
+    // Reservas vigentes del médico entre dos fechas, según la tabla
+    List<ReservaTemporal> obtenerActivas(Integer idMedico, LocalDate fechaInicio, LocalDate fechaFin);
+
+    // Cruce con reservas vigentes según la copia en memoria, para las consultas de disponibilidad
+    boolean estaReservado(Integer idMedico, LocalDate fecha, LocalTime hora, int duracionMinutos, String tokenExcluido);
+
+    // Liberar de memoria las reservas vencidas
+    int expirar();
+
+    // Traer a memoria las reservas de otras instancias y purgar de la tabla las vencidas
+    int sincronizar();
+}
@@ -0,0 +1,10 @@
+package com.mediapp.citasbackend.services.interfaces;
+
+import com.mediapp.citasbackend.dtos.SerieCitasDTO;
+import com.mediapp.citasbackend.dtos.SerieCitasRequestDTO;
+
+public interface SerieCitasService {
+
+    // Crear las citas de la serie en una transacción; retorna el resultado de cada fecha
+    SerieCitasDTO crearSerie(SerieCitasRequestDTO solicitud);
+}
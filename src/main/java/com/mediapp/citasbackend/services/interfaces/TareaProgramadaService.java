@@ -0,0 +1,19 @@
+package com.mediapp.citasbackend.services.interfaces;
+
+import java.time.Duration;
+import java.util.Optional;
+
+public interface TareaProgramadaService {
+
+    // Tomar o renovar el arrendamiento de la tarea; false si otra instancia lo tiene vigente
+    boolean adquirir(String nombre, Duration duracion);
+
+    // Marca de avance guardada de la tarea
+    Optional<String> obtenerMarca(String nombre);
+
+    // Guardar la marca y renovar el arrendamiento; false si esta instancia lo perdió
+    boolean guardarMarca(String nombre, String marca, Duration duracion);
+
+    // Liberar el arrendamiento
+    void liberar(String nombre);
+}
@@ -0,0 +1,11 @@
+package com.mediapp.citasbackend.services.interfaces;
+
+import com.mediapp.citasbackend.dtos.TransicionLoteDTO;
+import com.mediapp.citasbackend.dtos.TransicionLoteRequestDTO;
+import com.mediapp.citasbackend.entities.Cita;
+
+public interface TransicionCitasService {
+
+    // Llevar las citas de la solicitud al estado indicado (COMPLETADA, CANCELADA o NO_ASISTIO)
+    TransicionLoteDTO cambiarEstado(TransicionLoteRequestDTO solicitud, Cita.Estado estado);
+}
@@ -0,0 +1,39 @@
+package com.mediapp.citasbackend.utils;
+
+import com.mediapp.citasbackend.entities.Cita;
+import com.mediapp.citasbackend.exceptions.InvalidDataException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posición de la última cita de una página en el orden (fecha, hora, id). La página siguiente
+ * empieza después de esa cita, así que no se salta ni repite citas aunque se creen o eliminen
+ * otras entre una petición y la siguiente. Se envía al cliente en Base64 URL.
+ */
+public record CursorCitas(LocalDate fecha, LocalTime hora, Integer idCita) {
+
+    public static CursorCitas deCita(Cita cita) {
+        return new CursorCitas(cita.getFechaCita(), cita.getHoraCita(), cita.getIdCita());
+    }
+
+    public static CursorCitas decodificar(String cursor) {
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (partes.length != 3) {
+                throw new InvalidDataException("Cursor de búsqueda inválido");
+            }
+            return new CursorCitas(LocalDate.parse(partes[0]), LocalTime.parse(partes[1]), Integer.valueOf(partes[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidDataException("Cursor de búsqueda inválido");
+        }
+    }
+
+    public String codificar() {
+        String texto = fecha + "|" + hora + "|" + idCita;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,208 @@
+package com.mediapp.citasbackend.utils;
+
+import com.mediapp.citasbackend.entities.ExcepcionDisponibilidad;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Excepciones de un médico compiladas para combinarlas con su PlantillaSemanal al expandir
+ * horarios. Es inmutable; un cambio en las excepciones produce una instancia nueva.
+ *
+ * Para una fecha cubierta por alguna excepción, delDia() da los bloques que reemplazan a los
+ * de la semana (los de los horarios especiales, o ninguno si el día está cerrado completo) y
+ * los rangos cerrados de ese día, ambos ordenados y sin cruces.
+ */
+public final class ExcepcionesPorFecha {
+
+    private static final int[] SIN_RANGOS = new int[0];
+
+    public static final ExcepcionesPorFecha VACIAS = new ExcepcionesPorFecha(new long[0], new long[0],
+            new ExcepcionDisponibilidad.Tipo[0], new int[0], new int[0], new int[0]);
+
+    /**
+     * Ajuste de un día: bloques (inicio, fin, intervalo) en minutos que reemplazan a los de la
+     * semana, o null si se usan los de la semana; y rangos cerrados como pares (inicio, fin)
+     */
+    public record Dia(int[] bloques, int[] cerrados) {
+    }
+
+    // Ordenados por fecha de inicio; fechas como días epoch y horas en minutos del día (-1 sin hora)
+    private final long[] desde;
+    private final long[] hasta;
+    private final ExcepcionDisponibilidad.Tipo[] tipos;
+    private final int[] horaInicio;
+    private final int[] horaFin;
+    private final int[] intervalos;
+
+    private ExcepcionesPorFecha(long[] desde, long[] hasta, ExcepcionDisponibilidad.Tipo[] tipos,
+                                int[] horaInicio, int[] horaFin, int[] intervalos) {
+        this.desde = desde;
+        this.hasta = hasta;
+        this.tipos = tipos;
+        this.horaInicio = horaInicio;
+        this.horaFin = horaFin;
+        this.intervalos = intervalos;
+    }
+
+    /**
+     * Compila las excepciones; las de rango de fechas o de horas inválido se ignoran
+     */
+    public static ExcepcionesPorFecha de(List<ExcepcionDisponibilidad> excepciones) {
+        List<ExcepcionDisponibilidad> validas = excepciones.stream()
+                .filter(e -> e.getTipo() != null && e.getFechaInicio() != null && e.getFechaFin() != null)
+                .filter(e -> !e.getFechaFin().isBefore(e.getFechaInicio()))
+                .filter(ExcepcionesPorFecha::horasValidas)
+                .sorted(Comparator.comparing(ExcepcionDisponibilidad::getFechaInicio))
+                .toList();
+        int n = validas.size();
+        long[] desde = new long[n];
+        long[] hasta = new long[n];
+        ExcepcionDisponibilidad.Tipo[] tipos = new ExcepcionDisponibilidad.Tipo[n];
+        int[] horaInicio = new int[n];
+        int[] horaFin = new int[n];
+        int[] intervalos = new int[n];
+        for (int i = 0; i < n; i++) {
+            ExcepcionDisponibilidad excepcion = validas.get(i);
+            desde[i] = excepcion.getFechaInicio().toEpochDay();
+            hasta[i] = excepcion.getFechaFin().toEpochDay();
+            tipos[i] = excepcion.getTipo();
+            horaInicio[i] = minutos(excepcion.getHoraInicio());
+            horaFin[i] = minutos(excepcion.getHoraFin());
+            intervalos[i] = excepcion.getIntervaloCitaMinutos() == null ? 0 : excepcion.getIntervaloCitaMinutos();
+        }
+        return new ExcepcionesPorFecha(desde, hasta, tipos, horaInicio, horaFin, intervalos);
+    }
+
+    public boolean estaVacia() {
+        return desde.length == 0;
+    }
+
+    public boolean tieneHorariosEspeciales() {
+        return Arrays.stream(tipos).anyMatch(t -> t == ExcepcionDisponibilidad.Tipo.HORARIO_ESPECIAL);
+    }
+
+    /**
+     * Ajuste de la fecha, o null si ninguna excepción la cubre
+     */
+    public Dia delDia(LocalDate fecha) {
+        long dia = fecha.toEpochDay();
+        boolean cubierta = false;
+        boolean cerradoCompleto = false;
+        int especiales = 0;
+        int cerrados = 0;
+        for (int i = 0; i < desde.length && desde[i] <= dia; i++) {
+            if (hasta[i] < dia) {
+                continue;
+            }
+            cubierta = true;
+            if (tipos[i] == ExcepcionDisponibilidad.Tipo.HORARIO_ESPECIAL) {
+                especiales++;
+            } else if (horaInicio[i] < 0) {
+                cerradoCompleto = true;
+            } else {
+                cerrados++;
+            }
+        }
+        if (!cubierta) {
+            return null;
+        }
+        if (cerradoCompleto) {
+            return new Dia(SIN_RANGOS, SIN_RANGOS);
+        }
+
+        int[] bloques = especiales == 0 ? null : new int[especiales * 3];
+        int[] rangos = new int[cerrados * 2];
+        int b = 0;
+        int r = 0;
+        for (int i = 0; i < desde.length && desde[i] <= dia; i++) {
+            if (hasta[i] < dia) {
+                continue;
+            }
+            if (tipos[i] == ExcepcionDisponibilidad.Tipo.HORARIO_ESPECIAL) {
+                bloques[b++] = horaInicio[i];
+                bloques[b++] = horaFin[i];
+                bloques[b++] = intervalos[i];
+            } else {
+                rangos[r++] = horaInicio[i];
+                rangos[r++] = horaFin[i];
+            }
+        }
+        return new Dia(bloques == null ? null : sinCruces(bloques), unir(rangos));
+    }
+
+    /**
+     * Intervalo del horario especial que contiene el minuto, o del primero del día si ninguno lo
+     * contiene; -1 si la fecha no tiene horario especial
+     */
+    public int duracion(LocalDate fecha, int minuto) {
+        Dia ajuste = delDia(fecha);
+        if (ajuste == null || ajuste.bloques() == null) {
+            return -1;
+        }
+        return PlantillaSemanal.duracion(ajuste.bloques(), minuto);
+    }
+
+    private static boolean horasValidas(ExcepcionDisponibilidad excepcion) {
+        LocalTime inicio = excepcion.getHoraInicio();
+        LocalTime fin = excepcion.getHoraFin();
+        if (excepcion.getTipo() == ExcepcionDisponibilidad.Tipo.CERRADO && inicio == null && fin == null) {
+            return true;
+        }
+        if (inicio == null || fin == null || !inicio.isBefore(fin)) {
+            return false;
+        }
+        return excepcion.getTipo() == ExcepcionDisponibilidad.Tipo.CERRADO
+                || (excepcion.getIntervaloCitaMinutos() != null && excepcion.getIntervaloCitaMinutos() > 0);
+    }
+
+    private static int minutos(LocalTime hora) {
+        return hora == null ? -1 : hora.toSecondOfDay() / 60;
+    }
+
+    // Bloques ordenados por inicio; el que empieza dentro del anterior se recorta desde su fin
+    private static int[] sinCruces(int[] bloques) {
+        int[][] tripletas = new int[bloques.length / 3][];
+        for (int i = 0; i < tripletas.length; i++) {
+            tripletas[i] = new int[]{bloques[i * 3], bloques[i * 3 + 1], bloques[i * 3 + 2]};
+        }
+        Arrays.sort(tripletas, Comparator.comparingInt(t -> t[0]));
+        int[] resultado = new int[bloques.length];
+        int n = 0;
+        int ocupadoHasta = -1;
+        for (int[] tripleta : tripletas) {
+            int inicio = Math.max(tripleta[0], ocupadoHasta);
+            if (inicio >= tripleta[1]) {
+                continue;
+            }
+            resultado[n++] = inicio;
+            resultado[n++] = tripleta[1];
+            resultado[n++] = tripleta[2];
+            ocupadoHasta = tripleta[1];
+        }
+        return Arrays.copyOf(resultado, n);
+    }
+
+    // Rangos (inicio, fin) ordenados por inicio, uniendo los que se cruzan o se tocan
+    private static int[] unir(int[] rangos) {
+        int[][] pares = new int[rangos.length / 2][];
+        for (int i = 0; i < pares.length; i++) {
+            pares[i] = new int[]{rangos[i * 2], rangos[i * 2 + 1]};
+        }
+        Arrays.sort(pares, Comparator.comparingInt(p -> p[0]));
+        int[] resultado = new int[rangos.length];
+        int n = 0;
+        for (int[] par : pares) {
+            if (n > 0 && par[0] <= resultado[n - 1]) {
+                resultado[n - 1] = Math.max(resultado[n - 1], par[1]);
+            } else {
+                resultado[n++] = par[0];
+                resultado[n++] = par[1];
+            }
+        }
+        return Arrays.copyOf(resultado, n);
+    }
+}
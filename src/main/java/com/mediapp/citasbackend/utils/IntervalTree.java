@@ -0,0 +1,178 @@
+package com.mediapp.citasbackend.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Árbol de intervalos semiabiertos [inicio, fin) sobre enteros (p. ej. minutos del día).
+ * Es un treap ordenado por inicio en el que cada nodo guarda el fin máximo de su subárbol:
+ * insertar, eliminar y encontrar un solapamiento cuestan O(log n) esperado, y listar los k
+ * solapamientos O(log n + k). No es seguro para uso concurrente.
+ */
+public final class IntervalTree<T> {
+
+    private static final class Nodo<T> {
+        final int inicio;
+        final int fin;
+        final T valor;
+        final int prioridad = ThreadLocalRandom.current().nextInt();
+        int finMaximo;
+        Nodo<T> izquierdo;
+        Nodo<T> derecho;
+
+        Nodo(int inicio, int fin, T valor) {
+            this.inicio = inicio;
+            this.fin = fin;
+            this.valor = valor;
+            this.finMaximo = fin;
+        }
+    }
+
+    private Nodo<T> raiz;
+    private int tamano;
+
+    public void insertar(int inicio, int fin, T valor) {
+        if (fin <= inicio) {
+            throw new IllegalArgumentException("El intervalo [" + inicio + ", " + fin + ") está vacío");
+        }
+        raiz = insertar(raiz, new Nodo<>(inicio, fin, valor));
+        tamano++;
+    }
+
+    /**
+     * Elimina el intervalo que empieza en inicio con ese valor (según equals); false si no estaba
+     */
+    public boolean eliminar(int inicio, T valor) {
+        int antes = tamano;
+        raiz = eliminar(raiz, inicio, valor);
+        return tamano < antes;
+    }
+
+    /**
+     * Algún intervalo que se cruce con [inicio, fin)
+     */
+    public Optional<T> buscarSolapamiento(int inicio, int fin) {
+        Nodo<T> nodo = raiz;
+        while (nodo != null) {
+            if (nodo.inicio < fin && inicio < nodo.fin) {
+                return Optional.of(nodo.valor);
+            }
+            // Si el subárbol izquierdo puede tener un cruce, y no lo tiene, tampoco lo tiene el derecho
+            if (nodo.izquierdo != null && nodo.izquierdo.finMaximo > inicio) {
+                nodo = nodo.izquierdo;
+            } else {
+                nodo = nodo.derecho;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Todos los intervalos que se cruzan con [inicio, fin), ordenados por inicio
+     */
+    public List<T> solapamientos(int inicio, int fin) {
+        List<T> resultado = new ArrayList<>();
+        recolectar(raiz, inicio, fin, resultado);
+        return resultado;
+    }
+
+    public int size() {
+        return tamano;
+    }
+
+    private void recolectar(Nodo<T> nodo, int inicio, int fin, List<T> resultado) {
+        if (nodo == null || nodo.finMaximo <= inicio) {
+            return;
+        }
+        recolectar(nodo.izquierdo, inicio, fin, resultado);
+        if (nodo.inicio < fin) {
+            if (inicio < nodo.fin) {
+                resultado.add(nodo.valor);
+            }
+            recolectar(nodo.derecho, inicio, fin, resultado);
+        }
+    }
+
+    private Nodo<T> insertar(Nodo<T> nodo, Nodo<T> nuevo) {
+        if (nodo == null) {
+            return nuevo;
+        }
+        if (nuevo.inicio < nodo.inicio) {
+            nodo.izquierdo = insertar(nodo.izquierdo, nuevo);
+            if (nodo.izquierdo.prioridad > nodo.prioridad) {
+                nodo = rotarDerecha(nodo);
+            }
+        } else {
+            nodo.derecho = insertar(nodo.derecho, nuevo);
+            if (nodo.derecho.prioridad > nodo.prioridad) {
+                nodo = rotarIzquierda(nodo);
+            }
+        }
+        return actualizar(nodo);
+    }
+
+    private Nodo<T> eliminar(Nodo<T> nodo, int inicio, T valor) {
+        if (nodo == null) {
+            return null;
+        }
+        if (inicio < nodo.inicio) {
+            nodo.izquierdo = eliminar(nodo.izquierdo, inicio, valor);
+        } else if (inicio > nodo.inicio) {
+            nodo.derecho = eliminar(nodo.derecho, inicio, valor);
+        } else if (nodo.valor.equals(valor)) {
+            tamano--;
+            return unir(nodo.izquierdo, nodo.derecho);
+        } else {
+            // Con inicios repetidos el intervalo puede estar a cualquiera de los dos lados
+            int antes = tamano;
+            nodo.izquierdo = eliminar(nodo.izquierdo, inicio, valor);
+            if (tamano == antes) {
+                nodo.derecho = eliminar(nodo.derecho, inicio, valor);
+            }
+        }
+        return actualizar(nodo);
+    }
+
+    private Nodo<T> unir(Nodo<T> izquierdo, Nodo<T> derecho) {
+        if (izquierdo == null) {
+            return derecho;
+        }
+        if (derecho == null) {
+            return izquierdo;
+        }
+        if (izquierdo.prioridad > derecho.prioridad) {
+            izquierdo.derecho = unir(izquierdo.derecho, derecho);
+            return actualizar(izquierdo);
+        }
+        derecho.izquierdo = unir(izquierdo, derecho.izquierdo);
+        return actualizar(derecho);
+    }
+
+    private Nodo<T> rotarDerecha(Nodo<T> nodo) {
+        Nodo<T> izquierdo = nodo.izquierdo;
+        nodo.izquierdo = izquierdo.derecho;
+        izquierdo.derecho = actualizar(nodo);
+        return izquierdo;
+    }
+
+    private Nodo<T> rotarIzquierda(Nodo<T> nodo) {
+        Nodo<T> derecho = nodo.derecho;
+        nodo.derecho = derecho.izquierdo;
+        derecho.izquierdo = actualizar(nodo);
+        return derecho;
+    }
+
+    private Nodo<T> actualizar(Nodo<T> nodo) {
+        int maximo = nodo.fin;
+        if (nodo.izquierdo != null) {
+            maximo = Math.max(maximo, nodo.izquierdo.finMaximo);
+        }
+        if (nodo.derecho != null) {
+            maximo = Math.max(maximo, nodo.derecho.finMaximo);
+        }
+        nodo.finMaximo = maximo;
+        return nodo;
+    }
+}
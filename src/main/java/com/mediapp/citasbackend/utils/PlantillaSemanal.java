@@ -0,0 +1,270 @@
+package com.mediapp.citasbackend.utils;
+
+import com.mediapp.citasbackend.entities.CalendarioDisponibilidad;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Horarios de un médico compilados desde sus bloques activos de CalendarioDisponibilidad: por
+ * cada día de la semana, los minutos del día en que empieza un horario (ordenados) y la duración
+ * de cada uno. Es inmutable; un cambio en los bloques produce una plantilla nueva.
+ *
+ * Un bloque [horaInicio, horaFin) con intervalo n da los horarios horaInicio, horaInicio + n, ...
+ * mientras el horario completo quepa en el bloque.
+ *
+ * Las ExcepcionesPorFecha se aplican al expandir: en una fecha con excepciones los bloques de
+ * la semana (o los del horario especial) se expanden quitando los horarios que tocan un rango
+ * cerrado, sin cambiar la plantilla.
+ */
+public final class PlantillaSemanal {
+
+    private static final int[] SIN_HORARIOS = new int[0];
+
+    public static final PlantillaSemanal VACIA = new PlantillaSemanal(new int[7][], new int[7][], new int[7][]);
+
+    // Índice 0 = lunes, como DayOfWeek.getValue() - 1
+    private final int[][] inicios;
+    private final int[][] duraciones;
+    // Bloques del día ordenados por inicio, como tripletas (inicio, fin, intervalo)
+    private final int[][] bloques;
+
+    private PlantillaSemanal(int[][] inicios, int[][] duraciones, int[][] bloques) {
+        for (int dia = 0; dia < 7; dia++) {
+            inicios[dia] = inicios[dia] == null ? SIN_HORARIOS : inicios[dia];
+            duraciones[dia] = duraciones[dia] == null ? SIN_HORARIOS : duraciones[dia];
+            bloques[dia] = bloques[dia] == null ? SIN_HORARIOS : bloques[dia];
+        }
+        this.inicios = inicios;
+        this.duraciones = duraciones;
+        this.bloques = bloques;
+    }
+
+    /**
+     * Compila los bloques activos; los inactivos y los que no tienen un horario completo se ignoran
+     */
+    public static PlantillaSemanal de(List<CalendarioDisponibilidad> disponibilidades) {
+        int[][] inicios = new int[7][];
+        int[][] duraciones = new int[7][];
+        int[][] bloques = new int[7][];
+        for (CalendarioDisponibilidad.DiaSemana dia : CalendarioDisponibilidad.DiaSemana.values()) {
+            List<CalendarioDisponibilidad> delDia = disponibilidades.stream()
+                    .filter(d -> d.getDiaSemana() == dia && d.getEstado() == CalendarioDisponibilidad.Estado.ACTIVO)
+                    .filter(d -> d.getIntervaloCitaMinutos() != null && d.getIntervaloCitaMinutos() > 0)
+                    .filter(d -> d.getHoraInicio().isBefore(d.getHoraFin()))
+                    .sorted(Comparator.comparing(CalendarioDisponibilidad::getHoraInicio))
+                    .toList();
+            int total = 0;
+            for (CalendarioDisponibilidad bloque : delDia) {
+                total += (minutos(bloque.getHoraFin()) - minutos(bloque.getHoraInicio())) / bloque.getIntervaloCitaMinutos();
+            }
+            int[] diaInicios = new int[total];
+            int[] diaDuraciones = new int[total];
+            int[] diaBloques = new int[delDia.size() * 3];
+            int n = 0;
+            int b = 0;
+            for (CalendarioDisponibilidad bloque : delDia) {
+                int inicio = minutos(bloque.getHoraInicio());
+                int fin = minutos(bloque.getHoraFin());
+                int intervalo = bloque.getIntervaloCitaMinutos();
+                for (int minuto = inicio; minuto + intervalo <= fin; minuto += intervalo) {
+                    diaInicios[n] = minuto;
+                    diaDuraciones[n++] = intervalo;
+                }
+                diaBloques[b++] = inicio;
+                diaBloques[b++] = fin;
+                diaBloques[b++] = intervalo;
+            }
+            // Con bloques válidos no hay cruces; si los hubiera, los horarios se ordenan igual
+            if (!ordenado(diaInicios)) {
+                ordenar(diaInicios, diaDuraciones);
+            }
+            inicios[dia.ordinal()] = diaInicios;
+            duraciones[dia.ordinal()] = diaDuraciones;
+            bloques[dia.ordinal()] = diaBloques;
+        }
+        return new PlantillaSemanal(inicios, duraciones, bloques);
+    }
+
+    public boolean estaVacia() {
+        return Arrays.stream(inicios).allMatch(dia -> dia.length == 0);
+    }
+
+    public int horariosDelDia(DayOfWeek dia) {
+        return inicios[dia.getValue() - 1].length;
+    }
+
+    /**
+     * Indica si en ese día de la semana empieza un horario en el minuto dado
+     */
+    public boolean esInicio(DayOfWeek dia, int minuto) {
+        return Arrays.binarySearch(inicios[dia.getValue() - 1], minuto) >= 0;
+    }
+
+    /**
+     * Intervalo del bloque que contiene el minuto, o del primero del día si ninguno lo contiene;
+     * -1 si el día no tiene bloques
+     */
+    public int duracion(DayOfWeek dia, int minuto) {
+        return duracion(bloques[dia.getValue() - 1], minuto);
+    }
+
+    static int duracion(int[] delDia, int minuto) {
+        if (delDia.length == 0) {
+            return -1;
+        }
+        for (int b = 0; b < delDia.length; b += 3) {
+            if (minuto >= delDia[b] && minuto < delDia[b + 1]) {
+                return delDia[b + 2];
+            }
+        }
+        return delDia[2];
+    }
+
+    /**
+     * Recorrido de los horarios entre dos fechas (ambas incluidas), en orden de fecha y hora
+     */
+    public Cursor horarios(LocalDate desde, LocalDate hasta) {
+        return horarios(desde, hasta, ExcepcionesPorFecha.VACIAS);
+    }
+
+    /**
+     * Como horarios(desde, hasta), con las excepciones del médico aplicadas en sus fechas
+     */
+    public Cursor horarios(LocalDate desde, LocalDate hasta, ExcepcionesPorFecha excepciones) {
+        return new Cursor(desde, hasta, excepciones);
+    }
+
+    private static int minutos(LocalTime hora) {
+        return hora.toSecondOfDay() / 60;
+    }
+
+    private static boolean ordenado(int[] valores) {
+        for (int i = 1; i < valores.length; i++) {
+            if (valores[i] < valores[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Horarios de los bloques sin los que se cruzan con un rango cerrado; devuelve {inicios,
+     * duraciones}. Dentro de un bloque horarios y rangos van en orden, así que basta un barrido.
+     */
+    static int[][] expandir(int[] delDia, int[] cerrados) {
+        int total = 0;
+        for (int b = 0; b < delDia.length; b += 3) {
+            total += (delDia[b + 1] - delDia[b]) / delDia[b + 2];
+        }
+        int[] diaInicios = new int[total];
+        int[] diaDuraciones = new int[total];
+        int n = 0;
+        for (int b = 0; b < delDia.length; b += 3) {
+            int intervalo = delDia[b + 2];
+            int c = 0;
+            for (int minuto = delDia[b]; minuto + intervalo <= delDia[b + 1]; minuto += intervalo) {
+                while (c < cerrados.length && cerrados[c + 1] <= minuto) {
+                    c += 2;
+                }
+                if (c < cerrados.length && cerrados[c] < minuto + intervalo) {
+                    continue;
+                }
+                diaInicios[n] = minuto;
+                diaDuraciones[n++] = intervalo;
+            }
+        }
+        diaInicios = Arrays.copyOf(diaInicios, n);
+        diaDuraciones = Arrays.copyOf(diaDuraciones, n);
+        if (!ordenado(diaInicios)) {
+            ordenar(diaInicios, diaDuraciones);
+        }
+        return new int[][]{diaInicios, diaDuraciones};
+    }
+
+    // Inserción sobre los dos arreglos a la vez: solo se usa con bloques que se cruzan
+    private static void ordenar(int[] claves, int[] valores) {
+        for (int i = 1; i < claves.length; i++) {
+            int clave = claves[i];
+            int valor = valores[i];
+            int j = i - 1;
+            while (j >= 0 && claves[j] > clave) {
+                claves[j + 1] = claves[j];
+                valores[j + 1] = valores[j];
+                j--;
+            }
+            claves[j + 1] = clave;
+            valores[j + 1] = valor;
+        }
+    }
+
+    /**
+     * Avanza horario por horario sin crear un objeto por horario: fecha() cambia una vez por
+     * día y minuto() / duracion() son primitivos
+     */
+    public final class Cursor {
+
+        private final LocalDate hasta;
+        private final ExcepcionesPorFecha excepciones;
+        private LocalDate fecha;
+        private int[] delDia;
+        private int[] duracionesDelDia;
+        private int posicion;
+
+        private Cursor(LocalDate desde, LocalDate hasta, ExcepcionesPorFecha excepciones) {
+            this.hasta = hasta;
+            this.excepciones = excepciones;
+            this.fecha = estaVacia() && !excepciones.tieneHorariosEspeciales() ? hasta.plusDays(1) : desde;
+            cargarDia();
+            this.posicion = -1;
+        }
+
+        /**
+         * Pasa al siguiente horario; false cuando no quedan más en el rango
+         */
+        public boolean siguiente() {
+            while (!fecha.isAfter(hasta)) {
+                if (++posicion < delDia.length) {
+                    return true;
+                }
+                fecha = fecha.plusDays(1);
+                cargarDia();
+                posicion = -1;
+            }
+            return false;
+        }
+
+        public LocalDate fecha() {
+            return fecha;
+        }
+
+        public int minuto() {
+            return delDia[posicion];
+        }
+
+        public int duracion() {
+            return duracionesDelDia[posicion];
+        }
+
+        public LocalTime hora() {
+            return LocalTime.ofSecondOfDay(minuto() * 60L);
+        }
+
+        private void cargarDia() {
+            int dia = fecha.getDayOfWeek().getValue() - 1;
+            ExcepcionesPorFecha.Dia ajuste = excepciones.estaVacia() ? null : excepciones.delDia(fecha);
+            if (ajuste == null) {
+                delDia = inicios[dia];
+                duracionesDelDia = duraciones[dia];
+                return;
+            }
+            int[][] expandidos = expandir(ajuste.bloques() != null ? ajuste.bloques() : bloques[dia], ajuste.cerrados());
+            delDia = expandidos[0];
+            duracionesDelDia = expandidos[1];
+        }
+    }
+}
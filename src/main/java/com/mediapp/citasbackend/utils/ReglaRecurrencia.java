@@ -0,0 +1,192 @@
+package com.mediapp.citasbackend.utils;
+
+import com.mediapp.citasbackend.exceptions.InvalidDataException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Subconjunto de las reglas RRULE (RFC 5545) para series de citas, p. ej.
+ * "FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,TH;COUNT=10". Admite FREQ (DAILY, WEEKLY o MONTHLY),
+ * INTERVAL, COUNT, UNTIL (yyyy-MM-dd o yyyyMMdd, inclusiva) y BYDAY (solo semanal). La regla
+ * debe indicar COUNT o UNTIL. La fecha de inicio solo cuenta si cumple la regla; en la
+ * frecuencia mensual se saltan los meses que no tienen el día de la fecha de inicio.
+ */
+public final class ReglaRecurrencia {
+
+    public enum Frecuencia {
+        DAILY,
+        WEEKLY,
+        MONTHLY
+    }
+
+    private static final Map<String, DayOfWeek> DIAS = Map.of(
+            "MO", DayOfWeek.MONDAY, "TU", DayOfWeek.TUESDAY, "WE", DayOfWeek.WEDNESDAY,
+            "TH", DayOfWeek.THURSDAY, "FR", DayOfWeek.FRIDAY, "SA", DayOfWeek.SATURDAY, "SU", DayOfWeek.SUNDAY);
+
+    private final Frecuencia frecuencia;
+    private final int intervalo;
+    private final Integer cuenta;
+    private final LocalDate hasta;
+    private final Set<DayOfWeek> dias;
+
+    private ReglaRecurrencia(Frecuencia frecuencia, int intervalo, Integer cuenta, LocalDate hasta, Set<DayOfWeek> dias) {
+        this.frecuencia = frecuencia;
+        this.intervalo = intervalo;
+        this.cuenta = cuenta;
+        this.hasta = hasta;
+        this.dias = dias;
+    }
+
+    public static ReglaRecurrencia parse(String regla) {
+        if (regla == null || regla.isBlank()) {
+            throw new InvalidDataException("La regla de recurrencia es obligatoria");
+        }
+        String texto = regla.trim().toUpperCase(Locale.ROOT);
+        if (texto.startsWith("RRULE:")) {
+            texto = texto.substring("RRULE:".length());
+        }
+
+        Frecuencia frecuencia = null;
+        int intervalo = 1;
+        Integer cuenta = null;
+        LocalDate hasta = null;
+        Set<DayOfWeek> dias = EnumSet.noneOf(DayOfWeek.class);
+        for (String parte : texto.split(";")) {
+            if (parte.isBlank()) {
+                continue;
+            }
+            int igual = parte.indexOf('=');
+            if (igual <= 0) {
+                throw new InvalidDataException("Parte inválida en la regla de recurrencia: " + parte);
+            }
+            String clave = parte.substring(0, igual).trim();
+            String valor = parte.substring(igual + 1).trim();
+            switch (clave) {
+                case "FREQ" -> frecuencia = frecuencia(valor);
+                case "INTERVAL" -> intervalo = entero(clave, valor);
+                case "COUNT" -> cuenta = entero(clave, valor);
+                case "UNTIL" -> hasta = fecha(valor);
+                case "BYDAY" -> {
+                    for (String dia : valor.split(",")) {
+                        DayOfWeek diaSemana = DIAS.get(dia.trim());
+                        if (diaSemana == null) {
+                            throw new InvalidDataException("Día inválido en BYDAY: " + dia);
+                        }
+                        dias.add(diaSemana);
+                    }
+                }
+                default -> throw new InvalidDataException("Parte no soportada en la regla de recurrencia: " + clave);
+            }
+        }
+
+        if (frecuencia == null) {
+            throw new InvalidDataException("La regla de recurrencia debe indicar FREQ");
+        }
+        if (cuenta == null && hasta == null) {
+            throw new InvalidDataException("La regla de recurrencia debe indicar COUNT o UNTIL");
+        }
+        if (!dias.isEmpty() && frecuencia != Frecuencia.WEEKLY) {
+            throw new InvalidDataException("BYDAY solo se admite con FREQ=WEEKLY");
+        }
+        return new ReglaRecurrencia(frecuencia, intervalo, cuenta, hasta, dias);
+    }
+
+    /**
+     * Fechas de la serie desde la fecha de inicio, en orden. Falla si la regla genera más de
+     * "maximo" fechas, para que una regla abierta no recorra años de calendario.
+     */
+    public List<LocalDate> fechas(LocalDate inicio, int maximo) {
+        List<LocalDate> fechas = new ArrayList<>();
+        for (long periodo = 0; ; periodo++) {
+            LocalDate desde = inicioDelPeriodo(inicio, periodo * intervalo);
+            if (hasta != null && desde.isAfter(hasta)) {
+                return fechas;
+            }
+            for (LocalDate fecha : fechasDelPeriodo(inicio, desde)) {
+                if ((hasta != null && fecha.isAfter(hasta)) || (cuenta != null && fechas.size() == cuenta)) {
+                    return fechas;
+                }
+                if (fechas.size() == maximo) {
+                    throw new InvalidDataException("La serie no puede tener más de " + maximo + " citas");
+                }
+                fechas.add(fecha);
+            }
+        }
+    }
+
+    private LocalDate inicioDelPeriodo(LocalDate inicio, long desplazamiento) {
+        return switch (frecuencia) {
+            case DAILY -> inicio.plusDays(desplazamiento);
+            case WEEKLY -> inicio.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).plusWeeks(desplazamiento);
+            case MONTHLY -> YearMonth.from(inicio).plusMonths(desplazamiento).atDay(1);
+        };
+    }
+
+    private List<LocalDate> fechasDelPeriodo(LocalDate inicio, LocalDate desde) {
+        return switch (frecuencia) {
+            case DAILY -> List.of(desde);
+            case WEEKLY -> {
+                if (dias.isEmpty()) {
+                    yield List.of(desde.with(TemporalAdjusters.nextOrSame(inicio.getDayOfWeek())));
+                }
+                // EnumSet recorre los días de lunes a domingo
+                List<LocalDate> semana = new ArrayList<>();
+                for (DayOfWeek dia : dias) {
+                    LocalDate fecha = desde.with(TemporalAdjusters.nextOrSame(dia));
+                    if (!fecha.isBefore(inicio)) {
+                        semana.add(fecha);
+                    }
+                }
+                yield semana;
+            }
+            case MONTHLY -> {
+                YearMonth mes = YearMonth.from(desde);
+                yield mes.isValidDay(inicio.getDayOfMonth()) ? List.of(mes.atDay(inicio.getDayOfMonth())) : List.of();
+            }
+        };
+    }
+
+    private static Frecuencia frecuencia(String valor) {
+        try {
+            return Frecuencia.valueOf(valor);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidDataException("FREQ debe ser DAILY, WEEKLY o MONTHLY");
+        }
+    }
+
+    private static int entero(String clave, String valor) {
+        try {
+            int numero = Integer.parseInt(valor);
+            if (numero >= 1) {
+                return numero;
+            }
+        } catch (NumberFormatException e) {
+            // Se reporta abajo
+        }
+        throw new InvalidDataException(clave + " debe ser un entero positivo");
+    }
+
+    private static LocalDate fecha(String valor) {
+        try {
+            if (valor.contains("-")) {
+                return LocalDate.parse(valor);
+            }
+            // Forma básica de RFC 5545; la hora de una fecha-hora se ignora
+            String dia = valor.length() > 8 ? valor.substring(0, 8) : valor;
+            return LocalDate.parse(dia, DateTimeFormatter.BASIC_ISO_DATE);
+        } catch (DateTimeParseException e) {
+            throw new InvalidDataException("UNTIL debe ser una fecha yyyy-MM-dd o yyyyMMdd");
+        }
+    }
+}
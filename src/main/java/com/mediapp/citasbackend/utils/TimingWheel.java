@@ -0,0 +1,107 @@
+package com.mediapp.citasbackend.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rueda de tiempos con ranuras de tickMillis: programar y cancelar son O(1), y cada avance
+ * recorre solo las ranuras de los ticks transcurridos, así que liberar un elemento vencido
+ * también es O(1). Los vencimientos más lejanos que una vuelta completa esperan en su ranura
+ * contando vueltas. No es segura para uso concurrente.
+ */
+public final class TimingWheel<T> {
+
+    public static final class Entrada<T> {
+        private final T valor;
+        private long vueltas;
+        private Entrada<T> anterior;
+        private Entrada<T> siguiente;
+
+        private Entrada(T valor) {
+            this.valor = valor;
+        }
+
+        public T getValor() {
+            return valor;
+        }
+    }
+
+    private final long tickMillis;
+    private final Entrada<T>[] ranuras;
+    // Último tick procesado
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int numeroRanuras, long ahoraMillis) {
+        if (tickMillis <= 0 || numeroRanuras <= 0) {
+            throw new IllegalArgumentException("El tick y el número de ranuras deben ser mayores a cero");
+        }
+        this.tickMillis = tickMillis;
+        this.ranuras = new Entrada[numeroRanuras];
+        for (int i = 0; i < numeroRanuras; i++) {
+            // Centinela de una lista circular doblemente enlazada
+            Entrada<T> centinela = new Entrada<>(null);
+            centinela.anterior = centinela;
+            centinela.siguiente = centinela;
+            ranuras[i] = centinela;
+        }
+        this.tick = ahoraMillis / tickMillis;
+    }
+
+    /**
+     * Programa el valor para que avanzar lo devuelva en el primer tick en o después de venceMillis
+     */
+    public Entrada<T> programar(T valor, long venceMillis) {
+        long destino = Math.max(Math.floorDiv(venceMillis + tickMillis - 1, tickMillis), tick + 1);
+        Entrada<T> entrada = new Entrada<>(valor);
+        entrada.vueltas = (destino - tick - 1) / ranuras.length;
+        Entrada<T> centinela = ranuras[(int) (destino % ranuras.length)];
+        entrada.anterior = centinela.anterior;
+        entrada.siguiente = centinela;
+        centinela.anterior.siguiente = entrada;
+        centinela.anterior = entrada;
+        return entrada;
+    }
+
+    /**
+     * Quita una entrada antes de que venza; false si ya había vencido o se había cancelado
+     */
+    public boolean cancelar(Entrada<T> entrada) {
+        if (entrada.siguiente == null) {
+            return false;
+        }
+        desenlazar(entrada);
+        return true;
+    }
+
+    /**
+     * Procesa los ticks hasta ahoraMillis y devuelve los valores vencidos
+     */
+    public List<T> avanzar(long ahoraMillis) {
+        List<T> vencidos = new ArrayList<>();
+        long hasta = ahoraMillis / tickMillis;
+        while (tick < hasta) {
+            tick++;
+            Entrada<T> centinela = ranuras[(int) (tick % ranuras.length)];
+            Entrada<T> entrada = centinela.siguiente;
+            while (entrada != centinela) {
+                Entrada<T> siguiente = entrada.siguiente;
+                if (entrada.vueltas == 0) {
+                    desenlazar(entrada);
+                    vencidos.add(entrada.valor);
+                } else {
+                    entrada.vueltas--;
+                }
+                entrada = siguiente;
+            }
+        }
+        return vencidos;
+    }
+
+    private void desenlazar(Entrada<T> entrada) {
+        entrada.anterior.siguiente = entrada.siguiente;
+        entrada.siguiente.anterior = entrada.anterior;
+        entrada.anterior = null;
+        entrada.siguiente = null;
+    }
+}
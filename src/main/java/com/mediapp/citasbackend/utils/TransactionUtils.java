@@ -0,0 +1,26 @@
+package com.mediapp.citasbackend.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Clase de utilidades para trabajo ligado a transacciones
+ */
+public class TransactionUtils {
+
+    /**
+     * Ejecuta la acción cuando confirme la transacción en curso, o de inmediato si no hay ninguna
+     */
+    public static void alConfirmar(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+}
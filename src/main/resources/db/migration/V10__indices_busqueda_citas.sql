@@ -0,0 +1,8 @@
+-- Búsqueda de citas por médico o paciente en orden de fecha y hora; el primero también sirve para
+-- bloquear el día de un médico al agendar.
+
+create index idx_citas_medico_fecha_hora
+   on citas (id_medico, fecha_cita, hora_cita);
+
+create index idx_citas_paciente_fecha
+   on citas (id_paciente, fecha_cita);
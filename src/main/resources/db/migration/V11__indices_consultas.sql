@@ -0,0 +1,45 @@
+-- Índices para los predicados de las consultas de los repositorios que recorrían la tabla entera.
+-- Se replican en las anotaciones @Index de las entidades; PlanConsultasTest falla si una consulta
+-- nueva sobre una tabla grande no tiene índice utilizable.
+
+-- Búsquedas por identificador externo (registro y validación de duplicados)
+create index idx_medicos_numero_licencia
+   on medicos (numero_licencia);
+
+create index idx_pacientes_numero_identificacion
+   on pacientes (numero_identificacion);
+
+create index idx_usuarios_telefono
+   on usuarios (telefono);
+
+-- Médicos pendientes de verificación y verificados recientes
+create index idx_medicos_estado_verificacion
+   on medicos (estado_verificacion, fecha_verificacion);
+
+-- Médicos con horario activo en un día de la semana
+create index idx_calendario_dia_estado
+   on calendario_disponibilidad (dia_semana, estado, hora_inicio);
+
+-- Recordatorios sin leer y listados por tipo, en orden de envío
+create index idx_notificaciones_tipo_leida_fecha
+   on notificaciones (tipo_notificacion, leida, fecha_envio);
+
+create index idx_notificaciones_fecha_envio
+   on notificaciones (fecha_envio);
+
+create index idx_evaluaciones_fecha
+   on evaluaciones (fecha_evaluacion);
+
+-- Evaluaciones por calificación, de la más reciente a la más antigua
+create index idx_evaluaciones_calificacion_fecha
+   on evaluaciones (calificacion, fecha_evaluacion);
+
+-- Seguimientos pendientes y vencidos
+create index idx_historial_proximo_seguimiento
+   on historial_medico (fecha_proximo_seguimiento);
+
+create index idx_prescripciones_fecha
+   on prescripciones (fecha_prescripcion);
+
+create index idx_prescripciones_medicamento
+   on prescripciones (nombre_medicamento);
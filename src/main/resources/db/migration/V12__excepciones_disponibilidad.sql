@@ -0,0 +1,24 @@
+-- Excepciones por rango de fechas sobre el horario semanal de calendario_disponibilidad:
+-- días cerrados (completos o en un rango de horas) y horarios especiales que reemplazan los
+-- bloques de la semana en esas fechas.
+
+create table excepciones_disponibilidad (
+    fecha_fin date not null,
+    fecha_inicio date not null,
+    hora_fin time(6),
+    hora_inicio time(6),
+    id_excepcion integer not null auto_increment,
+    id_medico integer not null,
+    intervalo_cita_minutos integer,
+    tipo enum ('CERRADO','HORARIO_ESPECIAL') not null,
+    motivo varchar(255),
+    primary key (id_excepcion)
+) engine=InnoDB;
+
+-- Excepciones vigentes de un médico (las que terminan desde una fecha)
+create index idx_excepciones_medico_fecha_fin on excepciones_disponibilidad (id_medico, fecha_fin);
+
+alter table excepciones_disponibilidad
+   add constraint fk_excepciones_disponibilidad_medico
+   foreign key (id_medico)
+   references medicos (id_medico);
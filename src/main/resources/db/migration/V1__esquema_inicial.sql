@@ -0,0 +1,209 @@
+-- Esquema inicial: las tablas y restricciones que ddl-auto=update creaba a partir de las entidades
+-- antes de las migraciones. Una base creada así se registra como ya migrada hasta esta versión sin
+-- ejecutarla; lo agregado después va en las versiones siguientes.
+
+create table calendario_disponibilidad (
+    hora_fin time(6) not null,
+    hora_inicio time(6) not null,
+    id_disponibilidad integer not null auto_increment,
+    id_medico integer not null,
+    intervalo_cita_minutos integer not null,
+    dia_semana enum ('DOMINGO','JUEVES','LUNES','MARTES','MIERCOLES','SABADO','VIERNES') not null,
+    estado enum ('ACTIVO','INACTIVO') not null,
+    primary key (id_disponibilidad)
+) engine=InnoDB;
+
+create table citas (
+    fecha_cita date not null,
+    hora_cita time(6) not null,
+    id_cita integer not null auto_increment,
+    id_medico integer not null,
+    id_paciente integer not null,
+    fecha_cancelacion datetime(6),
+    fecha_creacion datetime(6) not null,
+    enlace_videollamada varchar(255),
+    motivo_consulta varchar(255),
+    estado enum ('CANCELADA','COMPLETADA','NO_ASISTIO','PROGRAMADA') not null,
+    tipo_cita enum ('PRESENCIAL','TELEMEDICINA') not null,
+    primary key (id_cita)
+) engine=InnoDB;
+
+create table especialidades (
+    id_especialidad integer not null auto_increment,
+    nombre_especialidad varchar(100) not null,
+    descripcion TEXT,
+    estado enum ('ACTIVA','INACTIVA') not null,
+    primary key (id_especialidad)
+) engine=InnoDB;
+
+create table evaluaciones (
+    calificacion integer not null,
+    id_evaluacion integer not null auto_increment,
+    id_medico integer not null,
+    id_paciente integer not null,
+    fecha_evaluacion datetime(6) not null,
+    comentario TEXT,
+    respuesta_medico TEXT,
+    primary key (id_evaluacion)
+) engine=InnoDB;
+
+create table historial_medico (
+    fecha_proximo_seguimiento date,
+    id_cita integer not null,
+    id_historial integer not null auto_increment,
+    id_medico integer not null,
+    id_paciente integer not null,
+    diagnostico TEXT,
+    medicamentos_prescritos TEXT,
+    observaciones TEXT,
+    sintomas_reportados TEXT,
+    tratamiento_recomendado TEXT,
+    primary key (id_historial)
+) engine=InnoDB;
+
+create table medicos (
+    calificacion_promedio decimal(2,1),
+    experiencia_anos integer,
+    fecha_verificacion date,
+    id_especialidad integer,
+    id_medico integer not null auto_increment,
+    id_usuario integer not null,
+    numero_licencia varchar(50),
+    hospital_afiliado varchar(100),
+    resumen_bio TEXT,
+    estado_verificacion enum ('PENDIENTE','VERIFICADO') not null,
+    primary key (id_medico)
+) engine=InnoDB;
+
+create table notificaciones (
+    id_notificacion integer not null auto_increment,
+    id_usuario integer not null,
+    leida bit not null,
+    fecha_envio datetime(6) not null,
+    titulo varchar(100) not null,
+    contenido TEXT,
+    enlace_relacionado varchar(255),
+    tipo_notificacion enum ('CITA_CONFIRMADA','MENSAJE','RECORDATORIO','RESULTADO') not null,
+    primary key (id_notificacion)
+) engine=InnoDB;
+
+create table pacientes (
+    id_paciente integer not null auto_increment,
+    id_usuario integer not null,
+    tipo_sangre varchar(5),
+    telefono_emergencia varchar(20),
+    numero_identificacion varchar(50),
+    contacto_emergencia varchar(100),
+    alergias TEXT,
+    enfermedades_cronicas TEXT,
+    medicamentos_actuales TEXT,
+    primary key (id_paciente)
+) engine=InnoDB;
+
+create table prescripciones (
+    duracion_dias integer,
+    fecha_prescripcion date not null,
+    id_historial integer not null,
+    id_prescripcion integer not null auto_increment,
+    dosis varchar(50),
+    frecuencia varchar(50),
+    nombre_medicamento varchar(100) not null,
+    instrucciones TEXT,
+    primary key (id_prescripcion)
+) engine=InnoDB;
+
+create table usuarios (
+    fecha_nacimiento date,
+    id_usuario integer not null auto_increment,
+    fecha_registro datetime(6) not null,
+    telefono varchar(20),
+    apellido varchar(100) not null,
+    ciudad varchar(100),
+    email varchar(100) not null,
+    nombre varchar(100) not null,
+    pais varchar(100),
+    direccion varchar(150),
+    contraseña varchar(255) not null,
+    foto_perfil varchar(255),
+    estado enum ('ACTIVO','BLOQUEADO','INACTIVO') not null,
+    genero enum ('FEMENINO','MASCULINO'),
+    tipo_usuario enum ('ADMIN','MEDICO','PACIENTE') not null,
+    primary key (id_usuario)
+) engine=InnoDB;
+
+alter table historial_medico
+   add constraint UKlk6hwogvydhebspcoececwnw5 unique (id_cita);
+
+alter table medicos
+   add constraint UKhjg0rokcxaikrg2o78ta08n4k unique (id_usuario);
+
+alter table pacientes
+   add constraint UKsukacb4bsdvdccsqxuulbindo unique (id_usuario);
+
+alter table usuarios
+   add constraint UKkfsp0s1tflm1cwlj8idhqsad0 unique (email);
+
+alter table calendario_disponibilidad
+   add constraint FKhf5t8j6l843e6a8jn2aeb8hdg
+   foreign key (id_medico)
+   references medicos (id_medico);
+
+alter table citas
+   add constraint FKgkqud4y6clhys6560jdbv7o8x
+   foreign key (id_medico)
+   references medicos (id_medico);
+
+alter table citas
+   add constraint FKa6jbqxi4v5ij2jdlgrmwnt94o
+   foreign key (id_paciente)
+   references pacientes (id_paciente);
+
+alter table evaluaciones
+   add constraint FK14n7op20wq8078r0snv49ool
+   foreign key (id_medico)
+   references medicos (id_medico);
+
+alter table evaluaciones
+   add constraint FKtq6lw7fxw3fctj3mfhoetbu35
+   foreign key (id_paciente)
+   references pacientes (id_paciente);
+
+alter table historial_medico
+   add constraint FKf6ng7n9357f11mdunq83je18p
+   foreign key (id_cita)
+   references citas (id_cita);
+
+alter table historial_medico
+   add constraint FKhxpbajny0vaev4f5g7e6emlw8
+   foreign key (id_medico)
+   references medicos (id_medico);
+
+alter table historial_medico
+   add constraint FKivynic64shed48cmhfm7b63qh
+   foreign key (id_paciente)
+   references pacientes (id_paciente);
+
+alter table medicos
+   add constraint FK2nylr0i1cc447kekjgtxvd7he
+   foreign key (id_especialidad)
+   references especialidades (id_especialidad);
+
+alter table medicos
+   add constraint FKhei0g6fy15d5komevfsk1qepe
+   foreign key (id_usuario)
+   references usuarios (id_usuario);
+
+alter table notificaciones
+   add constraint FKrr0ikjdv4qycj44q3lohskm4k
+   foreign key (id_usuario)
+   references usuarios (id_usuario);
+
+alter table pacientes
+   add constraint FK34je9ip2cpgvy3m4ove9lmmqk
+   foreign key (id_usuario)
+   references usuarios (id_usuario);
+
+alter table prescripciones
+   add constraint FK5hom8jd8w7npowsl5fi52plpq
+   foreign key (id_historial)
+   references historial_medico (id_historial);
@@ -0,0 +1,14 @@
+-- Contadores de citas por estado repartidos en franjas, por ámbito (global, médico o paciente).
+
+create table contadores_citas (
+    franja integer not null,
+    id_ambito integer not null,
+    id_contador bigint not null auto_increment,
+    total bigint not null,
+    ambito enum ('GLOBAL','MEDICO','PACIENTE') not null,
+    estado enum ('CANCELADA','COMPLETADA','NO_ASISTIO','PROGRAMADA') not null,
+    primary key (id_contador)
+) engine=InnoDB;
+
+alter table contadores_citas
+   add constraint uk_contador_cita unique (ambito, id_ambito, estado, franja);
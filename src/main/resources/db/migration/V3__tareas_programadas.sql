@@ -0,0 +1,14 @@
+-- Arriendo y marca de avance de las tareas programadas, y recorrido de las citas programadas
+-- vencidas en orden (fecha, hora, id) para el barrido de inasistencias.
+
+create table tareas_programadas (
+    bloqueada_hasta datetime(6),
+    ultima_ejecucion datetime(6),
+    nombre varchar(100) not null,
+    propietario varchar(150),
+    marca varchar(255),
+    primary key (nombre)
+) engine=InnoDB;
+
+create index idx_citas_estado_fecha_hora
+   on citas (estado, fecha_cita, hora_cita);
@@ -0,0 +1,4 @@
+-- Duración de cada cita; las existentes quedan sin duración y se toman con la predeterminada.
+
+alter table citas
+   add column duracion_minutos integer;
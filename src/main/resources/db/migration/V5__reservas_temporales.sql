@@ -0,0 +1,23 @@
+-- Reservas temporales de horarios mientras el paciente confirma la cita.
+
+create table reservas_temporales (
+    duracion_minutos integer not null,
+    fecha date not null,
+    hora time(6) not null,
+    id_medico integer not null,
+    id_paciente integer,
+    expira_en datetime(6) not null,
+    fecha_creacion datetime(6) not null,
+    id_reserva bigint not null auto_increment,
+    token varchar(36) not null,
+    primary key (id_reserva)
+) engine=InnoDB;
+
+create index idx_reservas_expira_en
+   on reservas_temporales (expira_en);
+
+alter table reservas_temporales
+   add constraint uk_reservas_medico_fecha_hora unique (id_medico, fecha, hora);
+
+alter table reservas_temporales
+   add constraint UK9mqb2g6c4a5oiic08womeroau unique (token);
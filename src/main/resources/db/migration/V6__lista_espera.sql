@@ -0,0 +1,26 @@
+-- Lista de espera de pacientes a los que se ofrecen los horarios de citas canceladas.
+
+create table lista_espera (
+    fecha_desde date not null,
+    fecha_hasta date not null,
+    id_cita_liberada integer,
+    id_especialidad integer,
+    id_medico integer,
+    id_paciente integer not null,
+    prioridad integer not null,
+    fecha_registro datetime(6) not null,
+    id_entrada bigint not null auto_increment,
+    ofrecida_hasta datetime(6),
+    token_reserva varchar(36),
+    estado enum ('ACTIVA','ATENDIDA','CANCELADA','OFRECIDA','VENCIDA') not null,
+    primary key (id_entrada)
+) engine=InnoDB;
+
+create index idx_lista_espera_medico
+   on lista_espera (id_medico, estado, fecha_desde);
+
+create index idx_lista_espera_especialidad
+   on lista_espera (id_especialidad, estado, fecha_desde);
+
+create index idx_lista_espera_oferta
+   on lista_espera (estado, ofrecida_hasta);
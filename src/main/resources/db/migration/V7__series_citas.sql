@@ -0,0 +1,7 @@
+-- Serie recurrente que creó cada cita.
+
+alter table citas
+   add column id_serie varchar(36);
+
+create index idx_citas_id_serie
+   on citas (id_serie);
@@ -0,0 +1,42 @@
+-- Citas terminadas antiguas movidas fuera de la tabla citas, y recorrido del archivado en orden
+-- de fecha.
+
+create table citas_archivo (
+    duracion_minutos integer,
+    fecha_cita date not null,
+    hora_cita time(6) not null,
+    id_cita integer not null,
+    id_medico integer not null,
+    id_paciente integer not null,
+    fecha_archivo datetime(6) not null,
+    fecha_cancelacion datetime(6),
+    fecha_creacion datetime(6) not null,
+    id_serie varchar(36),
+    enlace_videollamada varchar(255),
+    motivo_consulta varchar(255),
+    estado enum ('CANCELADA','COMPLETADA','NO_ASISTIO','PROGRAMADA') not null,
+    tipo_cita enum ('PRESENCIAL','TELEMEDICINA') not null,
+    primary key (id_cita)
+) engine=InnoDB;
+
+create index idx_citas_fecha_cita
+   on citas (fecha_cita);
+
+create index idx_citas_archivo_medico_fecha
+   on citas_archivo (id_medico, fecha_cita);
+
+create index idx_citas_archivo_paciente_fecha
+   on citas_archivo (id_paciente, fecha_cita);
+
+create index idx_citas_archivo_fecha
+   on citas_archivo (fecha_cita);
+
+alter table citas_archivo
+   add constraint FKagg0ah05qokeaj1hu4e648hvp
+   foreign key (id_medico)
+   references medicos (id_medico);
+
+alter table citas_archivo
+   add constraint FKeckw0ya1vqclc2pi3xrqnr44w
+   foreign key (id_paciente)
+   references pacientes (id_paciente);
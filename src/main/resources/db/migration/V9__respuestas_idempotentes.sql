@@ -0,0 +1,16 @@
+-- Respuestas guardadas de las peticiones POST con Idempotency-Key.
+
+create table respuestas_idempotentes (
+    status integer,
+    expira_en datetime(6) not null,
+    fecha_creacion datetime(6) not null,
+    clave varchar(64) not null,
+    huella varchar(64) not null,
+    tipo_contenido varchar(100),
+    cuerpo mediumblob,
+    estado enum ('COMPLETADA','EN_CURSO') not null,
+    primary key (clave)
+) engine=InnoDB;
+
+create index idx_respuestas_idempotentes_expira_en
+   on respuestas_idempotentes (expira_en);
@@ -0,0 +1,174 @@
+package com.mediapp.citasbackend.cache;
+
+import com.mediapp.citasbackend.config.AgendaCacheProperties;
+import com.mediapp.citasbackend.dtos.AgendaCitaDTO;
+import com.mediapp.citasbackend.dtos.AgendaDiaDTO;
+import com.mediapp.citasbackend.entities.Cita;
+import com.mediapp.citasbackend.entities.Medico;
+import com.mediapp.citasbackend.entities.Paciente;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests para AgendaCache")
+class AgendaCacheTest {
+
+    private static final LocalDate FECHA = LocalDate.of(2030, 3, 4);
+
+    private AgendaCacheProperties properties;
+    private AgendaCache cache;
+    private AtomicInteger consultas;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AgendaCacheProperties();
+        properties.setMaxEntries(2);
+        cache = new AgendaCache(properties, new SimpleMeterRegistry());
+        consultas = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Obtener - La segunda lectura no consulta y conserva la versión")
+    void testObtener_Acierto() {
+        AgendaDiaDTO primera = cache.obtener(1, FECHA, cargador(cita(10, 1, FECHA, 11), cita(11, 1, FECHA, 9)));
+        AgendaDiaDTO segunda = cache.obtener(1, FECHA, cargador());
+
+        assertEquals(1, consultas.get());
+        assertEquals(primera.getVersion(), segunda.getVersion());
+        assertEquals(List.of(11, 10), ids(segunda));
+    }
+
+    @Test
+    @DisplayName("Registrar cambio - Actualiza la agenda en caché y cambia la versión")
+    void testRegistrarCambio_WriteThrough() {
+        AgendaDiaDTO antes = cache.obtener(1, FECHA, cargador(cita(10, 1, FECHA, 11)));
+
+        cache.registrarCambio(cita(12, 1, FECHA, 8));
+        Cita cancelada = cita(10, 1, FECHA, 11);
+        cancelada.setEstado(Cita.Estado.CANCELADA);
+        cache.registrarCambio(cancelada);
+        AgendaDiaDTO despues = cache.obtener(1, FECHA, cargador());
+
+        assertEquals(1, consultas.get());
+        assertNotEquals(antes.getVersion(), despues.getVersion());
+        assertEquals(List.of(12, 10), ids(despues));
+        assertEquals("CANCELADA", despues.getCitas().get(1).getEstado());
+    }
+
+    @Test
+    @DisplayName("Registrar cambio - Una cita reprogramada sale de su agenda anterior")
+    void testRegistrarCambio_Reprogramada() {
+        LocalDate otraFecha = FECHA.plusDays(1);
+        cache.obtener(1, FECHA, cargador(cita(10, 1, FECHA, 11)));
+        cache.obtener(1, otraFecha, cargador());
+
+        cache.registrarCambio(cita(10, 1, otraFecha, 15));
+        cache.registrarEliminacion(99);
+
+        assertEquals(List.of(), ids(cache.obtener(1, FECHA, cargador())));
+        assertEquals(List.of(10), ids(cache.obtener(1, otraFecha, cargador())));
+        assertEquals(2, consultas.get());
+    }
+
+    @Test
+    @DisplayName("Registrar estados - Un cambio en lote reescribe la agenda una sola vez")
+    void testRegistrarEstados_Lote() {
+        AgendaDiaDTO antes = cache.obtener(1, FECHA, cargador(cita(10, 1, FECHA, 9), cita(11, 1, FECHA, 10), cita(12, 1, FECHA, 11)));
+
+        cache.registrarEstados(List.of(10, 12, 99), Cita.Estado.COMPLETADA);
+        AgendaDiaDTO despues = cache.obtener(1, FECHA, cargador());
+
+        assertEquals(1, consultas.get());
+        assertNotEquals(antes.getVersion(), despues.getVersion());
+        assertEquals(List.of("COMPLETADA", "PROGRAMADA", "COMPLETADA"),
+                despues.getCitas().stream().map(AgendaCitaDTO::getEstado).toList());
+    }
+
+    @Test
+    @DisplayName("Solapamientos - Detecta citas que se cruzan aunque no empiecen a la misma hora")
+    void testSolapamientos() {
+        Cita cancelada = cita(11, 1, FECHA, 11);
+        cancelada.setEstado(Cita.Estado.CANCELADA);
+        cache.obtener(1, FECHA, cargador(cita(10, 1, FECHA, 9), cancelada));
+
+        assertEquals(List.of(10), idsDe(cache.solapamientos(1, FECHA, LocalTime.of(9, 10), 30, null, cargador())));
+        assertEquals(List.of(), cache.solapamientos(1, FECHA, LocalTime.of(9, 30), 30, null, cargador()));
+        assertEquals(List.of(), cache.solapamientos(1, FECHA, LocalTime.of(8, 50), 30, 10, cargador()));
+        assertEquals(List.of(), cache.solapamientos(1, FECHA, LocalTime.of(11, 0), 30, null, cargador()));
+
+        // Al reprogramarla, la ocupación se mueve con ella
+        Cita reprogramada = cita(10, 1, FECHA, 14);
+        cache.registrarCambio(reprogramada);
+        assertEquals(List.of(), cache.solapamientos(1, FECHA, LocalTime.of(9, 10), 30, null, cargador()));
+        assertEquals(List.of(10), idsDe(cache.solapamientos(1, FECHA, LocalTime.of(13, 45), 30, null, cargador())));
+        assertEquals(1, consultas.get());
+    }
+
+    @Test
+    @DisplayName("LRU - Se descarta la agenda usada hace más tiempo")
+    void testLru() {
+        cache.obtener(1, FECHA, cargador());
+        cache.obtener(2, FECHA, cargador());
+        cache.obtener(1, FECHA, cargador());
+        cache.obtener(3, FECHA, cargador());
+
+        assertEquals(2, cache.size());
+        cache.obtener(1, FECHA, cargador());
+        assertEquals(3, consultas.get());
+        cache.obtener(2, FECHA, cargador());
+        assertEquals(4, consultas.get());
+    }
+
+    @Test
+    @DisplayName("Desactivada - Cada lectura consulta la base de datos")
+    void testDesactivada() {
+        properties.setEnabled(false);
+
+        cache.obtener(1, FECHA, cargador());
+        cache.obtener(1, FECHA, cargador());
+
+        assertEquals(2, consultas.get());
+        assertEquals(0, cache.size());
+    }
+
+    private Supplier<List<Cita>> cargador(Cita... citas) {
+        return () -> {
+            consultas.incrementAndGet();
+            return new ArrayList<>(List.of(citas));
+        };
+    }
+
+    private static List<Integer> idsDe(List<AgendaCitaDTO> citas) {
+        return citas.stream().map(AgendaCitaDTO::getIdCita).toList();
+    }
+
+    private static List<Integer> ids(AgendaDiaDTO agenda) {
+        return agenda.getCitas().stream().map(AgendaCitaDTO::getIdCita).toList();
+    }
+
+    private static Cita cita(int idCita, int idMedico, LocalDate fecha, int hora) {
+        Medico medico = new Medico();
+        medico.setIdMedico(idMedico);
+        Paciente paciente = new Paciente();
+        paciente.setIdPaciente(5);
+        Cita cita = new Cita();
+        cita.setIdCita(idCita);
+        cita.setMedico(medico);
+        cita.setPaciente(paciente);
+        cita.setFechaCita(fecha);
+        cita.setHoraCita(LocalTime.of(hora, 0));
+        cita.setTipoCita(Cita.TipoCita.PRESENCIAL);
+        cita.setEstado(Cita.Estado.PROGRAMADA);
+        return cita;
+    }
+}
@@ -0,0 +1,132 @@
+package com.mediapp.citasbackend.cache;
+
+import com.mediapp.citasbackend.config.IndiceDisponibilidadProperties;
+import com.mediapp.citasbackend.entities.CalendarioDisponibilidad.DiaSemana;
+import com.mediapp.citasbackend.entities.Usuario;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests para IndiceDisponibilidadMedicos")
+class IndiceDisponibilidadMedicosTest {
+
+    private static final IndiceDisponibilidadMedicos.Filtro NINGUNO = IndiceDisponibilidadMedicos.Filtro.NINGUNO;
+
+    private IndiceDisponibilidadMedicos indice;
+    private AtomicInteger cargas;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceDisponibilidadMedicos(new IndiceDisponibilidadProperties(), new SimpleMeterRegistry());
+        cargas = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Día y hora - Incluye los extremos del bloque aunque no caigan en un cuarto de hora")
+    void testDisponiblesEnDiaYHora_Bordes() {
+        Supplier<IndiceDisponibilidadMedicos.Carga> cargador = cargador(
+                List.of(bloque(1, DiaSemana.LUNES, "08:00", "12:00"),
+                        bloque(2, DiaSemana.LUNES, "09:10", "10:00"),
+                        bloque(3, DiaSemana.MARTES, "08:00", "18:00")),
+                List.of(medico(1, 10, 1, "Armenia", true, true),
+                        medico(2, 20, 1, "Armenia", true, true),
+                        medico(3, 30, 2, "Pereira", true, true)));
+
+        assertEquals(List.of(1), indice.disponiblesEnDiaYHora(DiaSemana.LUNES, hora("12:00"), NINGUNO, cargador));
+        assertEquals(List.of(1), indice.disponiblesEnDiaYHora(DiaSemana.LUNES, hora("09:05"), NINGUNO, cargador));
+        assertEquals(List.of(1, 2), indice.disponiblesEnDiaYHora(DiaSemana.LUNES, hora("09:10"), NINGUNO, cargador));
+        assertEquals(List.of(1, 2), indice.disponiblesEnDiaYHora(DiaSemana.LUNES, hora("10:00"), NINGUNO, cargador));
+        assertEquals(List.of(1), indice.disponiblesEnDiaYHora(DiaSemana.LUNES, hora("10:01"), NINGUNO, cargador));
+        assertEquals(List.of(), indice.disponiblesEnDiaYHora(DiaSemana.LUNES, hora("12:01"), NINGUNO, cargador));
+        assertEquals(List.of(1, 2), indice.disponiblesEnDia(DiaSemana.LUNES, NINGUNO, cargador));
+        assertEquals(1, cargas.get());
+    }
+
+    @Test
+    @DisplayName("Filtro - Interseca especialidad, ciudad, verificación y usuario activo")
+    void testFiltro_Interseccion() {
+        Supplier<IndiceDisponibilidadMedicos.Carga> cargador = cargador(
+                List.of(bloque(1, DiaSemana.LUNES, "08:00", "12:00"),
+                        bloque(2, DiaSemana.LUNES, "08:00", "12:00"),
+                        bloque(3, DiaSemana.LUNES, "08:00", "12:00"),
+                        bloque(4, DiaSemana.LUNES, "08:00", "12:00")),
+                List.of(medico(1, 10, 1, "Armenia", true, true),
+                        medico(2, 20, 1, "Armenia", false, true),
+                        medico(3, 30, 1, "Pereira", true, true),
+                        medico(4, 40, 2, "Armenia", true, false)));
+
+        assertEquals(List.of(1, 2), indice.disponiblesEnDiaYHora(DiaSemana.LUNES, hora("09:00"),
+                new IndiceDisponibilidadMedicos.Filtro(1, " armenia ", false, true), cargador));
+        assertEquals(List.of(1), indice.disponiblesEnDiaYHora(DiaSemana.LUNES, hora("09:00"),
+                new IndiceDisponibilidadMedicos.Filtro(1, "Armenia", true, true), cargador));
+        assertEquals(List.of(1, 2, 4), indice.disponiblesEnDia(DiaSemana.LUNES,
+                new IndiceDisponibilidadMedicos.Filtro(null, "Armenia", false, false), cargador));
+        assertEquals(List.of(), indice.disponiblesEnDia(DiaSemana.LUNES,
+                new IndiceDisponibilidadMedicos.Filtro(9, null, false, false), cargador));
+    }
+
+    @Test
+    @DisplayName("Cambios - Se aplican sobre el índice cargado sin recargarlo")
+    void testCambios_Incrementales() {
+        Supplier<IndiceDisponibilidadMedicos.Carga> cargador = cargador(
+                List.of(bloque(1, DiaSemana.LUNES, "08:00", "12:00"),
+                        bloque(2, DiaSemana.LUNES, "14:00", "18:00")),
+                List.of(medico(1, 10, 1, "Armenia", true, true),
+                        medico(2, 20, 1, "Armenia", true, true)));
+        assertEquals(List.of(1), indice.disponiblesEnDiaYHora(DiaSemana.LUNES, hora("09:00"), NINGUNO, cargador));
+
+        indice.registrarBloques(2, List.of(bloque(2, DiaSemana.LUNES, "08:30", "09:30"),
+                bloque(2, DiaSemana.JUEVES, "08:00", "12:00")));
+        assertEquals(List.of(1, 2), indice.disponiblesEnDiaYHora(DiaSemana.LUNES, hora("09:00"), NINGUNO, cargador));
+        assertEquals(List.of(), indice.disponiblesEnDiaYHora(DiaSemana.LUNES, hora("15:00"), NINGUNO, cargador));
+        assertEquals(List.of(2), indice.disponiblesEnDia(DiaSemana.JUEVES, NINGUNO, cargador));
+
+        IndiceDisponibilidadMedicos.Filtro especialidad2 = new IndiceDisponibilidadMedicos.Filtro(2, null, false, false);
+        indice.registrarMedico(medico(1, 10, 2, "Armenia", true, true));
+        assertEquals(List.of(1), indice.disponiblesEnDia(DiaSemana.LUNES, especialidad2, cargador));
+
+        Usuario usuario = new Usuario();
+        usuario.setIdUsuario(10);
+        usuario.setCiudad("Pereira");
+        usuario.setEstado(Usuario.Estado.INACTIVO);
+        indice.registrarUsuario(usuario);
+        assertEquals(List.of(1), indice.disponiblesEnDia(DiaSemana.LUNES,
+                new IndiceDisponibilidadMedicos.Filtro(2, "Pereira", false, false), cargador));
+        assertEquals(List.of(2), indice.disponiblesEnDia(DiaSemana.LUNES,
+                new IndiceDisponibilidadMedicos.Filtro(null, null, false, true), cargador));
+
+        indice.quitarMedico(1);
+        assertEquals(List.of(2), indice.disponiblesEnDia(DiaSemana.LUNES, NINGUNO, cargador));
+        assertEquals(1, indice.size());
+        assertEquals(1, cargas.get());
+    }
+
+    private Supplier<IndiceDisponibilidadMedicos.Carga> cargador(List<IndiceDisponibilidadMedicos.Bloque> bloques,
+                                                                 List<IndiceDisponibilidadMedicos.Atributos> medicos) {
+        return () -> {
+            cargas.incrementAndGet();
+            return new IndiceDisponibilidadMedicos.Carga(bloques, medicos);
+        };
+    }
+
+    private static IndiceDisponibilidadMedicos.Bloque bloque(int idMedico, DiaSemana dia, String inicio, String fin) {
+        return new IndiceDisponibilidadMedicos.Bloque(idMedico, dia, hora(inicio), hora(fin));
+    }
+
+    private static IndiceDisponibilidadMedicos.Atributos medico(int idMedico, int idUsuario, int idEspecialidad,
+                                                                String ciudad, boolean verificado, boolean activo) {
+        return new IndiceDisponibilidadMedicos.Atributos(idMedico, idUsuario, idEspecialidad, ciudad, verificado, activo);
+    }
+
+    private static LocalTime hora(String hora) {
+        return LocalTime.parse(hora);
+    }
+}
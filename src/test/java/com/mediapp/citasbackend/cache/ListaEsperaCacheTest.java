@@ -0,0 +1,87 @@
+package com.mediapp.citasbackend.cache;
+
+import com.mediapp.citasbackend.cache.ListaEsperaCache.Ambito;
+import com.mediapp.citasbackend.cache.ListaEsperaCache.Candidata;
+import com.mediapp.citasbackend.cache.ListaEsperaCache.Clave;
+import com.mediapp.citasbackend.config.ListaEsperaProperties;
+import com.mediapp.citasbackend.entities.EntradaListaEspera;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests para ListaEsperaCache")
+class ListaEsperaCacheTest {
+
+    private static final LocalDate FECHA = LocalDate.of(2030, 3, 4);
+    private static final LocalDateTime REGISTRO = LocalDateTime.of(2030, 2, 1, 8, 0);
+    private static final Clave CLAVE = new Clave(Ambito.MEDICO, 7, FECHA);
+
+    private ListaEsperaCache cache;
+    private AtomicInteger consultas;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ListaEsperaCache(new ListaEsperaProperties(), new SimpleMeterRegistry());
+        consultas = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Primera - Mayor prioridad y luego la más antigua, saltando las no elegibles")
+    void testPrimera_Orden() {
+        Supplier<List<EntradaListaEspera>> cargador = cargador(
+                entrada(1L, 10, 0, 5), entrada(2L, 11, 1, 9), entrada(3L, 12, 0, 1));
+
+        assertEquals(2L, cache.primera(CLAVE, c -> true, cargador).map(Candidata::idEntrada).orElseThrow());
+        assertEquals(3L, cache.primera(CLAVE, c -> c.idPaciente() != 11, cargador).map(Candidata::idEntrada).orElseThrow());
+        assertTrue(cache.primera(CLAVE, c -> false, cargador).isEmpty());
+        assertEquals(1, consultas.get());
+    }
+
+    @Test
+    @DisplayName("Agregar y quitar - Se aplican a las colas cargadas de cada día del rango")
+    void testAgregarYQuitar() {
+        cache.primera(CLAVE, c -> true, cargador(entrada(1L, 10, 0, 5)));
+        EntradaListaEspera urgente = entrada(2L, 11, 3, 9);
+        urgente.setFechaDesde(FECHA.minusDays(1));
+        urgente.setFechaHasta(FECHA.plusDays(1));
+
+        cache.agregar(urgente);
+        assertEquals(2L, cache.primera(CLAVE, c -> true, cargador()).map(Candidata::idEntrada).orElseThrow());
+
+        // La entrada leída de nuevo (p. ej. de la tabla) se quita por su ID
+        EntradaListaEspera leida = entrada(2L, 11, 3, 9);
+        leida.setFechaRegistro(REGISTRO.plusNanos(123));
+        cache.quitar(leida);
+        assertEquals(1L, cache.primera(CLAVE, c -> true, cargador()).map(Candidata::idEntrada).orElseThrow());
+        assertEquals(1, consultas.get());
+    }
+
+    private Supplier<List<EntradaListaEspera>> cargador(EntradaListaEspera... entradas) {
+        return () -> {
+            consultas.incrementAndGet();
+            return List.of(entradas);
+        };
+    }
+
+    private static EntradaListaEspera entrada(Long id, Integer idPaciente, int prioridad, int minutosRegistro) {
+        EntradaListaEspera entrada = new EntradaListaEspera();
+        entrada.setIdEntrada(id);
+        entrada.setIdPaciente(idPaciente);
+        entrada.setIdMedico(7);
+        entrada.setFechaDesde(FECHA);
+        entrada.setFechaHasta(FECHA);
+        entrada.setPrioridad(prioridad);
+        entrada.setEstado(EntradaListaEspera.Estado.ACTIVA);
+        entrada.setFechaRegistro(REGISTRO.plusMinutes(minutosRegistro));
+        return entrada;
+    }
+}
@@ -0,0 +1,83 @@
+package com.mediapp.citasbackend.cache;
+
+import com.mediapp.citasbackend.config.ReservaTemporalProperties;
+import com.mediapp.citasbackend.entities.ReservaTemporal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests para ReservaTemporalCache")
+class ReservaTemporalCacheTest {
+
+    private static final LocalDate FECHA = LocalDate.of(2030, 3, 4);
+
+    private ReservaTemporalCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ReservaTemporalCache(new ReservaTemporalProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Reservado - Cruza por duración y no cuenta la reserva excluida")
+    void testEstaReservado() {
+        cache.agregar(reserva("r1", 1, LocalTime.of(9, 0), 30, 300));
+
+        assertTrue(cache.estaReservado(1, FECHA, LocalTime.of(9, 15), 30, null));
+        assertFalse(cache.estaReservado(1, FECHA, LocalTime.of(9, 30), 30, null));
+        assertFalse(cache.estaReservado(1, FECHA, LocalTime.of(8, 30), 30, null));
+        assertFalse(cache.estaReservado(2, FECHA, LocalTime.of(9, 0), 30, null));
+        assertFalse(cache.estaReservado(1, FECHA, LocalTime.of(9, 0), 30, "r1"));
+
+        assertTrue(cache.quitar("r1"));
+        assertFalse(cache.estaReservado(1, FECHA, LocalTime.of(9, 0), 30, null));
+    }
+
+    @Test
+    @DisplayName("Expirar - Libera solo las reservas vencidas")
+    void testExpirar() {
+        cache.agregar(reserva("corta", 1, LocalTime.of(9, 0), 30, 5));
+        cache.agregar(reserva("larga", 1, LocalTime.of(10, 0), 30, 300));
+
+        assertEquals(1, cache.expirar(System.currentTimeMillis() + 10_000));
+        assertEquals(1, cache.size());
+        assertFalse(cache.estaReservado(1, FECHA, LocalTime.of(9, 0), 30, null));
+        assertTrue(cache.estaReservado(1, FECHA, LocalTime.of(10, 0), 30, null));
+    }
+
+    @Test
+    @DisplayName("Reconciliar - Agrega las de otras instancias y quita las liberadas, salvo las posteriores a la consulta")
+    void testReconciliar() {
+        cache.agregar(reserva("liberada", 1, LocalTime.of(9, 0), 30, 300));
+        ReservaTemporal remota = reserva("remota", 1, LocalTime.of(11, 0), 30, 300);
+
+        cache.reconciliar(List.of(remota), System.currentTimeMillis() + 1000);
+        cache.agregar(reserva("nueva", 1, LocalTime.of(12, 0), 30, 300));
+        // Una lectura hecha antes de agregar "nueva" no la incluye
+        cache.reconciliar(List.of(remota), System.currentTimeMillis() - 1000);
+
+        assertEquals(2, cache.size());
+        assertFalse(cache.estaReservado(1, FECHA, LocalTime.of(9, 0), 30, null));
+        assertTrue(cache.estaReservado(1, FECHA, LocalTime.of(11, 0), 30, null));
+        assertTrue(cache.estaReservado(1, FECHA, LocalTime.of(12, 0), 30, null));
+    }
+
+    private static ReservaTemporal reserva(String token, Integer idMedico, LocalTime hora, int duracion, long segundos) {
+        ReservaTemporal reserva = new ReservaTemporal();
+        reserva.setToken(token);
+        reserva.setIdMedico(idMedico);
+        reserva.setFecha(FECHA);
+        reserva.setHora(hora);
+        reserva.setDuracionMinutos(duracion);
+        reserva.setExpiraEn(LocalDateTime.now().plusSeconds(segundos));
+        return reserva;
+    }
+}
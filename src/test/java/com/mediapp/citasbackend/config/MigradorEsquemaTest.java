@@ -0,0 +1,118 @@
+package com.mediapp.citasbackend.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Una base creada con ddl-auto=update antes de las migraciones (el esquema de producción) se
+ * registra como migrada hasta V1 y las versiones siguientes la dejan igual que una base creada
+ * desde cero, que es la que PlanConsultasTest valida contra las entidades.
+ */
+@DisplayName("Tests para MigradorEsquema")
+class MigradorEsquemaTest {
+
+    // Tablas que creaba ddl-auto=update antes de las migraciones
+    private static final Set<String> TABLAS_BASE = Set.of("calendario_disponibilidad", "citas", "especialidades",
+            "evaluaciones", "historial_medico", "medicos", "notificaciones", "pacientes", "prescripciones", "usuarios");
+
+    private final PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+
+    @Test
+    @DisplayName("Migrar - Una base previa a las migraciones se registra en V1 y queda igual que una nueva")
+    void testMigrar_BaseExistente() throws SQLException {
+        DataSource existente = baseDeDatos("migracion_existente");
+        MigradorEsquema migradorExistente = new MigradorEsquema(existente, new MigracionesProperties(), resolver);
+        List<MigradorEsquema.Script> scripts = migradorExistente.cargarScripts();
+        JdbcTemplate jdbc = new JdbcTemplate(existente);
+
+        // Esquema de producción creado por Hibernate, sin historial de migraciones, con una cita
+        scripts.get(0).sentencias().forEach(jdbc::execute);
+        assertEquals(TABLAS_BASE, tablas(existente));
+        assertFalse(columnas(existente).contains("citas.duracion_minutos"));
+        jdbc.update("INSERT INTO usuarios (id_usuario, email, contraseña, nombre, apellido, tipo_usuario, estado, fecha_registro) "
+                + "VALUES (1, 'medico@test.com', 'x', 'Ana', 'Ruiz', 'MEDICO', 'ACTIVO', CURRENT_TIMESTAMP), "
+                + "(2, 'paciente@test.com', 'x', 'Luis', 'Gil', 'PACIENTE', 'ACTIVO', CURRENT_TIMESTAMP)");
+        jdbc.update("INSERT INTO medicos (id_medico, id_usuario, estado_verificacion) VALUES (1, 1, 'VERIFICADO')");
+        jdbc.update("INSERT INTO pacientes (id_paciente, id_usuario) VALUES (1, 2)");
+        jdbc.update("INSERT INTO citas (id_cita, id_medico, id_paciente, fecha_cita, hora_cita, tipo_cita, estado, fecha_creacion) "
+                + "VALUES (1, 1, 1, DATE '2030-01-07', TIME '10:00:00', 'PRESENCIAL', 'PROGRAMADA', CURRENT_TIMESTAMP)");
+
+        assertEquals(scripts.size() - 1, migradorExistente.migrar());
+        assertEquals(0, migradorExistente.migrar());
+
+        DataSource nueva = baseDeDatos("migracion_nueva");
+        assertEquals(scripts.size(), new MigradorEsquema(nueva, new MigracionesProperties(), resolver).migrar());
+        assertEquals(tablas(nueva), tablas(existente));
+        assertEquals(columnas(nueva), columnas(existente));
+        assertEquals(indices(nueva), indices(existente));
+
+        assertEquals(List.of(1), jdbc.queryForList(
+                "SELECT version FROM " + MigradorEsquema.TABLA_HISTORIAL + " WHERE base", Integer.class));
+        assertNull(jdbc.queryForObject("SELECT duracion_minutos FROM citas WHERE id_cita = 1", Integer.class));
+    }
+
+    private static DataSource baseDeDatos(String nombre) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + nombre + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+
+    private static Set<String> tablas(DataSource dataSource) throws SQLException {
+        Set<String> tablas = new TreeSet<>();
+        try (Connection conexion = dataSource.getConnection();
+             ResultSet rs = conexion.getMetaData().getTables(null, "public", "%", new String[]{"TABLE"})) {
+            while (rs.next()) {
+                tablas.add(rs.getString("TABLE_NAME"));
+            }
+        }
+        tablas.remove(MigradorEsquema.TABLA_HISTORIAL);
+        return tablas;
+    }
+
+    // tabla.columna tipo(tamaño) y si admite nulos
+    private static Set<String> columnas(DataSource dataSource) throws SQLException {
+        Set<String> columnas = new TreeSet<>();
+        try (Connection conexion = dataSource.getConnection();
+             ResultSet rs = conexion.getMetaData().getColumns(null, "public", "%", "%")) {
+            while (rs.next()) {
+                String columna = rs.getString("TABLE_NAME") + "." + rs.getString("COLUMN_NAME");
+                columnas.add(columna);
+                columnas.add(columna + " " + rs.getString("TYPE_NAME") + "(" + rs.getInt("COLUMN_SIZE") + ") "
+                        + rs.getString("IS_NULLABLE"));
+            }
+        }
+        return columnas;
+    }
+
+    // tabla.índice(columna, posición) y si es único, sin el sufijo que H2 agrega a los nombres que genera
+    private static Set<String> indices(DataSource dataSource) throws SQLException {
+        Set<String> indices = new TreeSet<>();
+        try (Connection conexion = dataSource.getConnection()) {
+            DatabaseMetaData metaData = conexion.getMetaData();
+            for (String tabla : tablas(dataSource)) {
+                try (ResultSet rs = metaData.getIndexInfo(null, "public", tabla, false, false)) {
+                    while (rs.next()) {
+                        String nombre = rs.getString("INDEX_NAME").replaceAll("(PRIMARY_KEY|_INDEX)_\\w+$", "$1");
+                        indices.add(tabla + "." + nombre + "(" + rs.getString("COLUMN_NAME")
+                                + ", " + rs.getInt("ORDINAL_POSITION") + ") " + (rs.getBoolean("NON_UNIQUE") ? "" : "unique"));
+                    }
+                }
+            }
+        }
+        return indices;
+    }
+}
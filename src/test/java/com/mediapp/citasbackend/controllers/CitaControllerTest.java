@@ -2,6 +2,7 @@ package com.mediapp.citasbackend.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mediapp.citasbackend.dtos.AgendaDiaDTO;
 import com.mediapp.citasbackend.entities.*;
 import com.mediapp.citasbackend.services.interfaces.CitaService;
 import org.junit.jupiter.api.BeforeEach;
@@ -285,4 +286,33 @@ class CitaControllerTest {
 
         verify(citaService, times(1)).obtenerCitasPorEstado(Cita.Estado.PROGRAMADA);
     }
+
+    @Test
+    @DisplayName("GET /api/citas/medico/{idMedico}/agenda/{fecha} - Debe retornar la agenda con ETag")
+    void testObtenerAgendaDelDia_ConETag() throws Exception {
+        // Arrange
+        LocalDate fecha = LocalDate.now().plusDays(1);
+        when(citaService.obtenerAgendaDelDia(1, fecha)).thenReturn(AgendaDiaDTO.builder()
+                .idMedico(1).fecha(fecha).version("abc-7").citas(List.of()).build());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/citas/medico/1/agenda/" + fecha))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"abc-7\""))
+                .andExpect(jsonPath("$.version").value("abc-7"));
+    }
+
+    @Test
+    @DisplayName("GET /api/citas/medico/{idMedico}/agenda/{fecha} - Debe responder 304 si la versión no cambió")
+    void testObtenerAgendaDelDia_NoModificada() throws Exception {
+        // Arrange
+        LocalDate fecha = LocalDate.now().plusDays(1);
+        when(citaService.obtenerAgendaDelDia(1, fecha)).thenReturn(AgendaDiaDTO.builder()
+                .idMedico(1).fecha(fecha).version("abc-7").citas(List.of()).build());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/citas/medico/1/agenda/" + fecha).header("If-None-Match", "\"abc-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
 }
@@ -0,0 +1,191 @@
+package com.mediapp.citasbackend.dataset;
+
+import com.mediapp.citasbackend.config.DatasetLoaderProperties;
+import com.mediapp.citasbackend.config.MigracionesProperties;
+import com.mediapp.citasbackend.config.MigradorEsquema;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@EnableAutoConfiguration(exclude = {SecurityAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+@DisplayName("Tests para DatasetLoader")
+class DatasetLoaderTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    private DatasetLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        DatasetLoaderProperties properties = new DatasetLoaderProperties();
+        properties.setBatchSize(4);
+        properties.setThreads(3);
+        loader = new DatasetLoader(dataSource, properties);
+    }
+
+    @Test
+    @DisplayName("Validar dataset incluido - Sin errores y con todas las filas")
+    void testValidateBundledDataset() throws Exception {
+        DatasetLoader.LoadReport report = loader.validate(dataset());
+
+        assertTrue(report.valid(), () -> String.join("\n", report.errors()));
+        assertEquals(15L, report.rows().get("usuarios"));
+        assertEquals(10L, report.rows().get("citas"));
+        assertEquals(9L, report.rows().get("prescripciones"));
+        assertEquals(88, report.totalRows());
+    }
+
+    @Test
+    @DisplayName("Validar - Reporta enumerados, referencias, únicos y orden de tablas")
+    void testValidateErrors() throws Exception {
+        String json = """
+                {
+                  "citas": [{"id_paciente": 1, "id_medico": 1, "fecha_cita": "2025-01-01", "hora_cita": "08:00:00", "tipo_cita": "PRESENCIAL"}],
+                  "usuarios": [
+                    {"nombre": "Ana", "apellido": "Gómez", "email": "ana@gmail.com", "contraseña": "x", "tipo_usuario": "PACIENTE"},
+                    {"nombre": "Ana", "apellido": "Ruiz", "email": "ana@gmail.com", "contraseña": "x", "tipo_usuario": "PACIENTE"},
+                    {"nombre": "Luis", "apellido": "Díaz", "email": "luis@gmail.com", "contraseña": "x", "tipo_usuario": "ENFERMERO"}
+                  ],
+                  "pacientes": [{"id_usuario": 2}, {"id_usuario": 1}, {"id_usuario": 1}]
+                }
+                """;
+
+        DatasetLoader.LoadReport report = loader.validate(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertFalse(report.valid());
+        assertEquals(5, report.errorCount());
+        assertTrue(report.errors().get(0).startsWith("citas: debe aparecer después de pacientes"));
+        assertTrue(report.errors().stream().anyMatch(e -> e.contains("email repetido")));
+        assertTrue(report.errors().stream().anyMatch(e -> e.contains("ENFERMERO")));
+        // La fila 2 de usuarios se rechazó, así que el paciente que la referencia también
+        assertTrue(report.errors().stream().anyMatch(e -> e.startsWith("pacientes #1: id_usuario referencia a usuarios #2")));
+        assertTrue(report.errors().stream().anyMatch(e -> e.startsWith("pacientes #3: id_usuario repetido")));
+        assertEquals(1L, report.rows().get("usuarios"));
+    }
+
+    @Test
+    @DisplayName("Cargar dataset incluido - Inserta todas las filas con sus claves foráneas")
+    void testLoadBundledDataset() throws Exception {
+        DatasetLoader.LoadReport report = loader.load(dataset());
+
+        assertTrue(report.valid());
+        assertEquals(15, count("SELECT COUNT(*) FROM usuarios"));
+        assertEquals(10, count("SELECT COUNT(*) FROM notificaciones"));
+        assertEquals(9, count("SELECT COUNT(*) FROM prescripciones p JOIN historial_medico h ON h.id_historial = p.id_historial"));
+        assertEquals(10, count("SELECT COUNT(*) FROM citas c JOIN pacientes p ON p.id_paciente = c.id_paciente "
+                + "JOIN medicos m ON m.id_medico = c.id_medico"));
+        assertEquals(5, count("SELECT COUNT(*) FROM medicos m JOIN usuarios u ON u.id_usuario = m.id_usuario "
+                + "WHERE u.tipo_usuario = 'MEDICO'"));
+    }
+
+    @Test
+    @DisplayName("Cargar - Si falla un lote, los índices diferidos se vuelven a crear")
+    void testLoadFailureRecreatesDeferredIndexes() throws Exception {
+        // Esquema de las migraciones, con los nombres de índices de MySQL
+        JdbcDataSource migrated = new JdbcDataSource();
+        migrated.setURL("jdbc:h2:mem:dataset_indices;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        new MigradorEsquema(migrated, new MigracionesProperties(), new PathMatchingResourcePatternResolver()).migrar();
+        Set<String> before = indexes(migrated);
+        try (Connection connection = migrated.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO usuarios (email, contraseña, nombre, apellido, tipo_usuario, estado, fecha_registro) "
+                    + "VALUES ('existente@gmail.com', 'x', 'Eva', 'Mora', 'PACIENTE', 'ACTIVO', CURRENT_TIMESTAMP)");
+        }
+        String json = """
+                {"usuarios": [{"nombre": "Eva", "apellido": "Mora", "email": "existente@gmail.com", "contraseña": "x", "tipo_usuario": "PACIENTE"}]}
+                """;
+        DatasetLoaderProperties properties = new DatasetLoaderProperties();
+        properties.setDeferIndexes(true);
+        DataSource mysql = reportingMySql(migrated);
+
+        // El email ya existe en la base: la validación del archivo no lo ve y el lote falla
+        assertThrows(IllegalStateException.class, () -> new DatasetLoader(mysql, properties)
+                .load(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))));
+        assertTrue(before.contains("citas.idx_citas_estado_fecha_hora.estado"));
+        assertEquals(before, indexes(migrated));
+    }
+
+    // Índices no únicos de las tablas del dataset, los que la carga difiere en MySQL
+    private static Set<String> indexes(DataSource dataSource) throws Exception {
+        Set<String> indexes = new TreeSet<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (DatasetSchema.Table table : DatasetSchema.TABLES) {
+                try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), null, table.name(), false, false)) {
+                    while (rs.next()) {
+                        if (rs.getBoolean("NON_UNIQUE")) {
+                            indexes.add(table.name() + "." + rs.getString("INDEX_NAME") + "." + rs.getString("COLUMN_NAME"));
+                        }
+                    }
+                }
+            }
+        }
+        return indexes;
+    }
+
+    // La misma base, pero informando MySQL como producto para que la carga difiera los índices
+    private static DataSource reportingMySql(DataSource target) {
+        return proxy(DataSource.class, target, (method, result) -> method.getName().equals("getConnection")
+                ? proxy(Connection.class, result, (connectionMethod, connectionResult) ->
+                        connectionMethod.getName().equals("getMetaData")
+                                ? proxy(DatabaseMetaData.class, connectionResult, (metaDataMethod, metaDataResult) ->
+                                        metaDataMethod.getName().equals("getDatabaseProductName") ? "MySQL" : metaDataResult)
+                                : connectionResult)
+                : result);
+    }
+
+    private static <T> T proxy(Class<T> type, Object target, BiFunction<Method, Object, Object> result) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (instance, method, args) -> {
+            try {
+                return result.apply(method, method.invoke(target, args));
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }));
+    }
+
+    private InputStream dataset() {
+        return getClass().getResourceAsStream("/data/dataset_mediapp.json");
+    }
+
+    private long count(String sql) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.mediapp.citasbackend.dataset;
+
+import com.mediapp.citasbackend.config.DatasetGeneratorProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests para SyntheticDatasetGenerator")
+class SyntheticDatasetGeneratorTest {
+
+    private DatasetGeneratorProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new DatasetGeneratorProperties();
+        properties.setReferenceDate(LocalDate.of(2025, 6, 1));
+        properties.setPacientes(300);
+        properties.setMedicosPorEspecialidad(3);
+        properties.setAdministradores(2);
+        properties.setYears(1);
+        properties.setFutureDays(30);
+    }
+
+    @Test
+    @DisplayName("Misma semilla - Genera exactamente las mismas filas")
+    void testDeterministic() throws Exception {
+        CollectingSink first = generate();
+        CollectingSink second = generate();
+
+        assertEquals(first.rows.keySet(), second.rows.keySet());
+        for (String table : first.rows.keySet()) {
+            List<Object[]> a = first.rows.get(table);
+            List<Object[]> b = second.rows.get(table);
+            assertEquals(a.size(), b.size(), table);
+            for (int i = 0; i < a.size(); i++) {
+                assertArrayEquals(a.get(i), b.get(i), table + " fila " + i);
+            }
+        }
+
+        properties.setSeed(7);
+        assertNotEquals(Arrays.toString(first.rows.get("usuarios").get(0)),
+                Arrays.toString(generate().rows.get("usuarios").get(0)));
+    }
+
+    @Test
+    @DisplayName("Claves foráneas - Toda fila referencia filas ya generadas")
+    void testForeignKeys() throws Exception {
+        CollectingSink sink = generate();
+
+        Set<Object> usuarios = ids(sink, "usuarios");
+        Set<Object> pacientes = ids(sink, "pacientes");
+        Set<Object> medicos = ids(sink, "medicos");
+        Map<Object, Object> estadoCita = new HashMap<>();
+        for (Object[] cita : sink.rows.get("citas")) {
+            assertTrue(pacientes.contains(cita[1]));
+            assertTrue(medicos.contains(cita[2]));
+            estadoCita.put(cita[0], cita[7].toString());
+        }
+        Set<Object> historiales = new HashSet<>();
+        for (Object[] historial : sink.rows.get("historial_medico")) {
+            assertEquals("COMPLETADA", estadoCita.get(historial[1]));
+            historiales.add(historial[0]);
+        }
+        sink.rows.get("prescripciones").forEach(p -> assertTrue(historiales.contains(p[1])));
+        sink.rows.get("notificaciones").forEach(n -> assertTrue(usuarios.contains(n[1])));
+        sink.rows.get("pacientes").forEach(p -> assertTrue(usuarios.contains(p[1])));
+        sink.rows.get("medicos").forEach(m -> assertTrue(usuarios.contains(m[1])));
+        assertEquals(302 + 24, usuarios.size());
+    }
+
+    @Test
+    @DisplayName("Agenda - Ningún médico tiene dos citas en el mismo bloque")
+    void testNoDoubleBooking() throws Exception {
+        Set<String> bloques = new HashSet<>();
+        for (Object[] cita : generate().rows.get("citas")) {
+            assertTrue(bloques.add(cita[2] + "|" + cita[3] + "|" + cita[4]), "Cita duplicada: " + Arrays.toString(cita));
+        }
+    }
+
+    @Test
+    @DisplayName("Popularidad - Las citas se concentran en pocos médicos (Zipf)")
+    void testZipfSkew() throws Exception {
+        Map<Object, Integer> citasPorMedico = new HashMap<>();
+        List<Object[]> citas = generate().rows.get("citas");
+        citas.forEach(c -> citasPorMedico.merge(c[2], 1, Integer::sum));
+
+        int maximo = citasPorMedico.values().stream().max(Integer::compare).orElse(0);
+        double promedio = (double) citas.size() / 24;
+        assertTrue(maximo > 3 * promedio, "El médico más popular debería superar 3 veces el promedio");
+
+        ZipfSampler sampler = new ZipfSampler(10, 1.0);
+        int[] muestras = new int[10];
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < 100_000; i++) {
+            muestras[sampler.sample(random)]++;
+        }
+        assertEquals(sampler.probability(0), muestras[0] / 100_000.0, 0.01);
+        assertTrue(muestras[0] > muestras[9] * 5);
+    }
+
+    @Test
+    @DisplayName("Archivo SQL - Escapa comillas y formatea tipos")
+    void testSqlValueFormatting() throws Exception {
+        StringWriter out = new StringWriter();
+        SqlGzipSink.writeValue(out, "O'Brien\\");
+        out.append(' ');
+        SqlGzipSink.writeValue(out, null);
+        out.append(' ');
+        SqlGzipSink.writeValue(out, Boolean.TRUE);
+        out.append(' ');
+        SqlGzipSink.writeValue(out, LocalDate.of(2025, 1, 2).atTime(8, 30));
+
+        assertEquals("'O''Brien\\\\' NULL 1 '2025-01-02 08:30:00'", out.toString());
+    }
+
+    private CollectingSink generate() throws Exception {
+        CollectingSink sink = new CollectingSink();
+        new SyntheticDatasetGenerator(properties).generate(sink);
+        return sink;
+    }
+
+    private static Set<Object> ids(CollectingSink sink, String table) {
+        Set<Object> ids = new HashSet<>();
+        sink.rows.get(table).forEach(row -> ids.add(row[0]));
+        return ids;
+    }
+
+    private static class CollectingSink implements DatasetSink {
+        private final Map<String, List<Object[]>> rows = new LinkedHashMap<>();
+
+        @Override
+        public void table(String table, String... columns) {
+            rows.put(table, new ArrayList<>());
+        }
+
+        @Override
+        public void row(String table, Object... values) {
+            rows.get(table).add(values);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
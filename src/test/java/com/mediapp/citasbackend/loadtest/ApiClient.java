@@ -0,0 +1,95 @@
+package com.mediapp.citasbackend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Cliente HTTP del arnés. Cada petición lleva la etiqueta del endpoint con la que se agrupa su latencia.
+ */
+public class ApiClient {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final LatencyRecorder recorder;
+
+    public ApiClient(String baseUrl, LatencyRecorder recorder) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.baseUrl = baseUrl;
+        this.recorder = recorder;
+    }
+
+    public record Response(int status, JsonNode body) {
+
+        public boolean ok() {
+            return status >= 200 && status < 300;
+        }
+
+        public JsonNode require(String context) {
+            if (!ok()) {
+                throw new IllegalStateException(context + " respondió " + status + ": " + body);
+            }
+            return body;
+        }
+    }
+
+    public Response get(String endpoint, String path, String token) {
+        return send(endpoint, request(path, token).GET().build());
+    }
+
+    public Response post(String endpoint, String path, String token, Object body) {
+        return send(endpoint, request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json(body)))
+                .build());
+    }
+
+    public Response patch(String endpoint, String path, String token) {
+        return send(endpoint, request(path, token).method("PATCH", HttpRequest.BodyPublishers.noBody()).build());
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private Response send(String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        int status = -1;
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            status = response.statusCode();
+            String body = response.body();
+            return new Response(status, body == null || body.isBlank() ? null : MAPPER.readTree(body));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Response(status, null);
+        } catch (IOException e) {
+            return new Response(status, null);
+        } finally {
+            recorder.recordRequest(endpoint, System.nanoTime() - start, status);
+        }
+    }
+
+    private static String json(Object body) {
+        try {
+            return MAPPER.writeValueAsString(body);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.mediapp.citasbackend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Corrida corta del arnés de capacidad con ambos modelos de llegada contra una instancia embebida.
+ * Comprueba que los escenarios grabados funcionan de punta a punta y que se escriben los reportes.
+ *
+ * Ejecutar con: ./mvnw test -Pload-tests -Dtest=CapacityLoadTest
+ */
+@Tag("load")
+@DisplayName("Prueba de carga: arnés de capacidad")
+class CapacityLoadTest {
+
+    @Test
+    @DisplayName("Modelos cerrado y abierto - Reportes con tasa de error baja")
+    void testModelosCerradoYAbierto() throws Exception {
+        LoadTestSettings base = LoadTestSettings.parse(
+                "users=4", "rate=2", "warmup=2", "duration=8", "think-ms=200", "pacientes=20", "medicos=4");
+
+        try (ConfigurableApplicationContext context = LoadTestRunner.startEmbedded("test")) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            for (LoadTestSettings.Model model : LoadTestSettings.Model.values()) {
+                LoadTestSettings settings = base.withBaseUrl(baseUrl)
+                        .withModel(model, "capacidad-" + model.name().toLowerCase());
+                Path json = LoadTestRunner.run(settings);
+
+                assertTrue(Files.exists(json));
+                assertTrue(Files.exists(json.resolveSibling(settings.name() + ".html")));
+
+                JsonNode report = new ObjectMapper().readTree(json.toFile());
+                long requests = 0;
+                long errors = 0;
+                for (JsonNode endpoint : report.path("endpoints")) {
+                    requests += endpoint.path("count").asLong();
+                    errors += endpoint.path("errors").asLong();
+                }
+                System.out.printf("%s: %d peticiones, %d errores%n", model, requests, errors);
+                assertTrue(requests > 0, "El modelo " + model + " no generó peticiones");
+                assertTrue(errors <= requests / 100, "Demasiados errores en el modelo " + model + ": " + report);
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.mediapp.citasbackend.loadtest;
+
+import com.mediapp.citasbackend.CitasMedicasApplication;
+import com.mediapp.citasbackend.monitoring.JdbcExecutionListener;
+import com.mediapp.citasbackend.monitoring.StatementExecution;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compara el modo de hilos de plataforma con el de hilos virtuales inyectando latencia
+ * en las consultas a la tabla citas. Clientes lentos saturan GET /api/citas mientras
+ * clientes rápidos consultan /actuator/health/liveness, que no usa la base de datos.
+ *
+ * Ejecutar con: ./mvnw test -Pload-tests
+ */
+@Tag("load")
+@DisplayName("Prueba de carga: hilos de plataforma vs hilos virtuales")
+class ExecutionModeLoadTest {
+
+    private static final long DB_LATENCY_MS = 200;
+    private static final int SLOW_CLIENTS = 100;
+    private static final int FAST_CLIENTS = 10;
+    private static final int TOMCAT_THREADS = 50;
+    private static final int POOL_SIZE = 10;
+    private static final Duration DURATION = Duration.ofSeconds(10);
+    // Fracción de respuestas con error tolerada en el endpoint lento (p. ej. timeouts del pool)
+    private static final double MAX_SLOW_ERROR_RATE = 0.01;
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    @Test
+    @DisplayName("Hilos virtuales - El endpoint sano no hace cola detrás del lento")
+    void testCompararModosDeEjecucion() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("%n%-10s | %-28s | %-28s%n", "Modo", "GET /api/citas (lento)", "liveness (sano)");
+        System.out.printf("%-10s | %-28s | %-28s%n", "plataforma", platform.slow, platform.fast);
+        System.out.printf("%-10s | %-28s | %-28s%n%n", "virtual", virtual.slow, virtual.fast);
+
+        assertTrue(platform.slow.count() > 0 && virtual.slow.count() > 0);
+        assertTrue(platform.slow.errorRate() <= MAX_SLOW_ERROR_RATE,
+                "Con hilos de plataforma el endpoint lento no debe fallar: " + platform.slow);
+        assertTrue(virtual.slow.errorRate() <= MAX_SLOW_ERROR_RATE,
+                "Con hilos virtuales el endpoint lento no debe fallar: " + virtual.slow);
+        assertTrue(virtual.fast.p99() < platform.fast.p99(),
+                "Con hilos virtuales el p99 del endpoint sano debe ser menor que con hilos de plataforma");
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                CitasMedicasApplication.class, LatencyInjectionConfig.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "spring.datasource.url=jdbc:h2:mem:loadtest-" + mode,
+                        "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "spring.datasource.hikari.connection-timeout=10000",
+                        "management.endpoint.health.probes.enabled=true",
+                        "mediapp.sql-stats.slow-query-threshold-ms=60000",
+                        "mediapp.bulkhead.enabled=false",
+                        "logging.level.root=WARN"
+                )
+                .run()) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            String token = registerUser(client, baseUrl, mode);
+
+            HttpRequest slowRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/api/citas"))
+                    .header("Authorization", "Bearer " + token)
+                    .build();
+            HttpRequest fastRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health/liveness"))
+                    .build();
+
+            Stats slow = new Stats();
+            Stats fast = new Stats();
+            long deadline = System.nanoTime() + DURATION.toNanos();
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < SLOW_CLIENTS; i++) {
+                    clients.submit(() -> loop(client, slowRequest, slow, deadline));
+                }
+                for (int i = 0; i < FAST_CLIENTS; i++) {
+                    clients.submit(() -> loop(client, fastRequest, fast, deadline));
+                }
+                clients.shutdown();
+                assertTrue(clients.awaitTermination(DURATION.getSeconds() + 60, TimeUnit.SECONDS));
+            }
+            slow.seconds = fast.seconds = DURATION.toMillis() / 1000.0;
+            return new Result(slow, fast);
+        }
+    }
+
+    private static String registerUser(HttpClient client, String baseUrl, String mode) throws Exception {
+        String body = """
+                {"nombre":"Carga","apellido":"Prueba","email":"carga.%s@test.com",
+                 "contraseña":"password123","tipoUsuario":"ADMIN"}""".formatted(mode);
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/register"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = TOKEN.matcher(response.body());
+        assertTrue(matcher.find(), "No se pudo registrar el usuario de la prueba: " + response.body());
+        return matcher.group(1);
+    }
+
+    private static void loop(HttpClient client, HttpRequest request, Stats stats, long deadline) {
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() >= 400) {
+                    stats.errors.incrementAndGet();
+                }
+            } catch (Exception e) {
+                stats.errors.incrementAndGet();
+            }
+            stats.record(System.nanoTime() - start);
+        }
+    }
+
+    private record Result(Stats slow, Stats fast) {
+    }
+
+    private static final class Stats {
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final AtomicLong errors = new AtomicLong();
+        private double seconds;
+
+        void record(long nanos) {
+            latencies.add(nanos);
+        }
+
+        long count() {
+            return latencies.size();
+        }
+
+        double errorRate() {
+            return count() == 0 ? 0 : (double) errors.get() / count();
+        }
+
+        double p99() {
+            List<Long> sorted = new ArrayList<>(latencies);
+            Collections.sort(sorted);
+            return sorted.isEmpty() ? 0 : sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1) / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%6.1f req/s  p99 %7.1f ms  err %d", count() / seconds, p99(), errors.get());
+        }
+    }
+
+    /**
+     * Inyecta latencia en cada consulta a la tabla citas para simular un pico de latencia de RDS.
+     * No se anota con @Configuration para que el escaneo de componentes no la cargue en otros tests.
+     */
+    static class LatencyInjectionConfig {
+
+        @Bean
+        JdbcExecutionListener latencyInjector() {
+            return new JdbcExecutionListener() {
+                @Override
+                public void beforeExecute(StatementExecution execution) {
+                    if (execution.getNormalizedSql().contains("from citas")) {
+                        try {
+                            Thread.sleep(DB_LATENCY_MS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                }
+            };
+        }
+    }
+}
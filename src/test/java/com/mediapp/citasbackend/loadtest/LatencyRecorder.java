@@ -0,0 +1,106 @@
+package com.mediapp.citasbackend.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencias en microsegundos por endpoint (ruta con plantilla, p. ej. "GET /api/citas/{id}") y por
+ * tipo de sesión, en histogramas HdrHistogram. Durante el calentamiento no se registra nada.
+ */
+public class LatencyRecorder {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Map<String, Series> requests = new ConcurrentHashMap<>();
+    private final Map<String, Series> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong droppedArrivals = new AtomicLong();
+    private volatile boolean recording;
+
+    public void start() {
+        recording = true;
+    }
+
+    public void stop() {
+        recording = false;
+    }
+
+    public void recordRequest(String endpoint, long nanos, int status) {
+        if (recording) {
+            requests.computeIfAbsent(endpoint, k -> new Series()).record(nanos, status);
+        }
+    }
+
+    /**
+     * Duración de una sesión completa. En el modelo abierto se mide desde la llegada programada,
+     * no desde que empezó a ejecutarse, para no esconder la cola (omisión coordinada).
+     */
+    public void recordSession(String scenario, long nanos, boolean failed) {
+        if (recording) {
+            sessions.computeIfAbsent(scenario, k -> new Series()).record(nanos, failed ? 0 : 200);
+        }
+    }
+
+    public void recordDroppedArrival() {
+        if (recording) {
+            droppedArrivals.incrementAndGet();
+        }
+    }
+
+    public Map<String, Series> requests() {
+        return new TreeMap<>(requests);
+    }
+
+    public Map<String, Series> sessions() {
+        return new TreeMap<>(sessions);
+    }
+
+    public long droppedArrivals() {
+        return droppedArrivals.get();
+    }
+
+    public static final class Series {
+        private final Histogram histogram = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+        private final LongAdder errors = new LongAdder();
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        private void record(long nanos, int status) {
+            histogram.recordValue(Math.max(1, nanos / 1_000));
+            statuses.computeIfAbsent(status, k -> new LongAdder()).increment();
+            if (status < 200 || status >= 400) {
+                errors.increment();
+            }
+        }
+
+        public long count() {
+            return histogram.getTotalCount();
+        }
+
+        public long errors() {
+            return errors.sum();
+        }
+
+        public double percentileMillis(double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1_000.0;
+        }
+
+        public double meanMillis() {
+            return histogram.getMean() / 1_000.0;
+        }
+
+        public double maxMillis() {
+            return histogram.getMaxValue() / 1_000.0;
+        }
+
+        public Map<Integer, Long> statuses() {
+            Map<Integer, Long> result = new TreeMap<>();
+            statuses.forEach((status, count) -> result.put(status, count.sum()));
+            return result;
+        }
+    }
+}
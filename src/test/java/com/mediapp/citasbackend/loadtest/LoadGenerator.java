@@ -0,0 +1,108 @@
+package com.mediapp.citasbackend.loadtest;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Genera la carga con uno de dos modelos de llegada:
+ * - Cerrado: un número fijo de usuarios virtuales repite sesiones con un tiempo de pensar
+ *   exponencial; el throughput baja cuando el servicio se pone lento.
+ * - Abierto: las sesiones llegan a una tasa fija (Poisson) sin importar cuánto tarde el servicio;
+ *   la duración de cada sesión se mide desde su llegada programada.
+ * Cada usuario o sesión corre en un hilo virtual.
+ */
+public class LoadGenerator {
+
+    private final LoadTestSettings settings;
+    private final ApiClient api;
+    private final LoadTestFixtures fixtures;
+    private final LatencyRecorder recorder;
+    private final AtomicLong sessionSeeds;
+
+    public LoadGenerator(LoadTestSettings settings, ApiClient api, LoadTestFixtures fixtures, LatencyRecorder recorder) {
+        this.settings = settings;
+        this.api = api;
+        this.fixtures = fixtures;
+        this.recorder = recorder;
+        this.sessionSeeds = new AtomicLong(settings.seed());
+    }
+
+    /**
+     * Ejecuta el calentamiento (sin registrar) y la ventana de medición; devuelve la duración medida en segundos
+     */
+    public double run() throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + settings.warmup().toNanos();
+        long end = measureFrom + settings.duration().toNanos();
+        Thread starter = Thread.ofVirtual().start(() -> {
+            LockSupport.parkNanos(measureFrom - System.nanoTime());
+            recorder.start();
+        });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            if (settings.model() == LoadTestSettings.Model.CLOSED) {
+                for (int i = 0; i < settings.users(); i++) {
+                    executor.submit(() -> closedLoop(end));
+                }
+            } else {
+                openLoop(executor, end);
+            }
+            executor.shutdown();
+            executor.awaitTermination(settings.duration().toSeconds() + settings.warmup().toSeconds() + 120, TimeUnit.SECONDS);
+        }
+        starter.join();
+        recorder.stop();
+        return settings.duration().toNanos() / 1e9;
+    }
+
+    private void closedLoop(long end) {
+        SplittableRandom random = new SplittableRandom(sessionSeeds.incrementAndGet());
+        double meanThinkNanos = settings.thinkTime().toNanos();
+        while (System.nanoTime() < end) {
+            session(random, System.nanoTime());
+            if (meanThinkNanos > 0) {
+                LockSupport.parkNanos((long) (-Math.log(1 - random.nextDouble()) * meanThinkNanos));
+            }
+        }
+    }
+
+    private void openLoop(ExecutorService executor, long end) {
+        SplittableRandom arrivals = new SplittableRandom(settings.seed());
+        Semaphore inFlight = new Semaphore(settings.maxInFlight());
+        double meanGapNanos = 1e9 / settings.rate();
+        long next = System.nanoTime();
+        while (next < end) {
+            LockSupport.parkNanos(next - System.nanoTime());
+            long intended = next;
+            if (inFlight.tryAcquire()) {
+                SplittableRandom random = new SplittableRandom(sessionSeeds.incrementAndGet());
+                executor.submit(() -> {
+                    try {
+                        session(random, intended);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            } else {
+                recorder.recordDroppedArrival();
+            }
+            next += (long) (-Math.log(1 - arrivals.nextDouble()) * meanGapNanos);
+        }
+    }
+
+    private void session(SplittableRandom random, long intendedStart) {
+        Scenario scenario = random.nextDouble() < settings.doctorShare() ? Scenario.MEDICO : Scenario.PACIENTE;
+        boolean ok;
+        try {
+            ok = scenario.run(api, fixtures, random);
+        } catch (RuntimeException e) {
+            ok = false;
+        }
+        recorder.recordSession(scenario.name(), System.nanoTime() - intendedStart, !ok);
+    }
+}
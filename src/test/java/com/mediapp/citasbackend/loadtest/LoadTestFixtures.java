@@ -0,0 +1,154 @@
+package com.mediapp.citasbackend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Datos de la corrida creados a través de la API antes de medir: especialidades, médicos con su
+ * disponibilidad semanal y pacientes. También reparte bloques de agenda libres para que las
+ * reservas concurrentes no choquen entre sí, y guarda las citas reservadas de cada médico para
+ * que sus sesiones escriban el historial.
+ */
+public class LoadTestFixtures {
+
+    public static final String PASSWORD = "password123";
+
+    static final String[] ESPECIALIDADES = {"Medicina General", "Cardiología", "Pediatría", "Dermatología"};
+    static final String[] DIAS = {"LUNES", "MARTES", "MIERCOLES", "JUEVES", "VIERNES", "SABADO", "DOMINGO"};
+
+    // Bloques de 30 minutos entre las 08:00 y las 18:00
+    private static final int SLOTS_POR_DIA = 20;
+    // El servicio rechaza citas a más de 6 meses
+    private static final int DIAS_DE_AGENDA = 170;
+
+    public record Account(String email, int idUsuario, int idPerfil) {
+    }
+
+    public record Slot(int medico, LocalDate fecha, LocalTime hora) {
+    }
+
+    public record BookedCita(int idCita, int idPaciente) {
+    }
+
+    private final List<Account> pacientes = new ArrayList<>();
+    private final List<Account> medicos = new ArrayList<>();
+    private final List<LocalDate> diasHabiles = new ArrayList<>();
+    private final Map<Integer, Queue<BookedCita>> citasPorMedico = new LinkedHashMap<>();
+    private final AtomicLong nextSlot = new AtomicLong();
+
+    public static LoadTestFixtures create(ApiClient api, LoadTestSettings settings) {
+        LoadTestFixtures fixtures = new LoadTestFixtures();
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        String admin = register(api, "admin." + run, "ADMIN").path("token").asText();
+        // Los perfiles de médico y paciente crean su usuario en cascada y guardan la contraseña tal
+        // como llega, así que se envía ya cifrada para que después puedan iniciar sesión
+        String hash = new BCryptPasswordEncoder().encode(PASSWORD);
+
+        List<Integer> especialidades = new ArrayList<>();
+        for (String nombre : ESPECIALIDADES) {
+            // El nombre es único: se marca con la corrida para poder repetirla contra la misma base de datos
+            especialidades.add(api.post("seed", "/api/especialidades", admin,
+                            Map.of("nombreEspecialidad", nombre + " " + run, "estado", "ACTIVA"))
+                    .require("Crear especialidad").path("idEspecialidad").asInt());
+        }
+
+        for (int m = 0; m < settings.medicos(); m++) {
+            String email = "medico" + m + "." + run + "@loadtest.com";
+            JsonNode medico = api.post("seed", "/api/medicos", admin, Map.of(
+                            "usuario", usuario(email, "MEDICO", hash),
+                            "especialidad", Map.of("idEspecialidad", especialidades.get(m % especialidades.size())),
+                            "numeroLicencia", "LT-" + run + "-" + m,
+                            "experienciaAnos", 5 + m % 20,
+                            "estadoVerificacion", "VERIFICADO"))
+                    .require("Crear médico");
+            int idMedico = medico.path("idMedico").asInt();
+            for (int d = 0; d < 6; d++) {
+                api.post("seed", "/api/calendario-disponibilidad", admin, Map.of(
+                        "medico", Map.of("idMedico", idMedico),
+                        "diaSemana", DIAS[d],
+                        "horaInicio", "08:00:00",
+                        "horaFin", "18:00:00",
+                        "intervaloCitaMinutos", 30,
+                        "estado", "ACTIVO")).require("Crear disponibilidad");
+            }
+            fixtures.medicos.add(new Account(email, medico.path("usuario").path("idUsuario").asInt(), idMedico));
+            fixtures.citasPorMedico.put(idMedico, new ConcurrentLinkedQueue<>());
+        }
+
+        for (int p = 0; p < settings.pacientes(); p++) {
+            String email = "paciente" + p + "." + run + "@loadtest.com";
+            JsonNode paciente = api.post("seed", "/api/pacientes", admin, Map.of(
+                            "usuario", usuario(email, "PACIENTE", hash),
+                            "numeroIdentificacion", "LT" + run + p,
+                            "tipoSangre", "O+"))
+                    .require("Crear paciente");
+            fixtures.pacientes.add(new Account(email, paciente.path("usuario").path("idUsuario").asInt(),
+                    paciente.path("idPaciente").asInt()));
+        }
+
+        for (LocalDate fecha = LocalDate.now().plusDays(1); fixtures.diasHabiles.size() < DIAS_DE_AGENDA; fecha = fecha.plusDays(1)) {
+            if (fecha.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                fixtures.diasHabiles.add(fecha);
+            }
+        }
+        return fixtures;
+    }
+
+    private static JsonNode register(ApiClient api, String user, String tipo) {
+        return api.post("seed", "/api/auth/register", null, Map.of(
+                "nombre", "Carga",
+                "apellido", "Prueba",
+                "email", user + "@loadtest.com",
+                "contraseña", PASSWORD,
+                "tipoUsuario", tipo)).require("Registrar " + user);
+    }
+
+    private static Map<String, Object> usuario(String email, String tipo, String hash) {
+        return Map.of(
+                "nombre", "Carga",
+                "apellido", "Prueba",
+                "email", email,
+                "contraseña", hash,
+                "tipoUsuario", tipo);
+    }
+
+    /**
+     * Siguiente bloque libre: recorre los médicos y luego los bloques de cada día hábil. Si la
+     * corrida agota la agenda de 6 meses, vuelve a empezar y las reservas chocarán (409/400).
+     */
+    public Slot nextSlot() {
+        long n = nextSlot.getAndIncrement();
+        int medico = medicos.get((int) (n % medicos.size())).idPerfil();
+        long k = n / medicos.size();
+        LocalDate fecha = diasHabiles.get((int) ((k / SLOTS_POR_DIA) % diasHabiles.size()));
+        LocalTime hora = LocalTime.of(8, 0).plusMinutes(30 * (k % SLOTS_POR_DIA));
+        return new Slot(medico, fecha, hora);
+    }
+
+    public LocalDate primerDiaDeAgenda() {
+        return diasHabiles.get(0);
+    }
+
+    public List<Account> pacientes() {
+        return pacientes;
+    }
+
+    public List<Account> medicos() {
+        return medicos;
+    }
+
+    public Queue<BookedCita> citasDe(int idMedico) {
+        return citasPorMedico.get(idMedico);
+    }
+}
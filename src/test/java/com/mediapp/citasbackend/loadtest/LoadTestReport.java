@@ -0,0 +1,131 @@
+package com.mediapp.citasbackend.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reporte de una corrida: JSON para comparar corridas entre sí y HTML para leerlo en el navegador.
+ * Se escriben en reportDir/&lt;name&gt;.json y reportDir/&lt;name&gt;.html.
+ */
+public class LoadTestReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final LoadTestSettings settings;
+    private final LatencyRecorder recorder;
+    private final double seconds;
+
+    public LoadTestReport(LoadTestSettings settings, LatencyRecorder recorder, double seconds) {
+        this.settings = settings;
+        this.recorder = recorder;
+        this.seconds = seconds;
+    }
+
+    public ObjectNode toJson(ObjectMapper mapper) {
+        ObjectNode root = mapper.createObjectNode();
+        ObjectNode config = root.putObject("settings");
+        config.put("model", settings.model().name());
+        config.put("users", settings.users());
+        config.put("rate", settings.rate());
+        config.put("maxInFlight", settings.maxInFlight());
+        config.put("warmupSeconds", settings.warmup().toSeconds());
+        config.put("durationSeconds", settings.duration().toSeconds());
+        config.put("thinkTimeMs", settings.thinkTime().toMillis());
+        config.put("doctorShare", settings.doctorShare());
+        config.put("pacientes", settings.pacientes());
+        config.put("medicos", settings.medicos());
+        config.put("seed", settings.seed());
+
+        root.put("measuredSeconds", seconds);
+        root.put("droppedArrivals", recorder.droppedArrivals());
+        root.set("endpoints", series(mapper, recorder.requests()));
+        root.set("sessions", series(mapper, recorder.sessions()));
+        return root;
+    }
+
+    private ArrayNode series(ObjectMapper mapper, Map<String, LatencyRecorder.Series> series) {
+        ArrayNode array = mapper.createArrayNode();
+        series.forEach((name, s) -> {
+            ObjectNode node = array.addObject();
+            node.put("name", name);
+            node.put("count", s.count());
+            node.put("errors", s.errors());
+            node.put("throughput", s.count() / seconds);
+            ObjectNode percentiles = node.putObject("latencyMs");
+            for (double p : PERCENTILES) {
+                percentiles.put("p" + format(p), s.percentileMillis(p));
+            }
+            percentiles.put("mean", s.meanMillis());
+            percentiles.put("max", s.maxMillis());
+            ObjectNode statuses = node.putObject("statuses");
+            s.statuses().forEach((status, count) -> statuses.put(String.valueOf(status), count));
+        });
+        return array;
+    }
+
+    /**
+     * Escribe ambos archivos y devuelve la ruta del JSON
+     */
+    public Path write() throws IOException {
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        Files.createDirectories(settings.reportDir());
+        Path json = settings.reportDir().resolve(settings.name() + ".json");
+        mapper.writeValue(json.toFile(), toJson(mapper));
+        Files.writeString(settings.reportDir().resolve(settings.name() + ".html"), html());
+        return json;
+    }
+
+    private String html() {
+        StringBuilder html = new StringBuilder()
+                .append("<!DOCTYPE html>\n<html lang=\"es\"><head><meta charset=\"utf-8\"><title>")
+                .append(escape(settings.name()))
+                .append("</title><style>body{font-family:sans-serif}table{border-collapse:collapse}")
+                .append("td,th{border:1px solid #ccc;padding:4px 8px;text-align:right}td:first-child{text-align:left}")
+                .append("</style></head><body>\n<h1>Prueba de carga: ").append(escape(settings.name())).append("</h1>\n<p>Modelo ")
+                .append(settings.model());
+        if (settings.model() == LoadTestSettings.Model.CLOSED) {
+            html.append(", ").append(settings.users()).append(" usuarios, pensar ").append(settings.thinkTime().toMillis()).append(" ms");
+        } else {
+            html.append(", ").append(settings.rate()).append(" sesiones/s, máximo ").append(settings.maxInFlight())
+                    .append(" en curso, ").append(recorder.droppedArrivals()).append(" llegadas descartadas");
+        }
+        html.append(", ").append(format(seconds)).append(" s medidos.</p>\n");
+        table(html, "Endpoints", recorder.requests());
+        table(html, "Sesiones", recorder.sessions());
+        return html.append("</body></html>\n").toString();
+    }
+
+    private void table(StringBuilder html, String title, Map<String, LatencyRecorder.Series> series) {
+        html.append("<h2>").append(title).append("</h2>\n<table><tr><th>Nombre</th><th>Peticiones</th><th>Errores</th><th>req/s</th>");
+        for (double p : PERCENTILES) {
+            html.append("<th>p").append(format(p)).append(" (ms)</th>");
+        }
+        html.append("<th>Máx (ms)</th><th>Estados</th></tr>\n");
+        series.forEach((name, s) -> {
+            html.append("<tr><td>").append(escape(name)).append("</td><td>").append(s.count())
+                    .append("</td><td>").append(s.errors())
+                    .append("</td><td>").append(format(s.count() / seconds)).append("</td>");
+            for (double p : PERCENTILES) {
+                html.append("<td>").append(format(s.percentileMillis(p))).append("</td>");
+            }
+            html.append("<td>").append(format(s.maxMillis())).append("</td><td>").append(s.statuses()).append("</td></tr>\n");
+        });
+        html.append("</table>\n");
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.format(Locale.ROOT, "%.1f", value);
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
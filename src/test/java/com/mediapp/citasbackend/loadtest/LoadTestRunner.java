@@ -0,0 +1,54 @@
+package com.mediapp.citasbackend.loadtest;
+
+import com.mediapp.citasbackend.CitasMedicasApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+
+/**
+ * Punto de entrada del arnés de capacidad. Sin base-url arranca una instancia embebida con H2.
+ *
+ * Ejecutar con: ./mvnw test-compile exec:exec -Pload-tests -Dloadtest.args="model=open rate=30 duration=120"
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.parse(args);
+        Path report = run(settings);
+        System.out.println("Reporte escrito en " + report.toAbsolutePath());
+    }
+
+    /**
+     * Crea los datos de la corrida, genera la carga y escribe el reporte
+     */
+    public static Path run(LoadTestSettings settings) throws Exception {
+        if (settings.baseUrl() != null) {
+            return execute(settings);
+        }
+        try (ConfigurableApplicationContext context = startEmbedded(settings.name())) {
+            return execute(settings.withBaseUrl("http://localhost:" + context.getEnvironment().getProperty("local.server.port")));
+        }
+    }
+
+    static ConfigurableApplicationContext startEmbedded(String name) {
+        // Fuera de JUnit devtools reiniciaría la aplicación en otro hilo y perdería la corrida
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        return new SpringApplicationBuilder(CitasMedicasApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:capacidad-" + name,
+                        "mediapp.bulkhead.enabled=false",
+                        "logging.level.root=WARN"
+                )
+                .run();
+    }
+
+    private static Path execute(LoadTestSettings settings) throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder();
+        ApiClient api = new ApiClient(settings.baseUrl(), recorder);
+        LoadTestFixtures fixtures = LoadTestFixtures.create(api, settings);
+        double seconds = new LoadGenerator(settings, api, fixtures, recorder).run();
+        return new LoadTestReport(settings, recorder, seconds).write();
+    }
+}
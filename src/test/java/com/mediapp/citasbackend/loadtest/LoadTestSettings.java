@@ -0,0 +1,77 @@
+package com.mediapp.citasbackend.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parámetros de una corrida del arnés de carga. Se leen de argumentos clave=valor, por ejemplo:
+ * model=open rate=30 duration=120 base-url=http://localhost:8080
+ *
+ * @param baseUrl         instancia a probar; si es nula se arranca una embebida con H2
+ * @param model           CLOSED: usuarios concurrentes con tiempo de pensar; OPEN: llegadas por segundo
+ * @param users           usuarios virtuales del modelo cerrado
+ * @param rate            sesiones nuevas por segundo del modelo abierto (llegadas de Poisson)
+ * @param maxInFlight     sesiones simultáneas máximas del modelo abierto; las llegadas que lo superan se descartan
+ * @param thinkTime       tiempo medio de pensar entre sesiones del modelo cerrado
+ * @param doctorShare     fracción de sesiones que son de médicos (el resto, de pacientes)
+ */
+public record LoadTestSettings(String baseUrl, Model model, int users, double rate, int maxInFlight,
+                               Duration warmup, Duration duration, Duration thinkTime, double doctorShare,
+                               int pacientes, int medicos, long seed, Path reportDir, String name) {
+
+    public enum Model {
+        CLOSED,
+        OPEN
+    }
+
+    public static LoadTestSettings defaults() {
+        return new LoadTestSettings(null, Model.CLOSED, 20, 10, 200, Duration.ofSeconds(5), Duration.ofSeconds(30),
+                Duration.ofMillis(200), 0.2, 50, 8, 42, Path.of("target/loadtest"), "capacidad");
+    }
+
+    public static LoadTestSettings parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Argumento inválido (se espera clave=valor): " + arg);
+            }
+            values.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        LoadTestSettings d = defaults();
+        LoadTestSettings settings = new LoadTestSettings(
+                values.getOrDefault("base-url", d.baseUrl()),
+                Model.valueOf(values.getOrDefault("model", d.model().name()).toUpperCase()),
+                Integer.parseInt(values.getOrDefault("users", String.valueOf(d.users()))),
+                Double.parseDouble(values.getOrDefault("rate", String.valueOf(d.rate()))),
+                Integer.parseInt(values.getOrDefault("max-in-flight", String.valueOf(d.maxInFlight()))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", String.valueOf(d.warmup().toSeconds())))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", String.valueOf(d.duration().toSeconds())))),
+                Duration.ofMillis(Long.parseLong(values.getOrDefault("think-ms", String.valueOf(d.thinkTime().toMillis())))),
+                Double.parseDouble(values.getOrDefault("doctor-share", String.valueOf(d.doctorShare()))),
+                Integer.parseInt(values.getOrDefault("pacientes", String.valueOf(d.pacientes()))),
+                Integer.parseInt(values.getOrDefault("medicos", String.valueOf(d.medicos()))),
+                Long.parseLong(values.getOrDefault("seed", String.valueOf(d.seed()))),
+                Path.of(values.getOrDefault("report-dir", d.reportDir().toString())),
+                values.getOrDefault("name", d.name()));
+        values.keySet().removeAll(Set.of("base-url", "model", "users", "rate", "max-in-flight", "warmup",
+                "duration", "think-ms", "doctor-share", "pacientes", "medicos", "seed", "report-dir", "name"));
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Argumentos desconocidos: " + values.keySet());
+        }
+        return settings;
+    }
+
+    public LoadTestSettings withModel(Model model, String name) {
+        return new LoadTestSettings(baseUrl, model, users, rate, maxInFlight, warmup, duration, thinkTime,
+                doctorShare, pacientes, medicos, seed, reportDir, name);
+    }
+
+    public LoadTestSettings withBaseUrl(String baseUrl) {
+        return new LoadTestSettings(baseUrl, model, users, rate, maxInFlight, warmup, duration, thinkTime,
+                doctorShare, pacientes, medicos, seed, reportDir, name);
+    }
+}
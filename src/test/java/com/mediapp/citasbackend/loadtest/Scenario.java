@@ -0,0 +1,102 @@
+package com.mediapp.citasbackend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Sesiones grabadas que ejecuta cada usuario virtual. Cada paso usa la ruta con plantilla como
+ * etiqueta del endpoint; una sesión falla si algún paso responde con error.
+ */
+public enum Scenario {
+
+    /**
+     * Paciente: inicia sesión, busca médicos, consulta disponibilidad, reserva y lee sus notificaciones
+     */
+    PACIENTE {
+        @Override
+        boolean run(ApiClient api, LoadTestFixtures fixtures, SplittableRandom random) {
+            LoadTestFixtures.Account paciente = fixtures.pacientes().get(random.nextInt(fixtures.pacientes().size()));
+            String token = login(api, paciente);
+            if (token == null) {
+                return false;
+            }
+            boolean ok = api.get("GET /api/especialidades/activas", "/api/especialidades/activas", token).ok();
+
+            LoadTestFixtures.Slot slot = fixtures.nextSlot();
+            String dia = LoadTestFixtures.DIAS[slot.fecha().getDayOfWeek().getValue() - 1];
+            ok &= api.get("GET /api/calendario-disponibilidad/medicos-disponibles/dia/{dia}",
+                    "/api/calendario-disponibilidad/medicos-disponibles/dia/" + dia, token).ok();
+            ok &= api.get("GET /api/citas/medico-disponible", "/api/citas/medico-disponible?idMedico=" + slot.medico()
+                    + "&fecha=" + slot.fecha() + "&hora=" + slot.hora(), token).ok();
+
+            boolean telemedicina = random.nextDouble() < 0.25;
+            Map<String, Object> cita = new HashMap<>();
+            cita.put("paciente", Map.of("idPaciente", paciente.idPerfil()));
+            cita.put("medico", Map.of("idMedico", slot.medico()));
+            cita.put("fechaCita", slot.fecha().toString());
+            cita.put("horaCita", slot.hora().toString() + ":00");
+            cita.put("tipoCita", telemedicina ? "TELEMEDICINA" : "PRESENCIAL");
+            cita.put("motivoConsulta", "Control de rutina");
+            if (telemedicina) {
+                cita.put("enlaceVideollamada", "https://meet.mediapp.com/carga");
+            }
+            ApiClient.Response reserva = api.post("POST /api/citas", "/api/citas", token, cita);
+            ok &= reserva.ok();
+            if (reserva.ok()) {
+                fixtures.citasDe(slot.medico()).add(new LoadTestFixtures.BookedCita(
+                        reserva.body().path("idCita").asInt(), paciente.idPerfil()));
+            }
+
+            ok &= api.get("GET /api/notificaciones/usuario/{id}/no-leidas",
+                    "/api/notificaciones/usuario/" + paciente.idUsuario() + "/no-leidas", token).ok();
+            ok &= api.get("GET /api/citas/paciente/{id}/proximas",
+                    "/api/citas/paciente/" + paciente.idPerfil() + "/proximas", token).ok();
+            return ok;
+        }
+    },
+
+    /**
+     * Médico: inicia sesión, revisa su agenda y registra el historial de una cita atendida
+     */
+    MEDICO {
+        @Override
+        boolean run(ApiClient api, LoadTestFixtures fixtures, SplittableRandom random) {
+            LoadTestFixtures.Account medico = fixtures.medicos().get(random.nextInt(fixtures.medicos().size()));
+            String token = login(api, medico);
+            if (token == null) {
+                return false;
+            }
+            LocalDate dia = fixtures.primerDiaDeAgenda();
+            boolean ok = api.get("GET /api/citas/medico/{id}/fecha/{fecha}",
+                    "/api/citas/medico/" + medico.idPerfil() + "/fecha/" + dia, token).ok();
+            ok &= api.get("GET /api/citas/medico/{id}/programadas",
+                    "/api/citas/medico/" + medico.idPerfil() + "/programadas", token).ok();
+
+            LoadTestFixtures.BookedCita cita = fixtures.citasDe(medico.idPerfil()).poll();
+            if (cita != null) {
+                ok &= api.post("POST /api/historial-medico", "/api/historial-medico", token, Map.of(
+                        "cita", Map.of("idCita", cita.idCita()),
+                        "paciente", Map.of("idPaciente", cita.idPaciente()),
+                        "medico", Map.of("idMedico", medico.idPerfil()),
+                        "diagnostico", "Paciente sano",
+                        "sintomasReportados", "Sin síntomas",
+                        "tratamientoRecomendado", "Mantener hábitos saludables")).ok();
+                ok &= api.patch("PATCH /api/citas/{id}/completar", "/api/citas/" + cita.idCita() + "/completar", token).ok();
+            }
+            return ok;
+        }
+    };
+
+    abstract boolean run(ApiClient api, LoadTestFixtures fixtures, SplittableRandom random);
+
+    private static String login(ApiClient api, LoadTestFixtures.Account account) {
+        ApiClient.Response response = api.post("POST /api/auth/login", "/api/auth/login", null,
+                Map.of("email", account.email(), "contraseña", LoadTestFixtures.PASSWORD));
+        JsonNode body = response.body();
+        return response.ok() && body != null ? body.path("token").asText(null) : null;
+    }
+}
@@ -0,0 +1,99 @@
+package com.mediapp.citasbackend.mappers;
+
+import com.mediapp.citasbackend.dtos.AuthResponseDTO;
+import com.mediapp.citasbackend.dtos.UsuarioCreateDTO;
+import com.mediapp.citasbackend.dtos.UsuarioDTO;
+import com.mediapp.citasbackend.dtos.UsuarioUpdateDTO;
+import com.mediapp.citasbackend.entities.Usuario;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests para UsuarioMapper")
+class UsuarioMapperTest {
+
+    private final UsuarioMapper mapper = Mappers.getMapper(UsuarioMapper.class);
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        usuario = Usuario.builder()
+                .idUsuario(1)
+                .nombre("Laura")
+                .apellido("Gómez")
+                .email("laura.gomez@gmail.com")
+                .contraseña("$2a$10$hash")
+                .fechaNacimiento(LocalDate.of(1992, 3, 20))
+                .genero(Usuario.Genero.FEMENINO)
+                .telefono("3151234567")
+                .ciudad("Medellín")
+                .pais("Colombia")
+                .tipoUsuario(Usuario.TipoUsuario.MEDICO)
+                .fechaRegistro(LocalDateTime.of(2025, 10, 20, 15, 30))
+                .estado(Usuario.Estado.ACTIVO)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Entidad a DTO - Copia todos los campos públicos")
+    void testToDto() {
+        UsuarioDTO dto = mapper.toDto(usuario);
+
+        assertEquals(1, dto.getIdUsuario());
+        assertEquals("Laura", dto.getNombre());
+        assertEquals(Usuario.Genero.FEMENINO, dto.getGenero());
+        assertEquals(Usuario.TipoUsuario.MEDICO, dto.getTipoUsuario());
+        assertEquals(usuario.getFechaRegistro(), dto.getFechaRegistro());
+        assertEquals(1, mapper.toDtoList(List.of(usuario)).size());
+    }
+
+    @Test
+    @DisplayName("DTO de creación a entidad - No copia la contraseña ni campos generados")
+    void testCreateDtoToEntity() {
+        UsuarioCreateDTO dto = new UsuarioCreateDTO();
+        dto.setNombre("Maria");
+        dto.setEmail("maria@gmail.com");
+        dto.setContraseña("password123");
+        dto.setTipoUsuario(Usuario.TipoUsuario.PACIENTE);
+
+        Usuario entity = mapper.toEntity(dto);
+
+        assertEquals("Maria", entity.getNombre());
+        assertEquals(Usuario.TipoUsuario.PACIENTE, entity.getTipoUsuario());
+        assertNull(entity.getContraseña());
+        assertNull(entity.getIdUsuario());
+    }
+
+    @Test
+    @DisplayName("Actualizar entidad - Ignora los campos nulos del DTO")
+    void testUpdateIgnoresNulls() {
+        UsuarioUpdateDTO dto = new UsuarioUpdateDTO();
+        dto.setCiudad("Armenia");
+
+        mapper.updateEntity(dto, usuario);
+
+        assertEquals("Armenia", usuario.getCiudad());
+        assertEquals("Laura", usuario.getNombre());
+        assertEquals("$2a$10$hash", usuario.getContraseña());
+    }
+
+    @Test
+    @DisplayName("Respuesta de autenticación - Conserva el tipo Bearer")
+    void testToAuthResponse() {
+        AuthResponseDTO response = mapper.toAuthResponse(usuario, "token", "refresh");
+
+        assertEquals("token", response.getToken());
+        assertEquals("refresh", response.getRefreshToken());
+        assertEquals("Bearer", response.getTipo());
+        assertEquals("MEDICO", response.getTipoUsuario());
+        assertEquals(1, response.getIdUsuario());
+    }
+}
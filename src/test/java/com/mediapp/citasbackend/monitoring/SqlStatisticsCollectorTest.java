@@ -0,0 +1,104 @@
+package com.mediapp.citasbackend.monitoring;
+
+import com.mediapp.citasbackend.config.SqlStatisticsProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests para SqlStatisticsCollector")
+class SqlStatisticsCollectorTest {
+
+    private SqlStatisticsCollector collector;
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        SqlStatisticsProperties properties = new SqlStatisticsProperties();
+        properties.setRepeatedStatementThreshold(3);
+        collector = new SqlStatisticsCollector(properties);
+
+        JdbcProxyFactory factory = new JdbcProxyFactory(() -> List.of(collector));
+        connection = factory.wrap(DriverManager.getConnection("jdbc:h2:mem:sqlstats", "sa", ""));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE citas (id INT PRIMARY KEY, estado VARCHAR(20))");
+            statement.execute("INSERT INTO citas VALUES (1, 'PROGRAMADA'), (2, 'PROGRAMADA'), (3, 'CANCELADA')");
+        }
+        collector.reset();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        connection.close();
+    }
+
+    @Test
+    @DisplayName("Normalizar SQL - Reemplaza literales y colapsa listas IN")
+    void testNormalize() {
+        String sql = "select * from citas  where id in (?, ?, ?) and estado = 'PROGRAMADA' and id_medico = 15";
+
+        assertEquals("select * from citas where id in (?...) and estado = ? and id_medico = ?",
+                SqlNormalizer.normalize(sql));
+    }
+
+    @Test
+    @DisplayName("Agregar estadísticas - Cuenta ejecuciones y filas leídas")
+    void testAggregatesExecutionsAndRows() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            try (PreparedStatement ps = connection.prepareStatement("SELECT id FROM citas WHERE estado = ?")) {
+                ps.setString(1, "PROGRAMADA");
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        rs.getInt(1);
+                    }
+                }
+            }
+        }
+
+        List<SqlStatementStats> stats = collector.snapshot();
+
+        assertEquals(1, stats.size());
+        assertEquals(2, stats.get(0).getCount());
+        assertEquals(4, stats.get(0).getRows());
+        assertEquals(0, stats.get(0).getErrors());
+    }
+
+    @Test
+    @DisplayName("Detectar N+1 - Misma sentencia repetida dentro de una petición")
+    void testDetectsRepeatedStatementInRequest() throws Exception {
+        SqlRequestContext.begin("GET /api/citas");
+        try {
+            for (int id = 1; id <= 3; id++) {
+                try (PreparedStatement ps = connection.prepareStatement("SELECT estado FROM citas WHERE id = ?")) {
+                    ps.setInt(1, id);
+                    ps.executeQuery().close();
+                }
+            }
+        } finally {
+            SqlRequestContext.end();
+        }
+
+        assertEquals(1, collector.snapshot().get(0).getSuspectedNPlusOne());
+    }
+
+    @Test
+    @DisplayName("Registrar errores - Sentencia inválida")
+    void testRecordsErrors() {
+        assertThrows(Exception.class, () -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeQuery("SELECT * FROM tabla_inexistente");
+            }
+        });
+
+        assertEquals(1, collector.snapshot().get(0).getErrors());
+    }
+}
@@ -1,6 +1,8 @@
 package com.mediapp.citasbackend.repositories;
 
+import com.mediapp.citasbackend.dtos.FiltroCitasDTO;
 import com.mediapp.citasbackend.entities.*;
+import com.mediapp.citasbackend.utils.CursorCitas;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -10,12 +12,12 @@ import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfi
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
-import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -31,6 +33,12 @@ class CitaRepositoryTest {
     @Autowired
     private CitaRepository citaRepository;
 
+    @Autowired
+    private EntradaListaEsperaRepository entradaListaEsperaRepository;
+
+    @Autowired
+    private CitaArchivadaRepository citaArchivadaRepository;
+
     private Cita cita;
     private Medico medico;
     private Paciente paciente;
@@ -247,37 +255,6 @@ class CitaRepositoryTest {
         assertEquals(Cita.Estado.PROGRAMADA, citas.get(0).getEstado());
     }
 
-    @Test
-    @DisplayName("Debe verificar disponibilidad de médico")
-    void testFindCitaByMedicoFechaHora() {
-        // Arrange
-        citaRepository.save(cita);
-        entityManager.flush();
-
-        // Act
-        Optional<Cita> citaEncontrada = citaRepository.findCitaByMedicoFechaHora(
-                medico.getIdMedico(), cita.getFechaCita(), cita.getHoraCita());
-
-        // Assert
-        assertTrue(citaEncontrada.isPresent());
-        assertEquals(cita.getMedico().getIdMedico(), citaEncontrada.get().getMedico().getIdMedico());
-    }
-
-    @Test
-    @DisplayName("Debe retornar vacío cuando no hay conflicto de horario")
-    void testFindCitaByMedicoFechaHora_NoConflicto() {
-        // Arrange
-        citaRepository.save(cita);
-        entityManager.flush();
-
-        // Act
-        Optional<Cita> citaEncontrada = citaRepository.findCitaByMedicoFechaHora(
-                medico.getIdMedico(), cita.getFechaCita(), LocalTime.of(14, 0));
-
-        // Assert
-        assertFalse(citaEncontrada.isPresent());
-    }
-
     @Test
     @DisplayName("Debe encontrar citas programadas por paciente")
     void testFindCitasProgramadasByPaciente() {
@@ -365,4 +342,346 @@ class CitaRepositoryTest {
         assertTrue(citas.stream().allMatch(c -> 
             !c.getFechaCita().isBefore(fechaInicio) && !c.getFechaCita().isAfter(fechaFin)));
     }
+
+    @Test
+    @DisplayName("Debe cancelar varias citas con una sola sentencia")
+    void testBloquearYCancelarCitas() {
+        // Arrange
+        citaRepository.save(cita);
+        Cita otra = new Cita();
+        otra.setPaciente(paciente);
+        otra.setMedico(medico);
+        otra.setFechaCita(cita.getFechaCita());
+        otra.setHoraCita(LocalTime.of(11, 0));
+        otra.setTipoCita(Cita.TipoCita.PRESENCIAL);
+        otra.setEstado(Cita.Estado.PROGRAMADA);
+        citaRepository.save(otra);
+        entityManager.flush();
+        List<Integer> ids = citaRepository.findIdsByMedicoAndFecha(medico.getIdMedico(), cita.getFechaCita());
+        LocalDateTime ahora = LocalDateTime.now();
+
+        // Act
+        List<Object[]> filas = citaRepository.bloquearEstados(ids);
+        int actualizadas = citaRepository.cancelarCitas(ids, ahora);
+        entityManager.clear();
+
+        // Assert
+        assertEquals(List.of(cita.getIdCita(), otra.getIdCita()), ids);
+        assertEquals(2, filas.size());
+        assertEquals(Cita.Estado.PROGRAMADA, filas.get(0)[1]);
+        assertEquals(medico.getIdMedico(), filas.get(0)[2]);
+        assertEquals(paciente.getIdPaciente(), filas.get(0)[3]);
+        assertEquals(2, actualizadas);
+        Cita cancelada = citaRepository.findById(otra.getIdCita()).orElseThrow();
+        assertEquals(Cita.Estado.CANCELADA, cancelada.getEstado());
+        assertNotNull(cancelada.getFechaCancelacion());
+    }
+
+    @Test
+    @DisplayName("Debe recorrer las citas programadas vencidas desde una posición")
+    void testFindProgramadasVencidas() {
+        // Arrange
+        citaRepository.save(cita);
+        Cita otra = new Cita();
+        otra.setPaciente(paciente);
+        otra.setMedico(medico);
+        otra.setFechaCita(cita.getFechaCita());
+        otra.setHoraCita(LocalTime.of(15, 0));
+        otra.setTipoCita(Cita.TipoCita.PRESENCIAL);
+        otra.setEstado(Cita.Estado.PROGRAMADA);
+        citaRepository.save(otra);
+        entityManager.flush();
+        LocalDate fechaCorte = cita.getFechaCita();
+
+        // Act
+        List<Object[]> todas = citaRepository.findProgramadasVencidas(LocalDate.of(1970, 1, 1), LocalTime.MIN, 0,
+                fechaCorte, LocalTime.of(23, 0), PageRequest.of(0, 10));
+        List<Object[]> siguientes = citaRepository.findProgramadasVencidas(fechaCorte, LocalTime.of(10, 0), cita.getIdCita(),
+                fechaCorte, LocalTime.of(23, 0), PageRequest.of(0, 10));
+        List<Object[]> antesDelCorte = citaRepository.findProgramadasVencidas(LocalDate.of(1970, 1, 1), LocalTime.MIN, 0,
+                fechaCorte, LocalTime.of(12, 0), PageRequest.of(0, 10));
+
+        // Assert
+        assertEquals(List.of(cita.getIdCita(), otra.getIdCita()), todas.stream().map(f -> f[0]).toList());
+        assertEquals(List.of(otra.getIdCita()), siguientes.stream().map(f -> f[0]).toList());
+        assertEquals(List.of(cita.getIdCita()), antesDelCorte.stream().map(f -> f[0]).toList());
+    }
+
+    @Test
+    @DisplayName("Debe retornar el horario y la especialidad de las citas indicadas")
+    void testFindHorarios() {
+        // Arrange
+        citaRepository.save(cita);
+        entityManager.flush();
+
+        // Act
+        List<Object[]> horarios = citaRepository.findHorarios(List.of(cita.getIdCita(), -1));
+
+        // Assert
+        assertEquals(1, horarios.size());
+        Object[] horario = horarios.get(0);
+        assertEquals(medico.getIdMedico(), horario[1]);
+        assertEquals(especialidad.getIdEspecialidad(), horario[2]);
+        assertEquals(cita.getFechaCita(), horario[3]);
+        assertEquals(LocalTime.of(10, 0), horario[4]);
+        assertEquals(paciente.getIdPaciente(), horario[5]);
+        assertEquals(Cita.Estado.PROGRAMADA, horario[6]);
+    }
+
+    @Test
+    @DisplayName("Debe tomar una entrada de lista de espera solo si sigue activa")
+    void testOfrecerEntradaListaEspera() {
+        // Arrange
+        EntradaListaEspera entrada = new EntradaListaEspera();
+        entrada.setIdPaciente(paciente.getIdPaciente());
+        entrada.setIdMedico(medico.getIdMedico());
+        entrada.setFechaDesde(cita.getFechaCita().minusDays(1));
+        entrada.setFechaHasta(cita.getFechaCita().plusDays(1));
+        entrada = entradaListaEsperaRepository.save(entrada);
+        entityManager.flush();
+
+        // Act
+        List<EntradaListaEspera> activas = entradaListaEsperaRepository.findActivasByMedicoAndFecha(
+                medico.getIdMedico(), cita.getFechaCita());
+        int primera = entradaListaEsperaRepository.ofrecer(entrada.getIdEntrada(), 1, "token", LocalDateTime.now());
+        int segunda = entradaListaEsperaRepository.ofrecer(entrada.getIdEntrada(), 1, "token", LocalDateTime.now());
+
+        // Assert
+        assertEquals(1, activas.size());
+        assertEquals(1, primera);
+        assertEquals(0, segunda);
+        assertTrue(entradaListaEsperaRepository.findActivasByMedicoAndFecha(medico.getIdMedico(), cita.getFechaCita()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debe retornar la ocupación no cancelada del médico en el rango y las citas de una serie")
+    void testFindOcupacionYSerie() {
+        // Arrange
+        cita.setDuracionMinutos(45);
+        cita.setIdSerie("serie-1");
+        citaRepository.save(cita);
+        Cita cancelada = new Cita();
+        cancelada.setPaciente(paciente);
+        cancelada.setMedico(medico);
+        cancelada.setFechaCita(cita.getFechaCita().plusDays(1));
+        cancelada.setHoraCita(LocalTime.of(11, 0));
+        cancelada.setTipoCita(Cita.TipoCita.PRESENCIAL);
+        cancelada.setEstado(Cita.Estado.CANCELADA);
+        citaRepository.save(cancelada);
+        entityManager.flush();
+
+        // Act
+        List<Object[]> ocupacion = citaRepository.findOcupacionByMedicoEnRango(
+                medico.getIdMedico(), cita.getFechaCita(), cita.getFechaCita().plusDays(7));
+        List<Object[]> bloqueada = citaRepository.bloquearOcupacionEnRango(
+                medico.getIdMedico(), cita.getFechaCita(), cita.getFechaCita().plusDays(7));
+        List<Object[]> serie = citaRepository.findIdsBySerie("serie-1");
+
+        // Assert
+        assertEquals(1, ocupacion.size());
+        assertEquals(cita.getIdCita(), ocupacion.get(0)[0]);
+        assertEquals(45, ocupacion.get(0)[3]);
+        assertArrayEquals(ocupacion.get(0), bloqueada.get(0));
+        assertEquals(1, bloqueada.size());
+        assertEquals(1, serie.size());
+        assertEquals(cita.getFechaCita(), serie.get(0)[1]);
+    }
+
+    @Test
+    @DisplayName("Debe mover una cita cerrada antigua al archivo y seguir leyéndola en rangos, historial y conteos")
+    void testArchivarCita() {
+        // Arrange
+        LocalDate antigua = LocalDate.now().minusDays(400);
+        cita.setFechaCita(antigua);
+        cita.setEstado(Cita.Estado.COMPLETADA);
+        citaRepository.save(cita);
+        entityManager.flush();
+        LocalDate corte = LocalDate.now().minusDays(366);
+        long completadas = citaRepository.contarCitasPorEstado(Cita.Estado.COMPLETADA);
+
+        // Act
+        List<Object[]> archivables = citaRepository.findArchivables(LocalDate.of(1970, 1, 1), 0, corte, PageRequest.of(0, 10));
+        List<Integer> ids = List.of(cita.getIdCita());
+        int copiadas = citaArchivadaRepository.copiarDesdeCitas(ids, corte, LocalDateTime.now());
+        int eliminadas = citaRepository.eliminarArchivadas(ids, corte);
+        entityManager.clear();
+
+        // Assert
+        assertEquals(1, archivables.size());
+        assertEquals(1, copiadas);
+        assertEquals(1, eliminadas);
+        assertTrue(citaRepository.findById(cita.getIdCita()).isEmpty());
+        List<Cita> enRango = citaRepository.findCitasByMedicoEnRangoFechas(medico.getIdMedico(), antigua.minusDays(1), antigua.plusDays(1));
+        assertEquals(List.of(cita.getIdCita()), enRango.stream().map(Cita::getIdCita).toList());
+        assertEquals(1, citaRepository.findHistorialCitasByPaciente(paciente.getIdPaciente()).size());
+        assertEquals(completadas, citaRepository.contarCitasPorEstado(Cita.Estado.COMPLETADA));
+        assertTrue(citaRepository.findCitasByMedicoEnRangoFechas(medico.getIdMedico(), LocalDate.now(), LocalDate.now().plusDays(7)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debe buscar por criterios combinados y continuar desde el cursor, incluyendo el archivo")
+    void testBuscar() {
+        // Arrange
+        LocalDate fecha = cita.getFechaCita();
+        citaRepository.save(cita);
+        Cita misma = nuevaCita(fecha, LocalTime.of(10, 0), Cita.Estado.PROGRAMADA);
+        Cita tarde = nuevaCita(fecha, LocalTime.of(15, 0), Cita.Estado.PROGRAMADA);
+        nuevaCita(fecha.plusDays(1), LocalTime.of(9, 0), Cita.Estado.CANCELADA);
+        Cita antigua = nuevaCita(LocalDate.now().minusDays(400), LocalTime.of(8, 0), Cita.Estado.PROGRAMADA);
+        entityManager.flush();
+        LocalDate corte = LocalDate.now().minusDays(366);
+        citaArchivadaRepository.copiarDesdeCitas(List.of(antigua.getIdCita()), corte, LocalDateTime.now());
+        citaRepository.eliminarArchivadas(List.of(antigua.getIdCita()), corte);
+        entityManager.clear();
+        FiltroCitasDTO filtro = FiltroCitasDTO.builder()
+                .idMedico(medico.getIdMedico())
+                .estado(Cita.Estado.PROGRAMADA)
+                .idEspecialidad(especialidad.getIdEspecialidad())
+                .build();
+
+        // Act
+        List<Cita> primera = citaRepository.buscar(filtro, null, 2);
+        List<Cita> segunda = citaRepository.buscar(filtro, CursorCitas.deCita(primera.get(1)), 2);
+        List<Cita> desdeHoy = citaRepository.buscar(FiltroCitasDTO.builder()
+                .idPaciente(paciente.getIdPaciente()).fechaDesde(LocalDate.now()).build(), null, 10);
+
+        // Assert
+        assertEquals(List.of(antigua.getIdCita(), cita.getIdCita()), primera.stream().map(Cita::getIdCita).toList());
+        assertEquals(List.of(misma.getIdCita(), tarde.getIdCita()), segunda.stream().map(Cita::getIdCita).toList());
+        assertEquals(4, desdeHoy.size());
+        assertTrue(citaRepository.buscar(FiltroCitasDTO.builder().tipoCita(Cita.TipoCita.TELEMEDICINA).build(), null, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debe listar todas las citas, incluidas las archivadas")
+    void testFindAll_ConArchivo() {
+        // Arrange
+        citaRepository.save(cita);
+        Cita antigua = archivar(nuevaCita(LocalDate.now().minusDays(400), LocalTime.of(8, 0), Cita.Estado.COMPLETADA));
+
+        // Act
+        List<Integer> ids = citaRepository.findAll().stream().map(Cita::getIdCita).toList();
+
+        // Assert
+        assertEquals(2, ids.size());
+        assertTrue(ids.containsAll(List.of(cita.getIdCita(), antigua.getIdCita())));
+    }
+
+    @Test
+    @DisplayName("Debe encontrar por estado las citas archivadas")
+    void testFindByEstado_ConArchivo() {
+        // Arrange
+        citaRepository.save(cita);
+        Cita antigua = archivar(nuevaCita(LocalDate.now().minusDays(400), LocalTime.of(8, 0), Cita.Estado.NO_ASISTIO));
+
+        // Act
+        List<Cita> citas = citaRepository.findByEstado(Cita.Estado.NO_ASISTIO);
+
+        // Assert
+        assertEquals(List.of(antigua.getIdCita()), citas.stream().map(Cita::getIdCita).toList());
+    }
+
+    @Test
+    @DisplayName("Debe encontrar por paciente y estado las citas archivadas")
+    void testFindByPaciente_IdPacienteAndEstado_ConArchivo() {
+        // Arrange
+        Cita reciente = nuevaCita(LocalDate.now().minusDays(3), LocalTime.of(9, 0), Cita.Estado.COMPLETADA);
+        Cita antigua = archivar(nuevaCita(LocalDate.now().minusDays(400), LocalTime.of(8, 0), Cita.Estado.COMPLETADA));
+
+        // Act
+        List<Cita> citas = citaRepository.findByPaciente_IdPacienteAndEstado(
+                paciente.getIdPaciente(), Cita.Estado.COMPLETADA);
+
+        // Assert
+        assertEquals(2, citas.size());
+        assertTrue(citas.stream().map(Cita::getIdCita).toList().containsAll(List.of(reciente.getIdCita(), antigua.getIdCita())));
+    }
+
+    @Test
+    @DisplayName("Debe encontrar por médico y estado las citas archivadas")
+    void testFindByMedico_IdMedicoAndEstado_ConArchivo() {
+        // Arrange
+        Cita antigua = archivar(nuevaCita(LocalDate.now().minusDays(400), LocalTime.of(8, 0), Cita.Estado.CANCELADA));
+
+        // Act
+        List<Cita> citas = citaRepository.findByMedico_IdMedicoAndEstado(medico.getIdMedico(), Cita.Estado.CANCELADA);
+
+        // Assert
+        assertEquals(List.of(antigua.getIdCita()), citas.stream().map(Cita::getIdCita).toList());
+        assertTrue(citaRepository.findByMedico_IdMedicoAndEstado(medico.getIdMedico(), Cita.Estado.COMPLETADA).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debe encontrar por tipo las citas archivadas")
+    void testFindByTipoCita_ConArchivo() {
+        // Arrange
+        citaRepository.save(cita);
+        Cita antigua = nuevaCita(LocalDate.now().minusDays(400), LocalTime.of(8, 0), Cita.Estado.COMPLETADA);
+        antigua.setTipoCita(Cita.TipoCita.TELEMEDICINA);
+        archivar(antigua);
+
+        // Act
+        List<Cita> citas = citaRepository.findByTipoCita(Cita.TipoCita.TELEMEDICINA);
+
+        // Assert
+        assertEquals(List.of(antigua.getIdCita()), citas.stream().map(Cita::getIdCita).toList());
+        assertEquals(Cita.TipoCita.TELEMEDICINA, citas.get(0).getTipoCita());
+    }
+
+    @Test
+    @DisplayName("Debe encontrar las citas canceladas en el rango, incluidas las archivadas, de la más reciente a la más antigua")
+    void testFindCitasCanceladasEnRango_ConArchivo() {
+        // Arrange
+        LocalDateTime ahora = LocalDateTime.now();
+        Cita reciente = nuevaCita(LocalDate.now().minusDays(2), LocalTime.of(9, 0), Cita.Estado.CANCELADA);
+        reciente.setFechaCancelacion(ahora.minusDays(5));
+        Cita antigua = nuevaCita(LocalDate.now().minusDays(400), LocalTime.of(8, 0), Cita.Estado.CANCELADA);
+        antigua.setFechaCancelacion(ahora.minusDays(410));
+        archivar(antigua);
+
+        // Act
+        List<Cita> desdeHaceDosAnios = citaRepository.findCitasCanceladasEnRango(ahora.minusYears(2), ahora);
+        List<Cita> desdeElMesPasado = citaRepository.findCitasCanceladasEnRango(ahora.minusMonths(1), ahora);
+
+        // Assert
+        assertEquals(List.of(reciente.getIdCita(), antigua.getIdCita()),
+                desdeHaceDosAnios.stream().map(Cita::getIdCita).toList());
+        assertEquals(List.of(reciente.getIdCita()), desdeElMesPasado.stream().map(Cita::getIdCita).toList());
+    }
+
+    @Test
+    @DisplayName("Debe encontrar la última cita entre paciente y médico aunque esté archivada")
+    void testFindUltimaCitaByPacienteAndMedico_ConArchivo() {
+        // Arrange
+        Cita anterior = archivar(nuevaCita(LocalDate.now().minusDays(500), LocalTime.of(8, 0), Cita.Estado.COMPLETADA));
+        Cita ultima = archivar(nuevaCita(LocalDate.now().minusDays(400), LocalTime.of(8, 0), Cita.Estado.COMPLETADA));
+
+        // Act
+        List<Cita> citas = citaRepository.findUltimaCitaByPacienteAndMedico(paciente.getIdPaciente(), medico.getIdMedico());
+
+        // Assert
+        assertEquals(List.of(ultima.getIdCita(), anterior.getIdCita()), citas.stream().map(Cita::getIdCita).toList());
+    }
+
+    // Mueve la cita al archivo como lo hace el proceso de archivado
+    private Cita archivar(Cita antigua) {
+        entityManager.flush();
+        LocalDate corte = LocalDate.now().minusDays(366);
+        List<Integer> ids = List.of(antigua.getIdCita());
+        citaArchivadaRepository.copiarDesdeCitas(ids, corte, LocalDateTime.now());
+        citaRepository.eliminarArchivadas(ids, corte);
+        entityManager.clear();
+        return antigua;
+    }
+
+    private Cita nuevaCita(LocalDate fecha, LocalTime hora, Cita.Estado estado) {
+        Cita nueva = new Cita();
+        nueva.setPaciente(paciente);
+        nueva.setMedico(medico);
+        nueva.setFechaCita(fecha);
+        nueva.setHoraCita(hora);
+        nueva.setTipoCita(Cita.TipoCita.PRESENCIAL);
+        nueva.setEstado(estado);
+        return citaRepository.save(nueva);
+    }
 }
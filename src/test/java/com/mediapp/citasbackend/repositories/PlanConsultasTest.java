@@ -0,0 +1,383 @@
+package com.mediapp.citasbackend.repositories;
+
+import com.mediapp.citasbackend.config.DatasetGeneratorProperties;
+import com.mediapp.citasbackend.config.MigracionesConfig;
+import com.mediapp.citasbackend.config.MigracionesProperties;
+import com.mediapp.citasbackend.dataset.JdbcBatchSink;
+import com.mediapp.citasbackend.dataset.SyntheticDatasetGenerator;
+import com.mediapp.citasbackend.dtos.FiltroCitasDTO;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.Repository;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ejecuta cada consulta de los repositorios sobre un esquema creado por las migraciones y
+ * cargado con el dataset sintético, y falla si el plan (EXPLAIN de H2) recorre una tabla entera.
+ * H2 no elige índices igual que MySQL, pero una consulta sin índice utilizable aquí tampoco lo
+ * tiene allí.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.datasource.url=jdbc:h2:mem:plan_consultas;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "mediapp.migraciones.enabled=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.mediapp.citasbackend.repositories.PlanConsultasTest$Capturador"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnableAutoConfiguration(exclude = {SecurityAutoConfiguration.class})
+@Import({MigracionesConfig.class, MigracionesProperties.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Tests de los planes de las consultas de los repositorios")
+class PlanConsultasTest {
+
+    // Consultas que recorren la tabla a propósito; una consulta nueva que lo haga debe tener
+    // índice (migración nueva y @Index en la entidad) o justificarse aquí
+    private static final Set<String> ESCANEO_PERMITIDO = Set.of(
+            // Búsquedas de texto con LIKE '%...%': ningún índice B-tree las sirve
+            "HistorialMedicoRepository.buscarPorDiagnostico",
+            "HistorialMedicoRepository.buscarPorMedicamento",
+            "HistorialMedicoRepository.buscarPorSintomas",
+            "HistorialMedicoRepository.buscarPorTratamiento",
+            "MedicoRepository.buscarMedicosPorNombre",
+            "PacienteRepository.buscarPacientesActivosPorNombre",
+            "PacienteRepository.buscarPacientesPorAlergia",
+            "PacienteRepository.buscarPacientesPorEnfermedad",
+            "PacienteRepository.buscarPacientesPorMedicamento",
+            "PacienteRepository.buscarPacientesPorNombre",
+            "UsuarioRepository.buscarPorNombreOApellido",
+            // Conteos y agrupaciones sobre toda la tabla (los paneles usan contadores_citas)
+            "CitaRepository.contarCitasAgrupadasPorEstado",
+            "CitaRepository.contarCitasPorEstado",
+            "CitaRepository.contarCitasPorMedicoAgrupadas",
+            "CitaRepository.contarCitasPorPacienteAgrupadas",
+            "PacienteRepository.contarPacientesActivos",
+            "PacienteRepository.contarPacientesPorTipoSangre",
+            "UsuarioRepository.contarUsuariosActivos",
+            "UsuarioRepository.contarUsuariosPorTipo",
+            // Listados completos o por columnas de pocos valores, que devuelven buena parte de la tabla
+            "CalendarioDisponibilidadRepository.findBloquesActivosIndice",
+            "CalendarioDisponibilidadRepository.findByEstado",
+            "CitaRepository.findAll",
+            "CitaRepository.findByEstado",
+            "CitaRepository.findByTipoCita",
+            "MedicoRepository.findAllOrdenadosPorCalificacion",
+            "MedicoRepository.findAtributosIndice",
+            "NotificacionRepository.findByLeida",
+            "PacienteRepository.findAllOrdenadosPorNombre",
+            "PacienteRepository.findByTipoSangre",
+            "PacienteRepository.findPacientesActivos",
+            "PacienteRepository.findPacientesByGenero",
+            "PacienteRepository.findPacientesRecientes",
+            "UsuarioRepository.findByEstado",
+            "UsuarioRepository.findByTipoUsuario",
+            "UsuarioRepository.findByTipoUsuarioAndEstado",
+            "UsuarioRepository.findMedicosActivos",
+            "UsuarioRepository.findPacientesActivos",
+            "UsuarioRepository.findUsuariosActivosByTipo",
+            // Filtros de perfil incompleto o con datos opcionales (IS NULL / IS NOT NULL)
+            "HistorialMedicoRepository.findHistorialConObservaciones",
+            "PacienteRepository.findPacientesConAlergias",
+            "PacienteRepository.findPacientesConContactoEmergencia",
+            "PacienteRepository.findPacientesConEnfermedadesCronicas",
+            "PacienteRepository.findPacientesConHistorialMedico",
+            "PacienteRepository.findPacientesConMedicamentosActuales",
+            "PacienteRepository.findPacientesConPerfilCompleto",
+            "PacienteRepository.findPacientesConPerfilIncompleto",
+            "PacienteRepository.findPacientesSinContactoEmergencia",
+            "PacienteRepository.findPacientesSinHistorialMedico",
+            "PacienteRepository.findPacientesSinTipoSangre",
+            "PrescripcionRepository.findPrescripcionesSinDuracion",
+            // Filtros administrativos poco frecuentes
+            "CalendarioDisponibilidadRepository.findByIntervaloCitaMinutos",
+            "MedicoRepository.findByHospitalAfiliado",
+            "PacienteRepository.findPacientesByCiudad",
+            "PacienteRepository.findPacientesByPais",
+            "PrescripcionRepository.findByDosis",
+            "PrescripcionRepository.findByDuracionDias",
+            "PrescripcionRepository.findByFrecuencia",
+            "PrescripcionRepository.findPrescripcionesConDuracionMinima",
+            "PrescripcionRepository.findPrescripcionesTratamientosLargos",
+            "UsuarioRepository.findByCiudad",
+            "UsuarioRepository.findByPais");
+
+    // Catálogos de pocas filas, donde recorrer la tabla es lo más barato
+    private static final Set<String> TABLAS_PEQUENAS = Set.of("especialidades");
+
+    private static final Pattern LEFT_JOIN = Pattern.compile("left join (\\w+) (\\w+) on");
+    private static final Pattern ESCANEO = Pattern.compile("public\\.(\\w+)\\.tableScan");
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public static class Capturador implements StatementInspector {
+
+        static final List<String> SENTENCIAS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SENTENCIAS.add(sql);
+            return sql;
+        }
+    }
+
+    @Test
+    @DisplayName("Ninguna consulta de los repositorios recorre una tabla entera")
+    void testSinEscaneosCompletos() throws Exception {
+        sembrar();
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("ANALYZE");
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+
+        Map<String, String> escaneos = new TreeMap<>();
+        int consultas = 0;
+        for (Map.Entry<Class<?>, Object> repositorio : repositorios().entrySet()) {
+            for (Method metodo : metodos(repositorio.getKey())) {
+                String nombre = repositorio.getKey().getSimpleName() + "." + metodo.getName();
+                Object[] argumentos = argumentos(metodo);
+                Capturador.SENTENCIAS.clear();
+                transaccion.executeWithoutResult(status -> {
+                    try {
+                        metodo.invoke(repositorio.getValue(), argumentos);
+                    } catch (ReflectiveOperationException | RuntimeException e) {
+                        // Solo interesa el plan: la consulta ya pasó por el inspector
+                    }
+                    status.setRollbackOnly();
+                });
+                for (String sql : List.copyOf(Capturador.SENTENCIAS)) {
+                    consultas++;
+                    String plan = plan(jdbc, sql);
+                    if (plan != null && recorreTablaGrande(plan) && !ESCANEO_PERMITIDO.contains(nombre)) {
+                        escaneos.merge(nombre, plan, (a, b) -> a + "\n" + b);
+                    }
+                }
+            }
+        }
+
+        assertTrue(consultas > 100, "Se esperaban las consultas de todos los repositorios");
+        assertTrue(escaneos.isEmpty(), () -> "Consultas que recorren tablas enteras:\n" + String.join("\n\n",
+                escaneos.entrySet().stream().map(e -> e.getKey() + "\n" + e.getValue()).toList()));
+    }
+
+    private static boolean recorreTablaGrande(String plan) {
+        Matcher escaneo = ESCANEO.matcher(plan);
+        while (escaneo.find()) {
+            if (!TABLAS_PEQUENAS.contains(escaneo.group(1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void sembrar() throws Exception {
+        DatasetGeneratorProperties properties = new DatasetGeneratorProperties();
+        properties.setReferenceDate(LocalDate.now());
+        properties.setPacientes(400);
+        properties.setMedicosPorEspecialidad(3);
+        properties.setAdministradores(2);
+        properties.setYears(1);
+        properties.setFutureDays(30);
+        try (Connection conexion = dataSource.getConnection();
+             JdbcBatchSink sink = new JdbcBatchSink(conexion, 500)) {
+            new SyntheticDatasetGenerator(properties).generate(sink);
+        }
+    }
+
+    private Map<Class<?>, Object> repositorios() {
+        Map<Class<?>, Object> repositorios = new TreeMap<>(Comparator.comparing(Class::getSimpleName));
+        for (Object bean : context.getBeansOfType(Repository.class).values()) {
+            for (Class<?> interfaz : AopProxyUtils.proxiedUserInterfaces(bean)) {
+                if (interfaz.getPackageName().equals(PlanConsultasTest.class.getPackageName())) {
+                    repositorios.put(interfaz, bean);
+                }
+            }
+        }
+        return repositorios;
+    }
+
+    // Métodos propios del repositorio y de sus fragmentos, sin los heredados de Spring Data
+    private static List<Method> metodos(Class<?> interfaz) {
+        List<Method> metodos = new ArrayList<>();
+        List<Class<?>> tipos = new ArrayList<>(List.of(interfaz));
+        for (Class<?> padre : interfaz.getInterfaces()) {
+            if (padre.getPackageName().equals(interfaz.getPackageName())) {
+                tipos.add(padre);
+            }
+        }
+        for (Class<?> tipo : tipos) {
+            Arrays.stream(tipo.getDeclaredMethods())
+                    .filter(m -> !m.isDefault() && !Modifier.isStatic(m.getModifiers()) && !m.isSynthetic())
+                    .sorted(Comparator.comparing(Method::toString))
+                    .forEach(metodos::add);
+        }
+        return metodos;
+    }
+
+    private static Object[] argumentos(Method metodo) {
+        Type[] tipos = metodo.getGenericParameterTypes();
+        Object[] argumentos = new Object[tipos.length];
+        for (int i = 0; i < tipos.length; i++) {
+            argumentos[i] = valor(tipos[i], metodo);
+        }
+        return argumentos;
+    }
+
+    private static Object valor(Type tipo, Method metodo) {
+        if (tipo instanceof ParameterizedType parametrizado) {
+            Class<?> crudo = (Class<?>) parametrizado.getRawType();
+            if (Collection.class.isAssignableFrom(crudo)) {
+                return List.of(valor(parametrizado.getActualTypeArguments()[0], metodo));
+            }
+            tipo = crudo;
+        }
+        Class<?> clase = (Class<?>) tipo;
+        if (clase == Integer.class || clase == int.class) {
+            return 1;
+        }
+        if (clase == Long.class || clase == long.class) {
+            return 1L;
+        }
+        if (clase == Boolean.class || clase == boolean.class) {
+            return Boolean.FALSE;
+        }
+        if (clase == String.class) {
+            return "a";
+        }
+        if (clase == LocalDate.class) {
+            return LocalDate.now();
+        }
+        if (clase == LocalTime.class) {
+            return LocalTime.of(10, 0);
+        }
+        if (clase == LocalDateTime.class) {
+            return LocalDateTime.now();
+        }
+        if (clase == BigDecimal.class) {
+            return BigDecimal.ONE;
+        }
+        if (clase == byte[].class) {
+            return new byte[0];
+        }
+        if (clase == Pageable.class) {
+            return PageRequest.of(0, 10);
+        }
+        if (clase.isEnum()) {
+            return clase.getEnumConstants()[0];
+        }
+        if (clase == FiltroCitasDTO.class) {
+            return FiltroCitasDTO.builder().idMedico(1).build();
+        }
+        if (clase.getPackageName().endsWith(".entities") || clase.getPackageName().endsWith(".utils")) {
+            // Entidades (se usa su ID) y el cursor de la búsqueda: nulos no aportan un plan distinto
+            return entidad(clase);
+        }
+        throw new IllegalArgumentException("Sin valor de prueba para " + clase + " en " + metodo);
+    }
+
+    private static Object entidad(Class<?> clase) {
+        try {
+            Object entidad = clase.getDeclaredConstructor().newInstance();
+            for (Method setter : clase.getMethods()) {
+                if (setter.getName().equals("setId" + clase.getSimpleName()) && setter.getParameterCount() == 1) {
+                    setter.invoke(entidad, 1);
+                }
+            }
+            return entidad;
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    // Null si H2 no entiende la sentencia (funciones propias de MySQL)
+    private static String plan(JdbcTemplate jdbc, String sql) {
+        try {
+            return explicar(jdbc, sql);
+        } catch (BadSqlGrammarException e) {
+            return null;
+        }
+    }
+
+    // MySQL convierte en INNER JOIN el LEFT JOIN cuya tabla se filtra en el WHERE (descarta los
+    // nulos) y puede empezar por ella; H2 no lo hace y recorrería la tabla de la izquierda
+    static String sinOuterJoinsFiltrados(String sql) {
+        int where = sql.lastIndexOf(" where ");
+        if (where < 0) {
+            return sql;
+        }
+        String condicion = sql.substring(where);
+        Matcher join = LEFT_JOIN.matcher(sql.substring(0, where));
+        StringBuilder resultado = new StringBuilder();
+        while (join.find()) {
+            String reemplazo = condicion.contains(" " + join.group(2) + ".") || condicion.contains("(" + join.group(2) + ".")
+                    ? "join " + join.group(1) + " " + join.group(2) + " on"
+                    : join.group();
+            join.appendReplacement(resultado, Matcher.quoteReplacement(reemplazo));
+        }
+        join.appendTail(resultado);
+        return resultado + condicion;
+    }
+
+    private static String explicar(JdbcTemplate jdbc, String sql) {
+        return jdbc.execute((Connection conexion) -> {
+            try (var statement = conexion.prepareStatement("EXPLAIN " + sinOuterJoinsFiltrados(sql))) {
+                int parametros = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parametros; i++) {
+                    statement.setObject(i, null);
+                }
+                try (var rs = statement.executeQuery()) {
+                    StringBuilder plan = new StringBuilder();
+                    while (rs.next()) {
+                        plan.append(rs.getString(1));
+                    }
+                    return plan.toString();
+                }
+            }
+        });
+    }
+}
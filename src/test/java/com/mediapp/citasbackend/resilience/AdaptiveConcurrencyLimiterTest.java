@@ -0,0 +1,129 @@
+package com.mediapp.citasbackend.resilience;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mediapp.citasbackend.config.BulkheadProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests para AdaptiveConcurrencyLimiter")
+class AdaptiveConcurrencyLimiterTest {
+
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        BulkheadProperties properties = new BulkheadProperties();
+        properties.setPatientRead(new BulkheadProperties.Limits(8, 10, 0));
+        properties.setAdminReporting(new BulkheadProperties.Limits(4, 0, 0));
+        limiter = new AdaptiveConcurrencyLimiter(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Clasificar - Reservas, consultas y reportes")
+    void testClassify() {
+        assertEquals(EndpointClass.BOOKING, EndpointClass.classify("POST", "/api/citas"));
+        assertEquals(EndpointClass.BOOKING, EndpointClass.classify("PATCH", "/api/citas/5/cancelar"));
+        assertEquals(EndpointClass.BOOKING, EndpointClass.classify("GET", "/api/calendario-disponibilidad/medico/3"));
+        assertEquals(EndpointClass.PATIENT_READ, EndpointClass.classify("GET", "/api/citas/paciente/7"));
+        assertEquals(EndpointClass.ADMIN_REPORTING, EndpointClass.classify("GET", "/api/citas"));
+        assertEquals(EndpointClass.ADMIN_REPORTING, EndpointClass.classify("GET", "/api/historial-medico"));
+        assertEquals(EndpointClass.ADMIN_REPORTING, EndpointClass.classify("GET", "/api/usuarios/tipo/MEDICO"));
+        assertNull(EndpointClass.classify("POST", "/api/auth/login"));
+        assertNull(EndpointClass.classify("GET", "/actuator/health"));
+    }
+
+    @Test
+    @DisplayName("Bulkhead - Rechaza cuando el límite y la cola están llenos")
+    void testBulkheadRejectsWhenFull() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(EndpointClass.BOOKING, 1, 0, 100);
+
+        assertTrue(bulkhead.tryAcquire());
+        assertFalse(bulkhead.tryAcquire());
+
+        bulkhead.release();
+        assertTrue(bulkhead.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Bulkhead - La petición en cola entra al liberarse un lugar")
+    void testBulkheadQueuedRequestAcquires() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(EndpointClass.BOOKING, 1, 1, 2000);
+        assertTrue(bulkhead.tryAcquire());
+
+        Thread releaser = Thread.ofVirtual().start(() -> {
+            try {
+                TimeUnit.MILLISECONDS.sleep(50);
+            } catch (InterruptedException ignored) {
+            }
+            bulkhead.release();
+        });
+
+        assertTrue(bulkhead.tryAcquire());
+        releaser.join();
+        assertEquals(1, bulkhead.getInFlight());
+    }
+
+    @Test
+    @DisplayName("AIMD - Reduce primero reportes y luego consultas cuando sube la espera del pool")
+    void testDecreasesLowPriorityFirst() {
+        limiter.afterConnectionAcquired(TimeUnit.MILLISECONDS.toNanos(200));
+        limiter.adjust();
+        assertEquals(2, limiter.bulkhead(EndpointClass.ADMIN_REPORTING).getLimit());
+        assertEquals(8, limiter.bulkhead(EndpointClass.PATIENT_READ).getLimit());
+
+        limiter.afterConnectionAcquired(TimeUnit.MILLISECONDS.toNanos(200));
+        limiter.adjust();
+        limiter.afterConnectionAcquired(TimeUnit.MILLISECONDS.toNanos(200));
+        limiter.adjust();
+        assertEquals(1, limiter.bulkhead(EndpointClass.ADMIN_REPORTING).getLimit());
+        assertEquals(5, limiter.bulkhead(EndpointClass.PATIENT_READ).getLimit());
+        assertEquals(10, limiter.bulkhead(EndpointClass.BOOKING).getLimit());
+    }
+
+    @Test
+    @DisplayName("AIMD - Recupera los límites de a uno sin presión en el pool")
+    void testIncreasesAdditively() {
+        limiter.bulkhead(EndpointClass.PATIENT_READ).setLimit(7);
+        limiter.bulkhead(EndpointClass.ADMIN_REPORTING).setLimit(1);
+
+        limiter.afterConnectionAcquired(TimeUnit.MILLISECONDS.toNanos(1));
+        limiter.adjust();
+        assertEquals(8, limiter.bulkhead(EndpointClass.PATIENT_READ).getLimit());
+        assertEquals(1, limiter.bulkhead(EndpointClass.ADMIN_REPORTING).getLimit());
+
+        limiter.adjust();
+        assertEquals(2, limiter.bulkhead(EndpointClass.ADMIN_REPORTING).getLimit());
+    }
+
+    @Test
+    @DisplayName("Filtro - Responde 503 con Retry-After al descartar una petición")
+    void testFilterShedsWithRetryAfter() throws Exception {
+        BulkheadFilter filter = new BulkheadFilter(
+                limiter, new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry());
+        limiter.bulkhead(EndpointClass.ADMIN_REPORTING).setLimit(1);
+        assertTrue(limiter.bulkhead(EndpointClass.ADMIN_REPORTING).tryAcquire());
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/citas");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+
+        assertEquals(503, response.getStatus());
+        assertEquals("2", response.getHeader("Retry-After"));
+        assertNull(chain.getRequest());
+
+        MockHttpServletResponse booking = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/citas"), booking, new MockFilterChain());
+        assertEquals(200, booking.getStatus());
+        assertEquals(0, limiter.bulkhead(EndpointClass.BOOKING).getInFlight());
+    }
+}
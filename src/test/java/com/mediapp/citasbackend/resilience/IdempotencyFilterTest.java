@@ -0,0 +1,195 @@
+package com.mediapp.citasbackend.resilience;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mediapp.citasbackend.config.IdempotencyProperties;
+import com.mediapp.citasbackend.entities.RespuestaIdempotente;
+import com.mediapp.citasbackend.repositories.RespuestaIdempotenteRepository;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests para IdempotencyFilter")
+class IdempotencyFilterTest {
+
+    private static final String CUERPO = "{\"idPaciente\":20,\"idMedico\":7}";
+
+    @Mock
+    private RespuestaIdempotenteRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private IdempotencyFilter filter;
+    private final AtomicInteger ejecuciones = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setWaitMillis(2_000);
+        properties.setPollMillis(10);
+        IdempotencyStore store = new IdempotencyStore(repository, properties, transactionManager);
+        filter = new IdempotencyFilter(store, properties.getPaths(), new ObjectMapper().findAndRegisterModules());
+    }
+
+    @Test
+    @DisplayName("Filtro - La repetición recibe la respuesta guardada sin ejecutar el controlador")
+    void testRepeticion() throws Exception {
+        MockHttpServletResponse primera = ejecutar(peticion("clave-1", CUERPO), crear(201));
+        MockHttpServletResponse segunda = ejecutar(peticion("clave-1", CUERPO), crear(201));
+
+        assertEquals(1, ejecuciones.get());
+        assertEquals(201, segunda.getStatus());
+        assertEquals(primera.getContentAsString(), segunda.getContentAsString());
+        assertEquals("true", segunda.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertNull(primera.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        verify(repository).reclamar(anyString(), anyString(), any(), any());
+        verify(repository).completar(anyString(), eq(201), anyString(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Filtro - La misma clave con otro cuerpo responde 422")
+    void testClaveReutilizada() throws Exception {
+        ejecutar(peticion("clave-1", CUERPO), crear(201));
+
+        MockHttpServletResponse respuesta = ejecutar(peticion("clave-1", "{\"idPaciente\":21}"), crear(201));
+
+        assertEquals(422, respuesta.getStatus());
+        assertEquals(1, ejecuciones.get());
+    }
+
+    @Test
+    @DisplayName("Filtro - Un duplicado concurrente espera el resultado de la original")
+    void testDuplicadoConcurrente() throws Exception {
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        FilterChain lenta = (req, res) -> {
+            enCurso.countDown();
+            try {
+                liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            crear(201).doFilter(req, res);
+        };
+
+        CompletableFuture<MockHttpServletResponse> original =
+                CompletableFuture.supplyAsync(() -> ejecutarSinExcepcion(peticion("clave-1", CUERPO), lenta));
+        assertTrue(enCurso.await(5, TimeUnit.SECONDS));
+        CompletableFuture<MockHttpServletResponse> duplicado =
+                CompletableFuture.supplyAsync(() -> ejecutarSinExcepcion(peticion("clave-1", CUERPO), crear(201)));
+        Thread.sleep(50);
+        liberar.countDown();
+
+        assertEquals(original.get(5, TimeUnit.SECONDS).getContentAsString(),
+                duplicado.get(5, TimeUnit.SECONDS).getContentAsString());
+        assertEquals(1, ejecuciones.get());
+        assertEquals("true", duplicado.get().getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    @DisplayName("Filtro - Una respuesta guardada por otra instancia se repite desde la tabla")
+    void testRespuestaDeOtraInstancia() throws Exception {
+        RespuestaIdempotente fila = new RespuestaIdempotente();
+        when(repository.reclamar(anyString(), anyString(), any(), any()))
+                .thenAnswer(invocacion -> {
+                    fila.setClave(invocacion.getArgument(0));
+                    fila.setHuella(invocacion.getArgument(1));
+                    throw new DataIntegrityViolationException("Duplicate entry");
+                });
+        fila.setEstado(RespuestaIdempotente.Estado.COMPLETADA);
+        fila.setStatus(201);
+        fila.setTipoContenido("application/json");
+        fila.setCuerpo("{\"idCita\":9}".getBytes(StandardCharsets.UTF_8));
+        fila.setExpiraEn(LocalDateTime.now().plusHours(1));
+        when(repository.findById(anyString())).thenReturn(Optional.of(fila));
+
+        MockHttpServletResponse respuesta = ejecutar(peticion("clave-1", CUERPO), crear(201));
+
+        assertEquals(0, ejecuciones.get());
+        assertEquals(201, respuesta.getStatus());
+        assertEquals("{\"idCita\":9}", respuesta.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Filtro - Una respuesta 5xx libera la clave y el reintento se ejecuta")
+    void testErrorLiberaClave() throws Exception {
+        MockHttpServletResponse fallida = ejecutar(peticion("clave-1", CUERPO), crear(503));
+        MockHttpServletResponse reintento = ejecutar(peticion("clave-1", CUERPO), crear(201));
+
+        assertEquals(503, fallida.getStatus());
+        assertEquals(201, reintento.getStatus());
+        assertEquals(2, ejecuciones.get());
+        verify(repository).eliminarPorClave(anyString());
+    }
+
+    @Test
+    @DisplayName("Filtro - Sin cabecera o fuera de las rutas configuradas no interviene")
+    void testSinCabecera() throws Exception {
+        MockHttpServletRequest sinCabecera = peticion(null, CUERPO);
+        MockHttpServletRequest otraRuta = peticion("clave-1", CUERPO);
+        otraRuta.setRequestURI("/api/medicos");
+
+        ejecutar(sinCabecera, crear(201));
+        ejecutar(otraRuta, crear(201));
+
+        assertEquals(2, ejecuciones.get());
+        verifyNoInteractions(repository);
+    }
+
+    private FilterChain crear(int status) {
+        return (req, res) -> {
+            String cuerpo = new String(req.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            ((HttpServletResponse) res).setStatus(status);
+            res.setContentType("application/json");
+            res.getWriter().write("{\"idCita\":" + ejecuciones.incrementAndGet() + ",\"eco\":" + cuerpo.length() + "}");
+        };
+    }
+
+    private MockHttpServletResponse ejecutar(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private MockHttpServletResponse ejecutarSinExcepcion(MockHttpServletRequest request, FilterChain chain) {
+        try {
+            return ejecutar(request, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MockHttpServletRequest peticion(String clave, String cuerpo) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/citas");
+        if (clave != null) {
+            request.addHeader(IdempotencyFilter.HEADER, clave);
+        }
+        request.setContentType("application/json");
+        request.setContent(cuerpo.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,127 @@
+package com.mediapp.citasbackend.resilience;
+
+import com.mediapp.citasbackend.config.DeadlineProperties;
+import com.mediapp.citasbackend.config.SqlStatisticsProperties;
+import com.mediapp.citasbackend.exceptions.DeadlineExceededException;
+import com.mediapp.citasbackend.exceptions.ErrorResponse;
+import com.mediapp.citasbackend.exceptions.GlobalExceptionHandler;
+import com.mediapp.citasbackend.monitoring.JdbcProxyFactory;
+import com.mediapp.citasbackend.monitoring.SqlStatisticsCollector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLTimeoutException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests para RequestDeadline")
+class RequestDeadlineTest {
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        JdbcProxyFactory factory = new JdbcProxyFactory(() -> List.of(new DeadlineStatementListener()));
+        connection = factory.wrap(DriverManager.getConnection("jdbc:h2:mem:deadline", "sa", ""));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        RequestDeadline.end();
+        connection.close();
+    }
+
+    @Test
+    @DisplayName("Propagar plazo - El query timeout es el plazo restante redondeado a segundos")
+    void testSetsQueryTimeoutFromRemainingBudget() throws Exception {
+        RequestDeadline.begin(2500);
+
+        try (PreparedStatement ps = connection.prepareStatement("SELECT 1")) {
+            ps.executeQuery().close();
+            assertEquals(3, ps.getQueryTimeout());
+        }
+    }
+
+    @Test
+    @DisplayName("Propagar plazo - Sin plazo no se modifica el timeout")
+    void testWithoutDeadlineKeepsTimeout() throws Exception {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT 1")) {
+            ps.executeQuery().close();
+            assertEquals(0, ps.getQueryTimeout());
+        }
+    }
+
+    @Test
+    @DisplayName("Plazo vencido - La sentencia no se envía a la base de datos")
+    void testExpiredDeadlineCancelsStatement() throws Exception {
+        RequestDeadline.begin(1);
+        Thread.sleep(5);
+
+        try (PreparedStatement ps = connection.prepareStatement("SELECT 1")) {
+            SQLTimeoutException ex = assertThrows(SQLTimeoutException.class, ps::executeQuery);
+            assertEquals("57014", ex.getSQLState());
+        }
+        assertThrows(DeadlineExceededException.class, RequestDeadline::checkNotExpired);
+    }
+
+    @Test
+    @DisplayName("Plazo vencido - La sentencia rechazada queda en las estadísticas SQL como error")
+    void testExpiredDeadlineIsRecordedInStatistics() throws Exception {
+        SqlStatisticsCollector collector = new SqlStatisticsCollector(new SqlStatisticsProperties());
+        JdbcProxyFactory factory = new JdbcProxyFactory(() -> List.of(new DeadlineStatementListener(), collector));
+        RequestDeadline.begin(1);
+        Thread.sleep(5);
+
+        try (Connection conexion = factory.wrap(DriverManager.getConnection("jdbc:h2:mem:deadline", "sa", ""));
+             PreparedStatement ps = conexion.prepareStatement("SELECT 1")) {
+            assertThrows(SQLTimeoutException.class, ps::executeQuery);
+        }
+
+        assertEquals(1, collector.snapshot().size());
+        assertEquals(1, collector.snapshot().get(0).getCount());
+        assertEquals(1, collector.snapshot().get(0).getErrors());
+    }
+
+    @Test
+    @DisplayName("Asignar plazo - Cabecera acotada al máximo o plazo de la clase de endpoint")
+    void testBudgetFromHeaderOrEndpointClass() {
+        DeadlineProperties properties = new DeadlineProperties();
+        DeadlineFilter filter = new DeadlineFilter(properties);
+
+        MockHttpServletRequest withHeader = new MockHttpServletRequest("GET", "/api/citas/paciente/1");
+        withHeader.addHeader("X-Request-Timeout", "1200");
+        assertEquals(1200, filter.budgetFor(withHeader));
+
+        MockHttpServletRequest tooLong = new MockHttpServletRequest("GET", "/api/citas/paciente/1");
+        tooLong.addHeader("X-Request-Timeout", "600000");
+        assertEquals(properties.getMaxTimeoutMs(), filter.budgetFor(tooLong));
+
+        MockHttpServletRequest invalid = new MockHttpServletRequest("GET", "/api/citas");
+        invalid.addHeader("X-Request-Timeout", "abc");
+        assertEquals(properties.getAdminReportingTimeoutMs(), filter.budgetFor(invalid));
+
+        assertEquals(properties.getBookingTimeoutMs(),
+                filter.budgetFor(new MockHttpServletRequest("POST", "/api/citas")));
+    }
+
+    @Test
+    @DisplayName("Manejar timeout - Responde 504")
+    void testQueryTimeoutMapsToGatewayTimeout() {
+        GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+        ResponseEntity<ErrorResponse> response = handler.handleQueryTimeoutException(
+                new QueryTimeoutException("timeout"), new MockHttpServletRequest("GET", "/api/historial-medico/buscar/diagnostico"));
+
+        assertEquals(504, response.getStatusCode().value());
+        assertEquals("/api/historial-medico/buscar/diagnostico", response.getBody().getPath());
+    }
+}
@@ -0,0 +1,93 @@
+package com.mediapp.citasbackend.services;
+
+import com.mediapp.citasbackend.config.ArchivoCitasProperties;
+import com.mediapp.citasbackend.repositories.CitaArchivadaRepository;
+import com.mediapp.citasbackend.repositories.CitaRepository;
+import com.mediapp.citasbackend.services.implementation.ArchivoCitasServiceImpl;
+import com.mediapp.citasbackend.services.interfaces.TareaProgramadaService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests para ArchivoCitasServiceImpl")
+class ArchivoCitasServiceImplTest {
+
+    private static final String TAREA = "archivo-citas";
+    private static final LocalDate FECHA = LocalDate.of(2020, 1, 10);
+
+    @Mock
+    private CitaRepository citaRepository;
+
+    @Mock
+    private CitaArchivadaRepository citaArchivadaRepository;
+
+    @Mock
+    private TareaProgramadaService tareaProgramadaService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ArchivoCitasServiceImpl archivo;
+
+    @BeforeEach
+    void setUp() {
+        ArchivoCitasProperties properties = new ArchivoCitasProperties();
+        properties.setTamanoTramo(2);
+        archivo = new ArchivoCitasServiceImpl(citaRepository, citaArchivadaRepository, tareaProgramadaService,
+                properties, transactionManager, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Archivar - Sin arrendamiento no mueve nada")
+    void testArchivar_SinArrendamiento() {
+        when(tareaProgramadaService.adquirir(eq(TAREA), any())).thenReturn(false);
+
+        assertEquals(0, archivo.archivar());
+
+        verifyNoInteractions(citaRepository, citaArchivadaRepository);
+        verify(tareaProgramadaService, never()).liberar(any());
+    }
+
+    @Test
+    @DisplayName("Archivar - Mueve cada tramo en su transacción y avanza la marca")
+    void testArchivar_AvanzaMarca() {
+        LocalDate corte = LocalDate.now().minusDays(366);
+        when(tareaProgramadaService.adquirir(eq(TAREA), any())).thenReturn(true);
+        when(tareaProgramadaService.obtenerMarca(TAREA)).thenReturn(Optional.of("2020-01-10|4"));
+        when(tareaProgramadaService.guardarMarca(eq(TAREA), anyString(), any())).thenReturn(true);
+        when(citaRepository.findArchivables(eq(FECHA), eq(4), eq(corte), any()))
+                .thenReturn(filas(new Object[]{5, FECHA}, new Object[]{6, FECHA.plusDays(1)}));
+        when(citaRepository.findArchivables(eq(FECHA.plusDays(1)), eq(6), eq(corte), any()))
+                .thenReturn(filas(new Object[]{9, FECHA.plusDays(2)}));
+        when(citaArchivadaRepository.copiarDesdeCitas(anyList(), eq(corte), any())).thenReturn(2, 1);
+        when(citaRepository.eliminarArchivadas(anyList(), eq(corte))).thenReturn(2, 1);
+
+        assertEquals(3, archivo.archivar());
+
+        verify(citaRepository).bloquearEstados(List.of(5, 6));
+        verify(citaRepository).bloquearEstados(List.of(9));
+        verify(transactionManager, times(2)).commit(any());
+        verify(tareaProgramadaService).guardarMarca(eq(TAREA), eq("2020-01-11|6"), any());
+        verify(tareaProgramadaService).guardarMarca(eq(TAREA), eq("2020-01-12|9"), any());
+        verify(tareaProgramadaService).liberar(TAREA);
+    }
+
+    private static List<Object[]> filas(Object[]... filas) {
+        return new ArrayList<>(List.of(filas));
+    }
+}
@@ -6,6 +6,7 @@ import com.mediapp.citasbackend.dtos.RegisterRequestDTO;
 import com.mediapp.citasbackend.entities.Usuario;
 import com.mediapp.citasbackend.exceptions.InvalidCredentialsException;
 import com.mediapp.citasbackend.exceptions.ResourceAlreadyExistsException;
+import com.mediapp.citasbackend.mappers.UsuarioMapper;
 import com.mediapp.citasbackend.repositories.UsuarioRepository;
 import com.mediapp.citasbackend.security.JwtService;
 import com.mediapp.citasbackend.services.implementation.AuthServiceImpl;
@@ -13,8 +14,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -54,6 +57,9 @@ class AuthServiceImplTest {
     @Mock
     private UserDetailsService userDetailsService;
 
+    @Spy
+    private UsuarioMapper usuarioMapper = Mappers.getMapper(UsuarioMapper.class);
+
     @InjectMocks
     private AuthServiceImpl authService;
 
@@ -0,0 +1,128 @@
+package com.mediapp.citasbackend.services;
+
+import com.mediapp.citasbackend.config.BarridoInasistenciasProperties;
+import com.mediapp.citasbackend.dtos.ResultadoTransicionDTO;
+import com.mediapp.citasbackend.dtos.ResultadoTransicionDTO.Resultado;
+import com.mediapp.citasbackend.dtos.TransicionLoteDTO;
+import com.mediapp.citasbackend.dtos.TransicionLoteRequestDTO;
+import com.mediapp.citasbackend.entities.Cita;
+import com.mediapp.citasbackend.repositories.CitaRepository;
+import com.mediapp.citasbackend.services.implementation.BarridoInasistenciasServiceImpl;
+import com.mediapp.citasbackend.services.interfaces.TareaProgramadaService;
+import com.mediapp.citasbackend.services.interfaces.TransicionCitasService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests para BarridoInasistenciasServiceImpl")
+class BarridoInasistenciasServiceImplTest {
+
+    private static final String TAREA = "barrido-inasistencias";
+    private static final LocalDate FECHA = LocalDate.of(2030, 1, 10);
+
+    @Mock
+    private CitaRepository citaRepository;
+
+    @Mock
+    private TransicionCitasService transicionCitasService;
+
+    @Mock
+    private TareaProgramadaService tareaProgramadaService;
+
+    private BarridoInasistenciasProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private BarridoInasistenciasServiceImpl barrido;
+
+    @BeforeEach
+    void setUp() {
+        properties = new BarridoInasistenciasProperties();
+        properties.setTamanoTramo(2);
+        meterRegistry = new SimpleMeterRegistry();
+        barrido = new BarridoInasistenciasServiceImpl(citaRepository, transicionCitasService,
+                tareaProgramadaService, properties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Barrer - Sin arrendamiento no procesa nada")
+    void testBarrer_SinArrendamiento() {
+        when(tareaProgramadaService.adquirir(eq(TAREA), any())).thenReturn(false);
+
+        assertEquals(0, barrido.barrer());
+
+        verifyNoInteractions(citaRepository, transicionCitasService);
+        verify(tareaProgramadaService, never()).liberar(any());
+        assertEquals(1, meterRegistry.counter("mediapp.barrido-inasistencias.ejecuciones", "result", "omitida").count());
+    }
+
+    @Test
+    @DisplayName("Barrer - Continúa desde la marca y la avanza tras cada tramo")
+    void testBarrer_AvanzaMarca() {
+        when(tareaProgramadaService.adquirir(eq(TAREA), any())).thenReturn(true);
+        when(tareaProgramadaService.obtenerMarca(TAREA)).thenReturn(Optional.of("2030-01-10|08:00|4"));
+        when(tareaProgramadaService.guardarMarca(eq(TAREA), anyString(), any())).thenReturn(true);
+        when(citaRepository.findProgramadasVencidas(eq(FECHA), eq(LocalTime.of(8, 0)), eq(4), any(), any(), any()))
+                .thenReturn(filas(fila(5, 9), fila(6, 10)));
+        when(citaRepository.findProgramadasVencidas(eq(FECHA), eq(LocalTime.of(10, 0)), eq(6), any(), any(), any()))
+                .thenReturn(filas(fila(7, 11)));
+        when(transicionCitasService.cambiarEstado(any(), eq(Cita.Estado.NO_ASISTIO)))
+                .thenReturn(lote(2, Resultado.ACTUALIZADA), lote(1, Resultado.ACTUALIZADA));
+
+        assertEquals(3, barrido.barrer());
+
+        verify(transicionCitasService).cambiarEstado(TransicionLoteRequestDTO.builder().ids(List.of(5, 6)).build(),
+                Cita.Estado.NO_ASISTIO);
+        verify(tareaProgramadaService).guardarMarca(eq(TAREA), eq("2030-01-10|10:00|6"), any());
+        verify(tareaProgramadaService).guardarMarca(eq(TAREA), eq("2030-01-10|11:00|7"), any());
+        verify(tareaProgramadaService).liberar(TAREA);
+        assertEquals(3, meterRegistry.counter("mediapp.barrido-inasistencias.citas").count());
+    }
+
+    @Test
+    @DisplayName("Barrer - Un tramo con error no avanza la marca")
+    void testBarrer_ErrorNoAvanza() {
+        properties.setMaxTramos(1);
+        when(tareaProgramadaService.adquirir(eq(TAREA), any())).thenReturn(true);
+        when(tareaProgramadaService.obtenerMarca(TAREA)).thenReturn(Optional.empty());
+        when(citaRepository.findProgramadasVencidas(any(), any(), eq(0), any(), any(), any()))
+                .thenReturn(filas(fila(1, 9), fila(2, 10)));
+        when(transicionCitasService.cambiarEstado(any(), eq(Cita.Estado.NO_ASISTIO)))
+                .thenReturn(lote(0, Resultado.ERROR));
+
+        assertEquals(0, barrido.barrer());
+
+        verify(tareaProgramadaService, never()).guardarMarca(any(), any(), any());
+        verify(tareaProgramadaService).liberar(TAREA);
+        assertEquals(1, meterRegistry.counter("mediapp.barrido-inasistencias.ejecuciones", "result", "interrumpida").count());
+    }
+
+    private static List<Object[]> filas(Object[]... filas) {
+        return new ArrayList<>(List.of(filas));
+    }
+
+    private static Object[] fila(int idCita, int hora) {
+        return new Object[]{idCita, FECHA, LocalTime.of(hora, 0)};
+    }
+
+    private static TransicionLoteDTO lote(int actualizadas, Resultado resultado) {
+        return TransicionLoteDTO.builder()
+                .estado(Cita.Estado.NO_ASISTIO.name())
+                .actualizadas(actualizadas)
+                .resultados(List.of(ResultadoTransicionDTO.builder().idCita(1).resultado(resultado).build()))
+                .build();
+    }
+}
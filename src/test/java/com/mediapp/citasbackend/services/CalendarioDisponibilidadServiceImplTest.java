@@ -0,0 +1,158 @@
+package com.mediapp.citasbackend.services;
+
+import com.mediapp.citasbackend.cache.IndiceDisponibilidadMedicos;
+import com.mediapp.citasbackend.cache.PlantillasHorarioCache;
+import com.mediapp.citasbackend.dtos.HorarioSemanalDTO;
+import com.mediapp.citasbackend.entities.CalendarioDisponibilidad;
+import com.mediapp.citasbackend.entities.CalendarioDisponibilidad.DiaSemana;
+import com.mediapp.citasbackend.entities.Medico;
+import com.mediapp.citasbackend.repositories.CalendarioDisponibilidadRepository;
+import com.mediapp.citasbackend.repositories.MedicoRepository;
+import com.mediapp.citasbackend.services.implementation.CalendarioDisponibilidadServiceImpl;
+import com.mediapp.citasbackend.services.interfaces.ExcepcionDisponibilidadService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests para CalendarioDisponibilidadServiceImpl")
+class CalendarioDisponibilidadServiceImplTest {
+
+    @Mock
+    private CalendarioDisponibilidadRepository calendarioRepository;
+
+    @Mock
+    private PlantillasHorarioCache plantillasHorarioCache;
+
+    @Mock
+    private MedicoRepository medicoRepository;
+
+    @Mock
+    private IndiceDisponibilidadMedicos indiceDisponibilidad;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ExcepcionDisponibilidadService excepcionDisponibilidadService;
+
+    @InjectMocks
+    private CalendarioDisponibilidadServiceImpl calendarioService;
+
+    @BeforeEach
+    void setUp() {
+        Medico medico = new Medico();
+        medico.setIdMedico(7);
+        lenient().when(medicoRepository.findById(7)).thenReturn(Optional.of(medico));
+    }
+
+    @Test
+    @DisplayName("Reemplazar horario semanal - Aplica altas, cambios y bajas por lotes")
+    @SuppressWarnings("unchecked")
+    void testReemplazarHorarioSemanal_Diferencias() {
+        doReturn(List.of(bloque(1, DiaSemana.LUNES, "08:00", "12:00"),
+                bloque(2, DiaSemana.MARTES, "08:00", "12:00"),
+                bloque(3, DiaSemana.MIERCOLES, "08:00", "12:00")))
+                .when(jdbcTemplate).query(anyString(), any(RowMapper.class), eq(7));
+        when(calendarioRepository.findByMedicoOrdenadas(7)).thenReturn(List.of());
+
+        HorarioSemanalDTO resultado = calendarioService.reemplazarHorarioSemanal(7, List.of(
+                bloque(1, DiaSemana.LUNES, "08:00", "12:00"),
+                bloque(null, DiaSemana.MARTES, "08:00", "13:00"),
+                bloque(null, DiaSemana.JUEVES, "14:00", "18:00")));
+
+        assertEquals(1, resultado.getInsertados());
+        assertEquals(1, resultado.getActualizados());
+        assertEquals(1, resultado.getEliminados());
+        assertEquals(1, resultado.getSinCambios());
+        verify(jdbcTemplate).update(startsWith("DELETE"), eq(3));
+        ArgumentCaptor<List<Object[]>> actualizaciones = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE"), actualizaciones.capture());
+        assertArrayEquals(new Object[]{"MARTES", LocalTime.of(8, 0), LocalTime.of(13, 0), 30, "ACTIVO", 2},
+                actualizaciones.getValue().get(0));
+        ArgumentCaptor<List<Object[]>> inserciones = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT"), inserciones.capture());
+        assertArrayEquals(new Object[]{7, "JUEVES", LocalTime.of(14, 0), LocalTime.of(18, 0), 30, "ACTIVO"},
+                inserciones.getValue().get(0));
+        verify(plantillasHorarioCache).registrarCambio(7);
+    }
+
+    @Test
+    @DisplayName("Reemplazar horario semanal - Bloques que se superponen no escriben nada")
+    void testReemplazarHorarioSemanal_Superposicion() {
+        List<CalendarioDisponibilidad> bloques = List.of(
+                bloque(null, DiaSemana.LUNES, "14:00", "18:00"),
+                bloque(null, DiaSemana.LUNES, "08:00", "12:00"),
+                bloque(null, DiaSemana.LUNES, "11:30", "13:00"));
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> calendarioService.reemplazarHorarioSemanal(7, bloques));
+
+        assertTrue(error.getMessage().contains("08:00-12:00 y 11:30-13:00"));
+        verifyNoInteractions(jdbcTemplate, plantillasHorarioCache);
+    }
+
+    @Test
+    @DisplayName("Reemplazar horario semanal - Un ID de otro médico no escribe nada")
+    @SuppressWarnings("unchecked")
+    void testReemplazarHorarioSemanal_IdAjeno() {
+        doReturn(List.of(bloque(1, DiaSemana.LUNES, "08:00", "12:00")))
+                .when(jdbcTemplate).query(anyString(), any(RowMapper.class), eq(7));
+
+        assertThrows(IllegalArgumentException.class, () -> calendarioService.reemplazarHorarioSemanal(7,
+                List.of(bloque(99, DiaSemana.LUNES, "08:00", "12:00"))));
+
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(List.class));
+        verifyNoInteractions(plantillasHorarioCache);
+    }
+
+    @Test
+    @DisplayName("Verificar conflictos - Devuelve los bloques que se cruzan con el rango, sin contar los que solo lo tocan")
+    void testVerificarConflictosDeHorario() {
+        CalendarioDisponibilidad manana = bloque(1, DiaSemana.LUNES, "08:00", "10:00");
+        CalendarioDisponibilidad media = bloque(2, DiaSemana.LUNES, "10:00", "12:00");
+        media.setEstado(CalendarioDisponibilidad.Estado.INACTIVO);
+        CalendarioDisponibilidad invertido = bloque(3, DiaSemana.LUNES, "11:00", "09:00");
+        CalendarioDisponibilidad tarde = bloque(4, DiaSemana.LUNES, "12:00", "14:00");
+        when(calendarioRepository.findAllByMedico_IdMedicoAndDiaSemanaOrderByHoraInicio(7, DiaSemana.LUNES))
+                .thenReturn(List.of(manana, media, invertido, tarde));
+
+        assertEquals(List.of(manana, media),
+                calendarioService.verificarConflictosDeHorario(7, DiaSemana.LUNES, LocalTime.of(9, 0), LocalTime.of(12, 0)));
+        assertEquals(List.of(media),
+                calendarioService.verificarConflictosDeHorario(7, DiaSemana.LUNES, LocalTime.of(10, 0), LocalTime.of(11, 0)));
+        assertFalse(calendarioService.tieneConflictoDeHorario(7, DiaSemana.LUNES, LocalTime.of(6, 0), LocalTime.of(8, 0)));
+        assertEquals(List.of(tarde),
+                calendarioService.verificarConflictosDeHorario(7, DiaSemana.LUNES, LocalTime.of(13, 0), LocalTime.of(18, 0)));
+    }
+
+    private static CalendarioDisponibilidad bloque(Integer id, DiaSemana dia, String inicio, String fin) {
+        CalendarioDisponibilidad bloque = new CalendarioDisponibilidad();
+        bloque.setIdDisponibilidad(id);
+        bloque.setDiaSemana(dia);
+        bloque.setHoraInicio(LocalTime.parse(inicio));
+        bloque.setHoraFin(LocalTime.parse(fin));
+        bloque.setIntervaloCitaMinutos(30);
+        bloque.setEstado(CalendarioDisponibilidad.Estado.ACTIVO);
+        return bloque;
+    }
+}
@@ -0,0 +1,139 @@
+package com.mediapp.citasbackend.services;
+
+import com.mediapp.citasbackend.cache.AgendaCache;
+import com.mediapp.citasbackend.config.AgendaCacheProperties;
+import com.mediapp.citasbackend.entities.*;
+import com.mediapp.citasbackend.exceptions.BusinessRuleException;
+import com.mediapp.citasbackend.repositories.CitaRepository;
+import com.mediapp.citasbackend.services.implementation.CitaServiceImpl;
+import com.mediapp.citasbackend.services.interfaces.CalendarioDisponibilidadService;
+import com.mediapp.citasbackend.services.interfaces.ContadorCitasService;
+import com.mediapp.citasbackend.services.interfaces.ReservaTemporalService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que los conflictos de horario al agendar se detectan contra la base de datos y no
+ * contra la agenda en caché, que no ve lo agendado en otra instancia
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@EnableAutoConfiguration(exclude = {SecurityAutoConfiguration.class})
+@Import({CitaServiceImpl.class, AgendaCache.class, AgendaCacheProperties.class, SimpleMeterRegistry.class})
+@DisplayName("Tests de conflictos de horario de CitaServiceImpl contra la base de datos")
+class CitaServiceImplConflictosTest {
+
+    private static final LocalDate FECHA = LocalDate.now().plusDays(2);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CitaRepository citaRepository;
+
+    @Autowired
+    private CitaServiceImpl citaService;
+
+    @MockitoBean
+    private ContadorCitasService contadorCitasService;
+
+    @MockitoBean
+    private CalendarioDisponibilidadService calendarioDisponibilidadService;
+
+    @MockitoBean
+    private ReservaTemporalService reservaTemporalService;
+
+    private Medico medico;
+    private Paciente paciente;
+
+    @BeforeEach
+    void setUp() {
+        Especialidad especialidad = new Especialidad();
+        especialidad.setNombreEspecialidad("Cardiología");
+        especialidad = entityManager.persist(especialidad);
+
+        medico = new Medico();
+        medico.setUsuario(entityManager.persist(usuario("medico@test.com", Usuario.TipoUsuario.MEDICO)));
+        medico.setNumeroLicencia("LIC123456");
+        medico.setEspecialidad(especialidad);
+        medico.setEstadoVerificacion(Medico.EstadoVerificacion.VERIFICADO);
+        medico = entityManager.persist(medico);
+
+        paciente = new Paciente();
+        paciente.setUsuario(entityManager.persist(usuario("paciente@test.com", Usuario.TipoUsuario.PACIENTE)));
+        paciente.setNumeroIdentificacion("12345678");
+        paciente = entityManager.persist(paciente);
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Guardar cita - Rechaza el cruce con una cita que la agenda en caché no ve")
+    void testGuardarCita_CitaFueraDeLaCache() {
+        // La agenda del día queda en caché vacía
+        assertTrue(citaService.obtenerAgendaDelDia(medico.getIdMedico(), FECHA).getCitas().isEmpty());
+
+        // Otra instancia agenda 10:00-10:30 sin pasar por esta caché
+        citaRepository.saveAndFlush(cita(LocalTime.of(10, 0)));
+
+        assertTrue(citaService.obtenerAgendaDelDia(medico.getIdMedico(), FECHA).getCitas().isEmpty());
+        assertThrows(BusinessRuleException.class, () -> citaService.guardarCita(cita(LocalTime.of(10, 15))));
+        assertTrue(citaService.verificarDisponibilidadMedicoFechaHora(medico.getIdMedico(), FECHA, LocalTime.of(10, 15))
+                .isPresent());
+        assertEquals(1, citaRepository.findCitasByMedicoAndFecha(medico.getIdMedico(), FECHA).size());
+    }
+
+    @Test
+    @DisplayName("Actualizar cita - Rechaza moverla sobre una cita que la agenda en caché no ve")
+    void testActualizarCita_CitaFueraDeLaCache() {
+        Cita propia = citaService.guardarCita(cita(LocalTime.of(8, 0)));
+        citaService.obtenerAgendaDelDia(medico.getIdMedico(), FECHA);
+        citaRepository.saveAndFlush(cita(LocalTime.of(11, 0)));
+
+        Cita movida = cita(LocalTime.of(10, 45));
+        assertThrows(BusinessRuleException.class, () -> citaService.actualizarCita(propia.getIdCita(), movida));
+
+        // Moverla dentro de su propio horario no choca consigo misma
+        assertEquals(LocalTime.of(8, 15),
+                citaService.actualizarCita(propia.getIdCita(), cita(LocalTime.of(8, 15))).getHoraCita());
+    }
+
+    private Cita cita(LocalTime hora) {
+        Cita cita = new Cita();
+        cita.setPaciente(paciente);
+        cita.setMedico(medico);
+        cita.setFechaCita(FECHA);
+        cita.setHoraCita(hora);
+        cita.setDuracionMinutos(30);
+        cita.setTipoCita(Cita.TipoCita.PRESENCIAL);
+        cita.setEstado(Cita.Estado.PROGRAMADA);
+        return cita;
+    }
+
+    private static Usuario usuario(String email, Usuario.TipoUsuario tipo) {
+        return Usuario.builder()
+                .email(email)
+                .contraseña("password123")
+                .nombre("Prueba")
+                .apellido("Conflictos")
+                .tipoUsuario(tipo)
+                .estado(Usuario.Estado.ACTIVO)
+                .fechaRegistro(LocalDateTime.now())
+                .build();
+    }
+}
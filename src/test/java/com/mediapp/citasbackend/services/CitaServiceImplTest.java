@@ -1,11 +1,23 @@
 package com.mediapp.citasbackend.services;
 
+import com.mediapp.citasbackend.cache.AgendaCache;
+import com.mediapp.citasbackend.dtos.AgendaCitaDTO;
+import com.mediapp.citasbackend.dtos.AgendaDiaDTO;
+import com.mediapp.citasbackend.dtos.FiltroCitasDTO;
+import com.mediapp.citasbackend.dtos.HorarioLibreDTO;
+import com.mediapp.citasbackend.dtos.PaginaCitasDTO;
 import com.mediapp.citasbackend.entities.*;
+import com.mediapp.citasbackend.events.CitasCambiaronEstadoEvent;
 import com.mediapp.citasbackend.exceptions.BusinessRuleException;
 import com.mediapp.citasbackend.exceptions.InvalidDataException;
 import com.mediapp.citasbackend.exceptions.ResourceNotFoundException;
 import com.mediapp.citasbackend.repositories.CitaRepository;
 import com.mediapp.citasbackend.services.implementation.CitaServiceImpl;
+import com.mediapp.citasbackend.services.interfaces.CalendarioDisponibilidadService;
+import com.mediapp.citasbackend.services.interfaces.ContadorCitasService;
+import com.mediapp.citasbackend.services.interfaces.ReservaTemporalService;
+import com.mediapp.citasbackend.utils.CursorCitas;
+import com.mediapp.citasbackend.utils.PlantillaSemanal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,9 +25,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -23,6 +38,8 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +49,21 @@ class CitaServiceImplTest {
     @Mock
     private CitaRepository citaRepository;
 
+    @Mock
+    private AgendaCache agendaCache;
+
+    @Mock
+    private ContadorCitasService contadorCitasService;
+
+    @Mock
+    private CalendarioDisponibilidadService calendarioDisponibilidadService;
+
+    @Mock
+    private ReservaTemporalService reservaTemporalService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CitaServiceImpl citaService;
 
@@ -96,9 +128,6 @@ class CitaServiceImplTest {
     @DisplayName("Debe guardar una cita exitosamente")
     void testGuardarCita_Exitoso() {
         // Arrange
-        when(citaRepository.findCitaByMedicoFechaHora(
-                anyInt(), any(LocalDate.class), any(LocalTime.class)))
-                .thenReturn(Optional.empty());
         when(citaRepository.save(any(Cita.class))).thenReturn(cita);
 
         // Act
@@ -109,6 +138,7 @@ class CitaServiceImplTest {
         assertEquals(cita.getIdCita(), citaGuardada.getIdCita());
         assertEquals(cita.getMotivoConsulta(), citaGuardada.getMotivoConsulta());
         verify(citaRepository, times(1)).save(any(Cita.class));
+        verify(agendaCache, times(1)).registrarCambio(cita);
     }
 
     @Test
@@ -122,15 +152,88 @@ class CitaServiceImplTest {
         citaExistente.setHoraCita(cita.getHoraCita());
         citaExistente.setEstado(Cita.Estado.PROGRAMADA);
 
-        when(citaRepository.findCitaByMedicoFechaHora(
-                anyInt(), any(LocalDate.class), any(LocalTime.class)))
-                .thenReturn(Optional.of(citaExistente));
+        // Empieza antes y termina después de las 10:00
+        when(citaRepository.bloquearOcupacionDelDia(1, cita.getFechaCita())).thenReturn(List.<Object[]>of(
+                new Object[]{citaExistente.getIdCita(), cita.getFechaCita(), LocalTime.of(9, 45), 30}));
+
+        // Act & Assert
+        assertThrows(BusinessRuleException.class, () -> citaService.guardarCita(cita));
+        verify(citaRepository, never()).save(any(Cita.class));
+    }
+
+    @Test
+    @DisplayName("Debe tomar la duración de la cita del calendario del médico")
+    void testGuardarCita_DuracionDelCalendario() {
+        // Arrange
+        when(calendarioDisponibilidadService.duracionDeCita(1, cita.getFechaCita(), LocalTime.of(10, 0))).thenReturn(20);
+        when(citaRepository.save(any(Cita.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Cita citaGuardada = citaService.guardarCita(cita);
+
+        // Assert
+        assertEquals(20, citaGuardada.getDuracionMinutos());
+        verify(citaRepository).bloquearOcupacionDelDia(1, cita.getFechaCita());
+    }
+
+    @Test
+    @DisplayName("Debe convertir la reserva temporal en la cita")
+    void testGuardarCita_ConsumeReservaTemporal() {
+        // Arrange
+        ReservaTemporal reserva = new ReservaTemporal();
+        reserva.setDuracionMinutos(45);
+        when(reservaTemporalService.consumir("token-1", cita)).thenReturn(reserva);
+        when(citaRepository.save(any(Cita.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Cita citaGuardada = citaService.guardarCita(cita, "token-1");
+
+        // Assert
+        assertEquals(45, citaGuardada.getDuracionMinutos());
+        verify(reservaTemporalService).haySolapamiento(1, cita.getFechaCita(), LocalTime.of(10, 0), 45, "token-1");
+        verifyNoInteractions(calendarioDisponibilidadService);
+    }
+
+    @Test
+    @DisplayName("Debe lanzar excepción si otro paciente reservó el horario")
+    void testGuardarCita_HorarioReservadoPorOtro() {
+        // Arrange
+        when(calendarioDisponibilidadService.duracionDeCita(anyInt(), any(LocalDate.class), any(LocalTime.class))).thenReturn(30);
+        when(reservaTemporalService.haySolapamiento(1, cita.getFechaCita(), LocalTime.of(10, 0), 30, null)).thenReturn(true);
 
         // Act & Assert
         assertThrows(BusinessRuleException.class, () -> citaService.guardarCita(cita));
         verify(citaRepository, never()).save(any(Cita.class));
     }
 
+    @Test
+    @DisplayName("Un horario con reserva temporal no está disponible")
+    void testMedicoDisponible_HorarioReservado() {
+        // Arrange
+        LocalDate fecha = cita.getFechaCita();
+        when(calendarioDisponibilidadService.duracionDeCita(1, fecha, LocalTime.of(10, 0))).thenReturn(30);
+        when(reservaTemporalService.estaReservado(1, fecha, LocalTime.of(10, 0), 30, null)).thenReturn(true);
+
+        // Act & Assert
+        assertFalse(citaService.medicoDisponibleEnFechaHora(1, fecha, LocalTime.of(10, 0)));
+    }
+
+    @Test
+    @DisplayName("Cancelar una cita publica el evento para la lista de espera")
+    void testCancelarCita_PublicaEvento() {
+        // Arrange
+        when(citaRepository.findById(1)).thenReturn(Optional.of(cita));
+        when(citaRepository.save(any(Cita.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Cita cancelada = citaService.cancelarCita(1);
+
+        // Assert
+        assertEquals(Cita.Estado.CANCELADA, cancelada.getEstado());
+        verify(eventPublisher).publishEvent(new CitasCambiaronEstadoEvent(
+                Cita.Estado.CANCELADA, List.of(1), cancelada.getFechaCancelacion()));
+    }
+
     @Test
     @DisplayName("Debe lanzar excepción al guardar cita con datos nulos")
     void testGuardarCita_DatosNulos() {
@@ -167,9 +270,6 @@ class CitaServiceImplTest {
         citaActualizada.setEstado(Cita.Estado.PROGRAMADA);
 
         when(citaRepository.findById(anyInt())).thenReturn(Optional.of(cita));
-        when(citaRepository.findCitaByMedicoFechaHora(
-                anyInt(), any(LocalDate.class), any(LocalTime.class)))
-                .thenReturn(Optional.empty());
         when(citaRepository.save(any(Cita.class))).thenReturn(citaActualizada);
 
         // Act
@@ -197,22 +297,23 @@ class CitaServiceImplTest {
     @DisplayName("Debe eliminar una cita exitosamente")
     void testEliminarCita_Exitoso() {
         // Arrange
-        when(citaRepository.existsById(anyInt())).thenReturn(true);
+        when(citaRepository.findById(anyInt())).thenReturn(Optional.of(cita));
         doNothing().when(citaRepository).deleteById(anyInt());
 
         // Act
         citaService.eliminarCita(1);
 
         // Assert
-        verify(citaRepository, times(1)).existsById(1);
+        verify(citaRepository, times(1)).findById(1);
         verify(citaRepository, times(1)).deleteById(1);
+        verify(contadorCitasService, times(1)).registrarCambio(ContadorCitasService.Huella.de(cita), null);
     }
 
     @Test
     @DisplayName("Debe lanzar excepción al eliminar cita inexistente")
     void testEliminarCita_NoExiste() {
         // Arrange
-        when(citaRepository.existsById(anyInt())).thenReturn(false);
+        when(citaRepository.findById(anyInt())).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, 
@@ -351,4 +452,61 @@ class CitaServiceImplTest {
         verify(citaRepository, times(1))
                 .findCitasProgramadasByMedico(1);
     }
+
+    @Test
+    @DisplayName("Debe buscar citas con una de más y devolver el cursor de la última cita de la página")
+    void testBuscarCitas() {
+        // Arrange
+        FiltroCitasDTO filtro = FiltroCitasDTO.builder().idMedico(1).build();
+        CursorCitas desde = new CursorCitas(LocalDate.now(), LocalTime.of(9, 0), 3);
+        Cita siguiente = new Cita();
+        siguiente.setIdCita(2);
+        cita.setIdCita(1);
+        when(citaRepository.buscar(filtro, desde, 2)).thenReturn(Arrays.asList(cita, siguiente));
+
+        // Act
+        PaginaCitasDTO pagina = citaService.buscarCitas(filtro, desde.codificar(), 1);
+
+        // Assert
+        assertEquals(List.of(cita), pagina.getCitas());
+        assertEquals(CursorCitas.deCita(cita), CursorCitas.decodificar(pagina.getSiguienteCursor()));
+        assertThrows(InvalidDataException.class, () -> citaService.buscarCitas(filtro, null, 500));
+        assertThrows(InvalidDataException.class, () -> citaService.buscarCitas(filtro, "no-es-un-cursor", null));
+    }
+
+    @Test
+    @DisplayName("Obtener horarios libres - Sin los ocupados por citas no canceladas ni los reservados")
+    void testObtenerHorariosLibres() {
+        // Arrange
+        LocalDate lunes = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+        CalendarioDisponibilidad bloque = new CalendarioDisponibilidad();
+        bloque.setDiaSemana(CalendarioDisponibilidad.DiaSemana.LUNES);
+        bloque.setHoraInicio(LocalTime.of(9, 0));
+        bloque.setHoraFin(LocalTime.of(10, 30));
+        bloque.setIntervaloCitaMinutos(30);
+        bloque.setEstado(CalendarioDisponibilidad.Estado.ACTIVO);
+        when(calendarioDisponibilidadService.obtenerHorarios(eq(1), any(LocalDate.class), any(LocalDate.class)))
+                .thenAnswer(invocation -> PlantillaSemanal.de(List.of(bloque))
+                        .horarios(invocation.getArgument(1), invocation.getArgument(2)));
+        when(agendaCache.obtener(eq(1), eq(lunes), any())).thenReturn(AgendaDiaDTO.builder()
+                .idMedico(1)
+                .fecha(lunes)
+                .citas(List.of(
+                        AgendaCitaDTO.builder().idCita(1).horaCita(LocalTime.of(9, 30)).duracionMinutos(30)
+                                .estado(Cita.Estado.PROGRAMADA.name()).build(),
+                        AgendaCitaDTO.builder().idCita(2).horaCita(LocalTime.of(10, 0)).duracionMinutos(30)
+                                .estado(Cita.Estado.CANCELADA.name()).build()))
+                .build());
+        when(reservaTemporalService.estaReservado(eq(1), eq(lunes), any(LocalTime.class), eq(30), isNull()))
+                .thenAnswer(invocation -> LocalTime.of(9, 0).equals(invocation.getArgument(2)));
+
+        // Act
+        List<HorarioLibreDTO> libres = citaService.obtenerHorariosLibres(1, lunes, lunes.plusDays(1));
+
+        // Assert
+        assertEquals(List.of(HorarioLibreDTO.builder().fecha(lunes).hora(LocalTime.of(10, 0)).duracionMinutos(30).build()),
+                libres);
+        assertThrows(InvalidDataException.class, () -> citaService.obtenerHorariosLibres(1, lunes, lunes.minusDays(1)));
+        assertThrows(InvalidDataException.class, () -> citaService.obtenerHorariosLibres(1, lunes, lunes.plusDays(31)));
+    }
 }
@@ -0,0 +1,173 @@
+package com.mediapp.citasbackend.services;
+
+import com.mediapp.citasbackend.config.ContadorCitasProperties;
+import com.mediapp.citasbackend.entities.*;
+import com.mediapp.citasbackend.entities.ContadorCita.Ambito;
+import com.mediapp.citasbackend.repositories.*;
+import com.mediapp.citasbackend.services.implementation.ContadorCitasServiceImpl;
+import com.mediapp.citasbackend.services.interfaces.ContadorCitasService.Huella;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@EnableAutoConfiguration(exclude = {SecurityAutoConfiguration.class})
+@Import({ContadorCitasServiceImpl.class, ContadorCitasProperties.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+@DisplayName("Tests para ContadorCitasServiceImpl")
+class ContadorCitasServiceImplTest {
+
+    @Autowired
+    private ContadorCitasServiceImpl contadores;
+
+    @Autowired
+    private ContadorCitaRepository contadorRepository;
+
+    @Autowired
+    private CitaRepository citaRepository;
+
+    @Autowired
+    private MedicoRepository medicoRepository;
+
+    @Autowired
+    private PacienteRepository pacienteRepository;
+
+    @Autowired
+    private EspecialidadRepository especialidadRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Medico medico;
+    private Paciente paciente;
+
+    @BeforeEach
+    void setUp() {
+        contadorRepository.deleteAll();
+        citaRepository.deleteAll();
+        contadores.reconciliar();
+
+        String sufijo = Long.toString(System.nanoTime(), 36);
+        Especialidad especialidad = new Especialidad();
+        especialidad.setNombreEspecialidad("Cardiología " + sufijo);
+        especialidad = especialidadRepository.save(especialidad);
+
+        medico = new Medico();
+        medico.setUsuario(usuario("medico." + sufijo, Usuario.TipoUsuario.MEDICO));
+        medico.setNumeroLicencia("LIC-" + sufijo);
+        medico.setEspecialidad(especialidad);
+        medico.setEstadoVerificacion(Medico.EstadoVerificacion.VERIFICADO);
+        medico = medicoRepository.save(medico);
+
+        paciente = new Paciente();
+        paciente.setUsuario(usuario("paciente." + sufijo, Usuario.TipoUsuario.PACIENTE));
+        paciente.setNumeroIdentificacion("ID-" + sufijo);
+        paciente = pacienteRepository.save(paciente);
+    }
+
+    @Test
+    @DisplayName("Contar - Inicializa el contador con las citas existentes")
+    void testContar_InicializaDesdeCitas() {
+        crearCita(9);
+        crearCita(10);
+
+        assertEquals(2, contadores.contar(Ambito.GLOBAL, null, Cita.Estado.PROGRAMADA));
+        assertEquals(2, contadores.contar(Ambito.MEDICO, medico.getIdMedico(), Cita.Estado.PROGRAMADA));
+        assertEquals(0, contadores.contar(Ambito.PACIENTE, paciente.getIdPaciente(), Cita.Estado.CANCELADA));
+        assertEquals(Cita.Estado.values().length * new ContadorCitasProperties().getFranjas(),
+                contadorRepository.countByAmbitoAndIdAmbito(Ambito.MEDICO, medico.getIdMedico()));
+    }
+
+    @Test
+    @DisplayName("Registrar cambio - Mueve la cita entre estados en la tabla y en memoria")
+    void testRegistrarCambio_Transicion() {
+        assertEquals(0, contadores.contar(Ambito.PACIENTE, paciente.getIdPaciente(), Cita.Estado.PROGRAMADA));
+
+        Cita cita = enTransaccion(() -> {
+            Cita nueva = crearCita(11);
+            contadores.registrarCambio(null, Huella.de(nueva));
+            return nueva;
+        });
+        assertEquals(1, contadores.contar(Ambito.PACIENTE, paciente.getIdPaciente(), Cita.Estado.PROGRAMADA));
+
+        enTransaccion(() -> {
+            Huella antes = Huella.de(cita);
+            cita.setEstado(Cita.Estado.CANCELADA);
+            citaRepository.save(cita);
+            contadores.registrarCambio(antes, Huella.de(cita));
+            return null;
+        });
+
+        assertEquals(0, contadores.contar(Ambito.PACIENTE, paciente.getIdPaciente(), Cita.Estado.PROGRAMADA));
+        assertEquals(1, contadores.contar(Ambito.GLOBAL, null, Cita.Estado.CANCELADA));
+        assertEquals(1, contadorRepository.sumar(Ambito.MEDICO, medico.getIdMedico(), Cita.Estado.CANCELADA));
+        assertEquals(0, contadores.reconciliar());
+    }
+
+    @Test
+    @DisplayName("Reconciliar - Corrige los contadores que se desviaron de la tabla citas")
+    void testReconciliar_CorrigeDesvio() {
+        crearCita(12);
+        assertEquals(1, contadores.contar(Ambito.GLOBAL, null, Cita.Estado.PROGRAMADA));
+        assertEquals(1, contadores.contar(Ambito.MEDICO, medico.getIdMedico(), Cita.Estado.PROGRAMADA));
+        assertEquals(1, contadores.contar(Ambito.PACIENTE, paciente.getIdPaciente(), Cita.Estado.PROGRAMADA));
+
+        // Citas que no pasaron por el servicio (p. ej. una carga masiva)
+        crearCita(13);
+        crearCita(14);
+        assertEquals(1, contadores.contar(Ambito.GLOBAL, null, Cita.Estado.PROGRAMADA));
+
+        assertEquals(3, contadores.reconciliar());
+        assertEquals(3, contadores.contar(Ambito.GLOBAL, null, Cita.Estado.PROGRAMADA));
+        assertEquals(3, contadores.contar(Ambito.MEDICO, medico.getIdMedico(), Cita.Estado.PROGRAMADA));
+        assertEquals(3, contadores.contar(Ambito.PACIENTE, paciente.getIdPaciente(), Cita.Estado.PROGRAMADA));
+        assertEquals(0, contadores.reconciliar());
+    }
+
+    private <T> T enTransaccion(Supplier<T> accion) {
+        return new TransactionTemplate(transactionManager).execute(status -> accion.get());
+    }
+
+    private Cita crearCita(int hora) {
+        Cita cita = new Cita();
+        cita.setPaciente(paciente);
+        cita.setMedico(medico);
+        cita.setFechaCita(LocalDate.now().plusDays(2));
+        cita.setHoraCita(LocalTime.of(hora, 0));
+        cita.setTipoCita(Cita.TipoCita.PRESENCIAL);
+        cita.setEstado(Cita.Estado.PROGRAMADA);
+        return citaRepository.save(cita);
+    }
+
+    private static Usuario usuario(String email, Usuario.TipoUsuario tipo) {
+        return Usuario.builder()
+                .email(email + "@test.com")
+                .contraseña("password123")
+                .nombre("Prueba")
+                .apellido("Contadores")
+                .tipoUsuario(tipo)
+                .estado(Usuario.Estado.ACTIVO)
+                .fechaRegistro(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,125 @@
+package com.mediapp.citasbackend.services;
+
+import com.mediapp.citasbackend.cache.ExcepcionesDisponibilidadCache;
+import com.mediapp.citasbackend.config.ExcepcionesDisponibilidadProperties;
+import com.mediapp.citasbackend.entities.ExcepcionDisponibilidad;
+import com.mediapp.citasbackend.entities.Medico;
+import com.mediapp.citasbackend.repositories.ExcepcionDisponibilidadRepository;
+import com.mediapp.citasbackend.services.implementation.ExcepcionDisponibilidadServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests para ExcepcionDisponibilidadServiceImpl")
+class ExcepcionDisponibilidadServiceImplTest {
+
+    private static final LocalDate FECHA = LocalDate.now().plusDays(10);
+
+    @Mock
+    private ExcepcionDisponibilidadRepository excepcionRepository;
+
+    private ExcepcionesDisponibilidadCache excepcionesCache;
+    private ExcepcionDisponibilidadServiceImpl excepcionService;
+
+    @BeforeEach
+    void setUp() {
+        excepcionesCache = new ExcepcionesDisponibilidadCache(new ExcepcionesDisponibilidadProperties(), new SimpleMeterRegistry());
+        excepcionService = new ExcepcionDisponibilidadServiceImpl(excepcionRepository, excepcionesCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Guardar excepción - La caché del médico se descarta solo al confirmar la transacción")
+    void testGuardarExcepcion_InvalidaAlConfirmar() {
+        ExcepcionDisponibilidad cierre = cerrado(7, FECHA);
+        when(excepcionRepository.findVigentesByMedico(eq(7), any(LocalDate.class)))
+                .thenReturn(List.of(), List.of(cierre));
+        when(excepcionRepository.save(cierre)).thenReturn(cierre);
+        assertNull(excepcionService.obtenerExcepcionesPorFecha(7).delDia(FECHA));
+
+        TransactionSynchronizationManager.initSynchronization();
+        excepcionService.guardarExcepcion(cierre);
+
+        // Antes de confirmar, las lecturas siguen viendo la versión en caché
+        assertNull(excepcionService.obtenerExcepcionesPorFecha(7).delDia(FECHA));
+        confirmar();
+        assertNotNull(excepcionService.obtenerExcepcionesPorFecha(7).delDia(FECHA));
+        verify(excepcionRepository, times(2)).findVigentesByMedico(eq(7), any(LocalDate.class));
+    }
+
+    @Test
+    @DisplayName("Actualizar excepción - Al cambiar de médico descarta la caché de ambos")
+    void testActualizarExcepcion_CambioDeMedico() {
+        ExcepcionDisponibilidad existente = cerrado(7, FECHA);
+        ExcepcionDisponibilidad cambio = cerrado(8, FECHA);
+        when(excepcionRepository.findById(1)).thenReturn(Optional.of(existente));
+        when(excepcionRepository.save(existente)).thenReturn(existente);
+        when(excepcionRepository.findVigentesByMedico(any(Integer.class), any(LocalDate.class))).thenReturn(List.of());
+        excepcionService.obtenerExcepcionesPorFecha(7);
+        excepcionService.obtenerExcepcionesPorFecha(8);
+        excepcionService.obtenerExcepcionesPorFecha(9);
+        assertEquals(3, excepcionesCache.size());
+
+        TransactionSynchronizationManager.initSynchronization();
+        excepcionService.actualizarExcepcion(1, cambio);
+        assertEquals(3, excepcionesCache.size());
+        confirmar();
+
+        assertEquals(1, excepcionesCache.size());
+        assertEquals(8, existente.getMedico().getIdMedico());
+    }
+
+    @Test
+    @DisplayName("Guardar excepción - Un horario especial sin intervalo no se guarda")
+    void testGuardarExcepcion_SinIntervalo() {
+        ExcepcionDisponibilidad especial = cerrado(7, FECHA);
+        especial.setTipo(ExcepcionDisponibilidad.Tipo.HORARIO_ESPECIAL);
+        especial.setHoraInicio(LocalTime.of(8, 0));
+        especial.setHoraFin(LocalTime.of(12, 0));
+
+        assertThrows(IllegalArgumentException.class, () -> excepcionService.guardarExcepcion(especial));
+        verify(excepcionRepository, never()).save(any());
+    }
+
+    // Simula la confirmación de la transacción en curso
+    private static void confirmar() {
+        List<TransactionSynchronization> sincronizaciones = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        sincronizaciones.forEach(TransactionSynchronization::afterCommit);
+    }
+
+    private static ExcepcionDisponibilidad cerrado(Integer idMedico, LocalDate fecha) {
+        Medico medico = new Medico();
+        medico.setIdMedico(idMedico);
+        ExcepcionDisponibilidad excepcion = new ExcepcionDisponibilidad();
+        excepcion.setMedico(medico);
+        excepcion.setTipo(ExcepcionDisponibilidad.Tipo.CERRADO);
+        excepcion.setFechaInicio(fecha);
+        excepcion.setFechaFin(fecha);
+        return excepcion;
+    }
+}
@@ -0,0 +1,183 @@
+package com.mediapp.citasbackend.services;
+
+import com.mediapp.citasbackend.cache.ListaEsperaCache;
+import com.mediapp.citasbackend.config.ListaEsperaProperties;
+import com.mediapp.citasbackend.entities.Cita;
+import com.mediapp.citasbackend.entities.EntradaListaEspera;
+import com.mediapp.citasbackend.entities.Notificacion;
+import com.mediapp.citasbackend.entities.Paciente;
+import com.mediapp.citasbackend.entities.ReservaTemporal;
+import com.mediapp.citasbackend.entities.Usuario;
+import com.mediapp.citasbackend.exceptions.BusinessRuleException;
+import com.mediapp.citasbackend.exceptions.InvalidDataException;
+import com.mediapp.citasbackend.repositories.CitaRepository;
+import com.mediapp.citasbackend.repositories.EntradaListaEsperaRepository;
+import com.mediapp.citasbackend.repositories.PacienteRepository;
+import com.mediapp.citasbackend.services.implementation.ListaEsperaServiceImpl;
+import com.mediapp.citasbackend.services.interfaces.NotificacionService;
+import com.mediapp.citasbackend.services.interfaces.ReservaTemporalService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests para ListaEsperaServiceImpl")
+class ListaEsperaServiceImplTest {
+
+    private static final LocalDate FECHA = LocalDate.now().plusDays(3);
+    private static final LocalTime HORA = LocalTime.of(10, 0);
+
+    @Mock
+    private EntradaListaEsperaRepository entradaRepository;
+
+    @Mock
+    private CitaRepository citaRepository;
+
+    @Mock
+    private PacienteRepository pacienteRepository;
+
+    @Mock
+    private ReservaTemporalService reservaTemporalService;
+
+    @Mock
+    private NotificacionService notificacionService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ListaEsperaProperties properties;
+    private ListaEsperaServiceImpl listaEsperaService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ListaEsperaProperties();
+        listaEsperaService = new ListaEsperaServiceImpl(entradaRepository,
+                new ListaEsperaCache(properties, new SimpleMeterRegistry()), citaRepository, pacienteRepository,
+                reservaTemporalService, notificacionService, properties, transactionManager, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Ofrecer - La mejor entrada entre médico y especialidad recibe la reserva y la notificación")
+    void testOfrecer_MejorEntrada() {
+        when(citaRepository.findHorarios(List.of(50))).thenReturn(filas(horario(50, Cita.Estado.CANCELADA)));
+        when(entradaRepository.findActivasByMedicoAndFecha(7, FECHA)).thenReturn(List.of(entrada(1L, 20, 0, 10)));
+        when(entradaRepository.findActivasByEspecialidadAndFecha(3, FECHA)).thenReturn(List.of(entrada(2L, 21, 0, 5)));
+        when(reservaTemporalService.reservar(any(ReservaTemporal.class), eq(properties.getConfirmacionSegundos())))
+                .thenReturn(reserva("token-1"));
+        when(entradaRepository.ofrecer(eq(2L), eq(50), eq("token-1"), any(LocalDateTime.class))).thenReturn(1);
+        when(pacienteRepository.findById(21)).thenReturn(Optional.of(paciente(21)));
+
+        assertEquals(1, listaEsperaService.ofrecerHorarios(List.of(50)));
+
+        ArgumentCaptor<ReservaTemporal> solicitud = ArgumentCaptor.forClass(ReservaTemporal.class);
+        verify(reservaTemporalService).reservar(solicitud.capture(), anyLong());
+        assertEquals(21, solicitud.getValue().getIdPaciente());
+        ArgumentCaptor<Notificacion> notificacion = ArgumentCaptor.forClass(Notificacion.class);
+        verify(notificacionService).guardarNotificacion(notificacion.capture());
+        assertEquals("/api/citas?reserva=token-1", notificacion.getValue().getEnlaceRelacionado());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("Ofrecer - Si otra instancia tomó la entrada, libera la reserva y sigue con la siguiente")
+    void testOfrecer_EntradaTomada() {
+        when(citaRepository.findHorarios(List.of(50))).thenReturn(filas(horario(50, Cita.Estado.CANCELADA)));
+        // El paciente 9 canceló la cita y no recibe su propio horario
+        when(entradaRepository.findActivasByMedicoAndFecha(7, FECHA)).thenReturn(List.of(
+                entrada(1L, 9, 5, 0), entrada(2L, 20, 0, 1), entrada(3L, 21, 0, 2)));
+        when(reservaTemporalService.reservar(any(ReservaTemporal.class), anyLong()))
+                .thenReturn(reserva("token-1"), reserva("token-2"));
+        when(entradaRepository.ofrecer(eq(2L), eq(50), eq("token-1"), any(LocalDateTime.class))).thenReturn(0);
+        when(entradaRepository.ofrecer(eq(3L), eq(50), eq("token-2"), any(LocalDateTime.class))).thenReturn(1);
+
+        assertEquals(1, listaEsperaService.ofrecerHorarios(List.of(50)));
+
+        verify(reservaTemporalService).liberar("token-1");
+        verify(reservaTemporalService, never()).liberar("token-2");
+        verify(entradaRepository, never()).ofrecer(eq(1L), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Ofrecer - Un horario que ya no está libre se revierte y no se ofrece")
+    void testOfrecer_HorarioOcupado() {
+        when(citaRepository.findHorarios(List.of(50, 51)))
+                .thenReturn(filas(horario(50, Cita.Estado.CANCELADA), horario(51, Cita.Estado.PROGRAMADA)));
+        when(entradaRepository.findActivasByMedicoAndFecha(7, FECHA)).thenReturn(List.of(entrada(1L, 20, 0, 0)));
+        when(reservaTemporalService.reservar(any(ReservaTemporal.class), anyLong()))
+                .thenThrow(new BusinessRuleException("El horario ya no está disponible"));
+
+        assertEquals(0, listaEsperaService.ofrecerHorarios(List.of(50, 51)));
+
+        verify(transactionManager).rollback(any());
+        verifyNoInteractions(notificacionService);
+    }
+
+    @Test
+    @DisplayName("Registrar - Médico o especialidad, no ambos, y rango acotado")
+    void testRegistrar_Validaciones() {
+        EntradaListaEspera ambos = entrada(null, 20, 0, 0);
+        EntradaListaEspera largo = entrada(null, 20, 0, 0);
+        largo.setIdEspecialidad(null);
+        largo.setFechaHasta(FECHA.plusDays(properties.getMaxDias()));
+
+        assertThrows(InvalidDataException.class, () -> listaEsperaService.registrar(ambos));
+        assertThrows(InvalidDataException.class, () -> listaEsperaService.registrar(largo));
+        verifyNoInteractions(entradaRepository);
+    }
+
+    private static List<Object[]> filas(Object[]... filas) {
+        return new ArrayList<>(List.of(filas));
+    }
+
+    // [idCita, idMedico, idEspecialidad, fecha, hora, idPaciente, estado]
+    private static Object[] horario(int idCita, Cita.Estado estado) {
+        return new Object[]{idCita, 7, 3, FECHA, HORA, 9, estado};
+    }
+
+    private static EntradaListaEspera entrada(Long id, Integer idPaciente, int prioridad, int minutosRegistro) {
+        EntradaListaEspera entrada = new EntradaListaEspera();
+        entrada.setIdEntrada(id);
+        entrada.setIdPaciente(idPaciente);
+        entrada.setIdMedico(7);
+        entrada.setIdEspecialidad(3);
+        entrada.setFechaDesde(FECHA);
+        entrada.setFechaHasta(FECHA);
+        entrada.setPrioridad(prioridad);
+        entrada.setEstado(EntradaListaEspera.Estado.ACTIVA);
+        entrada.setFechaRegistro(LocalDateTime.of(2030, 1, 1, 8, 0).plusMinutes(minutosRegistro));
+        return entrada;
+    }
+
+    private static ReservaTemporal reserva(String token) {
+        ReservaTemporal reserva = new ReservaTemporal();
+        reserva.setToken(token);
+        reserva.setExpiraEn(LocalDateTime.now().plusMinutes(15));
+        return reserva;
+    }
+
+    private static Paciente paciente(Integer id) {
+        Paciente paciente = new Paciente();
+        paciente.setIdPaciente(id);
+        paciente.setUsuario(new Usuario());
+        return paciente;
+    }
+}
@@ -1,5 +1,6 @@
 package com.mediapp.citasbackend.services;
 
+import com.mediapp.citasbackend.cache.IndiceDisponibilidadMedicos;
 import com.mediapp.citasbackend.entities.Especialidad;
 import com.mediapp.citasbackend.entities.Medico;
 import com.mediapp.citasbackend.entities.Usuario;
@@ -33,6 +34,9 @@ class MedicoServiceImplTest {
     @Mock
     private MedicoRepository medicoRepository;
 
+    @Mock
+    private IndiceDisponibilidadMedicos indiceDisponibilidad;
+
     @InjectMocks
     private MedicoServiceImpl medicoService;
 
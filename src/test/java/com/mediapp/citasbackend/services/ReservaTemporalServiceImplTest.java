@@ -0,0 +1,116 @@
+package com.mediapp.citasbackend.services;
+
+import com.mediapp.citasbackend.cache.AgendaCache;
+import com.mediapp.citasbackend.cache.ReservaTemporalCache;
+import com.mediapp.citasbackend.config.ReservaTemporalProperties;
+import com.mediapp.citasbackend.entities.ReservaTemporal;
+import com.mediapp.citasbackend.exceptions.BusinessRuleException;
+import com.mediapp.citasbackend.repositories.CitaRepository;
+import com.mediapp.citasbackend.repositories.ReservaTemporalRepository;
+import com.mediapp.citasbackend.services.implementation.ReservaTemporalServiceImpl;
+import com.mediapp.citasbackend.services.interfaces.CalendarioDisponibilidadService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests para ReservaTemporalServiceImpl")
+class ReservaTemporalServiceImplTest {
+
+    private static final LocalDate FECHA = LocalDate.now().plusDays(3);
+
+    @Mock
+    private ReservaTemporalRepository reservaRepository;
+
+    @Mock
+    private ReservaTemporalCache reservaCache;
+
+    @Mock
+    private AgendaCache agendaCache;
+
+    @Mock
+    private CitaRepository citaRepository;
+
+    @Mock
+    private CalendarioDisponibilidadService calendarioDisponibilidadService;
+
+    private ReservaTemporalServiceImpl reservaService;
+
+    @BeforeEach
+    void setUp() {
+        reservaService = new ReservaTemporalServiceImpl(reservaRepository, reservaCache, agendaCache, citaRepository,
+                calendarioDisponibilidadService, new ReservaTemporalProperties());
+        when(calendarioDisponibilidadService.duracionDeCita(7, FECHA, LocalTime.of(9, 10))).thenReturn(30);
+    }
+
+    @Test
+    @DisplayName("Reservar - Rechaza el cruce con una reserva de otra instancia leída con el día bloqueado")
+    void testReservar_CruceConReservaBloqueada() {
+        // Otra instancia reservó 09:00-09:30: la restricción única no lo detecta porque la hora es otra
+        when(reservaRepository.bloquearActivasByMedicoAndFecha(eq(7), eq(FECHA), any(LocalDateTime.class)))
+                .thenReturn(List.of(reserva("otra", LocalTime.of(9, 0))));
+
+        assertThrows(BusinessRuleException.class, () -> reservaService.reservar(solicitud(LocalTime.of(9, 10))));
+
+        verify(citaRepository).bloquearOcupacionDelDia(7, FECHA);
+        verify(reservaRepository, never()).findActivasByMedicoAndFecha(any(), any(), any());
+        verify(reservaRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Reservar - Rechaza el cruce con una cita leída con el día bloqueado")
+    void testReservar_CruceConCitaBloqueada() {
+        when(citaRepository.bloquearOcupacionDelDia(7, FECHA)).thenReturn(List.<Object[]>of(
+                new Object[]{40, FECHA, LocalTime.of(8, 45), 30}));
+
+        assertThrows(BusinessRuleException.class, () -> reservaService.reservar(solicitud(LocalTime.of(9, 10))));
+
+        verify(reservaRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Reservar - Guarda la reserva si el día bloqueado no tiene cruces")
+    void testReservar_SinCruces() {
+        when(citaRepository.bloquearOcupacionDelDia(7, FECHA)).thenReturn(List.<Object[]>of(
+                new Object[]{40, FECHA, LocalTime.of(8, 40), 30}));
+        when(reservaRepository.bloquearActivasByMedicoAndFecha(eq(7), eq(FECHA), any(LocalDateTime.class)))
+                .thenReturn(List.of(reserva("otra", LocalTime.of(9, 40))));
+        when(reservaRepository.saveAndFlush(any(ReservaTemporal.class))).thenAnswer(invocacion -> invocacion.getArgument(0));
+
+        ReservaTemporal reserva = reservaService.reservar(solicitud(LocalTime.of(9, 10)));
+
+        assertEquals(30, reserva.getDuracionMinutos());
+        assertNotNull(reserva.getToken());
+        verify(reservaRepository).eliminarVencidasByMedicoAndFecha(eq(7), eq(FECHA), any(LocalDateTime.class));
+    }
+
+    private static ReservaTemporal solicitud(LocalTime hora) {
+        ReservaTemporal solicitud = new ReservaTemporal();
+        solicitud.setIdMedico(7);
+        solicitud.setIdPaciente(20);
+        solicitud.setFecha(FECHA);
+        solicitud.setHora(hora);
+        return solicitud;
+    }
+
+    private static ReservaTemporal reserva(String token, LocalTime hora) {
+        ReservaTemporal reserva = solicitud(hora);
+        reserva.setToken(token);
+        reserva.setDuracionMinutos(30);
+        reserva.setExpiraEn(LocalDateTime.now().plusMinutes(5));
+        return reserva;
+    }
+}
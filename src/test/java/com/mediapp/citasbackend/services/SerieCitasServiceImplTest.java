@@ -0,0 +1,207 @@
+package com.mediapp.citasbackend.services;
+
+import com.mediapp.citasbackend.cache.AgendaCache;
+import com.mediapp.citasbackend.config.SerieCitasProperties;
+import com.mediapp.citasbackend.dtos.OcurrenciaSerieDTO;
+import com.mediapp.citasbackend.dtos.OcurrenciaSerieDTO.Resultado;
+import com.mediapp.citasbackend.dtos.SerieCitasDTO;
+import com.mediapp.citasbackend.dtos.SerieCitasRequestDTO;
+import com.mediapp.citasbackend.entities.Cita;
+import com.mediapp.citasbackend.entities.Medico;
+import com.mediapp.citasbackend.entities.Paciente;
+import com.mediapp.citasbackend.entities.ReservaTemporal;
+import com.mediapp.citasbackend.exceptions.InvalidDataException;
+import com.mediapp.citasbackend.repositories.CitaRepository;
+import com.mediapp.citasbackend.repositories.MedicoRepository;
+import com.mediapp.citasbackend.repositories.PacienteRepository;
+import com.mediapp.citasbackend.services.implementation.SerieCitasServiceImpl;
+import com.mediapp.citasbackend.services.interfaces.CalendarioDisponibilidadService;
+import com.mediapp.citasbackend.services.interfaces.CitaService;
+import com.mediapp.citasbackend.services.interfaces.ContadorCitasService;
+import com.mediapp.citasbackend.services.interfaces.ReservaTemporalService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests para SerieCitasServiceImpl")
+class SerieCitasServiceImplTest {
+
+    private static final LocalDate FECHA = LocalDate.now().plusDays(10);
+    private static final LocalTime HORA = LocalTime.of(10, 0);
+
+    @Mock
+    private CitaRepository citaRepository;
+
+    @Mock
+    private PacienteRepository pacienteRepository;
+
+    @Mock
+    private MedicoRepository medicoRepository;
+
+    @Mock
+    private CitaService citaService;
+
+    @Mock
+    private CalendarioDisponibilidadService calendarioDisponibilidadService;
+
+    @Mock
+    private ReservaTemporalService reservaTemporalService;
+
+    @Mock
+    private ContadorCitasService contadorCitasService;
+
+    @Mock
+    private AgendaCache agendaCache;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SerieCitasServiceImpl serieCitasService;
+
+    @BeforeEach
+    void setUp() {
+        serieCitasService = new SerieCitasServiceImpl(citaRepository, pacienteRepository, medicoRepository, citaService,
+                calendarioDisponibilidadService, reservaTemporalService, contadorCitasService, agendaCache, jdbcTemplate,
+                new SerieCitasProperties());
+        Paciente paciente = new Paciente();
+        paciente.setIdPaciente(20);
+        Medico medico = new Medico();
+        medico.setIdMedico(7);
+        when(pacienteRepository.findById(20)).thenReturn(Optional.of(paciente));
+        when(medicoRepository.findById(7)).thenReturn(Optional.of(medico));
+    }
+
+    @Test
+    @DisplayName("Crear serie - Una cita o una reserva que se cruzan impiden crear la serie")
+    void testCrearSerie_Conflictos() {
+        // La primera cita termina justo cuando empieza la de la serie: no se cruzan
+        when(citaRepository.bloquearOcupacionEnRango(7, FECHA, FECHA.plusDays(14))).thenReturn(filas(
+                new Object[]{86, FECHA, LocalTime.of(9, 30), 30},
+                new Object[]{87, FECHA.plusDays(7), LocalTime.of(9, 45), 30}));
+        when(reservaTemporalService.obtenerActivas(7, FECHA, FECHA.plusDays(14)))
+                .thenReturn(List.of(reserva(FECHA.plusDays(14), LocalTime.of(10, 29))));
+
+        SerieCitasDTO serie = serieCitasService.crearSerie(solicitud(false));
+
+        assertEquals(3, serie.getSolicitadas());
+        assertEquals(0, serie.getCreadas());
+        assertNull(serie.getIdSerie());
+        assertEquals(List.of(Resultado.DISPONIBLE, Resultado.CONFLICTO, Resultado.CONFLICTO),
+                serie.getOcurrencias().stream().map(OcurrenciaSerieDTO::getResultado).toList());
+        assertEquals(87, serie.getOcurrencias().get(1).getIdCitaConflicto());
+        assertNull(serie.getOcurrencias().get(2).getIdCitaConflicto());
+        verifyNoInteractions(jdbcTemplate, contadorCitasService, agendaCache);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Crear serie - Omitiendo conflictos, las citas disponibles se insertan en un lote")
+    void testCrearSerie_OmitirConflictos() {
+        when(citaRepository.bloquearOcupacionEnRango(7, FECHA, FECHA.plusDays(14)))
+                .thenReturn(filas(new Object[]{87, FECHA.plusDays(7), LocalTime.of(9, 45), null}));
+        when(reservaTemporalService.obtenerActivas(7, FECHA, FECHA.plusDays(14))).thenReturn(List.of());
+        when(citaRepository.findIdsBySerie(anyString())).thenReturn(filas(
+                new Object[]{101, FECHA}, new Object[]{102, FECHA.plusDays(14)}));
+
+        SerieCitasDTO serie = serieCitasService.crearSerie(solicitud(true));
+
+        assertEquals(2, serie.getCreadas());
+        assertNotNull(serie.getIdSerie());
+        assertEquals(List.of(101, 102), serie.getOcurrencias().stream()
+                .filter(o -> o.getResultado() == Resultado.CREADA).map(OcurrenciaSerieDTO::getIdCita).toList());
+        ArgumentCaptor<Collection<Cita>> citas = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), citas.capture(), eq(100), any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(List.of(FECHA, FECHA.plusDays(14)), citas.getValue().stream().map(Cita::getFechaCita).toList());
+        verify(contadorCitasService).registrarCambios(eq(List.of()), argThat(huellas -> huellas.size() == 2));
+        verify(agendaCache, times(2)).registrarCambio(any(Cita.class));
+        verify(citaRepository, never()).findOcupacionByMedicoEnRango(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Crear serie - Las fechas fuera del plazo de 6 meses se rechazan con el motivo")
+    void testCrearSerie_FueraDeHorizonte() {
+        doAnswer(invocacion -> {
+            if (invocacion.<LocalDate>getArgument(0).isAfter(FECHA.plusDays(7))) {
+                throw new InvalidDataException("No se pueden programar citas con más de 6 meses de anticipación");
+            }
+            return null;
+        }).when(citaService).validarFechaCita(any(LocalDate.class), eq(HORA));
+        when(citaRepository.bloquearOcupacionEnRango(7, FECHA, FECHA.plusDays(14))).thenReturn(List.of());
+        when(reservaTemporalService.obtenerActivas(7, FECHA, FECHA.plusDays(14))).thenReturn(List.of());
+
+        SerieCitasDTO serie = serieCitasService.crearSerie(solicitud(false));
+
+        assertEquals(0, serie.getCreadas());
+        OcurrenciaSerieDTO ultima = serie.getOcurrencias().get(2);
+        assertEquals(Resultado.RECHAZADA, ultima.getResultado());
+        assertEquals("No se pueden programar citas con más de 6 meses de anticipación", ultima.getMensaje());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Crear serie - Sin duración, cada fecha usa la de su horario aunque coincida el día de la semana")
+    void testCrearSerie_DuracionPorFecha() {
+        // La segunda fecha tiene un horario especial con citas de 60 minutos
+        when(calendarioDisponibilidadService.duracionDeCita(eq(7), any(LocalDate.class), eq(HORA)))
+                .thenAnswer(invocacion -> invocacion.getArgument(1).equals(FECHA.plusDays(7)) ? 60 : 20);
+        when(citaRepository.bloquearOcupacionEnRango(7, FECHA, FECHA.plusDays(14))).thenReturn(filas(
+                new Object[]{86, FECHA, LocalTime.of(10, 30), 30},
+                new Object[]{87, FECHA.plusDays(7), LocalTime.of(10, 30), 30},
+                new Object[]{88, FECHA.plusDays(14), LocalTime.of(10, 30), 30}));
+        when(reservaTemporalService.obtenerActivas(7, FECHA, FECHA.plusDays(14))).thenReturn(List.of());
+        SerieCitasRequestDTO solicitud = solicitud(false);
+        solicitud.setDuracionMinutos(null);
+
+        SerieCitasDTO serie = serieCitasService.crearSerie(solicitud);
+
+        assertEquals(List.of(Resultado.DISPONIBLE, Resultado.CONFLICTO, Resultado.DISPONIBLE),
+                serie.getOcurrencias().stream().map(OcurrenciaSerieDTO::getResultado).toList());
+        assertEquals(87, serie.getOcurrencias().get(1).getIdCitaConflicto());
+        verify(calendarioDisponibilidadService, times(3)).duracionDeCita(eq(7), any(LocalDate.class), eq(HORA));
+    }
+
+    private static SerieCitasRequestDTO solicitud(boolean omitirConflictos) {
+        return SerieCitasRequestDTO.builder()
+                .idPaciente(20)
+                .idMedico(7)
+                .fechaInicio(FECHA)
+                .horaCita(HORA)
+                .duracionMinutos(30)
+                .tipoCita(Cita.TipoCita.PRESENCIAL)
+                .recurrencia("FREQ=WEEKLY;COUNT=3")
+                .omitirConflictos(omitirConflictos)
+                .build();
+    }
+
+    private static List<Object[]> filas(Object[]... filas) {
+        return new ArrayList<>(List.of(filas));
+    }
+
+    private static ReservaTemporal reserva(LocalDate fecha, LocalTime hora) {
+        ReservaTemporal reserva = new ReservaTemporal();
+        reserva.setFecha(fecha);
+        reserva.setHora(hora);
+        reserva.setDuracionMinutos(15);
+        return reserva;
+    }
+}
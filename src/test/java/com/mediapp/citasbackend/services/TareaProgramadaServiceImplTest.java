@@ -0,0 +1,83 @@
+package com.mediapp.citasbackend.services;
+
+import com.mediapp.citasbackend.repositories.TareaProgramadaRepository;
+import com.mediapp.citasbackend.services.implementation.TareaProgramadaServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@EnableAutoConfiguration(exclude = {SecurityAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+@DisplayName("Tests para TareaProgramadaServiceImpl")
+class TareaProgramadaServiceImplTest {
+
+    private static final String TAREA = "tarea-prueba";
+    private static final Duration MINUTO = Duration.ofMinutes(1);
+
+    @Autowired
+    private TareaProgramadaRepository tareaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TareaProgramadaServiceImpl nodoA;
+    private TareaProgramadaServiceImpl nodoB;
+
+    @BeforeEach
+    void setUp() {
+        tareaRepository.deleteAll();
+        nodoA = new TareaProgramadaServiceImpl(tareaRepository, transactionManager);
+        nodoB = new TareaProgramadaServiceImpl(tareaRepository, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Adquirir - Solo una instancia tiene el arrendamiento hasta que lo libera")
+    void testAdquirir_Exclusivo() {
+        assertTrue(nodoA.adquirir(TAREA, MINUTO));
+        assertTrue(nodoA.adquirir(TAREA, MINUTO));
+        assertFalse(nodoB.adquirir(TAREA, MINUTO));
+
+        nodoA.liberar(TAREA);
+
+        assertTrue(nodoB.adquirir(TAREA, MINUTO));
+        assertFalse(nodoA.adquirir(TAREA, MINUTO));
+    }
+
+    @Test
+    @DisplayName("Adquirir - Un arrendamiento vencido lo toma otra instancia")
+    void testAdquirir_Vencido() {
+        assertTrue(nodoA.adquirir(TAREA, Duration.ofSeconds(-1)));
+
+        assertTrue(nodoB.adquirir(TAREA, MINUTO));
+        assertFalse(nodoA.guardarMarca(TAREA, "a", MINUTO));
+    }
+
+    @Test
+    @DisplayName("Guardar marca - Se conserva entre ejecuciones")
+    void testGuardarMarca() {
+        assertEquals(Optional.empty(), nodoA.obtenerMarca(TAREA));
+        assertTrue(nodoA.adquirir(TAREA, MINUTO));
+
+        assertTrue(nodoA.guardarMarca(TAREA, "2030-01-10|10:00|6", MINUTO));
+        nodoA.liberar(TAREA);
+
+        assertEquals(Optional.of("2030-01-10|10:00|6"), nodoB.obtenerMarca(TAREA));
+    }
+}
@@ -0,0 +1,144 @@
+package com.mediapp.citasbackend.services;
+
+import com.mediapp.citasbackend.cache.AgendaCache;
+import com.mediapp.citasbackend.config.TransicionLoteProperties;
+import com.mediapp.citasbackend.dtos.ResultadoTransicionDTO;
+import com.mediapp.citasbackend.dtos.ResultadoTransicionDTO.Resultado;
+import com.mediapp.citasbackend.dtos.TransicionLoteDTO;
+import com.mediapp.citasbackend.dtos.TransicionLoteRequestDTO;
+import com.mediapp.citasbackend.entities.Cita;
+import com.mediapp.citasbackend.events.CitasCambiaronEstadoEvent;
+import com.mediapp.citasbackend.exceptions.InvalidDataException;
+import com.mediapp.citasbackend.repositories.CitaRepository;
+import com.mediapp.citasbackend.services.implementation.TransicionCitasServiceImpl;
+import com.mediapp.citasbackend.services.interfaces.ContadorCitasService;
+import com.mediapp.citasbackend.services.interfaces.ContadorCitasService.Huella;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests para TransicionCitasServiceImpl")
+class TransicionCitasServiceImplTest {
+
+    @Mock
+    private CitaRepository citaRepository;
+
+    @Mock
+    private ContadorCitasService contadorCitasService;
+
+    @Mock
+    private AgendaCache agendaCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TransicionLoteProperties properties;
+    private TransicionCitasServiceImpl transicionCitasService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TransicionLoteProperties();
+        transicionCitasService = new TransicionCitasServiceImpl(citaRepository, contadorCitasService,
+                agendaCache, eventPublisher, properties, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Completar en lote - Un UPDATE para las válidas y resultado por cita")
+    void testCompletar_ResultadosPorCita() {
+        when(citaRepository.bloquearEstados(List.of(1, 2, 3, 4))).thenReturn(filas(
+                fila(1, Cita.Estado.PROGRAMADA), fila(2, Cita.Estado.CANCELADA), fila(3, Cita.Estado.COMPLETADA)));
+        when(citaRepository.actualizarEstados(List.of(1), Cita.Estado.COMPLETADA)).thenReturn(1);
+
+        TransicionLoteDTO lote = transicionCitasService.cambiarEstado(
+                TransicionLoteRequestDTO.builder().ids(List.of(1, 2, 3, 4, 1)).build(), Cita.Estado.COMPLETADA);
+
+        assertEquals(4, lote.getSolicitadas());
+        assertEquals(1, lote.getActualizadas());
+        assertEquals(List.of(Resultado.ACTUALIZADA, Resultado.RECHAZADA, Resultado.SIN_CAMBIOS, Resultado.NO_ENCONTRADA),
+                lote.getResultados().stream().map(ResultadoTransicionDTO::getResultado).toList());
+        assertEquals("No se puede completar una cita cancelada", lote.getResultados().get(1).getMensaje());
+        verify(contadorCitasService).registrarCambios(
+                List.of(new Huella(7, 9, Cita.Estado.PROGRAMADA)), List.of(new Huella(7, 9, Cita.Estado.COMPLETADA)));
+        verify(agendaCache).registrarEstados(List.of(1), Cita.Estado.COMPLETADA);
+        verify(eventPublisher).publishEvent(any(CitasCambiaronEstadoEvent.class));
+        verify(citaRepository, never()).cancelarCitas(anyList(), any());
+    }
+
+    @Test
+    @DisplayName("Cancelar agenda del médico - Procesa por tramos y registra la fecha de cancelación")
+    void testCancelar_PorMedicoYFechaEnTramos() {
+        properties.setTamanoTramo(2);
+        LocalDate fecha = LocalDate.now().plusDays(1);
+        when(citaRepository.findIdsByMedicoAndFecha(7, fecha)).thenReturn(List.of(1, 2, 3));
+        when(citaRepository.bloquearEstados(List.of(1, 2)))
+                .thenReturn(filas(fila(1, Cita.Estado.PROGRAMADA), fila(2, Cita.Estado.NO_ASISTIO)));
+        when(citaRepository.bloquearEstados(List.of(3))).thenReturn(filas(fila(3, Cita.Estado.PROGRAMADA)));
+        when(citaRepository.cancelarCitas(eq(List.of(1, 2)), any(LocalDateTime.class))).thenReturn(2);
+        when(citaRepository.cancelarCitas(eq(List.of(3)), any(LocalDateTime.class))).thenReturn(1);
+
+        TransicionLoteDTO lote = transicionCitasService.cambiarEstado(
+                TransicionLoteRequestDTO.builder().idMedico(7).fecha(fecha).build(), Cita.Estado.CANCELADA);
+
+        assertEquals(3, lote.getActualizadas());
+        verify(transactionManager, times(2)).commit(any());
+        verify(eventPublisher, times(2)).publishEvent(any(CitasCambiaronEstadoEvent.class));
+    }
+
+    @Test
+    @DisplayName("Tramo con conflicto - Se revierte y sus citas quedan con resultado ERROR")
+    void testTramoConConflicto() {
+        when(citaRepository.bloquearEstados(List.of(1, 2)))
+                .thenReturn(filas(fila(1, Cita.Estado.PROGRAMADA), fila(2, Cita.Estado.PROGRAMADA)));
+        when(citaRepository.actualizarEstados(List.of(1, 2), Cita.Estado.NO_ASISTIO)).thenReturn(1);
+
+        TransicionLoteDTO lote = transicionCitasService.cambiarEstado(
+                TransicionLoteRequestDTO.builder().ids(List.of(1, 2)).build(), Cita.Estado.NO_ASISTIO);
+
+        assertEquals(0, lote.getActualizadas());
+        assertTrue(lote.getResultados().stream().allMatch(r -> r.getResultado() == Resultado.ERROR));
+        verify(transactionManager).rollback(any());
+        verifyNoInteractions(contadorCitasService, agendaCache, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Solicitud inválida - IDs y médico a la vez, o demasiadas citas")
+    void testSolicitudInvalida() {
+        properties.setMaxCitas(2);
+
+        assertThrows(InvalidDataException.class, () -> transicionCitasService.cambiarEstado(
+                TransicionLoteRequestDTO.builder().ids(List.of(1)).idMedico(7).fecha(LocalDate.now()).build(),
+                Cita.Estado.CANCELADA));
+        assertThrows(InvalidDataException.class, () -> transicionCitasService.cambiarEstado(
+                TransicionLoteRequestDTO.builder().ids(List.of(1, 2, 3)).build(), Cita.Estado.CANCELADA));
+        assertThrows(InvalidDataException.class, () -> transicionCitasService.cambiarEstado(
+                TransicionLoteRequestDTO.builder().ids(List.of(1)).build(), Cita.Estado.PROGRAMADA));
+        verifyNoInteractions(citaRepository);
+    }
+
+    private static List<Object[]> filas(Object[]... filas) {
+        return new ArrayList<>(List.of(filas));
+    }
+
+    private static Object[] fila(int idCita, Cita.Estado estado) {
+        return new Object[]{idCita, estado, 7, 9};
+    }
+}
@@ -1,5 +1,6 @@
 package com.mediapp.citasbackend.services;
 
+import com.mediapp.citasbackend.cache.IndiceDisponibilidadMedicos;
 import com.mediapp.citasbackend.entities.Usuario;
 import com.mediapp.citasbackend.exceptions.InvalidDataException;
 import com.mediapp.citasbackend.exceptions.ResourceAlreadyExistsException;
@@ -32,6 +33,9 @@ class UsuarioServiceImplTest {
     @Mock
     private UsuarioRepository usuarioRepository;
 
+    @Mock
+    private IndiceDisponibilidadMedicos indiceDisponibilidad;
+
     @InjectMocks
     private UsuarioServiceImpl usuarioService;
 
@@ -0,0 +1,85 @@
+package com.mediapp.citasbackend.utils;
+
+import com.mediapp.citasbackend.entities.ExcepcionDisponibilidad;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests para ExcepcionesPorFecha")
+class ExcepcionesPorFechaTest {
+
+    // Lunes
+    private static final LocalDate LUNES = LocalDate.of(2030, 1, 7);
+
+    @Test
+    @DisplayName("Duración - Intervalo del horario especial que contiene la hora, o del primero del día")
+    void testDuracion_HorarioEspecial() {
+        ExcepcionesPorFecha excepciones = ExcepcionesPorFecha.de(List.of(
+                excepcion(ExcepcionDisponibilidad.Tipo.HORARIO_ESPECIAL, LUNES, LUNES.plusDays(2), "14:00", "16:00", 40),
+                excepcion(ExcepcionDisponibilidad.Tipo.HORARIO_ESPECIAL, LUNES, LUNES.plusDays(2), "08:00", "12:00", 20),
+                // Mismo día de la semana una semana después, con otro intervalo
+                excepcion(ExcepcionDisponibilidad.Tipo.HORARIO_ESPECIAL, LUNES.plusDays(7), LUNES.plusDays(7), "08:00", "12:00", 60),
+                excepcion(ExcepcionDisponibilidad.Tipo.CERRADO, LUNES.plusDays(3), LUNES.plusDays(3), "08:00", "10:00", null)));
+
+        assertEquals(40, excepciones.duracion(LUNES.plusDays(1), 15 * 60));
+        assertEquals(20, excepciones.duracion(LUNES.plusDays(1), 9 * 60));
+        // Fuera de los bloques especiales: el primero del día
+        assertEquals(20, excepciones.duracion(LUNES.plusDays(2), 13 * 60));
+        assertEquals(60, excepciones.duracion(LUNES.plusDays(7), 9 * 60));
+        // Sin horario especial (solo cerrado, o sin excepción) manda la semana
+        assertEquals(-1, excepciones.duracion(LUNES.plusDays(3), 9 * 60));
+        assertEquals(-1, excepciones.duracion(LUNES.plusDays(14), 9 * 60));
+        assertTrue(excepciones.tieneHorariosEspeciales());
+    }
+
+    @Test
+    @DisplayName("Del día - Une los rangos cerrados del día que se cruzan o se tocan")
+    void testDelDia_RangosCerrados() {
+        ExcepcionesPorFecha excepciones = ExcepcionesPorFecha.de(List.of(
+                excepcion(ExcepcionDisponibilidad.Tipo.CERRADO, LUNES, LUNES, "15:00", "16:00", null),
+                excepcion(ExcepcionDisponibilidad.Tipo.CERRADO, LUNES.minusDays(3), LUNES, "09:00", "10:00", null),
+                excepcion(ExcepcionDisponibilidad.Tipo.CERRADO, LUNES, LUNES.plusDays(1), "09:30", "11:00", null),
+                excepcion(ExcepcionDisponibilidad.Tipo.CERRADO, LUNES, LUNES, "11:00", "11:30", null),
+                // Horas invertidas: se ignora
+                excepcion(ExcepcionDisponibilidad.Tipo.CERRADO, LUNES, LUNES, "13:00", "12:00", null)));
+
+        ExcepcionesPorFecha.Dia lunes = excepciones.delDia(LUNES);
+        assertNull(lunes.bloques());
+        assertArrayEquals(new int[]{9 * 60, 11 * 60 + 30, 15 * 60, 16 * 60}, lunes.cerrados());
+        assertArrayEquals(new int[]{9 * 60 + 30, 11 * 60}, excepciones.delDia(LUNES.plusDays(1)).cerrados());
+        assertArrayEquals(new int[]{9 * 60, 10 * 60}, excepciones.delDia(LUNES.minusDays(2)).cerrados());
+        assertNull(excepciones.delDia(LUNES.plusDays(2)));
+    }
+
+    @Test
+    @DisplayName("Del día - El día cerrado completo anula horarios especiales y rangos")
+    void testDelDia_CerradoCompleto() {
+        ExcepcionesPorFecha excepciones = ExcepcionesPorFecha.de(List.of(
+                excepcion(ExcepcionDisponibilidad.Tipo.HORARIO_ESPECIAL, LUNES, LUNES, "08:00", "12:00", 20),
+                excepcion(ExcepcionDisponibilidad.Tipo.CERRADO, LUNES, LUNES, "09:00", "10:00", null),
+                excepcion(ExcepcionDisponibilidad.Tipo.CERRADO, LUNES, LUNES, null, null, null)));
+
+        ExcepcionesPorFecha.Dia lunes = excepciones.delDia(LUNES);
+        assertEquals(0, lunes.bloques().length);
+        assertEquals(0, lunes.cerrados().length);
+        assertEquals(-1, excepciones.duracion(LUNES, 9 * 60));
+        assertTrue(ExcepcionesPorFecha.de(List.of()).estaVacia());
+    }
+
+    private static ExcepcionDisponibilidad excepcion(ExcepcionDisponibilidad.Tipo tipo, LocalDate desde, LocalDate hasta,
+                                                     String horaInicio, String horaFin, Integer intervalo) {
+        ExcepcionDisponibilidad excepcion = new ExcepcionDisponibilidad();
+        excepcion.setTipo(tipo);
+        excepcion.setFechaInicio(desde);
+        excepcion.setFechaFin(hasta);
+        excepcion.setHoraInicio(horaInicio == null ? null : LocalTime.parse(horaInicio));
+        excepcion.setHoraFin(horaFin == null ? null : LocalTime.parse(horaFin));
+        excepcion.setIntervaloCitaMinutos(intervalo);
+        return excepcion;
+    }
+}
@@ -0,0 +1,74 @@
+package com.mediapp.citasbackend.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests para IntervalTree")
+class IntervalTreeTest {
+
+    @Test
+    @DisplayName("Solapamientos - Intervalos semiabiertos: los que solo se tocan no se cruzan")
+    void testSolapamientos_Bordes() {
+        IntervalTree<String> arbol = new IntervalTree<>();
+        arbol.insertar(540, 570, "09:00");
+        arbol.insertar(570, 600, "09:30");
+        arbol.insertar(550, 560, "09:10");
+
+        assertEquals(List.of("09:00", "09:10"), arbol.solapamientos(545, 565));
+        assertEquals(List.of("09:30"), arbol.solapamientos(570, 580));
+        assertTrue(arbol.buscarSolapamiento(600, 630).isEmpty());
+        assertTrue(arbol.buscarSolapamiento(500, 540).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> arbol.insertar(600, 600, "vacío"));
+    }
+
+    @Test
+    @DisplayName("Eliminar - Quita el intervalo indicado aunque otro empiece a la misma hora")
+    void testEliminar_InicioRepetido() {
+        IntervalTree<String> arbol = new IntervalTree<>();
+        arbol.insertar(540, 570, "a");
+        arbol.insertar(540, 600, "b");
+        arbol.insertar(540, 560, "c");
+
+        assertTrue(arbol.eliminar(540, "b"));
+        assertFalse(arbol.eliminar(540, "b"));
+        assertEquals(2, arbol.size());
+        assertEquals(List.of(), arbol.solapamientos(575, 590));
+    }
+
+    @Test
+    @DisplayName("Aleatorio - Coincide con una búsqueda lineal")
+    void testAleatorio_CoincideConBusquedaLineal() {
+        Random random = new Random(42);
+        IntervalTree<Integer> arbol = new IntervalTree<>();
+        List<int[]> intervalos = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            int inicio = random.nextInt(1400);
+            int[] intervalo = {inicio, inicio + 5 + random.nextInt(60), i};
+            intervalos.add(intervalo);
+            arbol.insertar(intervalo[0], intervalo[1], i);
+        }
+        for (int i = 0; i < 200; i++) {
+            int[] eliminado = intervalos.remove(random.nextInt(intervalos.size()));
+            assertTrue(arbol.eliminar(eliminado[0], eliminado[2]));
+        }
+
+        for (int i = 0; i < 300; i++) {
+            int inicio = random.nextInt(1440);
+            int fin = inicio + 1 + random.nextInt(90);
+            List<Integer> esperados = intervalos.stream()
+                    .filter(x -> x[0] < fin && inicio < x[1])
+                    .map(x -> x[2])
+                    .sorted()
+                    .toList();
+            assertEquals(esperados, arbol.solapamientos(inicio, fin).stream().sorted().toList());
+            assertEquals(!esperados.isEmpty(), arbol.buscarSolapamiento(inicio, fin).isPresent());
+        }
+        assertEquals(300, arbol.size());
+    }
+}
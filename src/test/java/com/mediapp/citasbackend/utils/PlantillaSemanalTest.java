@@ -0,0 +1,125 @@
+package com.mediapp.citasbackend.utils;
+
+import com.mediapp.citasbackend.entities.CalendarioDisponibilidad;
+import com.mediapp.citasbackend.entities.ExcepcionDisponibilidad;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests para PlantillaSemanal")
+class PlantillaSemanalTest {
+
+    // Lunes
+    private static final LocalDate LUNES = LocalDate.of(2030, 1, 7);
+
+    @Test
+    @DisplayName("De - Compila horarios completos de los bloques activos en orden de hora")
+    void testDe_HorariosPorDia() {
+        PlantillaSemanal plantilla = PlantillaSemanal.de(List.of(
+                bloque(CalendarioDisponibilidad.DiaSemana.LUNES, 14, 0, 15, 10, 30),
+                bloque(CalendarioDisponibilidad.DiaSemana.LUNES, 8, 0, 9, 0, 20),
+                inactivo(bloque(CalendarioDisponibilidad.DiaSemana.MARTES, 8, 0, 12, 0, 30))));
+
+        // 08:00, 08:20, 08:40, 14:00, 14:30 (14:50 no cabe antes de las 15:10)
+        assertEquals(5, plantilla.horariosDelDia(DayOfWeek.MONDAY));
+        assertEquals(0, plantilla.horariosDelDia(DayOfWeek.TUESDAY));
+        assertTrue(plantilla.esInicio(DayOfWeek.MONDAY, 8 * 60 + 40));
+        assertFalse(plantilla.esInicio(DayOfWeek.MONDAY, 14 * 60 + 50));
+        assertEquals(30, plantilla.duracion(DayOfWeek.MONDAY, 15 * 60));
+        // Fuera de todo bloque: intervalo del primero del día
+        assertEquals(20, plantilla.duracion(DayOfWeek.MONDAY, 12 * 60));
+        assertEquals(-1, plantilla.duracion(DayOfWeek.TUESDAY, 9 * 60));
+        assertFalse(plantilla.estaVacia());
+        assertTrue(PlantillaSemanal.de(List.of()).estaVacia());
+    }
+
+    @Test
+    @DisplayName("Horarios - Recorre el rango en orden de fecha y hora, saltando los días sin horarios")
+    void testHorarios_Rango() {
+        PlantillaSemanal plantilla = PlantillaSemanal.de(List.of(
+                bloque(CalendarioDisponibilidad.DiaSemana.LUNES, 9, 0, 10, 0, 30),
+                bloque(CalendarioDisponibilidad.DiaSemana.MIERCOLES, 10, 0, 10, 45, 45)));
+
+        List<String> horarios = new ArrayList<>();
+        PlantillaSemanal.Cursor cursor = plantilla.horarios(LUNES, LUNES.plusDays(7));
+        while (cursor.siguiente()) {
+            horarios.add(cursor.fecha() + " " + cursor.hora() + " " + cursor.duracion());
+        }
+
+        assertEquals(List.of(
+                "2030-01-07 09:00 30", "2030-01-07 09:30 30",
+                "2030-01-09 10:00 45",
+                "2030-01-14 09:00 30", "2030-01-14 09:30 30"), horarios);
+        assertFalse(cursor.siguiente());
+        assertFalse(PlantillaSemanal.VACIA.horarios(LUNES, LUNES.plusDays(30)).siguiente());
+    }
+
+    @Test
+    @DisplayName("Horarios con excepciones - Cierra días y rangos y reemplaza el horario en sus fechas")
+    void testHorarios_Excepciones() {
+        PlantillaSemanal plantilla = PlantillaSemanal.de(List.of(
+                bloque(CalendarioDisponibilidad.DiaSemana.LUNES, 9, 0, 12, 0, 30),
+                bloque(CalendarioDisponibilidad.DiaSemana.MARTES, 9, 0, 10, 0, 30)));
+        ExcepcionesPorFecha excepciones = ExcepcionesPorFecha.de(List.of(
+                excepcion(ExcepcionDisponibilidad.Tipo.CERRADO, LUNES.plusDays(1), null, null, null),
+                excepcion(ExcepcionDisponibilidad.Tipo.CERRADO, LUNES, LocalTime.of(10, 15), LocalTime.of(11, 0), null),
+                excepcion(ExcepcionDisponibilidad.Tipo.HORARIO_ESPECIAL, LUNES.plusDays(2),
+                        LocalTime.of(15, 0), LocalTime.of(16, 0), 20),
+                // Se cruza con el anterior: empieza donde termina aquel
+                excepcion(ExcepcionDisponibilidad.Tipo.HORARIO_ESPECIAL, LUNES.plusDays(2),
+                        LocalTime.of(15, 40), LocalTime.of(16, 30), 25)));
+
+        List<String> horarios = new ArrayList<>();
+        PlantillaSemanal.Cursor cursor = plantilla.horarios(LUNES, LUNES.plusDays(7), excepciones);
+        while (cursor.siguiente()) {
+            horarios.add(cursor.fecha() + " " + cursor.hora() + " " + cursor.duracion());
+        }
+
+        assertEquals(List.of(
+                "2030-01-07 09:00 30", "2030-01-07 09:30 30", "2030-01-07 11:00 30", "2030-01-07 11:30 30",
+                "2030-01-09 15:00 20", "2030-01-09 15:20 20", "2030-01-09 15:40 20", "2030-01-09 16:00 25",
+                "2030-01-14 09:00 30", "2030-01-14 09:30 30", "2030-01-14 10:00 30", "2030-01-14 10:30 30",
+                "2030-01-14 11:00 30", "2030-01-14 11:30 30"), horarios);
+        assertEquals(25, excepciones.duracion(LUNES.plusDays(2), 16 * 60 + 10));
+        assertEquals(-1, excepciones.duracion(LUNES, 9 * 60));
+        // Sin bloques en la semana, el horario especial sigue dando horarios
+        PlantillaSemanal.Cursor soloEspecial = PlantillaSemanal.VACIA.horarios(LUNES, LUNES.plusDays(7), excepciones);
+        assertTrue(soloEspecial.siguiente());
+        assertEquals(LUNES.plusDays(2), soloEspecial.fecha());
+    }
+
+    private static CalendarioDisponibilidad bloque(CalendarioDisponibilidad.DiaSemana dia, int horaInicio, int minutoInicio,
+                                                   int horaFin, int minutoFin, int intervalo) {
+        CalendarioDisponibilidad bloque = new CalendarioDisponibilidad();
+        bloque.setDiaSemana(dia);
+        bloque.setHoraInicio(LocalTime.of(horaInicio, minutoInicio));
+        bloque.setHoraFin(LocalTime.of(horaFin, minutoFin));
+        bloque.setIntervaloCitaMinutos(intervalo);
+        bloque.setEstado(CalendarioDisponibilidad.Estado.ACTIVO);
+        return bloque;
+    }
+
+    private static ExcepcionDisponibilidad excepcion(ExcepcionDisponibilidad.Tipo tipo, LocalDate fecha,
+                                                     LocalTime horaInicio, LocalTime horaFin, Integer intervalo) {
+        ExcepcionDisponibilidad excepcion = new ExcepcionDisponibilidad();
+        excepcion.setTipo(tipo);
+        excepcion.setFechaInicio(fecha);
+        excepcion.setFechaFin(fecha);
+        excepcion.setHoraInicio(horaInicio);
+        excepcion.setHoraFin(horaFin);
+        excepcion.setIntervaloCitaMinutos(intervalo);
+        return excepcion;
+    }
+
+    private static CalendarioDisponibilidad inactivo(CalendarioDisponibilidad bloque) {
+        bloque.setEstado(CalendarioDisponibilidad.Estado.INACTIVO);
+        return bloque;
+    }
+}
@@ -0,0 +1,49 @@
+package com.mediapp.citasbackend.utils;
+
+import com.mediapp.citasbackend.exceptions.InvalidDataException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests para ReglaRecurrencia")
+class ReglaRecurrenciaTest {
+
+    // Miércoles
+    private static final LocalDate INICIO = LocalDate.of(2030, 1, 2);
+
+    @Test
+    @DisplayName("Fechas - Semanal con BYDAY cada dos semanas, sin días anteriores al inicio")
+    void testFechas_SemanalConDias() {
+        List<LocalDate> fechas = ReglaRecurrencia.parse("RRULE:FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,TH;COUNT=4").fechas(INICIO, 100);
+
+        assertEquals(List.of(LocalDate.of(2030, 1, 3), LocalDate.of(2030, 1, 14),
+                LocalDate.of(2030, 1, 17), LocalDate.of(2030, 1, 28)), fechas);
+    }
+
+    @Test
+    @DisplayName("Fechas - Mensual salta los meses sin el día y UNTIL es inclusiva")
+    void testFechas_MensualHasta() {
+        LocalDate inicio = LocalDate.of(2030, 1, 31);
+
+        assertEquals(List.of(inicio, LocalDate.of(2030, 3, 31), LocalDate.of(2030, 5, 31)),
+                ReglaRecurrencia.parse("FREQ=MONTHLY;UNTIL=20300531").fechas(inicio, 100));
+        assertEquals(List.of(INICIO, INICIO.plusDays(3)),
+                ReglaRecurrencia.parse("freq=daily;interval=3;until=2030-01-07").fechas(INICIO, 100));
+    }
+
+    @Test
+    @DisplayName("Parse - Rechaza reglas sin límite, partes desconocidas y series demasiado largas")
+    void testParse_Invalidas() {
+        assertThrows(InvalidDataException.class, () -> ReglaRecurrencia.parse("FREQ=DAILY"));
+        assertThrows(InvalidDataException.class, () -> ReglaRecurrencia.parse("FREQ=HOURLY;COUNT=2"));
+        assertThrows(InvalidDataException.class, () -> ReglaRecurrencia.parse("FREQ=DAILY;BYDAY=MO;COUNT=2"));
+        assertThrows(InvalidDataException.class, () -> ReglaRecurrencia.parse("FREQ=DAILY;BYHOUR=9;COUNT=2"));
+        assertThrows(InvalidDataException.class, () -> ReglaRecurrencia.parse("FREQ=DAILY;INTERVAL=0;COUNT=2"));
+        assertThrows(InvalidDataException.class,
+                () -> ReglaRecurrencia.parse("FREQ=DAILY;UNTIL=2031-01-01").fechas(INICIO, 100));
+    }
+}
@@ -0,0 +1,49 @@
+package com.mediapp.citasbackend.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests para TimingWheel")
+class TimingWheelTest {
+
+    @Test
+    @DisplayName("Avanzar - Devuelve cada valor en el primer tick en o después de su vencimiento")
+    void testAvanzar_Vencimientos() {
+        TimingWheel<String> rueda = new TimingWheel<>(1000, 8, 0);
+        rueda.programar("a", 2500);
+        rueda.programar("b", 3000);
+        rueda.programar("c", 500);
+
+        assertEquals(List.of("c"), rueda.avanzar(1000));
+        assertEquals(List.of(), rueda.avanzar(2999));
+        assertEquals(List.of("a", "b"), rueda.avanzar(3000));
+        assertEquals(List.of(), rueda.avanzar(10_000));
+    }
+
+    @Test
+    @DisplayName("Avanzar - Los vencimientos más lejanos que una vuelta esperan sus vueltas")
+    void testAvanzar_VariasVueltas() {
+        TimingWheel<String> rueda = new TimingWheel<>(1000, 4, 0);
+        rueda.programar("lejano", 10_000);
+        rueda.programar("cercano", 2000);
+
+        assertEquals(List.of("cercano"), rueda.avanzar(9000));
+        assertEquals(List.of("lejano"), rueda.avanzar(10_000));
+    }
+
+    @Test
+    @DisplayName("Cancelar - La entrada cancelada no vence y no se cancela dos veces")
+    void testCancelar() {
+        TimingWheel<String> rueda = new TimingWheel<>(1000, 8, 0);
+        TimingWheel.Entrada<String> entrada = rueda.programar("a", 2000);
+        rueda.programar("b", 2000);
+
+        assertTrue(rueda.cancelar(entrada));
+        assertFalse(rueda.cancelar(entrada));
+        assertEquals(List.of("b"), rueda.avanzar(5000));
+    }
+}